@@ -0,0 +1,95 @@
+package com.divyanshu.Intellimatch.bench;
+
+import com.divyanshu.Intellimatch.search.DocIdSet;
+import com.divyanshu.Intellimatch.search.InvertedIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Top-K candidate search over synthetic resumes of 200-800 words drawn from a 50,000-word
+ * vocabulary with a steep Zipf-like skew, queried with 60-term job descriptions. Common words are
+ * in nearly every resume, so this is harsher on the pruning than real text; searchOwned limits
+ * the search to the tenth of the resumes one user uploaded.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx4g")
+public class CandidateSearchBenchmark {
+
+    private static final int VOCABULARY = 50_000;
+
+    @Param({"20000", "200000"})
+    private int resumes;
+
+    @Param({"20"})
+    private int k;
+
+    private InvertedIndex index;
+    private DocIdSet owned;
+    private List<Map<String, Double>> queries;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        index = new InvertedIndex(64);
+        owned = new DocIdSet();
+        for (int i = 0; i < resumes; i++) {
+            Map<String, Integer> terms = new HashMap<>();
+            int words = 200 + random.nextInt(600);
+            for (int w = 0; w < words; w++) {
+                terms.merge(word(random), 1, Integer::sum);
+            }
+            int doc = index.add(terms);
+            if (random.nextInt(10) == 0) {
+                owned.add(doc);
+            }
+        }
+        queries = new ArrayList<>();
+        for (int q = 0; q < 64; q++) {
+            Map<String, Double> query = new HashMap<>();
+            for (int t = 0; t < 60; t++) {
+                query.put(word(random), t % 5 == 0 ? 2.0 : 1.0);
+            }
+            queries.add(query);
+        }
+    }
+
+    @Benchmark
+    public Object search() {
+        return index.search(nextQuery(), k, null);
+    }
+
+    @Benchmark
+    public Object searchOwned() {
+        return index.search(nextQuery(), k, owned);
+    }
+
+    private Map<String, Double> nextQuery() {
+        return queries.get(next++ & (queries.size() - 1));
+    }
+
+    // Word i is drawn with probability falling off roughly as 1/i
+    private static String word(Random random) {
+        return "w" + ((int) Math.pow(VOCABULARY, random.nextDouble()) - 1);
+    }
+}
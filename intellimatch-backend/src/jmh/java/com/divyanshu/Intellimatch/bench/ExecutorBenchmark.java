@@ -0,0 +1,117 @@
+package com.divyanshu.Intellimatch.bench;
+
+import com.divyanshu.Intellimatch.resilience.Bulkhead;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the platform worker pool with virtual threads on a simulated analysis workload: each
+ * operation runs a batch of tasks that block on Mongo, S3 and the NLP service for fixed times, so
+ * the numbers show how each executor overlaps waiting rather than how fast the real dependencies
+ * are. Virtual threads come from SimpleAsyncTaskExecutor, as in AsyncConfig; on runtimes older
+ * than Java 21 that scenario fails in setup and the others still run.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+public class ExecutorBenchmark {
+
+    private static final long NLP_MS = 200;
+    private static final long S3_MS = 40;
+    private static final long MONGO_MS = 5;
+
+    private static final int NLP_LIMIT = 64;
+    private static final int S3_LIMIT = 32;
+    private static final int MONGO_LIMIT = 100;
+
+    @Param({"256"})
+    private int tasks;
+
+    // platform-4 is the current setup, where the pool size is the only concurrency limit; the
+    // others cap each downstream with the bulkheads the virtual mode relies on
+    @Param({"platform-4", "platform-64-bulkheads", "virtual-bulkheads"})
+    private String executor;
+
+    private Executor workers;
+    private Runnable shutdown;
+    private Bulkhead nlp;
+    private Bulkhead s3;
+    private Bulkhead mongo;
+
+    @Setup
+    public void setUp() {
+        boolean bulkheads = executor.endsWith("-bulkheads");
+        nlp = new Bulkhead("nlp", bulkheads ? NLP_LIMIT : Integer.MAX_VALUE, Long.MAX_VALUE);
+        s3 = new Bulkhead("s3", bulkheads ? S3_LIMIT : Integer.MAX_VALUE, Long.MAX_VALUE);
+        mongo = new Bulkhead("mongo", bulkheads ? MONGO_LIMIT : Integer.MAX_VALUE, Long.MAX_VALUE);
+
+        switch (executor) {
+            case "platform-4" -> platformPool(4);
+            case "platform-64-bulkheads" -> platformPool(64);
+            case "virtual-bulkheads" -> {
+                SimpleAsyncTaskExecutor virtual = new SimpleAsyncTaskExecutor("bench-");
+                virtual.setVirtualThreads(true);
+                workers = virtual;
+                shutdown = virtual::close;
+            }
+            default -> throw new IllegalArgumentException("Unknown executor " + executor);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        shutdown.run();
+    }
+
+    @Benchmark
+    public void analyses() throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(tasks);
+        for (int i = 0; i < tasks; i++) {
+            workers.execute(() -> {
+                try {
+                    mongo.run(() -> block(MONGO_MS));
+                    s3.run(() -> block(S3_MS));
+                    nlp.run(() -> block(NLP_MS));
+                    mongo.run(() -> block(MONGO_MS));
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        done.await();
+    }
+
+    private void platformPool(int threads) {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        workers = pool;
+        shutdown = pool::shutdown;
+    }
+
+    private static void block(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
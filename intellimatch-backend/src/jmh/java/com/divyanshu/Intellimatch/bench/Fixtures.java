@@ -0,0 +1,36 @@
+package com.divyanshu.Intellimatch.bench;
+
+import com.divyanshu.Intellimatch.model.MatchResult;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Realistically sized test data shared by the benchmarks
+public final class Fixtures {
+
+    private Fixtures() {
+    }
+
+    public static MatchResult matchResult(String id, int items) {
+        MatchResult result = new MatchResult();
+        result.setId(id);
+        result.setAtsScorePercent(72);
+        result.setSummary(("The candidate has strong backend experience with Java and Spring Boot and has run "
+                + "services on AWS, but shows little evidence of the data engineering work the role centres on. ").repeat(3));
+        List<MatchResult.MatchDetail> matched = new ArrayList<>(items);
+        List<MatchResult.MissingDetail> missing = new ArrayList<>(items);
+        for (int i = 0; i < items; i++) {
+            MatchResult.MatchDetail detail = new MatchResult.MatchDetail();
+            detail.setItem("Skill " + i + ": distributed systems");
+            detail.setReason("Led the migration of a monolith to event-driven services handling 2M requests a day (item " + i + ").");
+            matched.add(detail);
+            MatchResult.MissingDetail gap = new MatchResult.MissingDetail();
+            gap.setItem("Requirement " + i + ": Apache Spark");
+            gap.setRecommendation("Add a project that shows batch processing at scale, with the data volumes involved (item " + i + ").");
+            missing.add(gap);
+        }
+        result.setWhatMatched(matched);
+        result.setWhatIsMissing(missing);
+        return result;
+    }
+}
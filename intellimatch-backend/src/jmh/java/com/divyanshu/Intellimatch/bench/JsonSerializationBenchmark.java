@@ -0,0 +1,72 @@
+package com.divyanshu.Intellimatch.bench;
+
+import com.divyanshu.Intellimatch.dto.UserProfileDTO;
+import com.divyanshu.Intellimatch.model.MatchResult;
+import com.divyanshu.Intellimatch.model.User;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson work done per request on the user and result endpoints, with an ObjectMapper configured
+ * the way Spring Boot configures the one behind its message converters.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonSerializationBenchmark {
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private User user;
+    private MatchResult matchResult;
+    private String registrationBody;
+    private String matchResultJson;
+
+    @Setup
+    public void setUp() throws Exception {
+        user = new User("64b7f0c2a1d3e4f5a6b7c8d9", "Jane Doe", "+911234567890", "secret-password", "jane.doe@example.com");
+        matchResult = Fixtures.matchResult("64b7f0c2a1d3e4f5a6b7c8da", 10);
+        registrationBody = "{\"name\":\"Jane Doe\",\"email\":\"jane.doe@example.com\",\"phoneNumber\":\"+911234567890\",\"password\":\"secret-password\"}";
+        matchResultJson = objectMapper.writeValueAsString(matchResult);
+    }
+
+    @Benchmark
+    public String writeUser() throws Exception {
+        return objectMapper.writeValueAsString(user);
+    }
+
+    // What login and registration return
+    @Benchmark
+    public String writeUserProfile() throws Exception {
+        return objectMapper.writeValueAsString(UserProfileDTO.from(user));
+    }
+
+    @Benchmark
+    public User readRegistration() throws Exception {
+        return objectMapper.readValue(registrationBody, User.class);
+    }
+
+    @Benchmark
+    public String writeMatchResult() throws Exception {
+        return objectMapper.writeValueAsString(matchResult);
+    }
+
+    @Benchmark
+    public MatchResult readMatchResult() throws Exception {
+        return objectMapper.readValue(matchResultJson, MatchResult.class);
+    }
+}
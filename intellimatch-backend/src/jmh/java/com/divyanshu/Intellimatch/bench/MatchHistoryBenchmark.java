@@ -0,0 +1,86 @@
+package com.divyanshu.Intellimatch.bench;
+
+import com.divyanshu.Intellimatch.dto.MatchHistoryDTO;
+import com.divyanshu.Intellimatch.dto.MatchSummaryDTO;
+import com.divyanshu.Intellimatch.model.MatchResult;
+import com.divyanshu.Intellimatch.model.ResumeMatch;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Assembling a user's history from matches and their results, for histories of 10 to 10k items,
+ * without Mongo: full MatchHistoryDTOs (as the history endpoint built them before paging) and the
+ * MatchSummaryDTOs it builds now, each joined to results by ID and written out as JSON.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MatchHistoryBenchmark {
+
+    @Param({"10", "100", "1000", "10000"})
+    private int size;
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private List<ResumeMatch> matches;
+    private List<MatchResult> results;
+
+    @Setup
+    public void setUp() {
+        matches = new ArrayList<>(size);
+        results = new ArrayList<>(size);
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < size; i++) {
+            MatchResult result = Fixtures.matchResult(String.format("%024x", i), 10);
+            // One in ten analyses is still running
+            String resultId = i % 10 == 9 ? null : result.getId();
+            if (resultId != null) {
+                results.add(result);
+            }
+            ResumeMatch match = new ResumeMatch(String.format("%024x", 1_000_000 + i), "user-1", "resume-" + i + ".pdf",
+                    "job-description-" + i + ".docx", "https://bucket.s3.amazonaws.com/resumes/" + i,
+                    "https://bucket.s3.amazonaws.com/job-descriptions/" + i, resultId);
+            match.setMatchDate(new Date(now - i * 60_000L));
+            matches.add(match);
+        }
+    }
+
+    @Benchmark
+    public String fullHistory() throws Exception {
+        Map<String, MatchResult> resultsById = results.stream().collect(Collectors.toMap(MatchResult::getId, Function.identity()));
+        List<MatchHistoryDTO> history = matches.stream()
+                .map(match -> new MatchHistoryDTO(match, match.getMatchResultId() != null ? resultsById.get(match.getMatchResultId()) : null))
+                .toList();
+        return objectMapper.writeValueAsString(history);
+    }
+
+    @Benchmark
+    public String summaries() throws Exception {
+        Map<String, MatchResult> resultsById = results.stream().collect(Collectors.toMap(MatchResult::getId, Function.identity()));
+        List<MatchSummaryDTO> history = matches.stream()
+                .map(match -> new MatchSummaryDTO(match, match.getMatchResultId() != null ? resultsById.get(match.getMatchResultId()) : null))
+                .toList();
+        return objectMapper.writeValueAsString(history);
+    }
+}
@@ -0,0 +1,62 @@
+package com.divyanshu.Intellimatch.bench;
+
+import com.divyanshu.Intellimatch.security.PasswordHasher;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of a login with PasswordHasher: hashing and verifying at a few work factors, and the
+ * legacy SHA-256 check that existing users go through once before their hash is upgraded.
+ * Verifying should cost the same as hashing; the work factor, not the encoding, is the price.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class PasswordHasherBenchmark {
+
+    private static final String PASSWORD = "correct horse battery staple";
+    // hex SHA-256 of PASSWORD, as stored before PBKDF2
+    private static final String LEGACY_HASH = "c4bbcb1fbec99d65bf59d85c8cb62ee2db963f0fe106f483d9afa73bd4e39a8a";
+
+    @Param({"100000", "300000", "600000"})
+    private int iterations;
+
+    private PasswordHasher hasher;
+    private String storedHash;
+
+    @Setup
+    public void setUp() {
+        hasher = new PasswordHasher(iterations, false, 0);
+        storedHash = hasher.hash(PASSWORD);
+    }
+
+    @Benchmark
+    public String hash() {
+        return hasher.hash(PASSWORD);
+    }
+
+    @Benchmark
+    public boolean verify() {
+        return hasher.matches(PASSWORD, storedHash);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public boolean verifyLegacy() {
+        return hasher.matches(PASSWORD, LEGACY_HASH);
+    }
+}
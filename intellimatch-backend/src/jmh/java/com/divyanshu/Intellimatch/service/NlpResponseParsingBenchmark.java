@@ -0,0 +1,93 @@
+package com.divyanshu.Intellimatch.service;
+
+import com.divyanshu.Intellimatch.bench.Fixtures;
+import com.divyanshu.Intellimatch.dto.NlpAnalysisResponse;
+import com.divyanshu.Intellimatch.model.MatchResult;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Turning an NLP response body into a MatchResult. Payloads are shaped like real analyses: a
+ * summary paragraph and a list of matched and missing items with a sentence of reasoning each.
+ * <p>
+ * dataBinding is what NlpAnalysisService does now; treeModel is the readTree-and-copy parsing it
+ * replaced, kept here as the baseline. Compare gc.alloc.rate.norm for the bytes per response.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NlpResponseParsingBenchmark {
+
+    // Items per list; analyses usually report 5 to 15 of each
+    @Param({"5", "15", "50"})
+    private int items;
+
+    // Configured like the application's, which RestTemplate's Jackson converter uses
+    private ObjectMapper objectMapper;
+    private byte[] responseBody;
+
+    @Setup
+    public void setUp() throws Exception {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+        // The NLP service's field names are the snake_case forms of MatchResult's
+        ObjectMapper snakeCase = new ObjectMapper().setPropertyNamingStrategy(PropertyNamingStrategies.SNAKE_CASE);
+        responseBody = snakeCase.writeValueAsBytes(Fixtures.matchResult(null, items));
+    }
+
+    @Benchmark
+    public MatchResult dataBinding() throws IOException {
+        return objectMapper.readValue(new ByteArrayInputStream(responseBody), NlpAnalysisResponse.class).toMatchResult();
+    }
+
+    @Benchmark
+    public MatchResult treeModel() throws IOException {
+        JsonNode jsonNode = objectMapper.readTree(new String(responseBody));
+
+        MatchResult matchResult = new MatchResult();
+        matchResult.setAtsScorePercent(jsonNode.get("ats_score_percent").asInt());
+        matchResult.setSummary(jsonNode.get("summary").asText());
+
+        List<MatchResult.MatchDetail> whatMatched = new ArrayList<>();
+        for (JsonNode matchNode : jsonNode.get("what_matched")) {
+            MatchResult.MatchDetail detail = new MatchResult.MatchDetail();
+            detail.setItem(matchNode.get("item").asText());
+            detail.setReason(matchNode.get("reason").asText());
+            whatMatched.add(detail);
+        }
+        matchResult.setWhatMatched(whatMatched);
+
+        List<MatchResult.MissingDetail> whatIsMissing = new ArrayList<>();
+        for (JsonNode missingNode : jsonNode.get("what_is_missing")) {
+            MatchResult.MissingDetail detail = new MatchResult.MissingDetail();
+            detail.setItem(missingNode.get("item").asText());
+            detail.setRecommendation(missingNode.get("recommendation").asText());
+            whatIsMissing.add(detail);
+        }
+        matchResult.setWhatIsMissing(whatIsMissing);
+
+        return matchResult;
+    }
+}
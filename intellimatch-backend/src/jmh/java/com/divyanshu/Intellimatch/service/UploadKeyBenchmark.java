@@ -0,0 +1,39 @@
+package com.divyanshu.Intellimatch.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Filename sanitization and object key generation for an uploaded file, for a plain name, one
+ * with spaces and punctuation, and a long name in a non-Latin script.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UploadKeyBenchmark {
+
+    @Param({
+        "resume.pdf",
+        "Jane Doe - Senior Engineer (2024) + cover letter.docx",
+        "Резюме_Иванов_Иван_Иванович_старший_инженер_программист_2024_финальная_версия.pdf"
+    })
+    private String fileName;
+
+    @Benchmark
+    public String objectKey() {
+        return FileUploadService.objectKey("resumes", fileName);
+    }
+}
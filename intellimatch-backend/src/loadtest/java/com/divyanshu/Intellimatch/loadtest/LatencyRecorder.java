@@ -0,0 +1,55 @@
+package com.divyanshu.Intellimatch.loadtest;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Latencies of one endpoint. Every sample is kept, so percentiles are exact; a run at a few
+ * hundred requests per second for some minutes is well under a million samples.
+ */
+public class LatencyRecorder {
+
+    private final String name;
+    private final AtomicLong errors = new AtomicLong();
+    private long[] samples = new long[1024];
+    private int count;
+
+    public LatencyRecorder(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public synchronized void record(long latencyNanos) {
+        if (count == samples.length) {
+            samples = Arrays.copyOf(samples, count * 2);
+        }
+        samples[count++] = latencyNanos;
+    }
+
+    public void recordError() {
+        errors.incrementAndGet();
+    }
+
+    public synchronized Summary summarize(double seconds) {
+        long[] sorted = Arrays.copyOf(samples, count);
+        Arrays.sort(sorted);
+        return new Summary(name, count, errors.get(), count / seconds,
+            percentileMillis(sorted, 0.50), percentileMillis(sorted, 0.90), percentileMillis(sorted, 0.99),
+            percentileMillis(sorted, 0.999), sorted.length > 0 ? sorted[sorted.length - 1] / 1e6 : 0);
+    }
+
+    private static double percentileMillis(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))] / 1e6;
+    }
+
+    public record Summary(String endpoint, long requests, long errors, double throughput,
+                          double p50, double p90, double p99, double p999, double max) {
+    }
+}
@@ -0,0 +1,348 @@
+package com.divyanshu.Intellimatch.loadtest;
+
+import com.divyanshu.Intellimatch.IntellimatchApplication;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.flapdoodle.embed.mongo.commands.ServerAddress;
+import de.flapdoodle.embed.mongo.distribution.Version;
+import de.flapdoodle.embed.mongo.transitions.Mongod;
+import de.flapdoodle.embed.mongo.transitions.RunningMongodProcess;
+import de.flapdoodle.reverse.TransitionWalker;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Runs the backend in-process against local stand-ins and drives a mix of uploads, history pages
+ * and match details at a fixed request rate. The NLP service is a StubNlpServer with configurable
+ * latency, blobs go to the local blob store in a temporary directory, and Mongo is an embedded
+ * mongod unless loadtest.mongo.uri points at a running one.
+ * <p>
+ * Requests are sent open-loop: each has an intended start time on the rate schedule and its
+ * latency is measured from that time, so a backend that falls behind shows it in the percentiles
+ * instead of silently lowering the rate. Samples from the warm-up are discarded.
+ * <p>
+ * Run with {@code mvn -Ploadtest test-compile exec:exec@loadtest}; the loadtest.* properties in
+ * the profile set the rate, duration, traffic mix and NLP latency.
+ */
+public class LoadTest {
+
+    private static final String BOUNDARY = "----intellimatch-loadtest";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient httpClient = HttpClient.newBuilder()
+        .connectTimeout(Duration.ofSeconds(5))
+        .build();
+    private final List<String> matchIds = new CopyOnWriteArrayList<>();
+    private final boolean uniqueDocuments = Boolean.parseBoolean(System.getProperty("loadtest.unique-documents", "true"));
+    private byte[] sharedResume;
+    private byte[] sharedJobDescription;
+    private String baseUrl;
+    private String userCookie;
+
+    public static void main(String[] args) throws Exception {
+        new LoadTest().run();
+        // Spring and the HTTP client leave non-daemon threads behind
+        System.exit(0);
+    }
+
+    private void run() throws Exception {
+        double rps = Double.parseDouble(System.getProperty("loadtest.rps", "20"));
+        long durationSeconds = Long.parseLong(System.getProperty("loadtest.duration-seconds", "60"));
+        long warmupSeconds = Long.parseLong(System.getProperty("loadtest.warmup-seconds", "10"));
+        int maxInFlight = Integer.parseInt(System.getProperty("loadtest.max-in-flight", "200"));
+        int seedUploads = Integer.parseInt(System.getProperty("loadtest.seed-uploads", "20"));
+        Map<Endpoint, Integer> mix = parseMix(System.getProperty("loadtest.mix", "upload:1,history:6,detail:3"));
+
+        Path blobRoot = Files.createTempDirectory("intellimatch-loadtest-blobs");
+        try (StubNlpServer nlp = new StubNlpServer(
+                 Long.parseLong(System.getProperty("loadtest.nlp.latency-ms", "2000")),
+                 Long.parseLong(System.getProperty("loadtest.nlp.jitter-ms", "500")));
+             MongoStandIn mongo = MongoStandIn.start(System.getProperty("loadtest.mongo.uri", ""))) {
+            nlp.start();
+            try (ConfigurableApplicationContext backend = startBackend(nlp, mongo.uri(), blobRoot)) {
+                baseUrl = "http://127.0.0.1:" + ((WebServerApplicationContext) backend).getWebServer().getPort();
+                sharedResume = pdf("Resume " + UUID.randomUUID());
+                sharedJobDescription = pdf("Job description " + UUID.randomUUID());
+
+                register();
+                for (int i = 0; i < seedUploads; i++) {
+                    upload();
+                }
+                System.out.printf("Backend on %s, NLP stub on %s, %d seed matches%n", baseUrl, nlp.baseUrl(), matchIds.size());
+                System.out.printf("Sending %.1f requests/s for %ds after %ds of warm-up, mix %s%n",
+                    rps, durationSeconds, warmupSeconds, mix);
+
+                Map<Endpoint, LatencyRecorder> recorders = drive(rps, warmupSeconds, durationSeconds, maxInFlight, mix);
+                report(recorders, durationSeconds);
+                System.out.printf("NLP stub served %d analyses%n", nlp.getAnalyses());
+            }
+        } finally {
+            FileSystemUtils.deleteRecursively(blobRoot);
+        }
+    }
+
+    // Passed as command-line arguments, which take precedence over application.properties and .env
+    private ConfigurableApplicationContext startBackend(StubNlpServer nlp, String mongoUri, Path blobRoot) {
+        Map<String, Object> properties = new LinkedHashMap<>();
+        properties.put("server.port", 0);
+        properties.put("spring.data.mongodb.uri", mongoUri);
+        properties.put("spring.data.mongodb.database", "intellimatch-loadtest-" + System.currentTimeMillis());
+        properties.put("storage.type", "local");
+        properties.put("storage.local.root", blobRoot);
+        properties.put("nlp.api.url", nlp.baseUrl() + "/api/analyze");
+        properties.put("nlp.extract.url", nlp.baseUrl() + "/api/extract/resume");
+        // A standalone mongod has no change streams
+        properties.put("user.cache.change-stream.enabled", false);
+        properties.put("management.tracing.sampling.probability", 0.0);
+        properties.put("spring.devtools.restart.enabled", false);
+        properties.put("logging.level.root", "WARN");
+        String[] args = properties.entrySet().stream()
+            .map(property -> "--" + property.getKey() + "=" + property.getValue())
+            .toArray(String[]::new);
+        return new SpringApplicationBuilder(IntellimatchApplication.class).run(args);
+    }
+
+    private Map<Endpoint, LatencyRecorder> drive(double rps, long warmupSeconds, long durationSeconds,
+                                                 int maxInFlight, Map<Endpoint, Integer> mix) throws InterruptedException {
+        Map<Endpoint, LatencyRecorder> recorders = new LinkedHashMap<>();
+        for (Endpoint endpoint : Endpoint.values()) {
+            recorders.put(endpoint, new LatencyRecorder(endpoint.path));
+        }
+        int totalWeight = mix.values().stream().mapToInt(Integer::intValue).sum();
+
+        ExecutorService clients = Executors.newFixedThreadPool(maxInFlight);
+        long intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / rps);
+        long start = System.nanoTime();
+        long measureFrom = start + TimeUnit.SECONDS.toNanos(warmupSeconds);
+        long end = measureFrom + TimeUnit.SECONDS.toNanos(durationSeconds);
+        for (long intended = start; intended < end; intended += intervalNanos) {
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            Endpoint endpoint = pick(mix, totalWeight);
+            long scheduledAt = intended;
+            boolean measured = intended >= measureFrom;
+            clients.execute(() -> send(endpoint, scheduledAt, measured ? recorders.get(endpoint) : null));
+        }
+        clients.shutdown();
+        if (!clients.awaitTermination(2, TimeUnit.MINUTES)) {
+            System.out.println("Requests still in flight after 2 minutes were abandoned");
+            clients.shutdownNow();
+        }
+        return recorders;
+    }
+
+    private void send(Endpoint endpoint, long scheduledAt, LatencyRecorder recorder) {
+        boolean ok;
+        try {
+            ok = switch (endpoint) {
+                case UPLOAD -> upload();
+                case HISTORY -> history();
+                case DETAIL -> detail();
+            };
+        } catch (Exception e) {
+            ok = false;
+        }
+        if (recorder == null) {
+            return;
+        }
+        if (ok) {
+            recorder.record(System.nanoTime() - scheduledAt);
+        } else {
+            recorder.recordError();
+        }
+    }
+
+    private void register() throws IOException, InterruptedException {
+        String email = "loadtest-" + UUID.randomUUID() + "@example.com";
+        String body = objectMapper.writeValueAsString(Map.of(
+            "name", "Load Test", "email", email, "password", "loadtest-password"));
+        HttpResponse<String> response = httpClient.send(HttpRequest.newBuilder(URI.create(baseUrl + "/api/user/register"))
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString(body))
+            .build(), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Registration failed: " + response.statusCode() + " " + response.body());
+        }
+        userCookie = response.headers().firstValue("Set-Cookie")
+            .map(cookie -> cookie.split(";", 2)[0])
+            .orElseThrow(() -> new IllegalStateException("Registration set no userId cookie"));
+    }
+
+    private boolean upload() throws IOException, InterruptedException {
+        byte[] resume = uniqueDocuments ? pdf("Resume " + UUID.randomUUID()) : sharedResume;
+        byte[] jobDescription = uniqueDocuments ? pdf("Job description " + UUID.randomUUID()) : sharedJobDescription;
+        Map<String, byte[]> files = new LinkedHashMap<>();
+        files.put("resume", resume);
+        files.put("jobDescription", jobDescription);
+        HttpResponse<String> response = httpClient.send(request("/api/upload")
+            .header("Content-Type", "multipart/form-data; boundary=" + BOUNDARY)
+            .POST(HttpRequest.BodyPublishers.ofByteArray(multipart(files)))
+            .build(), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 202) {
+            return false;
+        }
+        JsonNode matchId = objectMapper.readTree(response.body()).get("matchId");
+        if (matchId != null) {
+            matchIds.add(matchId.asText());
+        }
+        return true;
+    }
+
+    private boolean history() throws IOException, InterruptedException {
+        return httpClient.send(request("/api/user/history?limit=20").GET().build(),
+            HttpResponse.BodyHandlers.discarding()).statusCode() == 200;
+    }
+
+    private boolean detail() throws IOException, InterruptedException {
+        if (matchIds.isEmpty()) {
+            return history();
+        }
+        String matchId = matchIds.get(ThreadLocalRandom.current().nextInt(matchIds.size()));
+        return httpClient.send(request("/api/user/match/" + matchId).GET().build(),
+            HttpResponse.BodyHandlers.discarding()).statusCode() == 200;
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+            .timeout(Duration.ofSeconds(60))
+            .header("Cookie", userCookie);
+    }
+
+    private static byte[] multipart(Map<String, byte[]> files) throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        for (Map.Entry<String, byte[]> file : files.entrySet()) {
+            body.write(("--" + BOUNDARY + "\r\n"
+                + "Content-Disposition: form-data; name=\"" + file.getKey() + "\"; filename=\"" + file.getKey() + ".pdf\"\r\n"
+                + "Content-Type: application/pdf\r\n\r\n").getBytes(StandardCharsets.UTF_8));
+            body.write(file.getValue());
+            body.write("\r\n".getBytes(StandardCharsets.UTF_8));
+        }
+        body.write(("--" + BOUNDARY + "--\r\n").getBytes(StandardCharsets.UTF_8));
+        return body.toByteArray();
+    }
+
+    // A one-page PDF, so uploads go through the same text extraction as real documents
+    private static byte[] pdf(String title) throws IOException {
+        try (PDDocument document = new PDDocument(); ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            PDPage page = new PDPage();
+            document.addPage(page);
+            try (PDPageContentStream content = new PDPageContentStream(document, page)) {
+                content.beginText();
+                content.setFont(new PDType1Font(Standard14Fonts.FontName.HELVETICA), 11);
+                content.setLeading(14);
+                content.newLineAtOffset(50, 740);
+                content.showText(title);
+                for (int i = 0; i < 30; i++) {
+                    content.newLine();
+                    content.showText("Built and operated Java and Spring Boot services on AWS, line " + i + ".");
+                }
+                content.endText();
+            }
+            document.save(out);
+            return out.toByteArray();
+        }
+    }
+
+    private static Endpoint pick(Map<Endpoint, Integer> mix, int totalWeight) {
+        int roll = ThreadLocalRandom.current().nextInt(totalWeight);
+        for (Map.Entry<Endpoint, Integer> entry : mix.entrySet()) {
+            roll -= entry.getValue();
+            if (roll < 0) {
+                return entry.getKey();
+            }
+        }
+        throw new IllegalStateException("Empty traffic mix");
+    }
+
+    // "upload:1,history:6,detail:3" -> weights per endpoint
+    private static Map<Endpoint, Integer> parseMix(String mix) {
+        Map<Endpoint, Integer> weights = new LinkedHashMap<>();
+        for (String part : mix.split(",")) {
+            String[] nameAndWeight = part.trim().split(":");
+            int weight = Integer.parseInt(nameAndWeight[1].trim());
+            if (weight > 0) {
+                weights.put(Endpoint.valueOf(nameAndWeight[0].trim().toUpperCase()), weight);
+            }
+        }
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("loadtest.mix has no endpoint with a positive weight: " + mix);
+        }
+        return weights;
+    }
+
+    private static void report(Map<Endpoint, LatencyRecorder> recorders, long durationSeconds) {
+        System.out.printf("%-24s %9s %7s %9s %9s %9s %9s %9s %9s%n",
+            "endpoint", "requests", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        List<LatencyRecorder.Summary> summaries = new ArrayList<>();
+        for (LatencyRecorder recorder : recorders.values()) {
+            summaries.add(recorder.summarize(durationSeconds));
+        }
+        for (LatencyRecorder.Summary s : summaries) {
+            System.out.printf("%-24s %9d %7d %9.1f %9.1f %9.1f %9.1f %9.1f %9.1f%n",
+                s.endpoint(), s.requests(), s.errors(), s.throughput(), s.p50(), s.p90(), s.p99(), s.p999(), s.max());
+        }
+    }
+
+    private enum Endpoint {
+        UPLOAD("POST /api/upload"),
+        HISTORY("GET /api/user/history"),
+        DETAIL("GET /api/user/match/{id}");
+
+        private final String path;
+
+        Endpoint(String path) {
+            this.path = path;
+        }
+    }
+
+    // An embedded mongod started for the run, or a Mongo that is already running
+    private record MongoStandIn(String uri, TransitionWalker.ReachedState<RunningMongodProcess> process) implements AutoCloseable {
+
+        static MongoStandIn start(String uri) {
+            if (!uri.isBlank()) {
+                return new MongoStandIn(uri, null);
+            }
+            TransitionWalker.ReachedState<RunningMongodProcess> process = Mongod.instance().start(Version.Main.V7_0);
+            ServerAddress address = process.current().getServerAddress();
+            return new MongoStandIn("mongodb://" + address.getHost() + ":" + address.getPort(), process);
+        }
+
+        @Override
+        public void close() {
+            if (process != null) {
+                process.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.divyanshu.Intellimatch.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Stands in for the Flask NLP service. /api/analyze answers with the body NlpAnalysisResponse
+ * binds and /api/extract/resume with a small profile, each after latencyMs plus up to jitterMs of
+ * random delay, so the backend sees the NLP service's latency without calling Gemini. Every
+ * request gets its own thread, so slow responses overlap like they do on the real service.
+ */
+public class StubNlpServer implements AutoCloseable {
+
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final long latencyMs;
+    private final long jitterMs;
+    private final AtomicLong analyses = new AtomicLong();
+
+    public StubNlpServer(long latencyMs, long jitterMs) throws IOException {
+        this.latencyMs = latencyMs;
+        this.jitterMs = jitterMs;
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/api/analyze", exchange -> respond(exchange, analysis()));
+        server.createContext("/api/extract/resume", exchange -> respond(exchange, resumeData()));
+        server.setExecutor(executor);
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    public String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    public long getAnalyses() {
+        return analyses.get();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void respond(HttpExchange exchange, Map<String, Object> body) throws IOException {
+        try (exchange; InputStream request = exchange.getRequestBody()) {
+            request.transferTo(OutputStream.nullOutputStream());
+            if (!"POST".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            sleep(latencyMs + (jitterMs > 0 ? ThreadLocalRandom.current().nextLong(jitterMs + 1) : 0));
+
+            byte[] json = objectMapper.writeValueAsBytes(body);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, json.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(json);
+            }
+        }
+    }
+
+    // Shaped like a real Gemini analysis: a score, a few sentences and a handful of items per list
+    private Map<String, Object> analysis() {
+        analyses.incrementAndGet();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        List<Map<String, String>> matched = new ArrayList<>();
+        List<Map<String, String>> missing = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            matched.add(Map.of(
+                "item", "Skill " + i + ": distributed systems",
+                "reason", "Led the migration of a monolith to event-driven services handling 2M requests a day."));
+            missing.add(Map.of(
+                "item", "Requirement " + i + ": Apache Spark",
+                "recommendation", "Add a project that shows batch processing at scale, with the data volumes involved."));
+        }
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("ats_score_percent", 40 + random.nextInt(55));
+        body.put("summary", "The candidate has strong backend experience with Java and Spring Boot, "
+            + "but shows little evidence of the data engineering work the role centres on.");
+        body.put("what_matched", matched);
+        body.put("what_is_missing", missing);
+        return body;
+    }
+
+    private Map<String, Object> resumeData() {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("name", "Load Test Candidate");
+        body.put("skills", List.of("Java", "Spring Boot", "MongoDB", "AWS"));
+        body.put("experience_years", 6);
+        return body;
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.divyanshu.Intellimatch.cache;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Small in-process cache bounded both by entry count (least recently used entries are evicted
+ * first) and by age. All operations are synchronized; it is meant for modest sizes where a
+ * single lock is cheaper than pulling in a caching library.
+ */
+public class TtlLruCache<K, V> {
+
+    private final long ttlMillis;
+    private final LinkedHashMap<K, Entry<V>> entries;
+    // Bumped by every invalidation, so a value loaded before one can be told apart from a fresh one
+    private long generation;
+
+    public TtlLruCache(int maxEntries, long ttlMillis) {
+        this.ttlMillis = ttlMillis;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    public synchronized V get(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAt < System.currentTimeMillis()) {
+            entries.remove(key);
+            return null;
+        }
+        return entry.value;
+    }
+
+    public synchronized void put(K key, V value) {
+        entries.put(key, new Entry<>(value, System.currentTimeMillis() + ttlMillis));
+    }
+
+    /**
+     * Puts the value only if nothing was invalidated since {@link #generation()} returned
+     * {@code seen}. Loads read the generation before going to the source, so a value read just
+     * before a change is not cached after the change dropped the old entry.
+     *
+     * @return whether the value was cached
+     */
+    public synchronized boolean putIfGeneration(K key, V value, long seen) {
+        if (generation != seen) {
+            return false;
+        }
+        put(key, value);
+        return true;
+    }
+
+    public synchronized long generation() {
+        return generation;
+    }
+
+    public synchronized void invalidate(K key) {
+        generation++;
+        entries.remove(key);
+    }
+
+    public synchronized void clear() {
+        generation++;
+        entries.clear();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private record Entry<V>(V value, long expiresAt) {
+    }
+}
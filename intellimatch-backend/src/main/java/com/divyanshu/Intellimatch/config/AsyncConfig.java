@@ -1,30 +1,79 @@
 package com.divyanshu.Intellimatch.config;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
-import org.springframework.web.client.RestTemplate;
-
-import java.util.concurrent.Executor;
 
+/**
+ * Executors for analysis workers and uploads. With spring.threads.virtual.enabled on a Java 21+
+ * runtime both become virtual-thread-per-task executors (Spring Boot switches request handling
+ * and scheduling over as well), and concurrency is bounded by the per-downstream limits in
+ * BulkheadConfig and NlpResilienceConfig instead of by pool sizes.
+ */
 @Configuration
-@EnableAsync
+@EnableScheduling
 public class AsyncConfig {
 
-    @Bean(name = "taskExecutor")
-    public Executor taskExecutor() {
+    private static final long TASK_TERMINATION_TIMEOUT_MS = 30_000;
+
+    @Value("${analysis.worker.threads:4}")
+    private int workerThreads;
+
+    @Value("${upload.s3.threads:16}")
+    private int s3UploadThreads;
+
+    // One long-lived thread per worker loop; the backlog itself lives in the analysis_jobs collection
+    @Bean(name = "analysisWorkerExecutor")
+    @ConditionalOnThreading(Threading.PLATFORM)
+    public ThreadPoolTaskExecutor analysisWorkerExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(workerThreads);
+        executor.setMaxPoolSize(workerThreads);
+        executor.setQueueCapacity(0);
+        executor.setThreadNamePrefix("AnalysisWorker-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+        return executor;
+    }
+
+    // The dispatcher plus one virtual thread per claimed job; the NLP limiter caps how many run
+    @Bean(name = "analysisWorkerExecutor")
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public SimpleAsyncTaskExecutor virtualAnalysisWorkerExecutor() {
+        return virtualThreadExecutor("AnalysisWorker-");
+    }
+
+    // S3 puts and multipart parts; each upload bounds its own in-flight parts, so the queue stays short
+    @Bean(name = "s3UploadExecutor")
+    @ConditionalOnThreading(Threading.PLATFORM)
+    public ThreadPoolTaskExecutor s3UploadExecutor() {
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
-        executor.setCorePoolSize(2);
-        executor.setMaxPoolSize(5);
-        executor.setQueueCapacity(100);
-        executor.setThreadNamePrefix("ResumeMatch-");
+        executor.setCorePoolSize(s3UploadThreads);
+        executor.setMaxPoolSize(s3UploadThreads);
+        executor.setThreadNamePrefix("S3Upload-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
         executor.initialize();
         return executor;
     }
 
-    @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    @Bean(name = "s3UploadExecutor")
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public SimpleAsyncTaskExecutor virtualS3UploadExecutor() {
+        return virtualThreadExecutor("S3Upload-");
+    }
+
+    private SimpleAsyncTaskExecutor virtualThreadExecutor(String threadNamePrefix) {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor(threadNamePrefix);
+        executor.setVirtualThreads(true);
+        // Closing the context waits for running tasks, like the pools' waitForTasksToCompleteOnShutdown
+        executor.setTaskTerminationTimeout(TASK_TERMINATION_TIMEOUT_MS);
+        return executor;
     }
 }
@@ -0,0 +1,29 @@
+package com.divyanshu.Intellimatch.config;
+
+import com.divyanshu.Intellimatch.resilience.Bulkhead;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Explicit concurrency limits per blocking downstream. NLP calls are capped by the adaptive
+ * limiter in NlpResilienceConfig and Mongo by the driver's connection pool (maxPoolSize in the
+ * connection string); S3 gets a bulkhead here. These limits, not thread pool sizes, are what
+ * bound concurrency when spring.threads.virtual.enabled is on.
+ */
+@Configuration
+public class BulkheadConfig {
+
+    @Bean
+    public Bulkhead s3Bulkhead(MeterRegistry meterRegistry,
+                               @Value("${downstream.s3.max-concurrent:32}") int maxConcurrent,
+                               @Value("${downstream.s3.acquire-timeout-ms:30000}") long acquireTimeoutMs) {
+        Bulkhead bulkhead = new Bulkhead("S3", maxConcurrent, acquireTimeoutMs);
+        Gauge.builder("downstream.in-flight", bulkhead, Bulkhead::getInFlight)
+                .tag("downstream", "s3")
+                .description("Calls currently holding a downstream bulkhead permit").register(meterRegistry);
+        return bulkhead;
+    }
+}
@@ -0,0 +1,58 @@
+package com.divyanshu.Intellimatch.config;
+
+import com.divyanshu.Intellimatch.model.AnalysisJob;
+import com.divyanshu.Intellimatch.model.DocumentText;
+import com.divyanshu.Intellimatch.model.MatchEvent;
+import com.divyanshu.Intellimatch.model.ResumeData;
+import com.divyanshu.Intellimatch.model.ResumeMatch;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+
+import java.util.List;
+
+/**
+ * Creates the indexes declared on our documents once the application is up. This runs on a
+ * background thread instead of through spring.data.mongodb.auto-index-creation so that an
+ * unreachable database never blocks or fails startup.
+ */
+@Configuration
+@RequiredArgsConstructor
+@Slf4j
+public class MongoIndexConfig {
+
+    private static final List<Class<?>> INDEXED_DOCUMENTS = List.of(
+        AnalysisJob.class,
+        DocumentText.class,
+        MatchEvent.class,
+        ResumeData.class,
+        ResumeMatch.class
+    );
+
+    private final MongoTemplate mongoTemplate;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensureIndexes() {
+        Thread thread = new Thread(this::createIndexes, "mongo-index-init");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void createIndexes() {
+        IndexResolver resolver = new MongoPersistentEntityIndexResolver(mongoTemplate.getConverter().getMappingContext());
+        for (Class<?> documentClass : INDEXED_DOCUMENTS) {
+            try {
+                IndexOperations indexOps = mongoTemplate.indexOps(documentClass);
+                resolver.resolveIndexFor(documentClass).forEach(indexOps::ensureIndex);
+            } catch (Exception e) {
+                log.warn("Could not ensure indexes for {}: {}", documentClass.getSimpleName(), e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,229 @@
+package com.divyanshu.Intellimatch.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.hc.client5.http.classic.methods.HttpUriRequestBase;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.http.ClassicHttpRequest;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.support.HttpRequestWrapper;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * HTTP client for the NLP service: a keep-alive connection pool with per-route limits, bounded
+ * connect/read/pool-wait timeouts and an overall per-request deadline, so a hung NLP worker can
+ * never pin an analysis thread indefinitely. Pool usage is published as
+ * httpcomponents.httpclient.pool.* metrics tagged with httpclient=nlp.
+ */
+@Configuration
+public class NlpClientConfig {
+
+    @Value("${nlp.client.max-connections:50}")
+    private int maxConnections;
+
+    @Value("${nlp.client.max-connections-per-route:20}")
+    private int maxConnectionsPerRoute;
+
+    @Value("${nlp.client.connect-timeout-ms:2000}")
+    private long connectTimeoutMs;
+
+    @Value("${nlp.client.read-timeout-ms:90000}")
+    private long readTimeoutMs;
+
+    @Value("${nlp.client.pool-acquire-timeout-ms:5000}")
+    private long poolAcquireTimeoutMs;
+
+    @Value("${nlp.client.total-deadline-ms:120000}")
+    private long totalDeadlineMs;
+
+    @Value("${nlp.client.idle-eviction-ms:30000}")
+    private long idleEvictionMs;
+
+    @Value("${nlp.client.connection-ttl-ms:300000}")
+    private long connectionTtlMs;
+
+    @Bean(destroyMethod = "close")
+    public PoolingHttpClientConnectionManager nlpConnectionManager(MeterRegistry meterRegistry) {
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxConnections)
+                .setMaxConnPerRoute(maxConnectionsPerRoute)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.ofMilliseconds(connectTimeoutMs))
+                        .setSocketTimeout(Timeout.ofMilliseconds(readTimeoutMs))
+                        .setTimeToLive(TimeValue.ofMilliseconds(connectionTtlMs))
+                        .setValidateAfterInactivity(TimeValue.ofSeconds(2))
+                        .build())
+                .build();
+        new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, "nlp").bindTo(meterRegistry);
+        return connectionManager;
+    }
+
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient nlpHttpClient(PoolingHttpClientConnectionManager nlpConnectionManager) {
+        return HttpClients.custom()
+                .setConnectionManager(nlpConnectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.ofMilliseconds(poolAcquireTimeoutMs))
+                        .setResponseTimeout(Timeout.ofMilliseconds(readTimeoutMs))
+                        .build())
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.ofMilliseconds(idleEvictionMs))
+                .disableAutomaticRetries()
+                .build();
+    }
+
+    @Bean
+    public DeadlineRequestFactory nlpRequestFactory(CloseableHttpClient nlpHttpClient) {
+        return new DeadlineRequestFactory(nlpHttpClient, totalDeadlineMs);
+    }
+
+    // Built through RestTemplateBuilder so Boot's client request metrics apply to NLP calls
+    @Bean
+    public RestTemplate nlpRestTemplate(RestTemplateBuilder restTemplateBuilder, DeadlineRequestFactory nlpRequestFactory) {
+        return restTemplateBuilder
+                .requestFactory(() -> nlpRequestFactory)
+                .build();
+    }
+
+    /**
+     * Aborts any request still running once the total deadline passes. Socket timeouts alone
+     * only bound the gap between packets, so a slowly trickling response could otherwise run on.
+     * The deadline is cancelled as soon as the response is closed or the request fails, and
+     * cancelled deadlines leave the scheduler's queue at once, so finished requests and their
+     * bodies are not kept reachable until their deadline would have passed.
+     */
+    public static class DeadlineRequestFactory extends HttpComponentsClientHttpRequestFactory implements DisposableBean {
+
+        private final long deadlineMs;
+        private final ScheduledThreadPoolExecutor deadlines = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "nlp-request-deadline");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Hands the request built by createHttpUriRequest to createRequest, which runs it on the same thread
+        private final ThreadLocal<HttpUriRequestBase> created = new ThreadLocal<>();
+
+        DeadlineRequestFactory(CloseableHttpClient httpClient, long deadlineMs) {
+            super(httpClient);
+            this.deadlineMs = deadlineMs;
+            deadlines.setRemoveOnCancelPolicy(true);
+        }
+
+        @Override
+        public ClientHttpRequest createRequest(URI uri, HttpMethod httpMethod) throws IOException {
+            ClientHttpRequest request;
+            HttpUriRequestBase cancellable;
+            try {
+                request = super.createRequest(uri, httpMethod);
+                cancellable = created.get();
+            } finally {
+                created.remove();
+            }
+            return cancellable != null ? new DeadlineRequest(request, cancellable) : request;
+        }
+
+        @Override
+        protected ClassicHttpRequest createHttpUriRequest(HttpMethod httpMethod, URI uri) {
+            ClassicHttpRequest request = super.createHttpUriRequest(httpMethod, uri);
+            if (request instanceof HttpUriRequestBase cancellable) {
+                created.set(cancellable);
+            }
+            return request;
+        }
+
+        @Override
+        public void destroy() {
+            deadlines.shutdownNow();
+        }
+
+        // Starts the deadline when the request is sent and stops it once the exchange is over
+        private final class DeadlineRequest extends HttpRequestWrapper implements ClientHttpRequest {
+
+            private final HttpUriRequestBase cancellable;
+
+            DeadlineRequest(ClientHttpRequest request, HttpUriRequestBase cancellable) {
+                super(request);
+                this.cancellable = cancellable;
+            }
+
+            @Override
+            public OutputStream getBody() throws IOException {
+                return ((ClientHttpRequest) getRequest()).getBody();
+            }
+
+            @Override
+            public ClientHttpResponse execute() throws IOException {
+                // Cancelling a request that already completed is a no-op
+                ScheduledFuture<?> deadline = deadlines.schedule(cancellable::cancel, deadlineMs, TimeUnit.MILLISECONDS);
+                try {
+                    return new DeadlineResponse(((ClientHttpRequest) getRequest()).execute(), deadline);
+                } catch (IOException | RuntimeException e) {
+                    deadline.cancel(false);
+                    throw e;
+                }
+            }
+        }
+
+        private static final class DeadlineResponse implements ClientHttpResponse {
+
+            private final ClientHttpResponse response;
+            private final ScheduledFuture<?> deadline;
+
+            DeadlineResponse(ClientHttpResponse response, ScheduledFuture<?> deadline) {
+                this.response = response;
+                this.deadline = deadline;
+            }
+
+            @Override
+            public HttpStatusCode getStatusCode() throws IOException {
+                return response.getStatusCode();
+            }
+
+            @Override
+            public String getStatusText() throws IOException {
+                return response.getStatusText();
+            }
+
+            @Override
+            public HttpHeaders getHeaders() {
+                return response.getHeaders();
+            }
+
+            @Override
+            public InputStream getBody() throws IOException {
+                return response.getBody();
+            }
+
+            @Override
+            public void close() {
+                deadline.cancel(false);
+                response.close();
+            }
+        }
+    }
+}
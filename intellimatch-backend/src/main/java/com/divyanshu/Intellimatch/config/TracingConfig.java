@@ -0,0 +1,32 @@
+package com.divyanshu.Intellimatch.config;
+
+import com.divyanshu.Intellimatch.tracing.FileSpanExporter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.tracing.exporter.SpanExportingPredicate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Span export. Spring Boot sends spans over OTLP once management.otlp.tracing.endpoint is set;
+ * tracing.file.path additionally writes them to a file. Both can be on at once.
+ */
+@Configuration
+public class TracingConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "tracing.file.path")
+    public FileSpanExporter fileSpanExporter(@Value("${tracing.file.path}") Path path, ObjectMapper objectMapper) throws IOException {
+        return new FileSpanExporter(path, objectMapper);
+    }
+
+    // Scheduled polling (the event relay runs every second) would otherwise export a trace per run
+    @Bean
+    public SpanExportingPredicate scheduledTaskSpanFilter() {
+        return span -> !span.getName().startsWith("task ");
+    }
+}
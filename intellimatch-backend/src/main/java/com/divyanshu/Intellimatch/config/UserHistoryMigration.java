@@ -0,0 +1,48 @@
+package com.divyanshu.Intellimatch.config;
+
+import com.divyanshu.Intellimatch.model.User;
+import com.mongodb.client.result.UpdateResult;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+/**
+ * Users used to carry an embedded copy of every ResumeMatch in a history array. History now lives
+ * only in resume_matches (where each match was always stored as well), so the embedded arrays are
+ * dropped to keep user documents small. Idempotent; runs in the background after startup.
+ */
+@Configuration
+@RequiredArgsConstructor
+@Slf4j
+public class UserHistoryMigration {
+
+    private final MongoTemplate mongoTemplate;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void dropEmbeddedHistory() {
+        Thread thread = new Thread(this::migrate, "user-history-migration");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void migrate() {
+        try {
+            UpdateResult result = mongoTemplate.updateMulti(
+                new Query(Criteria.where("history").exists(true)),
+                new Update().unset("history"),
+                User.class
+            );
+            if (result.getModifiedCount() > 0) {
+                log.info("Removed embedded history from {} user documents", result.getModifiedCount());
+            }
+        } catch (Exception e) {
+            log.warn("Could not remove embedded user history: {}", e.getMessage());
+        }
+    }
+}
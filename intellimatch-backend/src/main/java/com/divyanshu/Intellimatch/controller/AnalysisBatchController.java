@@ -0,0 +1,33 @@
+package com.divyanshu.Intellimatch.controller;
+
+import com.divyanshu.Intellimatch.service.AnalysisBatchService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CookieValue;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/batches")
+@RequiredArgsConstructor
+public class AnalysisBatchController {
+
+    private final AnalysisBatchService analysisBatchService;
+
+    @GetMapping("/{batchId}")
+    public ResponseEntity<?> getBatchProgress(
+        @PathVariable String batchId,
+        @CookieValue(value = "userId", required = false) String userId
+    ) {
+        if (userId == null || userId.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Authentication required.");
+        }
+
+        return analysisBatchService.getProgress(batchId, userId)
+            .<ResponseEntity<?>>map(ResponseEntity::ok)
+            .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).body("Batch not found"));
+    }
+}
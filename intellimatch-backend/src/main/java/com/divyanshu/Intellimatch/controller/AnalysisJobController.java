@@ -0,0 +1,36 @@
+package com.divyanshu.Intellimatch.controller;
+
+import com.divyanshu.Intellimatch.dto.AnalysisJobDTO;
+import com.divyanshu.Intellimatch.service.AnalysisJobService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CookieValue;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/jobs")
+@RequiredArgsConstructor
+public class AnalysisJobController {
+
+    private final AnalysisJobService analysisJobService;
+
+    @GetMapping("/{jobId}")
+    public ResponseEntity<?> getJobStatus(
+        @PathVariable String jobId,
+        @CookieValue(value = "userId", required = false) String userId
+    ) {
+        if (userId == null || userId.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Authentication required.");
+        }
+
+        // Jobs belonging to other users are reported as missing
+        return analysisJobService.findById(jobId)
+            .filter(job -> userId.equals(job.getUserId()))
+            .<ResponseEntity<?>>map(job -> ResponseEntity.ok(new AnalysisJobDTO(job)))
+            .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).body("Job not found"));
+    }
+}
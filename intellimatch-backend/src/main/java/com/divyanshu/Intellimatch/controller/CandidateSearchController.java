@@ -0,0 +1,142 @@
+package com.divyanshu.Intellimatch.controller;
+
+import com.divyanshu.Intellimatch.dto.CandidateDTO;
+import com.divyanshu.Intellimatch.dto.CandidateSearchDTO;
+import com.divyanshu.Intellimatch.dto.UploadedFile;
+import com.divyanshu.Intellimatch.model.AnalysisBatch;
+import com.divyanshu.Intellimatch.service.AnalysisBatchService;
+import com.divyanshu.Intellimatch.service.DocumentTextService;
+import com.divyanshu.Intellimatch.service.FileUploadService;
+import com.divyanshu.Intellimatch.service.FileUploadService.FileField;
+import com.divyanshu.Intellimatch.service.ResumeSearchService;
+import com.divyanshu.Intellimatch.service.UserService;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.fileupload2.core.FileUploadSizeException;
+import org.apache.commons.fileupload2.jakarta.servlet6.JakartaServletFileUpload;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.bind.annotation.CookieValue;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/search")
+@RequiredArgsConstructor
+@Slf4j
+public class CandidateSearchController {
+
+    private final FileUploadService fileUploadService;
+    private final DocumentTextService documentTextService;
+    private final ResumeSearchService resumeSearchService;
+    private final AnalysisBatchService analysisBatchService;
+    private final UserService userService;
+
+    private static final String JOB_DESCRIPTION_FIELD = "jobDescription";
+    private static final String JOB_DESCRIPTION_FOLDER = "job-descriptions";
+
+    @Value("${upload.max-file-size:5MB}")
+    private DataSize maxFileSize;
+
+    @Value("${search.max-results:200}")
+    private int maxResults;
+
+    @Value("${analysis.batch.max-job-descriptions:50}")
+    private int maxAnalyzed;
+
+    /**
+     * Ranks the resumes the user has uploaded against a "jobDescription" part and returns the best
+     * limit of them. The best analyze candidates are also queued for the full NLP analysis as one
+     * batch, reported at /api/batches/{batchId}; with analyze=0 nothing is queued and the job
+     * description is not kept.
+     */
+    @PostMapping("/candidates")
+    public ResponseEntity<?> searchCandidates(
+        HttpServletRequest request,
+        @RequestParam(value = "limit", defaultValue = "20") int limit,
+        @RequestParam(value = "analyze", defaultValue = "5") int analyze,
+        @RequestParam(value = "concurrency", required = false) Integer concurrency,
+        @CookieValue(value = "userId", required = false) String userId
+    ) {
+        if (userId == null || userId.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Authentication required.");
+        }
+        if (!resumeSearchService.isEnabled()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body("Candidate search is disabled.");
+        }
+        if (limit < 1 || limit > maxResults || analyze < 0 || analyze > Math.min(limit, maxAnalyzed)) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body("limit must be 1 to " + maxResults + " and analyze 0 to " + Math.min(limit, maxAnalyzed) + ".");
+        }
+
+        try {
+            if (!userService.existsById(userId)) {
+                throw new RuntimeException("User not found");
+            }
+
+            if (!JakartaServletFileUpload.isMultipartContent(request)) {
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("A job description is required.");
+            }
+
+            Map<String, List<UploadedFile>> files = fileUploadService.storeFiles(request, Map.of(
+                JOB_DESCRIPTION_FIELD, FileField.single(JOB_DESCRIPTION_FOLDER)
+            ));
+            List<UploadedFile> stored = files.getOrDefault(JOB_DESCRIPTION_FIELD, List.of());
+
+            UploadedFile jobDescription;
+            CandidateSearchDTO result;
+            List<CandidateDTO> candidates;
+            try {
+                if (stored.isEmpty()) {
+                    return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("A job description is required.");
+                }
+                jobDescription = stored.get(0);
+                String text = jobDescription.getStored().getText() != null
+                    ? jobDescription.getStored().getText()
+                    : documentTextService.findText(jobDescription.getStored().getSha256()).orElse(null);
+                if (text == null || text.isBlank()) {
+                    fileUploadService.cleanupFiles(stored);
+                    return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).body("No text could be read from the job description.");
+                }
+
+                candidates = resumeSearchService.search(userId, text, limit);
+                result = new CandidateSearchDTO(jobDescription.getOriginalFilename(),
+                    resumeSearchService.countResumes(userId), candidates, null);
+
+                if (analyze == 0 || candidates.isEmpty()) {
+                    // Nothing references the job description
+                    fileUploadService.cleanupFiles(stored);
+                    return ResponseEntity.ok(result);
+                }
+            } catch (Exception searchException) {
+                fileUploadService.cleanupFiles(stored);
+                throw searchException;
+            }
+
+            // The batch's matches reference the job description, so it is not deleted past this
+            // point: a failed create removes the matches it saved and leaves the file to the
+            // orphan sweeper
+            AnalysisBatch batch = analysisBatchService.createCandidateBatch(userId, jobDescription,
+                candidates.subList(0, Math.min(analyze, candidates.size())), concurrency);
+            result.setAnalysis(analysisBatchService.getProgress(batch.getId(), userId).orElseThrow());
+            return ResponseEntity.accepted()
+                .location(URI.create("/api/batches/" + batch.getId()))
+                .body(result);
+        } catch (FileUploadSizeException e) {
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).body("Files must be smaller than " + maxFileSize.toMegabytes() + "MB.");
+        } catch (IOException e) {
+            log.error("Candidate search failed for user ID: {}", userId, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Search failed.");
+        }
+    }
+}
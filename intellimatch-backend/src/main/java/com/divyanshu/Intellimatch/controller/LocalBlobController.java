@@ -0,0 +1,63 @@
+package com.divyanshu.Intellimatch.controller;
+
+import com.divyanshu.Intellimatch.storage.LocalBlobStore;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.nio.file.NoSuchFileException;
+
+/**
+ * Serves blobs from the local store at the URLs it hands out, standing in for S3 object URLs so
+ * the NLP service can download documents when storage.type=local.
+ * <p>
+ * For development only. Like the S3 object URLs it replaces, a blob is served to anyone who has its
+ * URL: there is no cookie or ownership check, since the NLP service downloads documents without
+ * one. Keys carry a random UUID, so URLs cannot be guessed, but local storage should not be used
+ * where the backend is reachable by untrusted clients.
+ */
+@RestController
+@RequestMapping("/api/blobs")
+@ConditionalOnProperty(name = "storage.type", havingValue = "local")
+@RequiredArgsConstructor
+public class LocalBlobController {
+
+    private static final String PREFIX = "/api/blobs/";
+
+    private final LocalBlobStore localBlobStore;
+
+    @GetMapping("/**")
+    public ResponseEntity<StreamingResponseBody> getBlob(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        if (!path.startsWith(PREFIX)) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+        String key = path.substring(PREFIX.length());
+
+        long size;
+        try {
+            size = localBlobStore.size(key);
+        } catch (NoSuchFileException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        } catch (IOException e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+
+        StreamingResponseBody body = out -> localBlobStore.copyTo(key, out);
+        return ResponseEntity.ok()
+            .contentType(MediaTypeFactory.getMediaType(key).orElse(MediaType.APPLICATION_OCTET_STREAM))
+            .contentLength(size)
+            .body(body);
+    }
+}
@@ -0,0 +1,39 @@
+package com.divyanshu.Intellimatch.controller;
+
+import com.divyanshu.Intellimatch.service.MatchEventService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CookieValue;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/api/events")
+@RequiredArgsConstructor
+public class MatchEventController {
+
+    private final MatchEventService matchEventService;
+
+    /**
+     * Streams "match" events for the user's analyses as they change status. Events published
+     * while the client was disconnected are not replayed; clients refetch what they show when
+     * the stream (re)opens.
+     */
+    // Typed as SseEmitter so Spring streams the body; errors are returned without one
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamEvents(
+        @CookieValue(value = "userId", required = false) String userId
+    ) {
+        if (userId == null || userId.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+
+        return matchEventService.subscribe(userId)
+            .map(ResponseEntity::ok)
+            .orElseGet(() -> ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).build());
+    }
+}
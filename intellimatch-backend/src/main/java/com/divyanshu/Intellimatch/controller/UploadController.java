@@ -1,11 +1,22 @@
 package com.divyanshu.Intellimatch.controller;
 
+import com.divyanshu.Intellimatch.service.AnalysisBatchService;
+import com.divyanshu.Intellimatch.service.PreScoreService;
 import com.divyanshu.Intellimatch.service.ResumeMatchService;
 import com.divyanshu.Intellimatch.service.UserService;
+import com.divyanshu.Intellimatch.dto.AnalysisJobDTO;
+import com.divyanshu.Intellimatch.model.AnalysisBatch;
+import com.divyanshu.Intellimatch.model.AnalysisJob;
 import com.divyanshu.Intellimatch.model.ResumeMatch;
-import com.divyanshu.Intellimatch.model.User;
 import com.divyanshu.Intellimatch.service.FileUploadService;
+import com.divyanshu.Intellimatch.service.FileUploadService.FileField;
+import com.divyanshu.Intellimatch.dto.UploadedFile;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.fileupload2.core.FileUploadSizeException;
+import org.apache.commons.fileupload2.jakarta.servlet6.JakartaServletFileUpload;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CookieValue;
@@ -13,23 +24,41 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
-import org.springframework.web.multipart.MultipartFile;
+import org.springframework.util.unit.DataSize;
 
 import java.io.IOException;
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/upload")
 @RequiredArgsConstructor
+@Slf4j
 public class UploadController {
 
     private final FileUploadService fileUploadService;
     private final ResumeMatchService resumeMatchService;
     private final UserService userService;
+    private final AnalysisBatchService analysisBatchService;
+    private final PreScoreService preScoreService;
 
+    @Value("${upload.max-file-size:5MB}")
+    private DataSize maxFileSize;
+
+    private static final String RESUME_FIELD = "resume";
+    private static final String JOB_DESCRIPTION_FIELD = "jobDescription";
+    private static final String BATCH_FILES_REQUIRED = "A resume and at least one job description are required.";
+    private static final String RESUME_FOLDER = "resumes";
+    private static final String JOB_DESCRIPTION_FOLDER = "job-descriptions";
+
+    @Value("${analysis.batch.max-job-descriptions:50}")
+    private int maxBatchJobDescriptions;
+
+    // The request body is streamed to S3 part by part; Spring's multipart resolver is disabled
     @PostMapping
     public ResponseEntity<?> uploadFiles(
-        @RequestParam("resume") MultipartFile resume,
-        @RequestParam("jobDescription") MultipartFile jobDescription,
+        HttpServletRequest request,
         @CookieValue(value = "userId", required = false) String userId
     ) {
         // Check if auth cookie is present
@@ -38,84 +67,140 @@ public class UploadController {
         }
 
         try {
-            User user = userService.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
-            if(resume == null || jobDescription == null) {
-                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Both files are required.");
+            if (!userService.existsById(userId)) {
+                throw new RuntimeException("User not found");
             }
 
-            // check file types
-            String resumeContentType = resume.getContentType();
-            String jdContentType = jobDescription.getContentType();
-            
-            // Allowed content types
-            String[] allowedTypes = {
-                "application/pdf", 
-                "application/vnd.openxmlformats-officedocument.wordprocessingml.document"
-            };
-            
-            boolean isResumeValid = resumeContentType != null && 
-                (resumeContentType.equals(allowedTypes[0]) || resumeContentType.equals(allowedTypes[1]));
-            boolean isJdValid = jdContentType != null && 
-                (jdContentType.equals(allowedTypes[0]) || jdContentType.equals(allowedTypes[1]));
-                
-            if (!isResumeValid || !isJdValid) {
-                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Only PDF and DOCX files are allowed.");
+            if (!JakartaServletFileUpload.isMultipartContent(request)) {
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Both files are required.");
             }
 
-            String resumeName = resume.getOriginalFilename();
-            String jobDescriptionName = jobDescription.getOriginalFilename();
-
             String resumeUrl = null;
             String jdUrl = null;
             ResumeMatch savedMatch = null;
 
+            // Upload files to S3; the resume keeps uploading while the job description is read
+            Map<String, List<UploadedFile>> files = fileUploadService.storeFiles(request, Map.of(
+                RESUME_FIELD, FileField.single(RESUME_FOLDER),
+                JOB_DESCRIPTION_FIELD, FileField.single(JOB_DESCRIPTION_FOLDER)
+            ));
+            UploadedFile resume = first(files, RESUME_FIELD);
+            UploadedFile jobDescription = first(files, JOB_DESCRIPTION_FIELD);
+
             try {
-                // Upload files to S3
-                resumeUrl = fileUploadService.uploadResume(resume);
-                jdUrl = fileUploadService.uploadJobDescription(jobDescription);
+                if (resume != null) {
+                    resumeUrl = resume.getStored().getUrl();
+                }
+                if (jobDescription != null) {
+                    jdUrl = jobDescription.getStored().getUrl();
+                }
+                if (resume == null || jobDescription == null) {
+                    fileUploadService.cleanupFiles(resumeUrl, jdUrl);
+                    return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Both files are required.");
+                }
 
                 // Create and save ResumeMatch
                 ResumeMatch document = new ResumeMatch(
                     null,
-                    user.getId(),
-                    resumeName,
-                    jobDescriptionName,
+                    userId,
+                    resume.getOriginalFilename(),
+                    jobDescription.getOriginalFilename(),
                     resumeUrl,
                     jdUrl,
                     null // matchResultId will be set later after processing the match
                 );
+                document.setResumeHash(resume.getStored().getSha256());
+                document.setJobDescriptionHash(jobDescription.getStored().getSha256());
+                document.setProvisionalScore(preScoreService.score(
+                    resume.getStored().getText(), jobDescription.getStored().getText()));
 
+                // The match document is the user's history entry; the user document is not touched
                 savedMatch = resumeMatchService.save(document);
                 
                 if (savedMatch == null) {
                     throw new RuntimeException("Failed to save match document");
                 }
-                
-                // Add to user's history
-                user.addToHistory(savedMatch);
-                User updatedUser = userService.save(user);
-                
-                if (updatedUser == null) {
-                    throw new RuntimeException("Failed to update user history");
-                }
-                
-                return ResponseEntity.ok(savedMatch);
+
+                // Hand the analysis to the job queue and return immediately
+                AnalysisJob job = resumeMatchService.submitForAnalysis(savedMatch);
+
+                return ResponseEntity.accepted()
+                    .location(URI.create("/api/jobs/" + job.getId()))
+                    .body(new AnalysisJobDTO(job));
                 
             } catch (Exception uploadException) {
-                // Cleanup uploaded files if any step fails
-                if (resumeUrl != null || jdUrl != null) {
+                if (savedMatch != null) {
+                    // Queueing failed: a match without a job would stay in progress forever, so it
+                    // goes together with its files
+                    resumeMatchService.cleanupFailedMatch(savedMatch.getId());
+                } else if (resumeUrl != null || jdUrl != null) {
+                    // Cleanup uploaded files if any step fails
                     fileUploadService.cleanupFiles(resumeUrl, jdUrl);
                 }
-                
-                // If match was saved but user history update failed, we let the async cleanup handle it
-                // since the async process will fail and trigger full cleanup
-                
+
                 throw uploadException; // Re-throw to be caught by outer catch block
             }
+        } catch (FileUploadSizeException e) {
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).body("Files must be smaller than " + maxFileSize.toMegabytes() + "MB.");
         } catch (IOException e) {
+            log.error("Upload failed for user ID: {}", userId, e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Upload failed.");
         }
     }
+
+    /**
+     * Scores one resume against many job descriptions: a "resume" part followed by up to
+     * analysis.batch.max-job-descriptions "jobDescription" parts. The resume is stored once and
+     * every job description becomes its own match; progress is reported at /api/batches/{batchId}.
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<?> uploadBatch(
+        HttpServletRequest request,
+        @RequestParam(value = "concurrency", required = false) Integer concurrency,
+        @CookieValue(value = "userId", required = false) String userId
+    ) {
+        if (userId == null || userId.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Authentication required.");
+        }
+
+        try {
+            if (!userService.existsById(userId)) {
+                throw new RuntimeException("User not found");
+            }
+
+            if (!JakartaServletFileUpload.isMultipartContent(request)) {
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(BATCH_FILES_REQUIRED);
+            }
+
+            Map<String, List<UploadedFile>> files = fileUploadService.storeFiles(request, Map.of(
+                RESUME_FIELD, FileField.single(RESUME_FOLDER),
+                JOB_DESCRIPTION_FIELD, new FileField(JOB_DESCRIPTION_FOLDER, maxBatchJobDescriptions)
+            ));
+            List<UploadedFile> stored = files.values().stream().flatMap(List::stream).toList();
+            UploadedFile resume = first(files, RESUME_FIELD);
+            List<UploadedFile> jobDescriptions = files.getOrDefault(JOB_DESCRIPTION_FIELD, List.of());
+
+            if (resume == null || jobDescriptions.isEmpty()) {
+                fileUploadService.cleanupFiles(stored);
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(BATCH_FILES_REQUIRED);
+            }
+
+            // A failed create removes the matches it saved; the files are left to the orphan sweeper
+            AnalysisBatch batch = analysisBatchService.createBatch(userId, resume, jobDescriptions, concurrency);
+
+            return ResponseEntity.accepted()
+                .location(URI.create("/api/batches/" + batch.getId()))
+                .body(analysisBatchService.getProgress(batch.getId(), userId).orElseThrow());
+        } catch (FileUploadSizeException e) {
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).body("Files must be smaller than " + maxFileSize.toMegabytes() + "MB.");
+        } catch (IOException e) {
+            log.error("Batch upload failed for user ID: {}", userId, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Upload failed.");
+        }
+    }
+
+    private static UploadedFile first(Map<String, List<UploadedFile>> files, String field) {
+        List<UploadedFile> fieldFiles = files.get(field);
+        return fieldFiles == null || fieldFiles.isEmpty() ? null : fieldFiles.get(0);
+    }
 }
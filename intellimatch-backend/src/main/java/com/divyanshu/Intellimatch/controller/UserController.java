@@ -3,18 +3,16 @@ package com.divyanshu.Intellimatch.controller;
 import org.springframework.http.ResponseCookie;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import com.divyanshu.Intellimatch.dto.HistoryPageDTO;
 import com.divyanshu.Intellimatch.dto.LoginRequest;
 import com.divyanshu.Intellimatch.dto.MatchHistoryDTO;
-import com.divyanshu.Intellimatch.model.MatchResult;
-import com.divyanshu.Intellimatch.model.ResumeMatch;
+import com.divyanshu.Intellimatch.dto.UserProfileDTO;
 import com.divyanshu.Intellimatch.model.User;
-import com.divyanshu.Intellimatch.repository.MatchResultRepository;
+import com.divyanshu.Intellimatch.service.ResumeMatchService;
 import com.divyanshu.Intellimatch.service.UserService;
 import lombok.RequiredArgsConstructor;
 import jakarta.validation.Valid;
 
-import java.util.ArrayList;
-import java.util.List;
 import java.util.Optional;
 
 @RestController
@@ -23,7 +21,7 @@ import java.util.Optional;
 public class UserController {
 
     private final UserService userService;
-    private final MatchResultRepository matchResultRepository;
+    private final ResumeMatchService resumeMatchService;
 
     // Login route
     @PostMapping("/login")
@@ -49,7 +47,7 @@ public class UserController {
 
             return ResponseEntity.ok()
                     .header(org.springframework.http.HttpHeaders.SET_COOKIE, cookie.toString())
-                    .body(user);
+                    .body(UserProfileDTO.from(user));
         } catch (Exception e) {
             return ResponseEntity.status(500).body("Error: " + e.getMessage());
         }
@@ -72,7 +70,7 @@ public class UserController {
 
             return ResponseEntity.ok()
                     .header(org.springframework.http.HttpHeaders.SET_COOKIE, cookie.toString())
-                    .body(savedUser);
+                    .body(UserProfileDTO.from(savedUser));
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(e.getMessage());
         } catch (Exception e) {
@@ -88,9 +86,9 @@ public class UserController {
         }
 
         try {
-            User user = userService.findById(userId)
+            UserProfileDTO profile = userService.findProfileById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found"));
-            return ResponseEntity.ok(user);
+            return ResponseEntity.ok(profile);
         } catch (Exception e) {
             return ResponseEntity.status(500).body("Error: " + e.getMessage());
         }
@@ -112,27 +110,25 @@ public class UserController {
 
     @GetMapping("/history")
     public ResponseEntity<?> getUserHistory(
-        @CookieValue(value = "userId", required = false) String userId
+        @CookieValue(value = "userId", required = false) String userId,
+        @RequestParam(value = "cursor", required = false) String cursor,
+        @RequestParam(value = "limit", defaultValue = "20") int limit
         ) {
         if (userId == null || userId.isEmpty()) {
             return ResponseEntity.status(401).body("Authentication required.");
         }
 
         try {
-            User user = userService.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-            
-            // Convert ResumeMatch list to MatchHistoryDTO list
-            List<MatchHistoryDTO> historyDTOs = new ArrayList<>();
-            for (ResumeMatch resumeMatch : user.getHistory()) {
-                MatchResult matchResult = null;
-                if (resumeMatch.getMatchResultId() != null) {
-                    matchResult = matchResultRepository.findById(resumeMatch.getMatchResultId()).orElse(null);
-                }
-                historyDTOs.add(new MatchHistoryDTO(resumeMatch, matchResult));
+            if (!userService.existsById(userId)) {
+                throw new RuntimeException("User not found");
             }
             
-            return ResponseEntity.ok(historyDTOs);
+            // One page of summaries; pass nextCursor back to fetch the following page
+            HistoryPageDTO page = resumeMatchService.getHistoryPage(userId, cursor, limit);
+            
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
         } catch (Exception e) {
             return ResponseEntity.status(500).body("Error: " + e.getMessage());
         } 
@@ -148,21 +144,11 @@ public class UserController {
         }
 
         try {
-            User user = userService.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-            
             // Find the specific match in user's history
-            ResumeMatch resumeMatch = user.getHistory().stream()
-                .filter(match -> match.getId().equals(matchId))
-                .findFirst()
+            MatchHistoryDTO matchDetails = resumeMatchService.getMatchDetails(matchId, userId)
                 .orElseThrow(() -> new RuntimeException("Match not found"));
             
-            MatchResult matchResult = null;
-            if (resumeMatch.getMatchResultId() != null) {
-                matchResult = matchResultRepository.findById(resumeMatch.getMatchResultId()).orElse(null);
-            }
-            
-            return ResponseEntity.ok(new MatchHistoryDTO(resumeMatch, matchResult));
+            return ResponseEntity.ok(matchDetails);
         } catch (Exception e) {
             return ResponseEntity.status(500).body("Error: " + e.getMessage());
         }
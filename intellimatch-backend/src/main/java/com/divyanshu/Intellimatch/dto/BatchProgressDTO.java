@@ -0,0 +1,43 @@
+package com.divyanshu.Intellimatch.dto;
+
+import com.divyanshu.Intellimatch.model.AnalysisBatch;
+import com.divyanshu.Intellimatch.model.AnalysisJobStatus;
+import lombok.Data;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Aggregate progress of a batch upload, with its matches ranked by score as they complete.
+ */
+@Data
+public class BatchProgressDTO {
+    private String batchId;
+    private String resumeName;
+    private String jobDescriptionName;
+    private int total;
+    private int maxConcurrency;
+    private long queued;
+    private long running;
+    private long done;
+    private long failed;
+    private boolean complete;
+    private Date createdAt;
+    private List<MatchSummaryDTO> matches;
+
+    public BatchProgressDTO(AnalysisBatch batch, Map<AnalysisJobStatus, Long> jobCounts, List<MatchSummaryDTO> matches) {
+        this.batchId = batch.getId();
+        this.resumeName = batch.getResumeName();
+        this.jobDescriptionName = batch.getJobDescriptionName();
+        this.total = batch.getTotal();
+        this.maxConcurrency = batch.getMaxConcurrency();
+        this.queued = jobCounts.getOrDefault(AnalysisJobStatus.WAITING, 0L) + jobCounts.getOrDefault(AnalysisJobStatus.PENDING, 0L);
+        this.running = jobCounts.getOrDefault(AnalysisJobStatus.RUNNING, 0L);
+        this.done = jobCounts.getOrDefault(AnalysisJobStatus.DONE, 0L);
+        this.failed = jobCounts.getOrDefault(AnalysisJobStatus.FAILED, 0L);
+        this.complete = done + failed >= total;
+        this.createdAt = batch.getCreatedAt();
+        this.matches = matches;
+    }
+}
@@ -0,0 +1,14 @@
+package com.divyanshu.Intellimatch.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+// One of the user's stored resumes, ranked against a job description
+@Data
+@AllArgsConstructor
+public class CandidateDTO {
+    private String resumeHash;
+    private String resumeName;
+    private String resumeUrl;
+    private double score; // BM25 relevance; only comparable within one search
+}
@@ -0,0 +1,15 @@
+package com.divyanshu.Intellimatch.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class CandidateSearchDTO {
+    private String jobDescriptionName;
+    private int searchedResumes;
+    private List<CandidateDTO> candidates; // best first
+    private BatchProgressDTO analysis;     // the top candidates' analysis batch; null if none was requested
+}
@@ -0,0 +1,13 @@
+package com.divyanshu.Intellimatch.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class HistoryPageDTO {
+    private List<MatchSummaryDTO> items;
+    private String nextCursor; // null when there are no more pages
+}
@@ -0,0 +1,25 @@
+package com.divyanshu.Intellimatch.dto;
+
+import com.divyanshu.Intellimatch.model.AnalysisJobStatus;
+import com.divyanshu.Intellimatch.model.MatchEvent;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Data;
+
+// Payload of a "match" event on /api/events
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class MatchEventDTO {
+    private String matchId;
+    private String jobId;
+    private String batchId;
+    private AnalysisJobStatus status;
+    private Integer score;
+
+    public MatchEventDTO(MatchEvent event) {
+        this.matchId = event.getMatchId();
+        this.jobId = event.getJobId();
+        this.batchId = event.getBatchId();
+        this.status = event.getStatus();
+        this.score = event.getScore();
+    }
+}
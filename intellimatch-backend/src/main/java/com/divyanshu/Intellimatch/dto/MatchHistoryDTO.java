@@ -17,6 +17,7 @@ public class MatchHistoryDTO {
     private int score;
     private String resultMessage;
     private MatchResult matchResult; // Full match result for detailed view
+    private Integer provisionalScore; // Skill-overlap estimate while the analysis is in progress, else null
 
     public MatchHistoryDTO(ResumeMatch resumeMatch, MatchResult matchResult) {
         this.id = resumeMatch.getId();
@@ -34,6 +35,7 @@ public class MatchHistoryDTO {
             this.score = 0;
             this.resultMessage = "Analysis in progress...";
             this.matchResult = null;
+            this.provisionalScore = resumeMatch.getProvisionalScore();
         }
     }
 }
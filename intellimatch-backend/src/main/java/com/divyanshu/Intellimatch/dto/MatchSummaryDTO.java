@@ -0,0 +1,32 @@
+package com.divyanshu.Intellimatch.dto;
+
+import com.divyanshu.Intellimatch.model.MatchResult;
+import com.divyanshu.Intellimatch.model.ResumeMatch;
+import lombok.Data;
+
+import java.util.Date;
+
+/**
+ * List-view entry for a match. Carries only what the history list shows; the full analysis
+ * stays behind /api/user/match/{matchId}.
+ */
+@Data
+public class MatchSummaryDTO {
+    private String id;
+    private String resumeName;
+    private String jobDescriptionName;
+    private Date matchDate;
+    private int score;
+    private boolean completed;
+    private Integer provisionalScore; // set only while not completed
+
+    public MatchSummaryDTO(ResumeMatch resumeMatch, MatchResult matchResult) {
+        this.id = resumeMatch.getId();
+        this.resumeName = resumeMatch.getResumeName();
+        this.jobDescriptionName = resumeMatch.getJobDescriptionName();
+        this.matchDate = resumeMatch.getMatchDate();
+        this.completed = matchResult != null;
+        this.score = matchResult != null ? matchResult.getAtsScorePercent() : 0;
+        this.provisionalScore = matchResult != null ? null : resumeMatch.getProvisionalScore();
+    }
+}
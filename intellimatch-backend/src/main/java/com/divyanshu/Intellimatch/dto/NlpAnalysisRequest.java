@@ -0,0 +1,25 @@
+package com.divyanshu.Intellimatch.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Data;
+
+import java.util.Map;
+
+/**
+ * Body of POST /api/analyze on the NLP service. The URLs are always sent; the texts and the parsed
+ * resume data only when the backend has them, and the service fills in whatever is missing.
+ */
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class NlpAnalysisRequest {
+    private String resumeUrl;
+    private String jobDescriptionUrl;
+    private String resumeText;
+    private String jobDescriptionText;
+    private Map<String, Object> resumeData;
+
+    public NlpAnalysisRequest(String resumeUrl, String jobDescriptionUrl) {
+        this.resumeUrl = resumeUrl;
+        this.jobDescriptionUrl = jobDescriptionUrl;
+    }
+}
@@ -0,0 +1,15 @@
+package com.divyanshu.Intellimatch.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// The few user fields needed to authorize a request
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserPrincipal {
+    private String id;
+    private String name;
+    private String email;
+}
@@ -0,0 +1,11 @@
+package com.divyanshu.Intellimatch.exception;
+
+/**
+ * No permit for a downstream call became available within the bulkhead's acquire timeout.
+ */
+public class BulkheadFullException extends RuntimeException {
+
+    public BulkheadFullException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,19 @@
+package com.divyanshu.Intellimatch.exception;
+
+/**
+ * The NLP call was not attempted because the circuit breaker is open. The job should wait in the
+ * queue rather than count this as a failed attempt.
+ */
+public class NlpUnavailableException extends NlpAnalysisException {
+
+    private final long retryAfterMillis;
+
+    public NlpUnavailableException(String message, long retryAfterMillis) {
+        super(message);
+        this.retryAfterMillis = retryAfterMillis;
+    }
+
+    public long getRetryAfterMillis() {
+        return retryAfterMillis;
+    }
+}
@@ -0,0 +1,31 @@
+package com.divyanshu.Intellimatch.model;
+
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.Date;
+
+/**
+ * One resume scored against many job descriptions, or, for a candidate search, one job description
+ * scored against the best matching stored resumes; only the fixed side's fields are set. Each pair
+ * gets its own ResumeMatch and AnalysisJob tagged with the batch id; at most maxConcurrency of those
+ * jobs are claimable at a time, the rest wait in the queue as WAITING. Progress is derived from the
+ * jobs, not stored here.
+ */
+@Data
+@Document(collection = "analysis_batches")
+public class AnalysisBatch {
+    @Id
+    private String id;
+    private String userId;
+    private String resumeName;
+    private String resumeUrl;
+    private String resumeHash;
+    private String jobDescriptionName;
+    private String jobDescriptionUrl;
+    private String jobDescriptionHash;
+    private int total;
+    private int maxConcurrency;
+    private Date createdAt;
+}
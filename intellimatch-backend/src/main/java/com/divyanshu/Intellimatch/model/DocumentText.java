@@ -0,0 +1,26 @@
+package com.divyanshu.Intellimatch.model;
+
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.Date;
+
+/**
+ * Plain text extracted from an uploaded PDF or DOCX, keyed by the SHA-256 of the file so the same
+ * document uploaded again reuses it. Mongo removes entries 30 days after extraction; analyses of
+ * older documents fall back to letting the NLP service download the file. Texts the candidate
+ * search index is built from have no createdAt, so they stay (see ResumeSearchService).
+ */
+@Data
+@Document(collection = "document_texts")
+public class DocumentText {
+    @Id
+    private String id;
+    private String contentType;
+    private String text;
+    private boolean truncated;
+    @Indexed(expireAfter = "30d")
+    private Date createdAt;
+}
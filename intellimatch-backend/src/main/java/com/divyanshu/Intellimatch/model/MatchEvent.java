@@ -0,0 +1,43 @@
+package com.divyanshu.Intellimatch.model;
+
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.Date;
+
+/**
+ * A status change of a match's analysis job, relayed through Mongo so that a client streaming
+ * events from one node hears about jobs processed on another. Events are only needed for the
+ * few seconds it takes every node to poll them; Mongo removes them after an hour.
+ */
+@Data
+@Document(collection = "match_events")
+public class MatchEvent {
+    @Id
+    private String id;
+    private String userId;
+    private String matchId;
+    private String jobId;
+    private String batchId;
+    private AnalysisJobStatus status;
+    private Integer score;      // only set once the analysis is DONE
+    private String origin;      // node that published the event and already delivered it locally
+    @Indexed(expireAfter = "1h")
+    private Date createdAt;
+
+    public MatchEvent(AnalysisJob job, AnalysisJobStatus status, Integer score) {
+        this.userId = job.getUserId();
+        this.matchId = job.getResumeMatchId();
+        this.jobId = job.getId();
+        this.batchId = job.getBatchId();
+        this.status = status;
+        this.score = score;
+        this.createdAt = new Date();
+    }
+
+    public MatchEvent() {
+        // Default constructor
+    }
+}
@@ -0,0 +1,26 @@
+package com.divyanshu.Intellimatch.model;
+
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.Date;
+import java.util.Map;
+
+/**
+ * Structured resume data as extracted by the NLP service, keyed by resume hash and model version
+ * so a resume analysed against many job descriptions is parsed only once. Mongo removes entries
+ * 30 days after extraction.
+ */
+@Data
+@Document(collection = "resume_data")
+public class ResumeData {
+    @Id
+    private String id;
+    private String resumeHash;
+    private String modelVersion;
+    private Map<String, Object> data;
+    @Indexed(expireAfter = "30d")
+    private Date createdAt;
+}
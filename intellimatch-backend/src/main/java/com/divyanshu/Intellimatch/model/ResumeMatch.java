@@ -2,22 +2,40 @@ package com.divyanshu.Intellimatch.model;
 
 import lombok.Data;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.util.Date;
 
 @Data
 @Document(collection = "resume_matches")
+@CompoundIndexes({
+    @CompoundIndex(name = "userId_matchDate_id", def = "{'userId': 1, 'matchDate': -1, '_id': -1}"),
+    @CompoundIndex(name = "hashes_modelVersion_analyzedAt",
+        def = "{'resumeHash': 1, 'jobDescriptionHash': 1, 'modelVersion': 1, 'analyzedAt': -1}")
+})
 public class ResumeMatch {
     @Id
     String id;
     String userId;
     String resumeName;
     String jobDescriptionName;
+    @Indexed
     String resumeUrl;
-    String jobDescriptionUrl;
+    @Indexed
+    String jobDescriptionUrl;   // both indexed so OrphanBlobSweeper can check a page of keys at once
+    String resumeHash;          // SHA-256 of the uploaded resume
+    String jobDescriptionHash;  // SHA-256 of the uploaded job description
+    @Indexed(sparse = true)
+    String batchId;             // set when the match is one of a batch upload
     Date matchDate;
-    String matchResultId;
+    Integer provisionalScore;   // local skill-overlap estimate from PreScoreService, shown until the result arrives
+    String matchResultId;       // result in match_results; only set on matches analysed before results were embedded
+    MatchResult result;         // set together with analyzedAt once the analysis has finished
+    Date analyzedAt;
+    String modelVersion;        // set for successful analyses only, which makes them reusable for identical documents
 
     public ResumeMatch(String id, String userId, String resumeName, String jobDescriptionName, String resumeUrl, String jobDescriptionUrl, String matchResultId) {
         this.id = id;
@@ -44,6 +62,7 @@ public class ResumeMatch {
                 ", jobDescriptionUrl='" + jobDescriptionUrl + '\'' +
                 ", matchDate=" + matchDate +
                 ", matchResultId='" + matchResultId + '\'' +
+                ", analyzedAt=" + analyzedAt +
                 '}';
     }
 }
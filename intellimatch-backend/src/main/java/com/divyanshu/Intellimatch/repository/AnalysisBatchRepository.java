@@ -0,0 +1,10 @@
+package com.divyanshu.Intellimatch.repository;
+
+import com.divyanshu.Intellimatch.model.AnalysisBatch;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface AnalysisBatchRepository extends MongoRepository<AnalysisBatch, String> {
+
+}
@@ -0,0 +1,12 @@
+package com.divyanshu.Intellimatch.repository;
+
+import com.divyanshu.Intellimatch.model.AnalysisJob;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface AnalysisJobRepository extends MongoRepository<AnalysisJob, String> {
+    Optional<AnalysisJob> findFirstByResumeMatchIdOrderByCreatedAtDesc(String resumeMatchId);
+}
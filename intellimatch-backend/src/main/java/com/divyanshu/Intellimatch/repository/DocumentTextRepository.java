@@ -0,0 +1,10 @@
+package com.divyanshu.Intellimatch.repository;
+
+import com.divyanshu.Intellimatch.model.DocumentText;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface DocumentTextRepository extends MongoRepository<DocumentText, String> {
+
+}
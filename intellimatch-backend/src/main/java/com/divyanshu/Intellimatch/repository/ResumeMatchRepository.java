@@ -4,7 +4,12 @@ import com.divyanshu.Intellimatch.model.ResumeMatch;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Optional;
+
 @Repository
 public interface ResumeMatchRepository extends MongoRepository<ResumeMatch, String> {
 
-}
\ No newline at end of file
+    Optional<ResumeMatch> findByIdAndUserId(String id, String userId);
+
+    void deleteByBatchId(String batchId);
+}
@@ -1,13 +1,23 @@
 package com.divyanshu.Intellimatch.repository;
 
+import com.divyanshu.Intellimatch.dto.UserPrincipal;
+import com.divyanshu.Intellimatch.dto.UserProfileDTO;
 import com.divyanshu.Intellimatch.model.User;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Optional;
+
 @Repository
 public interface UserRepository extends MongoRepository<User, String> {
     User findByEmail(String email);
 
+    // Reads only the profile fields, never the password hash
+    Optional<UserProfileDTO> findProfileById(String id);
+
+    // Reads only id, name and email
+    Optional<UserPrincipal> findPrincipalById(String id);
+
     // Additional methods can be defined here if needed
     User findByPhoneNumber(String phoneNumber);
 
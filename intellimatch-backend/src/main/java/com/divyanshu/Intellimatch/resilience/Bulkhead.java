@@ -0,0 +1,65 @@
+package com.divyanshu.Intellimatch.resilience;
+
+import com.divyanshu.Intellimatch.exception.BulkheadFullException;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Caps concurrent calls to one downstream dependency. With virtual threads the number of threads
+ * no longer bounds how many blocking calls are in flight, so each dependency gets its own explicit
+ * limit. Callers wait (cheaply, on a virtual thread) up to the acquire timeout for a permit.
+ */
+public class Bulkhead {
+
+    private final String name;
+    private final int maxConcurrent;
+    private final long acquireTimeoutMs;
+    private final Semaphore permits;
+
+    public Bulkhead(String name, int maxConcurrent, long acquireTimeoutMs) {
+        this.name = name;
+        this.maxConcurrent = Math.max(1, maxConcurrent);
+        this.acquireTimeoutMs = acquireTimeoutMs;
+        this.permits = new Semaphore(this.maxConcurrent, true);
+    }
+
+    /**
+     * @throws BulkheadFullException if no permit became available in time
+     */
+    public <T> T call(Supplier<T> call) {
+        acquire();
+        try {
+            return call.get();
+        } finally {
+            permits.release();
+        }
+    }
+
+    public void run(Runnable call) {
+        call(() -> {
+            call.run();
+            return null;
+        });
+    }
+
+    public int getInFlight() {
+        return maxConcurrent - permits.availablePermits();
+    }
+
+    public int getMaxConcurrent() {
+        return maxConcurrent;
+    }
+
+    private void acquire() {
+        try {
+            if (!permits.tryAcquire(acquireTimeoutMs, TimeUnit.MILLISECONDS)) {
+                throw new BulkheadFullException("Timed out waiting for a " + name + " permit");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BulkheadFullException("Interrupted while waiting for a " + name + " permit");
+        }
+    }
+}
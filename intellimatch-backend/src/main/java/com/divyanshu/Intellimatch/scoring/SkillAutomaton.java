@@ -0,0 +1,253 @@
+package com.divyanshu.Intellimatch.scoring;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Finds the skills of a taxonomy in free text with one pass over it. Every alias of every skill is
+ * compiled into an Aho-Corasick automaton, which is then completed into a DFA held in flat int
+ * arrays, so scanning costs one table lookup per character and allocates nothing but the counts.
+ * Text is matched case-insensitively with runs of whitespace treated as one space, and only whole
+ * words count: "java" is found in "Java, Spring" but not in "JavaScript", and "js" not in "node.js".
+ * <p>
+ * Instances are immutable and safe to share between threads.
+ */
+public final class SkillAutomaton {
+
+    // Character class of every char outside the aliases' alphabet; it always leads back to the root
+    private static final int OTHER = 0;
+
+    private final String[] skillNames;
+    private final byte[] charClass;   // ASCII char -> character class
+    private final int alphabetSize;
+    private final int[] delta;        // state * alphabetSize + class -> next state
+    private final int[] skillAt;      // skill whose alias ends in the state, or -1
+    private final int[] depth;        // length of the alias ending in the state
+    private final int[] outputLink;   // nearest proper suffix state where an alias ends, or 0
+    private final int recentMask;
+
+    private SkillAutomaton(String[] skillNames, byte[] charClass, int alphabetSize, int[] delta,
+                           int[] skillAt, int[] depth, int[] outputLink, int maxDepth) {
+        this.skillNames = skillNames;
+        this.charClass = charClass;
+        this.alphabetSize = alphabetSize;
+        this.delta = delta;
+        this.skillAt = skillAt;
+        this.depth = depth;
+        this.outputLink = outputLink;
+        this.recentMask = Integer.highestOneBit(maxDepth + 1) * 2 - 1;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public int getSkillCount() {
+        return skillNames.length;
+    }
+
+    public String getSkillName(int skill) {
+        return skillNames[skill];
+    }
+
+    public int getStateCount() {
+        return skillAt.length;
+    }
+
+    /**
+     * Counts how often each skill is mentioned in the text.
+     */
+    public SkillProfile profile(CharSequence text) {
+        int[] counts = new int[skillNames.length];
+        // The last characters fed to the automaton, to check the word boundary before a match
+        char[] recent = new char[recentMask + 1];
+        long fed = 0;
+        boolean afterSpace = true;
+        int state = 0;
+
+        int length = text.length();
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+            if (Character.isWhitespace(c)) {
+                if (afterSpace) {
+                    continue;
+                }
+                c = ' ';
+                afterSpace = true;
+            } else {
+                c = Character.toLowerCase(c);
+                afterSpace = false;
+            }
+            recent[(int) (fed & recentMask)] = c;
+            fed++;
+            state = delta[state * alphabetSize + classOf(c)];
+
+            int match = skillAt[state] >= 0 ? state : outputLink[state];
+            if (match == 0) {
+                continue;
+            }
+            boolean endsWord = endsWord(text, i + 1);
+            for (; match != 0; match = outputLink[match]) {
+                long start = fed - depth[match];
+                boolean startsWord = start == 0 || !continuesWord(recent[(int) ((start - 1) & recentMask)]);
+                if (startsWord && endsWord) {
+                    counts[skillAt[match]]++;
+                }
+            }
+        }
+        return SkillProfile.of(counts);
+    }
+
+    private int classOf(char c) {
+        return c < 128 ? charClass[c] : OTHER;
+    }
+
+    // A dot joins words ("node.js", "asp.net"), so "js" does not start after one
+    private static boolean continuesWord(char c) {
+        return Character.isLetterOrDigit(c) || c == '.';
+    }
+
+    // A dot only ends a word when no letter or digit follows it, as at the end of a sentence
+    private static boolean endsWord(CharSequence text, int next) {
+        if (next == text.length()) {
+            return true;
+        }
+        char c = text.charAt(next);
+        if (c == '.') {
+            return next + 1 == text.length() || !Character.isLetterOrDigit(text.charAt(next + 1));
+        }
+        return !Character.isLetterOrDigit(c);
+    }
+
+    // Lower case with single spaces, as text is read when it is scanned
+    static String normalize(String alias) {
+        return alias.trim().toLowerCase().replaceAll("\\s+", " ");
+    }
+
+    public static final class Builder {
+
+        private final Map<String, List<String>> aliasesBySkill = new LinkedHashMap<>();
+
+        private Builder() {
+        }
+
+        /**
+         * Adds a skill under its name, which is matched as well as the aliases. Names and aliases
+         * are only checked by {@link #build()}.
+         */
+        public Builder add(String skill, List<String> aliases) {
+            List<String> all = new ArrayList<>();
+            all.add(skill);
+            all.addAll(aliases);
+            aliasesBySkill.computeIfAbsent(skill, name -> new ArrayList<>()).addAll(all);
+            return this;
+        }
+
+        /**
+         * @throws IllegalArgumentException if a name or alias is blank, not ASCII, or used by two
+         *                                  skills, or the aliases use more than 126 distinct characters
+         */
+        public SkillAutomaton build() {
+            String[] skillNames = aliasesBySkill.keySet().toArray(String[]::new);
+
+            Map<String, Integer> skillByAlias = new LinkedHashMap<>();
+            for (int skill = 0; skill < skillNames.length; skill++) {
+                for (String raw : aliasesBySkill.get(skillNames[skill])) {
+                    String alias = normalize(raw);
+                    if (alias.isEmpty() || !alias.chars().allMatch(c -> c < 128)) {
+                        throw new IllegalArgumentException("Skill aliases must be non-blank ASCII: '" + raw + "'");
+                    }
+                    Integer previous = skillByAlias.putIfAbsent(alias, skill);
+                    if (previous != null && previous != skill) {
+                        throw new IllegalArgumentException("Alias '" + alias + "' is used by both "
+                            + skillNames[previous] + " and " + skillNames[skill]);
+                    }
+                }
+            }
+
+            // Classes for the chars the aliases use; everything else is OTHER
+            byte[] charClass = new byte[128];
+            int alphabetSize = 1;
+            for (String alias : skillByAlias.keySet()) {
+                for (char c : alias.toCharArray()) {
+                    if (charClass[c] == OTHER) {
+                        if (alphabetSize == Byte.MAX_VALUE) {
+                            throw new IllegalArgumentException("Skill aliases use too many distinct characters");
+                        }
+                        charClass[c] = (byte) alphabetSize++;
+                    }
+                }
+            }
+
+            // Trie
+            List<int[]> next = new ArrayList<>();
+            List<Integer> skillAt = new ArrayList<>();
+            List<Integer> depth = new ArrayList<>();
+            next.add(newRow(alphabetSize));
+            skillAt.add(-1);
+            depth.add(0);
+            int maxDepth = 0;
+            for (Map.Entry<String, Integer> entry : skillByAlias.entrySet()) {
+                int state = 0;
+                for (char c : entry.getKey().toCharArray()) {
+                    int cls = charClass[c];
+                    if (next.get(state)[cls] < 0) {
+                        next.get(state)[cls] = next.size();
+                        next.add(newRow(alphabetSize));
+                        skillAt.add(-1);
+                        depth.add(depth.get(state) + 1);
+                    }
+                    state = next.get(state)[cls];
+                }
+                skillAt.set(state, entry.getValue());
+                maxDepth = Math.max(maxDepth, depth.get(state));
+            }
+
+            // Failure links in breadth-first order, completing the trie into a DFA on the way
+            int states = next.size();
+            int[] fail = new int[states];
+            int[] outputLink = new int[states];
+            int[] delta = new int[states * alphabetSize];
+            ArrayDeque<Integer> queue = new ArrayDeque<>();
+            for (int cls = 0; cls < alphabetSize; cls++) {
+                int child = next.get(0)[cls];
+                if (child > 0) {
+                    queue.add(child);
+                    delta[cls] = child;
+                } else {
+                    delta[cls] = 0;
+                }
+            }
+            while (!queue.isEmpty()) {
+                int state = queue.poll();
+                int suffix = fail[state];
+                outputLink[state] = skillAt.get(suffix) >= 0 ? suffix : outputLink[suffix];
+                for (int cls = 0; cls < alphabetSize; cls++) {
+                    int child = next.get(state)[cls];
+                    if (child > 0) {
+                        fail[child] = delta[suffix * alphabetSize + cls];
+                        delta[state * alphabetSize + cls] = child;
+                        queue.add(child);
+                    } else {
+                        delta[state * alphabetSize + cls] = delta[suffix * alphabetSize + cls];
+                    }
+                }
+            }
+
+            return new SkillAutomaton(skillNames, charClass, alphabetSize, delta,
+                skillAt.stream().mapToInt(Integer::intValue).toArray(),
+                depth.stream().mapToInt(Integer::intValue).toArray(),
+                outputLink, maxDepth);
+        }
+
+        private static int[] newRow(int alphabetSize) {
+            int[] row = new int[alphabetSize];
+            Arrays.fill(row, -1);
+            return row;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.divyanshu.Intellimatch.scoring;
+
+/**
+ * The skills found in one document and how often each is mentioned, as parallel arrays sorted by
+ * skill id so two profiles can be compared in one merge pass.
+ */
+public final class SkillProfile {
+
+    private static final SkillProfile EMPTY = new SkillProfile(new int[0], new int[0]);
+
+    private final int[] skills;
+    private final int[] counts;
+
+    private SkillProfile(int[] skills, int[] counts) {
+        this.skills = skills;
+        this.counts = counts;
+    }
+
+    // counts is indexed by skill id
+    static SkillProfile of(int[] countsBySkill) {
+        int found = 0;
+        for (int count : countsBySkill) {
+            if (count > 0) {
+                found++;
+            }
+        }
+        if (found == 0) {
+            return EMPTY;
+        }
+        int[] skills = new int[found];
+        int[] counts = new int[found];
+        int next = 0;
+        for (int skill = 0; skill < countsBySkill.length; skill++) {
+            if (countsBySkill[skill] > 0) {
+                skills[next] = skill;
+                counts[next] = countsBySkill[skill];
+                next++;
+            }
+        }
+        return new SkillProfile(skills, counts);
+    }
+
+    public int size() {
+        return skills.length;
+    }
+
+    public boolean isEmpty() {
+        return skills.length == 0;
+    }
+
+    public int skillAt(int index) {
+        return skills[index];
+    }
+
+    public int countAt(int index) {
+        return counts[index];
+    }
+}
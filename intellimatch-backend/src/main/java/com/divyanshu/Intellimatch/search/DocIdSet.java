@@ -0,0 +1,81 @@
+package com.divyanshu.Intellimatch.search;
+
+import java.util.Arrays;
+
+/**
+ * A sorted set of document ids, used to restrict a search to the documents one user may see.
+ * Ids are nearly always added in increasing order, which appends; anything else is an insert.
+ */
+public final class DocIdSet {
+
+    private int[] ids = new int[8];
+    private int size;
+
+    public void add(int id) {
+        int at = Arrays.binarySearch(ids, 0, size, id);
+        if (at >= 0) {
+            return;
+        }
+        at = -at - 1;
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, size * 2);
+        }
+        System.arraycopy(ids, at, ids, at + 1, size - at);
+        ids[at] = id;
+        size++;
+    }
+
+    public void remove(int id) {
+        int at = Arrays.binarySearch(ids, 0, size, id);
+        if (at >= 0) {
+            System.arraycopy(ids, at + 1, ids, at, size - at - 1);
+            size--;
+        }
+    }
+
+    public boolean contains(int id) {
+        return Arrays.binarySearch(ids, 0, size, id) >= 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    int get(int index) {
+        return ids[index];
+    }
+
+    // Index of the first id >= target at or after from, or size if there is none
+    int seek(int from, int target) {
+        return seek(ids, from, size, target);
+    }
+
+    /**
+     * Galloping search in a sorted array: probes from, from + 1, from + 3, ... and then binary
+     * searches the last step, so short skips cost a few comparisons and long ones log(distance).
+     */
+    static int seek(int[] sorted, int from, int size, int target) {
+        if (from >= size || sorted[from] >= target) {
+            return from;
+        }
+        int low = from;
+        int step = 1;
+        int high = from + step;
+        while (high < size && sorted[high] < target) {
+            low = high;
+            step <<= 1;
+            high = from + step;
+        }
+        high = Math.min(high, size);
+        // sorted[low] < target, and target <= sorted[high] or high == size
+        while (low + 1 < high) {
+            int mid = (low + high) >>> 1;
+            if (sorted[mid] < target) {
+                low = mid;
+            } else {
+                high = mid;
+            }
+        }
+        return high;
+    }
+}
@@ -0,0 +1,271 @@
+package com.divyanshu.Intellimatch.search;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FileOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Append-only file the search index is persisted in. Every change to the index is appended as an
+ * entry, and opening the log replays the entries in order, which rebuilds the index as it was.
+ * Entries are written in batches made durable by sync(). A failed append or sync truncates the
+ * log back to the end of the last synced batch, so a retried batch does not follow a partial
+ * entry, which replay would stop at, dropping everything after it; if that truncation fails too,
+ * the log refuses writes until it is reopened. A torn entry at the end, left by a crash
+ * mid-write, is cut off when the log is opened.
+ */
+public final class IndexLog implements Closeable {
+
+    private static final int MAGIC = 0x494D5358; // "IMSX"
+    private static final int VERSION = 1;
+
+    private static final byte DOCUMENT = 1;
+    private static final byte UPLOAD = 2;
+    private static final byte CURSOR = 3;
+    private static final byte REMOVED = 4;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final FileOutputStream file;
+    private DataOutputStream out;
+    private long synced;          // length of the log at the last successful sync
+    private IOException failure;  // why the log refuses writes, if a rollback failed
+
+    private IndexLog(FileOutputStream file, long synced) {
+        this.file = file;
+        this.out = new DataOutputStream(new BufferedOutputStream(file, BUFFER_SIZE));
+        this.synced = synced;
+    }
+
+    /**
+     * Opens the log, creating it if it does not exist, after handing every entry in it to replay.
+     *
+     * @throws IOException if the file cannot be read or written, or is not an index log
+     */
+    public static IndexLog open(Path path, Consumer<Entry> replay) throws IOException {
+        if (Files.exists(path) && Files.size(path) > 0) {
+            long valid = replay(path, replay);
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+                if (channel.size() > valid) {
+                    channel.truncate(valid);
+                }
+            }
+            return new IndexLog(new FileOutputStream(path.toFile(), true), valid);
+        }
+        IndexLog log = new IndexLog(new FileOutputStream(path.toFile()), 0);
+        try {
+            log.out.writeInt(MAGIC);
+            log.out.writeInt(VERSION);
+            log.sync();
+        } catch (IOException e) {
+            log.file.close();
+            throw e;
+        }
+        return log;
+    }
+
+    /**
+     * @throws IOException if the entry could not be written; everything appended since the last
+     *                     sync is then discarded
+     */
+    public void append(Entry entry) throws IOException {
+        checkWritable();
+        try {
+            write(entry);
+        } catch (IOException e) {
+            rollBack(e);
+            throw e;
+        }
+    }
+
+    private void write(Entry entry) throws IOException {
+        if (entry instanceof Document document) {
+            out.writeByte(DOCUMENT);
+            out.writeUTF(document.key());
+            out.writeInt(document.terms().size());
+            for (Map.Entry<String, Integer> term : document.terms().entrySet()) {
+                out.writeUTF(term.getKey());
+                out.writeShort(Math.min(term.getValue(), Short.MAX_VALUE));
+            }
+        } else if (entry instanceof Upload upload) {
+            out.writeByte(UPLOAD);
+            out.writeUTF(upload.key());
+            out.writeUTF(upload.owner());
+            writeNullable(upload.name());
+            writeNullable(upload.url());
+        } else if (entry instanceof Cursor cursor) {
+            out.writeByte(CURSOR);
+            out.writeUTF(cursor.lastId());
+        } else if (entry instanceof Removed removed) {
+            out.writeByte(REMOVED);
+            out.writeUTF(removed.key());
+            out.writeUTF(removed.owner());
+        }
+    }
+
+    /**
+     * Makes everything appended so far durable.
+     *
+     * @throws IOException if it could not be; everything appended since the last sync is then
+     *                     discarded
+     */
+    public void sync() throws IOException {
+        checkWritable();
+        try {
+            out.flush();
+            file.getFD().sync();
+            synced = file.getChannel().size();
+        } catch (IOException e) {
+            rollBack(e);
+            throw e;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            out.flush();
+        } finally {
+            file.close();
+        }
+    }
+
+    private void checkWritable() throws IOException {
+        if (failure != null) {
+            throw new IOException("The search index log could not be rolled back after a failed write", failure);
+        }
+    }
+
+    // Drops the buffered bytes and cuts the file back to the last sync; appends go to the end again
+    private void rollBack(IOException cause) {
+        out = new DataOutputStream(new BufferedOutputStream(file, BUFFER_SIZE));
+        try {
+            file.getChannel().truncate(synced);
+        } catch (IOException e) {
+            cause.addSuppressed(e);
+            failure = cause;
+        }
+    }
+
+    // Returns the length of the log up to the last complete entry
+    private static long replay(Path path, Consumer<Entry> replay) throws IOException {
+        try (CountingInputStream counting = new CountingInputStream(new BufferedInputStream(Files.newInputStream(path), 64 * 1024));
+             DataInputStream in = new DataInputStream(counting)) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException(path + " is not a search index log");
+            }
+            int version = in.readInt();
+            if (version != VERSION) {
+                throw new IOException(path + " has version " + version + ", expected " + VERSION);
+            }
+            long valid = counting.count;
+            while (true) {
+                Entry entry;
+                try {
+                    int type = in.read();
+                    if (type < 0) {
+                        return valid;
+                    }
+                    entry = switch (type) {
+                        case DOCUMENT -> readDocument(in);
+                        case UPLOAD -> new Upload(in.readUTF(), in.readUTF(), readNullable(in), readNullable(in));
+                        case CURSOR -> new Cursor(in.readUTF());
+                        case REMOVED -> new Removed(in.readUTF(), in.readUTF());
+                        default -> throw new IOException("Unknown entry type " + type + " at offset " + valid + " of " + path);
+                    };
+                } catch (EOFException e) {
+                    return valid;
+                }
+                replay.accept(entry);
+                valid = counting.count;
+            }
+        }
+    }
+
+    private static Document readDocument(DataInputStream in) throws IOException {
+        String key = in.readUTF();
+        int size = in.readInt();
+        Map<String, Integer> terms = new HashMap<>(size * 4 / 3 + 1);
+        for (int i = 0; i < size; i++) {
+            terms.put(in.readUTF(), (int) in.readShort());
+        }
+        return new Document(key, terms);
+    }
+
+    private void writeNullable(String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readNullable(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    public sealed interface Entry permits Document, Upload, Cursor, Removed {
+    }
+
+    // A document's terms, under the key it is looked up by
+    public record Document(String key, Map<String, Integer> terms) implements Entry {
+    }
+
+    // One user's upload of an indexed document
+    public record Upload(String key, String owner, String name, String url) implements Entry {
+    }
+
+    // How far the source of the documents has been read
+    public record Cursor(String lastId) implements Entry {
+    }
+
+    // A user no longer has any upload of a document
+    public record Removed(String key, String owner) implements Entry {
+    }
+
+    private static final class CountingInputStream extends FilterInputStream {
+
+        private long count;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int read = super.read(buffer, offset, length);
+            if (read > 0) {
+                count += read;
+            }
+            return read;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            count += skipped;
+            return skipped;
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package com.divyanshu.Intellimatch.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * In-memory inverted index that ranks documents against a query with BM25. Documents get
+ * consecutive ids as they are added and are never removed, so every posting list is appended to
+ * in id order.
+ * <p>
+ * Top-K queries use MaxScore: every query term carries an upper bound of what it can add to a
+ * document's score. Once the K best so far are known, the terms whose bounds together cannot beat
+ * the K-th score become non-essential: candidates are drawn only from the remaining terms' posting
+ * lists, and the non-essential lists are only probed for a candidate that could still make it.
+ * Common, low-idf terms turn non-essential first, so their long lists are mostly skipped over
+ * instead of read. Job descriptions make long queries, where this beats WAND's per-document
+ * cursor sorting.
+ * <p>
+ * Not thread-safe: callers serialize add against search.
+ */
+public final class InvertedIndex {
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final int NO_MORE_DOCS = Integer.MAX_VALUE;
+
+    // Worst hit first, so the heap's head is the one to replace; ties go to the older document
+    private static final Comparator<Hit> WORST_FIRST = Comparator.comparingDouble(Hit::score)
+        .thenComparing(Comparator.comparingInt(Hit::doc).reversed());
+
+    private final Map<String, PostingList> postings = new HashMap<>();
+    private final int maxQueryTerms;
+    private int[] lengths = new int[1024];
+    private int documentCount;
+    private long totalLength;
+
+    /**
+     * @param maxQueryTerms queries with more distinct terms keep only this many, those with the
+     *                      highest idf times weight
+     */
+    public InvertedIndex(int maxQueryTerms) {
+        this.maxQueryTerms = maxQueryTerms;
+    }
+
+    /**
+     * @param termCounts term -> occurrences in the document
+     * @return the new document's id
+     */
+    public int add(Map<String, Integer> termCounts) {
+        int doc = documentCount;
+        int length = 0;
+        for (int count : termCounts.values()) {
+            length += count;
+        }
+        for (Map.Entry<String, Integer> entry : termCounts.entrySet()) {
+            postings.computeIfAbsent(entry.getKey(), term -> new PostingList()).add(doc, entry.getValue(), length);
+        }
+        if (doc == lengths.length) {
+            lengths = Arrays.copyOf(lengths, doc * 2);
+        }
+        lengths[doc] = length;
+        totalLength += length;
+        documentCount++;
+        return doc;
+    }
+
+    public int getDocumentCount() {
+        return documentCount;
+    }
+
+    public int getTermCount() {
+        return postings.size();
+    }
+
+    /**
+     * @param query   term -> weight the term's score is multiplied by
+     * @param k       how many hits to return at most
+     * @param allowed the documents that may be returned, or null for all
+     * @return the best k documents with a positive score, best first
+     */
+    public List<Hit> search(Map<String, Double> query, int k, DocIdSet allowed) {
+        if (k <= 0 || documentCount == 0 || (allowed != null && allowed.size() == 0)) {
+            return List.of();
+        }
+        double averageLength = Math.max(1.0, (double) totalLength / documentCount);
+        Cursor[] cursors = cursors(query, averageLength);
+
+        // Cheapest bounds first; prefix[i] is what cursors 0..i-1 can add together
+        Arrays.sort(cursors, Comparator.comparingDouble((Cursor cursor) -> cursor.upperBound));
+        double[] prefix = new double[cursors.length + 1];
+        for (int i = 0; i < cursors.length; i++) {
+            prefix[i + 1] = prefix[i] + cursors[i].upperBound;
+        }
+
+        PriorityQueue<Hit> top = new PriorityQueue<>(k, WORST_FIRST);
+        double threshold = 0;
+        // Cursors below firstEssential cannot lift a document above threshold on their own
+        int firstEssential = 0;
+        int allowedAt = 0;
+        while (firstEssential < cursors.length) {
+            int candidate = NO_MORE_DOCS;
+            for (int i = firstEssential; i < cursors.length; i++) {
+                candidate = Math.min(candidate, cursors[i].doc);
+            }
+            if (candidate == NO_MORE_DOCS) {
+                break;
+            }
+
+            if (allowed != null) {
+                allowedAt = allowed.seek(allowedAt, candidate);
+                if (allowedAt == allowed.size()) {
+                    break;
+                }
+                int nextAllowed = allowed.get(allowedAt);
+                if (nextAllowed != candidate) {
+                    // Nothing in between may be returned
+                    for (int i = firstEssential; i < cursors.length; i++) {
+                        cursors[i].advance(nextAllowed);
+                    }
+                    continue;
+                }
+            }
+
+            double norm = K1 * (1 - B + B * lengths[candidate] / averageLength);
+            double score = 0;
+            for (int i = firstEssential; i < cursors.length; i++) {
+                if (cursors[i].doc == candidate) {
+                    score += cursors[i].score(norm);
+                    cursors[i].advance(candidate + 1);
+                }
+            }
+            // Non-essential terms only count if the candidate can still make it with all of them
+            for (int i = firstEssential - 1; i >= 0 && score + prefix[i + 1] > threshold; i--) {
+                cursors[i].advance(candidate);
+                if (cursors[i].doc == candidate) {
+                    score += cursors[i].score(norm);
+                }
+            }
+
+            if (top.size() < k) {
+                top.add(new Hit(candidate, score));
+            } else if (score > threshold) {
+                top.poll();
+                top.add(new Hit(candidate, score));
+            }
+            if (top.size() == k) {
+                threshold = top.peek().score();
+                while (firstEssential < cursors.length && prefix[firstEssential + 1] <= threshold) {
+                    firstEssential++;
+                }
+            }
+        }
+
+        List<Hit> hits = new ArrayList<>(top);
+        hits.sort(WORST_FIRST.reversed());
+        return hits;
+    }
+
+    private Cursor[] cursors(Map<String, Double> query, double averageLength) {
+        List<Cursor> cursors = new ArrayList<>();
+        for (Map.Entry<String, Double> entry : query.entrySet()) {
+            PostingList list = postings.get(entry.getKey());
+            if (list == null || entry.getValue() <= 0) {
+                continue;
+            }
+            // Lucene's idf, which stays positive for terms in more than half the documents
+            double idf = Math.log(1 + (documentCount - list.size() + 0.5) / (list.size() + 0.5));
+            cursors.add(new Cursor(list, idf * entry.getValue(), averageLength));
+        }
+        if (cursors.size() > maxQueryTerms) {
+            cursors.sort(Comparator.comparingDouble((Cursor cursor) -> cursor.weight).reversed());
+            cursors = cursors.subList(0, maxQueryTerms);
+        }
+        return cursors.toArray(Cursor[]::new);
+    }
+
+    public record Hit(int doc, double score) {
+    }
+
+    private static final class Cursor {
+
+        private final PostingList list;
+        private final double weight;
+        private final double upperBound;
+        private int position;
+        private int doc;
+
+        Cursor(PostingList list, double weight, double averageLength) {
+            this.list = list;
+            this.weight = weight;
+            // Term frequency raises the score and document length lowers it, so the list's largest
+            // frequency in its shortest document bounds every posting
+            double norm = K1 * (1 - B + B * list.getMinLength() / averageLength);
+            this.upperBound = weight * list.getMaxTf() * (K1 + 1) / (list.getMaxTf() + norm);
+            this.doc = list.doc(0);
+        }
+
+        double score(double norm) {
+            int tf = list.tf(position);
+            return weight * tf * (K1 + 1) / (tf + norm);
+        }
+
+        // Moves to the first posting at or after target
+        void advance(int target) {
+            position = list.seek(position, target);
+            doc = position < list.size() ? list.doc(position) : NO_MORE_DOCS;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.divyanshu.Intellimatch.search;
+
+import java.util.Arrays;
+
+/**
+ * The documents containing one term, in increasing id order, with the term's frequency in each.
+ * Frequencies are kept in a byte and saturate at 255; BM25 is flat long before that. The largest
+ * frequency and the shortest document of the list bound the score any of its postings can reach.
+ */
+final class PostingList {
+
+    static final int MAX_TF = 255;
+
+    private int[] docs = new int[4];
+    private byte[] tfs = new byte[4];
+    private int size;
+    private int maxTf;
+    private int minLength = Integer.MAX_VALUE;
+
+    void add(int doc, int tf, int documentLength) {
+        if (size == docs.length) {
+            int capacity = size + (size >> 1);
+            docs = Arrays.copyOf(docs, capacity);
+            tfs = Arrays.copyOf(tfs, capacity);
+        }
+        int saturated = Math.min(tf, MAX_TF);
+        docs[size] = doc;
+        tfs[size] = (byte) saturated;
+        size++;
+        maxTf = Math.max(maxTf, saturated);
+        minLength = Math.min(minLength, documentLength);
+    }
+
+    int size() {
+        return size;
+    }
+
+    int doc(int index) {
+        return docs[index];
+    }
+
+    int tf(int index) {
+        return tfs[index] & 0xFF;
+    }
+
+    int getMaxTf() {
+        return maxTf;
+    }
+
+    int getMinLength() {
+        return minLength;
+    }
+
+    int seek(int from, int target) {
+        return DocIdSet.seek(docs, from, size, target);
+    }
+}
@@ -0,0 +1,70 @@
+package com.divyanshu.Intellimatch.search;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Splits text into the terms the search index is built from. Terms are runs of letters and digits,
+ * lower-cased; a dot between two of them stays inside the term ("node.js", "asp.net") and trailing
+ * '+' or '#' are kept ("c++", "c#"). Single characters and a short list of English stop words are
+ * dropped, since they would only make the longest posting lists longer. There is no stemming:
+ * resumes and job descriptions share their vocabulary closely enough that exact terms rank well.
+ */
+public final class TermCounter {
+
+    // Longer runs are hashes, URLs or base64 and never match anything
+    private static final int MAX_TERM_LENGTH = 32;
+
+    private static final Set<String> STOP_WORDS = Set.of(
+        "a", "an", "and", "are", "as", "at", "be", "been", "but", "by", "for", "from", "has", "have",
+        "in", "into", "is", "it", "its", "of", "on", "or", "our", "that", "the", "their", "this", "to",
+        "was", "we", "were", "will", "with", "you", "your"
+    );
+
+    private TermCounter() {
+    }
+
+    /**
+     * @return term -> number of occurrences in the text
+     */
+    public static Map<String, Integer> count(CharSequence text) {
+        Map<String, Integer> counts = new HashMap<>();
+        StringBuilder term = new StringBuilder();
+        int length = text.length();
+        int i = 0;
+        while (i < length) {
+            if (!Character.isLetterOrDigit(text.charAt(i))) {
+                i++;
+                continue;
+            }
+            term.setLength(0);
+            while (i < length) {
+                char c = text.charAt(i);
+                if (Character.isLetterOrDigit(c)) {
+                    term.append(Character.toLowerCase(c));
+                } else if (c == '.' && i + 1 < length && Character.isLetterOrDigit(text.charAt(i + 1))) {
+                    term.append(c);
+                } else {
+                    break;
+                }
+                i++;
+            }
+            int stem = term.length();
+            while (i < length && (text.charAt(i) == '+' || text.charAt(i) == '#')) {
+                term.append(text.charAt(i++));
+            }
+            // "AWS+GCP" is two terms, not "aws+"
+            if (i < length && Character.isLetterOrDigit(text.charAt(i))) {
+                term.setLength(stem);
+            }
+            if (term.length() > 1 && term.length() <= MAX_TERM_LENGTH) {
+                String value = term.toString();
+                if (!STOP_WORDS.contains(value)) {
+                    counts.merge(value, 1, Integer::sum);
+                }
+            }
+        }
+        return counts;
+    }
+}
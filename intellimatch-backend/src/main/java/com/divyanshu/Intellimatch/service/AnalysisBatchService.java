@@ -0,0 +1,158 @@
+package com.divyanshu.Intellimatch.service;
+
+import com.divyanshu.Intellimatch.dto.BatchProgressDTO;
+import com.divyanshu.Intellimatch.dto.CandidateDTO;
+import com.divyanshu.Intellimatch.dto.UploadedFile;
+import com.divyanshu.Intellimatch.model.AnalysisBatch;
+import com.divyanshu.Intellimatch.model.ResumeMatch;
+import com.divyanshu.Intellimatch.repository.AnalysisBatchRepository;
+import com.divyanshu.Intellimatch.repository.ResumeMatchRepository;
+import com.divyanshu.Intellimatch.scoring.SkillProfile;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Fans one uploaded resume out into a ResumeMatch and an AnalysisJob per job description. The
+ * resume is stored once and all matches point at the same file and hash, so its extracted text,
+ * its structured data and any cached results are shared by the whole batch. Candidate searches
+ * fan one job description out over stored resumes the same way. A create that fails partway
+ * removes the batch, matches and jobs it saved.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AnalysisBatchService {
+
+    private final AnalysisBatchRepository analysisBatchRepository;
+    private final ResumeMatchRepository resumeMatchRepository;
+    private final AnalysisJobService analysisJobService;
+    private final ResumeMatchService resumeMatchService;
+    private final PreScoreService preScoreService;
+    private final DocumentTextService documentTextService;
+
+    @Value("${analysis.batch.max-concurrency:4}")
+    private int maxConcurrency;
+
+    /**
+     * @param concurrency how many of the batch's jobs may be queued or running at once; null for
+     *                    the default, and never more than analysis.batch.max-concurrency
+     */
+    public AnalysisBatch createBatch(String userId, UploadedFile resume, List<UploadedFile> jobDescriptions, Integer concurrency) {
+        AnalysisBatch batch = new AnalysisBatch();
+        batch.setUserId(userId);
+        batch.setResumeName(resume.getOriginalFilename());
+        batch.setResumeUrl(resume.getStored().getUrl());
+        batch.setResumeHash(resume.getStored().getSha256());
+        AnalysisBatch savedBatch = saveBatch(batch, jobDescriptions.size(), concurrency);
+
+        List<ResumeMatch> savedMatches;
+        try {
+            // The resume is scanned for skills once for the whole batch
+            SkillProfile resumeSkills = preScoreService.profile(resume.getStored().getText());
+            List<ResumeMatch> matches = new ArrayList<>();
+            for (UploadedFile jobDescription : jobDescriptions) {
+                ResumeMatch match = new ResumeMatch(
+                    null,
+                    userId,
+                    resume.getOriginalFilename(),
+                    jobDescription.getOriginalFilename(),
+                    resume.getStored().getUrl(),
+                    jobDescription.getStored().getUrl(),
+                    null
+                );
+                match.setResumeHash(resume.getStored().getSha256());
+                match.setJobDescriptionHash(jobDescription.getStored().getSha256());
+                match.setBatchId(savedBatch.getId());
+                match.setProvisionalScore(preScoreService.score(resumeSkills, preScoreService.profile(jobDescription.getStored().getText())));
+                matches.add(match);
+            }
+            savedMatches = resumeMatchRepository.saveAll(matches);
+
+            analysisJobService.enqueueBatch(savedBatch, savedMatches);
+        } catch (RuntimeException e) {
+            discard(savedBatch, e);
+            throw e;
+        }
+        log.info("Created batch ID: {} with {} job descriptions for user ID: {}", savedBatch.getId(), savedMatches.size(), userId);
+        return savedBatch;
+    }
+
+    /**
+     * Queues the full analysis of a job description against the given candidates, which are
+     * resumes the user stored before; the matches point at the stored files.
+     */
+    public AnalysisBatch createCandidateBatch(String userId, UploadedFile jobDescription, List<CandidateDTO> candidates, Integer concurrency) {
+        AnalysisBatch batch = new AnalysisBatch();
+        batch.setUserId(userId);
+        batch.setJobDescriptionName(jobDescription.getOriginalFilename());
+        batch.setJobDescriptionUrl(jobDescription.getStored().getUrl());
+        batch.setJobDescriptionHash(jobDescription.getStored().getSha256());
+        AnalysisBatch savedBatch = saveBatch(batch, candidates.size(), concurrency);
+
+        List<ResumeMatch> savedMatches;
+        try {
+            SkillProfile jobDescriptionSkills = preScoreService.profile(jobDescription.getStored().getText());
+            List<ResumeMatch> matches = new ArrayList<>();
+            for (CandidateDTO candidate : candidates) {
+                ResumeMatch match = new ResumeMatch(
+                    null,
+                    userId,
+                    candidate.getResumeName(),
+                    jobDescription.getOriginalFilename(),
+                    candidate.getResumeUrl(),
+                    jobDescription.getStored().getUrl(),
+                    null
+                );
+                match.setResumeHash(candidate.getResumeHash());
+                match.setJobDescriptionHash(jobDescription.getStored().getSha256());
+                match.setBatchId(savedBatch.getId());
+                String resumeText = documentTextService.findText(candidate.getResumeHash()).orElse(null);
+                match.setProvisionalScore(preScoreService.score(preScoreService.profile(resumeText), jobDescriptionSkills));
+                matches.add(match);
+            }
+            savedMatches = resumeMatchRepository.saveAll(matches);
+
+            analysisJobService.enqueueBatch(savedBatch, savedMatches);
+        } catch (RuntimeException e) {
+            discard(savedBatch, e);
+            throw e;
+        }
+        log.info("Created batch ID: {} with {} candidate resumes for user ID: {}", savedBatch.getId(), savedMatches.size(), userId);
+        return savedBatch;
+    }
+
+    private AnalysisBatch saveBatch(AnalysisBatch batch, int total, Integer concurrency) {
+        batch.setTotal(total);
+        batch.setMaxConcurrency(Math.max(1, Math.min(concurrency != null ? concurrency : maxConcurrency, maxConcurrency)));
+        batch.setCreatedAt(new Date());
+        return analysisBatchRepository.save(batch);
+    }
+
+    // Undoes what a failed create saved, so no match is left pointing at files the upload never finished
+    private void discard(AnalysisBatch batch, RuntimeException cause) {
+        try {
+            analysisJobService.deleteBatchJobs(batch.getId());
+            resumeMatchRepository.deleteByBatchId(batch.getId());
+            analysisBatchRepository.deleteById(batch.getId());
+        } catch (RuntimeException e) {
+            cause.addSuppressed(e);
+            log.error("Could not remove the partly created batch ID: {}", batch.getId(), e);
+        }
+    }
+
+    // Batches belonging to other users are reported as missing
+    public Optional<BatchProgressDTO> getProgress(String batchId, String userId) {
+        return analysisBatchRepository.findById(batchId)
+            .filter(batch -> userId.equals(batch.getUserId()))
+            .map(batch -> new BatchProgressDTO(batch,
+                analysisJobService.countBatchJobsByStatus(batchId),
+                resumeMatchService.getBatchMatches(batchId)));
+    }
+}
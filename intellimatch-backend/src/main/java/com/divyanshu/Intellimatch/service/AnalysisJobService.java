@@ -0,0 +1,328 @@
+package com.divyanshu.Intellimatch.service;
+
+import com.divyanshu.Intellimatch.model.AnalysisBatch;
+import com.divyanshu.Intellimatch.model.AnalysisJob;
+import com.divyanshu.Intellimatch.model.AnalysisJobStatus;
+import com.divyanshu.Intellimatch.model.ResumeMatch;
+import com.divyanshu.Intellimatch.repository.AnalysisBatchRepository;
+import com.divyanshu.Intellimatch.repository.AnalysisJobRepository;
+import com.divyanshu.Intellimatch.tracing.TraceContexts;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AnalysisJobService {
+
+    private final AnalysisJobRepository analysisJobRepository;
+    private final AnalysisBatchRepository analysisBatchRepository;
+    private final MongoTemplate mongoTemplate;
+    private final MeterRegistry meterRegistry;
+    private final TraceContexts traceContexts;
+
+    // Lets idle workers on this node pick up a freshly queued job without waiting for the next poll
+    private final Semaphore queuedSignal = new Semaphore(0);
+
+    // A lock rather than synchronized: Mongo I/O under synchronized would pin a virtual thread's carrier
+    private final ReentrantLock batchSlotLock = new ReentrantLock();
+
+    @Value("${analysis.job.lease-seconds:300}")
+    private long leaseSeconds;
+
+    @Value("${analysis.job.max-attempts:3}")
+    private int maxAttempts;
+
+    @Value("${analysis.job.retry-backoff-seconds:30}")
+    private long retryBackoffSeconds;
+
+    public AnalysisJob enqueue(ResumeMatch resumeMatch) {
+        AnalysisJob job = new AnalysisJob(resumeMatch.getId(), resumeMatch.getUserId());
+        job.setTraceContext(traceContexts.capture());
+        job = analysisJobRepository.save(job);
+        log.info("Queued analysis job ID: {} for ResumeMatch ID: {}", job.getId(), resumeMatch.getId());
+        queuedSignal.release();
+        return job;
+    }
+
+    /**
+     * Queues one job per match of a batch. The first maxConcurrency jobs are PENDING; the rest are
+     * WAITING and get promoted by fillBatchSlots as earlier jobs of the batch finish.
+     */
+    public List<AnalysisJob> enqueueBatch(AnalysisBatch batch, List<ResumeMatch> matches) {
+        List<AnalysisJob> jobs = new ArrayList<>();
+        Map<String, String> traceContext = traceContexts.capture();
+        for (ResumeMatch match : matches) {
+            AnalysisJob job = new AnalysisJob(match.getId(), match.getUserId());
+            job.setBatchId(batch.getId());
+            job.setTraceContext(traceContext);
+            if (jobs.size() >= batch.getMaxConcurrency()) {
+                job.setStatus(AnalysisJobStatus.WAITING);
+            }
+            jobs.add(job);
+        }
+        List<AnalysisJob> saved = analysisJobRepository.saveAll(jobs);
+        log.info("Queued {} analysis jobs for batch ID: {}", saved.size(), batch.getId());
+        queuedSignal.release(Math.min(batch.getMaxConcurrency(), saved.size()));
+        return saved;
+    }
+
+    /**
+     * Promotes WAITING jobs of a batch to PENDING until the batch has maxConcurrency jobs queued or
+     * running. Fills are serialized on this node, but two nodes filling the same batch at once can
+     * overshoot the limit by a job or two; it is a fairness limit between batches, not a hard cap.
+     */
+    public void fillBatchSlots(String batchId) {
+        batchSlotLock.lock();
+        try {
+            promoteWaitingJobs(batchId);
+        } finally {
+            batchSlotLock.unlock();
+        }
+    }
+
+    private void promoteWaitingJobs(String batchId) {
+        AnalysisBatch batch = analysisBatchRepository.findById(batchId).orElse(null);
+        if (batch == null) {
+            return;
+        }
+        Query active = new Query(Criteria.where("batchId").is(batchId)
+                .and("status").in(AnalysisJobStatus.PENDING, AnalysisJobStatus.RUNNING));
+        long freeSlots = batch.getMaxConcurrency() - mongoTemplate.count(active, AnalysisJob.class);
+
+        Query waiting = new Query(Criteria.where("batchId").is(batchId).and("status").is(AnalysisJobStatus.WAITING))
+                .with(Sort.by(Sort.Direction.ASC, "createdAt").and(Sort.by(Sort.Direction.ASC, "_id")));
+        int promoted = 0;
+        while (promoted < freeSlots) {
+            Update update = new Update()
+                    .set("status", AnalysisJobStatus.PENDING)
+                    .set("nextAttemptAt", new Date());
+            if (mongoTemplate.findAndModify(waiting, update, AnalysisJob.class) == null) {
+                break;
+            }
+            promoted++;
+        }
+        if (promoted > 0) {
+            queuedSignal.release(promoted);
+        }
+    }
+
+    // Catches batches whose slot was not refilled because the node finishing a job died first
+    public void fillAllBatchSlots() {
+        Query waiting = new Query(Criteria.where("status").is(AnalysisJobStatus.WAITING));
+        for (String batchId : mongoTemplate.findDistinct(waiting, "batchId", AnalysisJob.class, String.class)) {
+            fillBatchSlots(batchId);
+        }
+    }
+
+    public Map<AnalysisJobStatus, Long> countBatchJobsByStatus(String batchId) {
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(Criteria.where("batchId").is(batchId)),
+                Aggregation.group("status").count().as("count")
+        );
+        Map<AnalysisJobStatus, Long> counts = new EnumMap<>(AnalysisJobStatus.class);
+        for (Document group : mongoTemplate.aggregate(aggregation, AnalysisJob.class, Document.class)) {
+            counts.put(AnalysisJobStatus.valueOf(group.getString("_id")), ((Number) group.get("count")).longValue());
+        }
+        return counts;
+    }
+
+    // Removes the jobs of a batch whose creation failed, before a worker gets far with them
+    public void deleteBatchJobs(String batchId) {
+        mongoTemplate.remove(new Query(Criteria.where("batchId").is(batchId)), AnalysisJob.class);
+    }
+
+    public void awaitQueuedWork(long timeoutMs) throws InterruptedException {
+        queuedSignal.tryAcquire(timeoutMs, TimeUnit.MILLISECONDS);
+    }
+
+    public Optional<AnalysisJob> findById(String jobId) {
+        return analysisJobRepository.findById(jobId);
+    }
+
+    /**
+     * Atomically claims the oldest runnable job for the given worker. A job is runnable when it is
+     * PENDING and due, or RUNNING with an expired lease (its previous owner died or stalled) and
+     * attempts left; one without is failed by claimAbandoned instead.
+     */
+    public Optional<AnalysisJob> claimNext(String workerId) {
+        Date now = new Date();
+        Query query = new Query(new Criteria().orOperator(
+                Criteria.where("status").is(AnalysisJobStatus.PENDING).and("nextAttemptAt").lte(now),
+                Criteria.where("status").is(AnalysisJobStatus.RUNNING).and("leaseExpiresAt").lt(now)
+                        .and("attempts").lt(maxAttempts)
+        )).with(Sort.by(Sort.Direction.ASC, "nextAttemptAt"));
+
+        Update update = new Update()
+                .set("status", AnalysisJobStatus.RUNNING)
+                .set("leaseOwner", workerId)
+                .set("leaseExpiresAt", leaseDeadline(now))
+                .set("startedAt", now)
+                .inc("attempts", 1);
+
+        AnalysisJob job = mongoTemplate.findAndModify(query, update,
+                FindAndModifyOptions.options().returnNew(true), AnalysisJob.class);
+        if (job != null && job.getNextAttemptAt() != null) {
+            // From when the job became due; a reclaimed job also counts the lease it waited out
+            Timer.builder("analysis.queue.wait")
+                    .description("Time analysis jobs were due before a worker claimed them")
+                    .register(meterRegistry)
+                    .record(Math.max(0, now.getTime() - job.getNextAttemptAt().getTime()), TimeUnit.MILLISECONDS);
+        }
+        return Optional.ofNullable(job);
+    }
+
+    /**
+     * Takes over a job whose lease expired on its last attempt, so the caller can mark it FAILED.
+     * Its worker crashed or hung, so processing never threw and retryOrFail never ran; claimNext
+     * does not reclaim it either. The attempt count is left as it is.
+     */
+    public Optional<AnalysisJob> claimAbandoned(String workerId) {
+        Date now = new Date();
+        Query query = new Query(Criteria.where("status").is(AnalysisJobStatus.RUNNING)
+                .and("leaseExpiresAt").lt(now)
+                .and("attempts").gte(maxAttempts));
+        Update update = new Update()
+                .set("leaseOwner", workerId)
+                .set("leaseExpiresAt", leaseDeadline(now));
+        return Optional.ofNullable(mongoTemplate.findAndModify(query, update,
+                FindAndModifyOptions.options().returnNew(true), AnalysisJob.class));
+    }
+
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    // PENDING jobs that are due, i.e. waiting only for a free worker
+    public long countDue() {
+        Query query = new Query(Criteria.where("status").is(AnalysisJobStatus.PENDING).and("nextAttemptAt").lte(new Date()));
+        return mongoTemplate.count(query, AnalysisJob.class);
+    }
+
+    /**
+     * Pushes the lease forward for jobs this worker is still processing, so long-running analyses
+     * are not reclaimed by another node.
+     */
+    public void renewLeases(String workerId, Collection<String> jobIds) {
+        if (jobIds.isEmpty()) {
+            return;
+        }
+        Query query = new Query(Criteria.where("_id").in(jobIds)
+                .and("status").is(AnalysisJobStatus.RUNNING)
+                .and("leaseOwner").is(workerId));
+        mongoTemplate.updateMulti(query, new Update().set("leaseExpiresAt", leaseDeadline(new Date())), AnalysisJob.class);
+    }
+
+    public void markDone(AnalysisJob job) {
+        Update update = new Update()
+                .set("status", AnalysisJobStatus.DONE)
+                .set("completedAt", new Date())
+                .unset("leaseOwner")
+                .unset("leaseExpiresAt");
+        mongoTemplate.updateFirst(ownedBy(job), update, AnalysisJob.class);
+        releaseBatchSlot(job);
+    }
+
+    /**
+     * Records a failed attempt. The job goes back to PENDING with a backoff while attempts remain,
+     * otherwise it is marked FAILED.
+     *
+     * @return true if the job will be retried
+     */
+    public boolean retryOrFail(AnalysisJob job, String errorMessage) {
+        boolean retry = job.getAttempts() < maxAttempts;
+        Date now = new Date();
+        Update update = new Update()
+                .set("lastError", errorMessage)
+                .unset("leaseOwner")
+                .unset("leaseExpiresAt");
+        if (retry) {
+            long backoffMillis = retryBackoffSeconds * 1000L * job.getAttempts();
+            update.set("status", AnalysisJobStatus.PENDING)
+                  .set("nextAttemptAt", new Date(now.getTime() + backoffMillis));
+            log.warn("Analysis job ID: {} failed attempt {}/{}, retrying in {} ms",
+                job.getId(), job.getAttempts(), maxAttempts, backoffMillis);
+        } else {
+            update.set("status", AnalysisJobStatus.FAILED)
+                  .set("completedAt", now);
+            log.error("Analysis job ID: {} failed after {} attempts: {}", job.getId(), job.getAttempts(), errorMessage);
+        }
+        mongoTemplate.updateFirst(ownedBy(job), update, AnalysisJob.class);
+        if (!retry) {
+            releaseBatchSlot(job);
+        }
+        return retry;
+    }
+
+    /**
+     * Puts a claimed job back in the queue without counting the attempt, for when it could not
+     * run because a downstream dependency is refusing work.
+     */
+    public void defer(AnalysisJob job, long delayMillis) {
+        Update update = new Update()
+                .set("status", AnalysisJobStatus.PENDING)
+                .set("nextAttemptAt", new Date(System.currentTimeMillis() + delayMillis))
+                .inc("attempts", -1)
+                .unset("leaseOwner")
+                .unset("leaseExpiresAt");
+        mongoTemplate.updateFirst(ownedBy(job), update, AnalysisJob.class);
+        log.info("Deferred analysis job ID: {} for {} ms", job.getId(), delayMillis);
+    }
+
+    public void markFailed(AnalysisJob job, String errorMessage) {
+        Update update = new Update()
+                .set("status", AnalysisJobStatus.FAILED)
+                .set("lastError", errorMessage)
+                .set("completedAt", new Date())
+                .unset("leaseOwner")
+                .unset("leaseExpiresAt");
+        mongoTemplate.updateFirst(ownedBy(job), update, AnalysisJob.class);
+        releaseBatchSlot(job);
+    }
+
+    // A finished batch job frees a slot for the next WAITING job of its batch
+    private void releaseBatchSlot(AnalysisJob job) {
+        if (job.getBatchId() == null) {
+            return;
+        }
+        try {
+            fillBatchSlots(job.getBatchId());
+        } catch (Exception e) {
+            log.warn("Failed to promote waiting jobs of batch ID: {}; the periodic sweep will retry", job.getBatchId(), e);
+        }
+    }
+
+    // Only the worker currently holding the lease may transition a job
+    private Query ownedBy(AnalysisJob job) {
+        return new Query(Criteria.where("_id").is(job.getId())
+                .and("status").is(AnalysisJobStatus.RUNNING)
+                .and("leaseOwner").is(job.getLeaseOwner()));
+    }
+
+    private Date leaseDeadline(Date from) {
+        return new Date(from.getTime() + leaseSeconds * 1000L);
+    }
+}
@@ -0,0 +1,266 @@
+package com.divyanshu.Intellimatch.service;
+
+import com.divyanshu.Intellimatch.model.AnalysisJob;
+import com.divyanshu.Intellimatch.resilience.AimdLimiter;
+import com.divyanshu.Intellimatch.resilience.CircuitBreaker;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs a fixed number of worker loops that claim analysis jobs from Mongo and process them.
+ * Idle workers sleep for the poll interval, or until a job is enqueued on this node. A worker only
+ * claims a job while the NLP circuit breaker is not open and a concurrency permit is available,
+ * so under backpressure jobs stay PENDING in Mongo where any node can pick them up later.
+ * <p>
+ * With virtual threads enabled there are no worker loops to size: a single dispatcher claims a job
+ * whenever a limiter permit is free and runs it on a virtual thread of its own.
+ */
+@Component
+@Slf4j
+public class AnalysisJobWorker {
+
+    private final AnalysisJobService analysisJobService;
+    private final ResumeMatchService resumeMatchService;
+    private final TaskExecutor analysisWorkerExecutor;
+    private final CircuitBreaker nlpCircuitBreaker;
+    private final AimdLimiter nlpConcurrencyLimiter;
+
+    private final String workerId = ManagementFactory.getRuntimeMXBean().getName() + ":" + UUID.randomUUID().toString().substring(0, 8);
+    private final Map<String, AnalysisJob> inFlight = new ConcurrentHashMap<>();
+    private final Set<Thread> idleThreads = ConcurrentHashMap.newKeySet();
+    // Wakes the dispatcher when a job finishes and hands its limiter permit back
+    private final Semaphore permitReleased = new Semaphore(0);
+    // Refreshed on a schedule rather than per scrape, so scrapes never query Mongo
+    private final AtomicLong dueJobs = new AtomicLong();
+    private final boolean virtualThreads;
+    private volatile boolean running;
+
+    @Value("${analysis.worker.threads:4}")
+    private int workerThreads;
+
+    @Value("${analysis.worker.poll-interval-ms:2000}")
+    private long pollIntervalMs;
+
+    public AnalysisJobWorker(AnalysisJobService analysisJobService,
+                             ResumeMatchService resumeMatchService,
+                             @Qualifier("analysisWorkerExecutor") TaskExecutor analysisWorkerExecutor,
+                             CircuitBreaker nlpCircuitBreaker,
+                             AimdLimiter nlpConcurrencyLimiter,
+                             Environment environment,
+                             MeterRegistry meterRegistry) {
+        this.analysisJobService = analysisJobService;
+        this.resumeMatchService = resumeMatchService;
+        this.analysisWorkerExecutor = analysisWorkerExecutor;
+        this.nlpCircuitBreaker = nlpCircuitBreaker;
+        this.nlpConcurrencyLimiter = nlpConcurrencyLimiter;
+        this.virtualThreads = Threading.VIRTUAL.isActive(environment);
+        if (!virtualThreads && environment.getProperty("spring.threads.virtual.enabled", Boolean.class, false)) {
+            log.warn("spring.threads.virtual.enabled is set but virtual threads need Java 21+; using platform threads");
+        }
+
+        Gauge.builder("analysis.jobs.in-flight", inFlight, Map::size)
+                .description("Analysis jobs being processed on this node").register(meterRegistry);
+        Gauge.builder("analysis.queue.depth", dueJobs, AtomicLong::get)
+                .description("Due analysis jobs waiting for a worker, across all nodes").register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        running = true;
+        if (virtualThreads) {
+            analysisWorkerExecutor.execute(this::dispatchLoop);
+            log.info("Started analysis dispatcher on virtual threads as {}", workerId);
+            return;
+        }
+        for (int i = 0; i < workerThreads; i++) {
+            analysisWorkerExecutor.execute(this::runLoop);
+        }
+        log.info("Started {} analysis workers as {}", workerThreads, workerId);
+    }
+
+    // Idle workers are interrupted right away; busy ones finish their current job and then exit
+    @PreDestroy
+    public void stop() {
+        running = false;
+        idleThreads.forEach(Thread::interrupt);
+    }
+
+    @Scheduled(fixedDelayString = "${analysis.job.lease-renew-interval-ms:60000}")
+    public void renewLeases() {
+        if (inFlight.isEmpty()) {
+            return;
+        }
+        try {
+            analysisJobService.renewLeases(workerId, new ArrayList<>(inFlight.keySet()));
+        } catch (Exception e) {
+            log.warn("Failed to renew leases for {} in-flight analysis jobs", inFlight.size(), e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${analysis.metrics.queue-depth-interval-ms:15000}")
+    public void refreshQueueDepth() {
+        try {
+            dueJobs.set(analysisJobService.countDue());
+        } catch (Exception e) {
+            log.debug("Failed to count due analysis jobs", e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${analysis.batch.slot-sweep-interval-ms:30000}")
+    public void fillBatchSlots() {
+        try {
+            analysisJobService.fillAllBatchSlots();
+        } catch (Exception e) {
+            log.warn("Failed to promote waiting batch jobs", e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${analysis.job.lease-sweep-interval-ms:60000}")
+    public void failAbandonedJobs() {
+        try {
+            int failed = resumeMatchService.failAbandonedJobs(workerId);
+            if (failed > 0) {
+                log.warn("Failed {} analysis jobs whose lease expired on their last attempt", failed);
+            }
+        } catch (Exception e) {
+            log.warn("Failed to sweep abandoned analysis jobs", e);
+        }
+    }
+
+    private void runLoop() {
+        Thread current = Thread.currentThread();
+        while (running) {
+            try {
+                idleThreads.add(current);
+                if (!nlpCircuitBreaker.isCallPermitted() || !nlpConcurrencyLimiter.tryAcquire()) {
+                    Thread.sleep(pollIntervalMs);
+                    continue;
+                }
+                try {
+                    Optional<AnalysisJob> claimed = analysisJobService.claimNext(workerId);
+                    if (claimed.isEmpty()) {
+                        analysisJobService.awaitQueuedWork(pollIntervalMs);
+                        continue;
+                    }
+                    idleThreads.remove(current);
+                    AnalysisJob job = claimed.get();
+                    inFlight.put(job.getId(), job);
+                    try {
+                        resumeMatchService.processAnalysisJob(job);
+                    } finally {
+                        inFlight.remove(job.getId());
+                    }
+                } finally {
+                    nlpConcurrencyLimiter.release();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                if (!running) {
+                    break;
+                }
+                log.error("Analysis worker error, backing off", e);
+                if (!backOff()) {
+                    break;
+                }
+            }
+        }
+        idleThreads.remove(current);
+    }
+
+    private void dispatchLoop() {
+        idleThreads.add(Thread.currentThread());
+        while (running) {
+            try {
+                if (!nlpCircuitBreaker.isCallPermitted() || !nlpConcurrencyLimiter.tryAcquire()) {
+                    permitReleased.tryAcquire(pollIntervalMs, TimeUnit.MILLISECONDS);
+                    continue;
+                }
+                Optional<AnalysisJob> claimed;
+                try {
+                    claimed = analysisJobService.claimNext(workerId);
+                } catch (RuntimeException e) {
+                    nlpConcurrencyLimiter.release();
+                    throw e;
+                }
+                if (claimed.isEmpty()) {
+                    nlpConcurrencyLimiter.release();
+                    analysisJobService.awaitQueuedWork(pollIntervalMs);
+                    continue;
+                }
+                dispatch(claimed.get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                if (!running) {
+                    break;
+                }
+                log.error("Analysis dispatcher error, backing off", e);
+                if (!backOff()) {
+                    break;
+                }
+            }
+        }
+        idleThreads.remove(Thread.currentThread());
+    }
+
+    // Runs a claimed job on its own thread; the limiter permit taken for it is released when it ends
+    private void dispatch(AnalysisJob job) {
+        inFlight.put(job.getId(), job);
+        try {
+            analysisWorkerExecutor.execute(() -> {
+                try {
+                    resumeMatchService.processAnalysisJob(job);
+                } catch (Exception e) {
+                    log.error("Analysis job ID: {} failed unexpectedly", job.getId(), e);
+                } finally {
+                    finish(job);
+                }
+            });
+        } catch (RuntimeException e) {
+            // Not started: the job keeps its lease and is reclaimed once it expires
+            finish(job);
+            throw e;
+        }
+    }
+
+    private void finish(AnalysisJob job) {
+        inFlight.remove(job.getId());
+        nlpConcurrencyLimiter.release();
+        permitReleased.release();
+    }
+
+    private boolean backOff() {
+        try {
+            Thread.sleep(pollIntervalMs);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
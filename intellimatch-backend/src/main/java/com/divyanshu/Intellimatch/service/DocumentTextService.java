@@ -0,0 +1,155 @@
+package com.divyanshu.Intellimatch.service;
+
+import com.divyanshu.Intellimatch.model.DocumentText;
+import com.divyanshu.Intellimatch.repository.DocumentTextRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Date;
+import java.util.Optional;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * Extracts plain text from uploaded PDF and DOCX files so the NLP service gets the text in the
+ * analysis request instead of downloading and parsing the files itself.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DocumentTextService {
+
+    private static final String PDF = "application/pdf";
+    private static final String DOCX = "application/vnd.openxmlformats-officedocument.wordprocessingml.document";
+
+    private static final Pattern HORIZONTAL_SPACE = Pattern.compile("[\\t\\x0B\\f\\r \\u00A0]+");
+    private static final Pattern BLANK_LINES = Pattern.compile("\\n\\s*\\n+");
+    private static final Pattern CONTROL_CHARS = Pattern.compile("[\\p{Cc}&&[^\\n]]");
+
+    private final DocumentTextRepository documentTextRepository;
+
+    @Value("${document.text.max-chars:100000}")
+    private int maxChars;
+
+    /**
+     * Extracts and stores the text for a file unless it is already stored under the same hash.
+     * Failures are logged and swallowed: the analysis then falls back to the file URL.
+     *
+     * @return the text, as stored, or empty if there is none
+     */
+    public Optional<String> extractAndStore(String sha256, byte[] content, String contentType) {
+        try {
+            Optional<DocumentText> stored = documentTextRepository.findById(sha256);
+            if (stored.isPresent()) {
+                return Optional.ofNullable(stored.get().getText());
+            }
+            String text = extract(content, contentType);
+            if (text.isBlank()) {
+                log.info("No text found in {} document {}", contentType, sha256);
+                return Optional.empty();
+            }
+
+            DocumentText documentText = new DocumentText();
+            documentText.setId(sha256);
+            documentText.setContentType(contentType);
+            documentText.setTruncated(text.length() > maxChars);
+            documentText.setText(text.length() > maxChars ? text.substring(0, maxChars) : text);
+            documentText.setCreatedAt(new Date());
+            documentTextRepository.save(documentText);
+            return Optional.of(documentText.getText());
+        } catch (Exception e) {
+            log.warn("Could not extract text from {} document {}: {}", contentType, sha256, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    public Optional<String> findText(String sha256) {
+        if (sha256 == null) {
+            return Optional.empty();
+        }
+        try {
+            return documentTextRepository.findById(sha256).map(DocumentText::getText);
+        } catch (Exception e) {
+            log.warn("Could not load extracted text for document {}", sha256, e);
+            return Optional.empty();
+        }
+    }
+
+    private String extract(byte[] content, String contentType) throws IOException, XMLStreamException {
+        String raw = switch (contentType) {
+            case PDF -> extractPdf(content);
+            case DOCX -> extractDocx(content);
+            default -> "";
+        };
+        return compact(raw);
+    }
+
+    private String extractPdf(byte[] content) throws IOException {
+        try (PDDocument document = Loader.loadPDF(content)) {
+            return new PDFTextStripper().getText(document);
+        }
+    }
+
+    // Walks word/document.xml directly: one line per paragraph, like python-docx on the NLP side
+    private String extractDocx(byte[] content) throws IOException, XMLStreamException {
+        try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(content))) {
+            ZipEntry entry;
+            while ((entry = zip.getNextEntry()) != null) {
+                if ("word/document.xml".equals(entry.getName())) {
+                    return readDocumentXml(zip);
+                }
+            }
+        }
+        return "";
+    }
+
+    private String readDocumentXml(InputStream in) throws XMLStreamException {
+        XMLInputFactory factory = XMLInputFactory.newFactory();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+
+        StringBuilder text = new StringBuilder();
+        XMLStreamReader reader = factory.createXMLStreamReader(in);
+        try {
+            // Stop reading once there is more text than would be kept anyway
+            while (reader.hasNext() && text.length() <= maxChars) {
+                int event = reader.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    switch (reader.getLocalName()) {
+                        case "t" -> text.append(reader.getElementText());
+                        case "tab" -> text.append('\t');
+                        case "br", "cr" -> text.append('\n');
+                        default -> { }
+                    }
+                } else if (event == XMLStreamConstants.END_ELEMENT && "p".equals(reader.getLocalName())) {
+                    text.append('\n');
+                }
+            }
+        } finally {
+            reader.close();
+        }
+        return text.toString();
+    }
+
+    // Collapses layout whitespace so the request carries only the words and line structure
+    private String compact(String raw) {
+        String text = CONTROL_CHARS.matcher(raw.replace("\r\n", "\n")).replaceAll(" ");
+        text = HORIZONTAL_SPACE.matcher(text).replaceAll(" ");
+        text = BLANK_LINES.matcher(text).replaceAll("\n\n");
+        return text.lines().map(String::strip).collect(Collectors.joining("\n")).strip();
+    }
+}
@@ -1,44 +1,80 @@
 package com.divyanshu.Intellimatch.service;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
-import lombok.RequiredArgsConstructor;
-import lombok.extern.slf4j.Slf4j;
-import software.amazon.awssdk.services.s3.S3Client;
-import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
+import com.divyanshu.Intellimatch.storage.BlobStore;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
 
+/**
+ * Deletes stored files off the request and analysis threads. Deletions are queued and flushed on
+ * a schedule in batches of up to storage.delete.batch-size keys, which S3 removes with one
+ * DeleteObjects call. Keys that fail are retried on later flushes; keys that still fail, or that do
+ * not fit in the queue, are left for OrphanBlobSweeper to find. The queue is in memory only, so the
+ * sweeper also removes whatever was still queued when the node stopped.
+ */
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class FileDeleteService {
-    private final S3Client s3Client;
 
-    @Value("${aws.s3.bucket}")
-    private String bucketName;
+    // The most keys S3 accepts in one DeleteObjects request
+    private static final int MAX_BATCH_SIZE = 1000;
+
+    private final BlobStore blobStore;
+    private final BlockingQueue<PendingDelete> queue;
+    private final int batchSize;
+    private final int maxAttempts;
+
+    private final Counter deleted;
+    private final Counter failed;
+    private final Counter dropped;
 
+    public FileDeleteService(BlobStore blobStore,
+                             MeterRegistry meterRegistry,
+                             @Value("${storage.delete.queue-capacity:10000}") int queueCapacity,
+                             @Value("${storage.delete.batch-size:1000}") int batchSize,
+                             @Value("${storage.delete.max-attempts:3}") int maxAttempts) {
+        this.blobStore = blobStore;
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, queueCapacity));
+        this.batchSize = Math.max(1, Math.min(batchSize, MAX_BATCH_SIZE));
+        this.maxAttempts = Math.max(1, maxAttempts);
+
+        this.deleted = Counter.builder("storage.deletes").tag("result", "deleted")
+                .description("Stored files deleted through the delete queue").register(meterRegistry);
+        this.failed = Counter.builder("storage.deletes").tag("result", "failed")
+                .description("Stored files deleted through the delete queue").register(meterRegistry);
+        this.dropped = Counter.builder("storage.deletes").tag("result", "dropped")
+                .description("Stored files deleted through the delete queue").register(meterRegistry);
+        Gauge.builder("storage.delete.queue.size", queue, BlockingQueue::size)
+                .description("Stored files waiting to be deleted").register(meterRegistry);
+    }
+
+    /**
+     * Queues the file for deletion.
+     *
+     * @throws IllegalArgumentException if the URL is empty or does not point into the blob store
+     */
     public void deleteFile(String fileUrl) {
         if (fileUrl == null || fileUrl.isEmpty()) {
             log.warn("Attempted to delete file with null or empty URL");
             throw new IllegalArgumentException("File URL must not be empty");
         }
-
-        try {
-            String key = fileUrl.replace("https://" + bucketName + ".s3.amazonaws.com/", "");
-            
-            DeleteObjectRequest request = DeleteObjectRequest.builder()
-                    .bucket(bucketName)
-                    .key(key)
-                    .build();
-
-            s3Client.deleteObject(request);
-            log.info("Successfully deleted file from S3: {}", key);
-            
-        } catch (Exception e) {
-            log.error("Failed to delete file from S3: {}", fileUrl, e);
-            throw new RuntimeException("Failed to delete file from S3", e);
-        }
+        deleteKey(blobStore.keyFor(fileUrl));
     }
 
     public void deleteResume(String resumeUrl) {
@@ -49,5 +85,87 @@ public class FileDeleteService {
     public void deleteJobDescription(String jobDescriptionUrl) {
         log.info("Deleting job description file: {}", jobDescriptionUrl);
         deleteFile(jobDescriptionUrl);
-    }    
+    }
+
+    /**
+     * Queues a blob for deletion by key.
+     *
+     * @return false if the queue is full and the blob was left in place
+     */
+    public boolean deleteKey(String key) {
+        if (queue.offer(new PendingDelete(key, 0))) {
+            return true;
+        }
+        dropped.increment();
+        log.warn("Delete queue is full; leaving {} for the orphan sweeper", key);
+        return false;
+    }
+
+    public int getRemainingCapacity() {
+        return queue.remainingCapacity();
+    }
+
+    /**
+     * Deletes everything queued so far in batches. Keys queued while the flush runs wait for the
+     * next one, and so do failed keys that have attempts left.
+     */
+    @Scheduled(fixedDelayString = "${storage.delete.flush-interval-ms:1000}")
+    public void flush() {
+        List<PendingDelete> retries = new ArrayList<>();
+        int remaining = queue.size();
+        List<PendingDelete> batch = new ArrayList<>(Math.min(remaining, batchSize));
+        while (remaining > 0) {
+            batch.clear();
+            queue.drainTo(batch, Math.min(remaining, batchSize));
+            if (batch.isEmpty()) {
+                break;
+            }
+            remaining -= batch.size();
+            deleteBatch(batch, retries);
+        }
+        for (PendingDelete retry : retries) {
+            if (!queue.offer(retry)) {
+                dropped.increment();
+                log.warn("Delete queue is full; leaving {} for the orphan sweeper", retry.key());
+            }
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+        if (!queue.isEmpty()) {
+            log.warn("{} stored files were not deleted before shutdown; the orphan sweeper will remove them", queue.size());
+        }
+    }
+
+    private void deleteBatch(List<PendingDelete> batch, List<PendingDelete> retries) {
+        Map<String, PendingDelete> byKey = batch.stream()
+                .collect(Collectors.toMap(PendingDelete::key, Function.identity(), (first, duplicate) -> first));
+        Set<String> failedKeys;
+        try {
+            failedKeys = Set.copyOf(blobStore.deleteAll(byKey.keySet()));
+        } catch (Exception e) {
+            log.warn("Failed to delete a batch of {} stored files", byKey.size(), e);
+            failedKeys = byKey.keySet();
+        }
+
+        deleted.increment(byKey.size() - failedKeys.size());
+        for (String key : failedKeys) {
+            PendingDelete pending = byKey.get(key);
+            if (pending == null) {
+                continue;
+            }
+            if (pending.attempts() + 1 < maxAttempts) {
+                retries.add(new PendingDelete(key, pending.attempts() + 1));
+            } else {
+                failed.increment();
+                log.error("Giving up deleting {} after {} attempts; leaving it for the orphan sweeper", key, maxAttempts);
+            }
+        }
+        log.debug("Deleted {} of {} stored files", byKey.size() - failedKeys.size(), byKey.size());
+    }
+
+    private record PendingDelete(String key, int attempts) {
+    }
 }
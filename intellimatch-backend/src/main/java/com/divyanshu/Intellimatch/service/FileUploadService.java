@@ -1,62 +1,347 @@
 package com.divyanshu.Intellimatch.service;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
 
+import org.apache.commons.fileupload2.core.DiskFileItem;
+import org.apache.commons.fileupload2.core.DiskFileItemFactory;
+import org.apache.commons.fileupload2.core.FileItemInput;
+import org.apache.commons.fileupload2.core.FileItemInputIterator;
+import org.apache.commons.fileupload2.jakarta.servlet6.JakartaServletFileUpload;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
 import org.springframework.stereotype.Service;
-import org.springframework.web.multipart.MultipartFile;
+import org.springframework.util.unit.DataSize;
 
-import lombok.RequiredArgsConstructor;
-import software.amazon.awssdk.core.sync.RequestBody;
-import software.amazon.awssdk.services.s3.S3Client;
-import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import com.divyanshu.Intellimatch.dto.StoredFile;
+import com.divyanshu.Intellimatch.dto.UploadedFile;
+import com.divyanshu.Intellimatch.storage.BlobStore;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Streams multipart request bodies straight to the blob store (S3 unless storage.type says
+ * otherwise). Parts are read off the request in fixed-size chunks and uploaded on a separate
+ * executor, so the request thread moves on to the next chunk (or the next file) while earlier ones
+ * are still uploading. Files no larger than one chunk go up with a single PUT; larger ones use a
+ * multipart upload. Uploads of one request share max-in-flight-parts slots, so a request holds
+ * at most max-in-flight-parts + 1 chunks in memory, whatever the size or number of its files.
+ */
 @Service
-@RequiredArgsConstructor
+@Slf4j
 public class FileUploadService {
 
-    private final S3Client s3Client;
+    public static final Set<String> ALLOWED_CONTENT_TYPES = Set.of(
+        "application/pdf",
+        "application/vnd.openxmlformats-officedocument.wordprocessingml.document"
+    );
+
+    // S3 rejects multipart parts smaller than 5 MB, except for the last one
+    private static final int MIN_PART_SIZE = 5 * 1024 * 1024;
+
+    private final BlobStore blobStore;
     private final FileDeleteService fileDeleteService;
+    private final TaskExecutor s3UploadExecutor;
+    private final DocumentTextService documentTextService;
+    private final MeterRegistry meterRegistry;
+    private final Tracer tracer;
 
-    @Value("${aws.s3.bucket}")
-    private String bucketName;
+    @Value("${upload.max-file-size:5MB}")
+    private DataSize maxFileSize;
 
-    public String uploadToS3(MultipartFile file, String folder) throws IOException {
-        if (file.isEmpty()) {
-            throw new IllegalArgumentException("File must not be empty");
+    @Value("${upload.s3.part-size:5MB}")
+    private DataSize partSize;
+
+    @Value("${upload.s3.max-in-flight-parts:2}")
+    private int maxInFlightParts;
+
+    public FileUploadService(BlobStore blobStore,
+                             FileDeleteService fileDeleteService,
+                             @Qualifier("s3UploadExecutor") TaskExecutor s3UploadExecutor,
+                             DocumentTextService documentTextService,
+                             MeterRegistry meterRegistry,
+                             Tracer tracer) {
+        this.blobStore = blobStore;
+        this.fileDeleteService = fileDeleteService;
+        this.s3UploadExecutor = s3UploadExecutor;
+        this.documentTextService = documentTextService;
+        this.meterRegistry = meterRegistry;
+        this.tracer = tracer;
+    }
+
+    /**
+     * Reads a multipart/form-data request as a stream and stores every file part whose field name
+     * is listed in fields. Other parts are skipped. If anything fails, files already stored for
+     * this request are deleted again.
+     *
+     * @return stored files keyed by field name, each list in request order
+     * @throws IllegalArgumentException if a part is empty, unnamed, not PDF/DOCX, or its field
+     *         has more files than allowed
+     * @throws org.apache.commons.fileupload2.core.FileUploadSizeException if a file is too large
+     */
+    public Map<String, List<UploadedFile>> storeFiles(HttpServletRequest request, Map<String, FileField> fields) throws IOException {
+        Span span = tracer.nextSpan().name("upload.store").start();
+        try (Tracer.SpanInScope ignored = tracer.withSpan(span)) {
+            return storeFiles(request, fields, span);
+        } catch (IOException | RuntimeException e) {
+            span.error(e);
+            throw e;
+        } finally {
+            span.end();
         }
-        
-        String originalFileName = file.getOriginalFilename();
-        if (originalFileName == null || originalFileName.trim().isEmpty()) {
-            throw new IllegalArgumentException("File must have a valid name");
+    }
+
+    private Map<String, List<UploadedFile>> storeFiles(HttpServletRequest request, Map<String, FileField> fields, Span span) throws IOException {
+        long maxFiles = fields.values().stream().mapToLong(FileField::maxFiles).sum();
+        JakartaServletFileUpload<DiskFileItem, DiskFileItemFactory> upload = new JakartaServletFileUpload<>();
+        upload.setFileSizeMax(maxFileSize.toBytes());
+        upload.setSizeMax(maxFileSize.toBytes() * maxFiles + MIN_PART_SIZE);
+
+        // Shared by every file in the request, so a batch of small files is bounded like one large file
+        Semaphore uploadSlots = new Semaphore(Math.max(1, maxInFlightParts));
+        Map<String, List<PendingUpload>> pending = new LinkedHashMap<>();
+        // Time spent reading the body; uploads of its earlier chunks overlap with it
+        Timer.Sample receive = Timer.start(meterRegistry);
+        boolean received = false;
+        try {
+            FileItemInputIterator items = upload.getItemIterator(request);
+            while (items.hasNext()) {
+                FileItemInput item = items.next();
+                FileField field = fields.get(item.getFieldName());
+                if (item.isFormField() || field == null) {
+                    continue;
+                }
+                List<PendingUpload> files = pending.computeIfAbsent(item.getFieldName(), name -> new ArrayList<>());
+                if (files.size() >= field.maxFiles()) {
+                    throw new IllegalArgumentException(field.maxFiles() == 1
+                        ? "Only one file is allowed for " + item.getFieldName()
+                        : "At most " + field.maxFiles() + " files are allowed for " + item.getFieldName());
+                }
+                if (item.getContentType() == null || !ALLOWED_CONTENT_TYPES.contains(item.getContentType())) {
+                    throw new IllegalArgumentException("Only PDF and DOCX files are allowed.");
+                }
+                String originalFileName = item.getName();
+                if (originalFileName == null || originalFileName.trim().isEmpty()) {
+                    throw new IllegalArgumentException("File must have a valid name");
+                }
+
+                String key = objectKey(field.folder(), originalFileName);
+                try (InputStream in = item.getInputStream()) {
+                    CompletableFuture<StoredFile> stored = streamToStore(in, key, item.getContentType(), uploadSlots);
+                    files.add(new PendingUpload(originalFileName, item.getContentType(), stored));
+                }
+            }
+            received = true;
+            receive.stop(uploadTimer("upload.receive", "Reading multipart upload bodies", "success"));
+            span.event("body received");
+
+            Map<String, List<UploadedFile>> uploaded = new LinkedHashMap<>();
+            for (Map.Entry<String, List<PendingUpload>> entry : pending.entrySet()) {
+                List<UploadedFile> files = new ArrayList<>();
+                for (PendingUpload file : entry.getValue()) {
+                    files.add(new UploadedFile(file.originalFilename(), file.contentType(), await(file.stored())));
+                }
+                uploaded.put(entry.getKey(), files);
+            }
+            return uploaded;
+        } catch (IOException | RuntimeException e) {
+            if (!received) {
+                receive.stop(uploadTimer("upload.receive", "Reading multipart upload bodies", "failure"));
+            }
+            discard(pending.values().stream().flatMap(List::stream).toList());
+            throw e;
         }
-        
+    }
+
+    private Timer uploadTimer(String name, String description, String outcome, String... tags) {
+        return Timer.builder(name)
+                .tags(tags)
+                .tag("outcome", outcome)
+                .description(description)
+                .register(meterRegistry);
+    }
+
+    // Package-private for UploadKeyBenchmark
+    static String objectKey(String folder, String originalFileName) {
         String sanitizedFileName = originalFileName
                 .replaceAll("[\\s+]+", "-") // Replace spaces and plus signs with -
                 .replaceAll("[^a-zA-Z0-9._-]", ""); // Remove any unsafe characters except . _ -
-        String key = folder + "/" + UUID.randomUUID() + "-" + sanitizedFileName;
+        return folder + "/" + UUID.randomUUID() + "-" + sanitizedFileName;
+    }
+
+    /**
+     * Reads the stream on the calling thread and uploads it on the upload executor. The SHA-256 is
+     * computed from the same read, so the content hash costs no extra pass over the file.
+     */
+    private CompletableFuture<StoredFile> streamToStore(InputStream body, String key, String contentType,
+                                                        Semaphore uploadSlots) throws IOException {
+        int chunkSize = (int) Math.max(MIN_PART_SIZE, partSize.toBytes());
+        MessageDigest digest = sha256();
+        InputStream in = new DigestInputStream(body, digest);
+
+        byte[] first = in.readNBytes(chunkSize);
+        if (first.length == 0) {
+            throw new IllegalArgumentException("File must not be empty");
+        }
+        // From the first chunk read to the file being stored, so a multipart upload includes reading its later parts
+        Timer.Sample store = Timer.start(meterRegistry);
+        if (first.length < chunkSize) {
+            String sha256 = HexFormat.of().formatHex(digest.digest());
+            acquire(uploadSlots, key);
+            CompletableFuture<Void> put;
+            try {
+                put = CompletableFuture.runAsync(() -> blobStore.put(key, contentType, first), s3UploadExecutor);
+            } catch (RejectedExecutionException e) {
+                // Nothing was submitted that would give the slot back
+                uploadSlots.release();
+                stopStore(store, "single", e);
+                throw e;
+            }
+            // The whole file is already in memory, so extract its text for the NLP request alongside the PUT
+            CompletableFuture<Optional<String>> text;
+            try {
+                text = CompletableFuture.supplyAsync(
+                        () -> documentTextService.extractAndStore(sha256, first, contentType), s3UploadExecutor);
+            } catch (RejectedExecutionException e) {
+                // The PUT is already running; without the text the NLP service downloads the file itself
+                text = CompletableFuture.completedFuture(Optional.empty());
+            }
+            return put.thenCombine(text, (putDone, extracted) ->
+                            new StoredFile(blobStore.urlFor(key), sha256, first.length, extracted.orElse(null)))
+                    .whenComplete((stored, error) -> {
+                        uploadSlots.release();
+                        stopStore(store, "single", error);
+                    });
+        }
+        // Files larger than one chunk are never held whole; the NLP service downloads those itself
+        return multipartUpload(in, first, chunkSize, digest, key, contentType, uploadSlots)
+                .whenComplete((stored, error) -> stopStore(store, "multipart", error));
+    }
+
+    private void stopStore(Timer.Sample store, String mode, Throwable error) {
+        store.stop(uploadTimer("upload.store", "Storing one uploaded file in the blob store",
+                error == null ? "success" : "failure", "mode", mode));
+    }
 
-        PutObjectRequest request = PutObjectRequest.builder()
-                .bucket(bucketName)
-                .key(key)
-                .contentType(file.getContentType())
-                .build();
+    private CompletableFuture<StoredFile> multipartUpload(InputStream in, byte[] first, int chunkSize, MessageDigest digest,
+                                                          String key, String contentType, Semaphore inFlight) throws IOException {
+        BlobStore.MultipartUpload upload = blobStore.startMultipartUpload(key, contentType);
 
-        s3Client.putObject(request, RequestBody.fromInputStream(file.getInputStream(), file.getSize()));
-        return "https://" + bucketName + ".s3.amazonaws.com/" + key;
+        List<CompletableFuture<Void>> parts = new ArrayList<>();
+        long size = 0;
+        try {
+            byte[] chunk = first;
+            while (chunk.length > 0) {
+                inFlight.acquire();
+                if (parts.stream().anyMatch(CompletableFuture::isCompletedExceptionally)) {
+                    inFlight.release();
+                    break;
+                }
+                byte[] data = chunk;
+                int partNumber = parts.size() + 1;
+                long offset = size;
+                try {
+                    parts.add(CompletableFuture
+                            .runAsync(() -> upload.uploadPart(partNumber, offset, data), s3UploadExecutor)
+                            .whenComplete((done, error) -> inFlight.release()));
+                } catch (RejectedExecutionException e) {
+                    inFlight.release();
+                    throw e;
+                }
+                size += chunk.length;
+                chunk = in.readNBytes(chunkSize);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            abortQuietly(key, upload);
+            throw new IOException("Interrupted while uploading " + key, e);
+        } catch (IOException | RuntimeException e) {
+            abortQuietly(key, upload);
+            throw e;
+        }
+
+        String sha256 = HexFormat.of().formatHex(digest.digest());
+        long totalSize = size;
+        return CompletableFuture.allOf(parts.toArray(CompletableFuture[]::new))
+                .thenApplyAsync(done -> {
+                    upload.complete();
+                    return new StoredFile(blobStore.urlFor(key), sha256, totalSize, null);
+                }, s3UploadExecutor)
+                .whenComplete((stored, error) -> {
+                    if (error != null) {
+                        abortQuietly(key, upload);
+                    }
+                });
+    }
+
+    private void acquire(Semaphore uploadSlots, String key) throws IOException {
+        try {
+            uploadSlots.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while uploading " + key, e);
+        }
+    }
+
+    private void abortQuietly(String key, BlobStore.MultipartUpload upload) {
+        try {
+            upload.abort();
+        } catch (Exception e) {
+            log.warn("Failed to abort multipart upload for {}", key, e);
+        }
     }
 
-    public String uploadResume(MultipartFile resume) throws IOException {
-        return uploadToS3(resume, "resumes");
+    // Waits for every upload started for the request, then deletes the ones that were stored
+    private void discard(Iterable<PendingUpload> pending) {
+        for (PendingUpload file : pending) {
+            try {
+                fileDeleteService.deleteFile(file.stored().join().getUrl());
+            } catch (Exception e) {
+                // Failed uploads have nothing to delete; multipart ones were already aborted
+                log.debug("Nothing to clean up for {}", file.originalFilename(), e);
+            }
+        }
+    }
+
+    private StoredFile await(CompletableFuture<StoredFile> stored) throws IOException {
+        try {
+            return stored.join();
+        } catch (CompletionException e) {
+            throw new IOException("Blob upload failed", e.getCause());
+        }
     }
 
-    public String uploadJobDescription(MultipartFile jobDescription) throws IOException {
-        return uploadToS3(jobDescription, "job-descriptions");
+    private MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
     }
-    
+
     /**
-     * Delete files from S3 in case of rollback/cleanup scenarios
+     * Delete stored files in case of rollback/cleanup scenarios
      */
     public void cleanupFiles(String resumeUrl, String jobDescriptionUrl) {
         try {
@@ -65,16 +350,41 @@ public class FileUploadService {
             }
         } catch (Exception e) {
             // Log but don't fail the cleanup process
-            System.err.println("Failed to delete resume from S3: " + e.getMessage());
+            log.warn("Failed to delete resume {} from storage: {}", resumeUrl, e.getMessage());
         }
-        
+
         try {
             if (jobDescriptionUrl != null && !jobDescriptionUrl.isEmpty()) {
                 fileDeleteService.deleteJobDescription(jobDescriptionUrl);
             }
         } catch (Exception e) {
             // Log but don't fail the cleanup process
-            System.err.println("Failed to delete job description from S3: " + e.getMessage());
+            log.warn("Failed to delete job description {} from storage: {}", jobDescriptionUrl, e.getMessage());
+        }
+    }
+
+    /**
+     * Delete stored files of a request that could not be completed; failures are only logged
+     */
+    public void cleanupFiles(List<UploadedFile> files) {
+        for (UploadedFile file : files) {
+            try {
+                fileDeleteService.deleteFile(file.getStored().getUrl());
+            } catch (Exception e) {
+                log.warn("Failed to delete {} from storage: {}", file.getOriginalFilename(), e.getMessage());
+            }
         }
     }
+
+    /**
+     * A form field that carries files: the storage folder they go to and how many one request may send.
+     */
+    public record FileField(String folder, int maxFiles) {
+        public static FileField single(String folder) {
+            return new FileField(folder, 1);
+        }
+    }
+
+    private record PendingUpload(String originalFilename, String contentType, CompletableFuture<StoredFile> stored) {
+    }
 }
@@ -0,0 +1,182 @@
+package com.divyanshu.Intellimatch.service;
+
+import com.divyanshu.Intellimatch.cache.TtlLruCache;
+import com.divyanshu.Intellimatch.dto.MatchEventDTO;
+import com.divyanshu.Intellimatch.model.MatchEvent;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Date;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Pushes analysis status changes to the user's open /api/events streams. Streams are SseEmitters,
+ * which run on servlet async I/O: an idle stream is a registered socket and an entry in this
+ * registry, not a blocked thread. Events are delivered straight away on the node that published
+ * them and written to match_events, which every node polls once per interval (one query for all
+ * of its streams) to forward events published elsewhere.
+ */
+@Service
+@Slf4j
+public class MatchEventService {
+
+    private static final int MAX_RELAYED_USER_FILTER = 1000;
+
+    private final MongoTemplate mongoTemplate;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final Map<String, Set<SseEmitter>> emittersByUser = new ConcurrentHashMap<>();
+    // Polls overlap by the lookback window, so remember what was already forwarded
+    private final TtlLruCache<String, Boolean> relayed;
+    private final long lookbackMs;
+    private volatile long lastRelayAt = System.currentTimeMillis();
+
+    @Value("${events.sse.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    @Value("${events.sse.max-streams-per-user:5}")
+    private int maxStreamsPerUser;
+
+    @Value("${events.relay.max-events:1000}")
+    private int maxRelayedEvents;
+
+    public MatchEventService(MongoTemplate mongoTemplate,
+                             MeterRegistry meterRegistry,
+                             @Value("${events.relay.lookback-ms:5000}") long lookbackMs) {
+        this.mongoTemplate = mongoTemplate;
+        this.lookbackMs = lookbackMs;
+        this.relayed = new TtlLruCache<>(10_000, lookbackMs * 4);
+        Gauge.builder("events.sse.streams", emittersByUser, users -> users.values().stream().mapToInt(Set::size).sum())
+                .description("Open match event streams on this node").register(meterRegistry);
+    }
+
+    /**
+     * Opens an event stream for the user.
+     *
+     * @return the stream, or empty if the user already has the maximum number of streams open
+     */
+    public Optional<SseEmitter> subscribe(String userId) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Set<SseEmitter> emitters = emittersByUser.compute(userId, (id, current) -> {
+            Set<SseEmitter> set = current != null ? current : ConcurrentHashMap.newKeySet();
+            if (set.size() < maxStreamsPerUser) {
+                set.add(emitter);
+            }
+            return set;
+        });
+        if (!emitters.contains(emitter)) {
+            return Optional.empty();
+        }
+
+        emitter.onCompletion(() -> remove(userId, emitter));
+        emitter.onTimeout(() -> remove(userId, emitter));
+        emitter.onError(error -> remove(userId, emitter));
+        try {
+            // Flushes the response headers so proxies and the browser see the stream open right away
+            emitter.send(SseEmitter.event().comment("connected"));
+        } catch (Exception e) {
+            remove(userId, emitter);
+            return Optional.empty();
+        }
+        return Optional.of(emitter);
+    }
+
+    // Never throws: a lost event only means the client learns about the change on its next fetch
+    public void publish(MatchEvent event) {
+        event.setOrigin(nodeId);
+        try {
+            mongoTemplate.insert(event);
+        } catch (Exception e) {
+            log.warn("Failed to store match event for ResumeMatch ID: {}; other nodes will not see it", event.getMatchId(), e);
+        }
+        send(event);
+    }
+
+    @Scheduled(fixedDelayString = "${events.relay.interval-ms:1000}")
+    public void relayRemoteEvents() {
+        long now = System.currentTimeMillis();
+        if (emittersByUser.isEmpty()) {
+            lastRelayAt = now;
+            return;
+        }
+        try {
+            Criteria criteria = Criteria.where("createdAt").gt(new Date(lastRelayAt - lookbackMs))
+                    .and("origin").ne(nodeId);
+            Set<String> users = emittersByUser.keySet();
+            if (users.size() <= MAX_RELAYED_USER_FILTER) {
+                criteria = criteria.and("userId").in(users);
+            }
+            Query query = new Query(criteria).with(Sort.by(Sort.Direction.ASC, "createdAt")).limit(maxRelayedEvents);
+            for (MatchEvent event : mongoTemplate.find(query, MatchEvent.class)) {
+                if (relayed.get(event.getId()) == null) {
+                    relayed.put(event.getId(), Boolean.TRUE);
+                    send(event);
+                }
+            }
+            lastRelayAt = now;
+        } catch (Exception e) {
+            log.warn("Failed to relay match events from other nodes", e);
+        }
+    }
+
+    // Keeps idle streams from being cut by proxies and finds clients that went away
+    @Scheduled(fixedDelayString = "${events.sse.heartbeat-interval-ms:20000}")
+    public void sendHeartbeats() {
+        emittersByUser.forEach((userId, emitters) -> {
+            for (SseEmitter emitter : emitters) {
+                try {
+                    emitter.send(SseEmitter.event().comment("heartbeat"));
+                } catch (Exception e) {
+                    remove(userId, emitter);
+                }
+            }
+        });
+    }
+
+    @PreDestroy
+    public void closeStreams() {
+        emittersByUser.values().forEach(emitters -> emitters.forEach(SseEmitter::complete));
+        emittersByUser.clear();
+    }
+
+    private void send(MatchEvent event) {
+        Set<SseEmitter> emitters = emittersByUser.get(event.getUserId());
+        if (emitters == null) {
+            return;
+        }
+        SseEmitter.SseEventBuilder builder = SseEmitter.event().name("match").data(new MatchEventDTO(event));
+        if (event.getId() != null) {
+            builder.id(event.getId());
+        }
+        // Built once and shared: the builder appends to itself on every build
+        Set<ResponseBodyEmitter.DataWithMediaType> message = builder.build();
+        for (SseEmitter emitter : emitters) {
+            try {
+                emitter.send(message);
+            } catch (Exception e) {
+                remove(event.getUserId(), emitter);
+            }
+        }
+    }
+
+    private void remove(String userId, SseEmitter emitter) {
+        emittersByUser.computeIfPresent(userId, (id, emitters) -> {
+            emitters.remove(emitter);
+            return emitters.isEmpty() ? null : emitters;
+        });
+    }
+}
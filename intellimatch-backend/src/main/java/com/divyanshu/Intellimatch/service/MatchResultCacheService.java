@@ -0,0 +1,114 @@
+package com.divyanshu.Intellimatch.service;
+
+import com.divyanshu.Intellimatch.cache.TtlLruCache;
+import com.divyanshu.Intellimatch.model.MatchResult;
+import com.divyanshu.Intellimatch.model.ResumeMatch;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.Optional;
+
+/**
+ * Content-addressed cache of NLP results. The same resume and job description analysed by the
+ * same model always yield a reusable MatchResult, so repeat pairs skip the NLP service entirely.
+ * Lookups go to a local LRU tier first and fall back to the newest match of the same documents
+ * in resume_matches, which carries its result, so caching costs no writes of its own.
+ * <p>
+ * Only the local tier is bounded, by match.cache.local.max-entries and the TTL. The Mongo tier is
+ * unbounded on purpose: it holds nothing of its own but reads the results users keep in their
+ * history, which a cache bound must not delete. There the TTL only limits how old a reused result
+ * may be, and a lookup is one query on the hashes_modelVersion_analyzedAt index however many
+ * results there are.
+ */
+@Service
+@Slf4j
+public class MatchResultCacheService {
+
+    private final MongoTemplate mongoTemplate;
+    private final TtlLruCache<String, MatchResult> localCache;
+    private final Duration ttl;
+
+    private final Counter localHits;
+    private final Counter mongoHits;
+    private final Counter misses;
+
+    @Value("${nlp.model.version}")
+    private String modelVersion;
+
+    public MatchResultCacheService(MongoTemplate mongoTemplate,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${match.cache.local.max-entries:1000}") int maxLocalEntries,
+                                   @Value("${match.cache.ttl-hours:168}") long ttlHours) {
+        this.mongoTemplate = mongoTemplate;
+        this.ttl = Duration.ofHours(ttlHours);
+        this.localCache = new TtlLruCache<>(maxLocalEntries, ttl.toMillis());
+
+        this.localHits = Counter.builder("match.cache.requests").tag("tier", "local").tag("result", "hit")
+                .description("Match result cache lookups").register(meterRegistry);
+        this.mongoHits = Counter.builder("match.cache.requests").tag("tier", "mongo").tag("result", "hit")
+                .description("Match result cache lookups").register(meterRegistry);
+        this.misses = Counter.builder("match.cache.requests").tag("tier", "mongo").tag("result", "miss")
+                .description("Match result cache lookups").register(meterRegistry);
+        Gauge.builder("match.cache.local.size", localCache, TtlLruCache::size)
+                .description("Entries held in the local match result cache").register(meterRegistry);
+    }
+
+    public Optional<MatchResult> get(String resumeHash, String jobDescriptionHash) {
+        if (resumeHash == null || jobDescriptionHash == null) {
+            return Optional.empty();
+        }
+        String key = cacheKey(resumeHash, jobDescriptionHash);
+
+        MatchResult local = localCache.get(key);
+        if (local != null) {
+            localHits.increment();
+            return Optional.of(local);
+        }
+
+        // Only successful analyses carry a modelVersion, so failed ones are never reused
+        Query query = new Query(Criteria.where("resumeHash").is(resumeHash)
+                .and("jobDescriptionHash").is(jobDescriptionHash)
+                .and("modelVersion").is(modelVersion)
+                .and("analyzedAt").gt(new Date(System.currentTimeMillis() - ttl.toMillis())))
+                .with(Sort.by(Sort.Direction.DESC, "analyzedAt"))
+                .limit(1);
+        query.fields().include("result");
+        Optional<MatchResult> stored = Optional.ofNullable(mongoTemplate.findOne(query, ResumeMatch.class))
+                .map(ResumeMatch::getResult);
+        if (stored.isPresent()) {
+            mongoHits.increment();
+            localCache.put(key, stored.get());
+        } else {
+            misses.increment();
+        }
+        return stored;
+    }
+
+    // Only successful analyses should be cached; failures must be retried against the NLP service.
+    // Other nodes find the result through the match it was saved with.
+    public void put(String resumeHash, String jobDescriptionHash, MatchResult result) {
+        if (resumeHash == null || jobDescriptionHash == null) {
+            return;
+        }
+        localCache.put(cacheKey(resumeHash, jobDescriptionHash), result);
+    }
+
+    // Stored with each successful result so that a model upgrade stops old results from being reused
+    public String getModelVersion() {
+        return modelVersion;
+    }
+
+    private String cacheKey(String resumeHash, String jobDescriptionHash) {
+        return resumeHash + ":" + jobDescriptionHash + ":" + modelVersion;
+    }
+}
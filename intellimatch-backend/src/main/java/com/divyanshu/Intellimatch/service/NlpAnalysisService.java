@@ -1,112 +1,159 @@
 package com.divyanshu.Intellimatch.service;
 
+import com.divyanshu.Intellimatch.dto.NlpAnalysisRequest;
+import com.divyanshu.Intellimatch.dto.NlpAnalysisResponse;
+import com.divyanshu.Intellimatch.exception.NlpAnalysisException;
+import com.divyanshu.Intellimatch.exception.NlpUnavailableException;
 import com.divyanshu.Intellimatch.model.MatchResult;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import lombok.RequiredArgsConstructor;
+import com.divyanshu.Intellimatch.resilience.AimdLimiter;
+import com.divyanshu.Intellimatch.resilience.CircuitBreaker;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.*;
 import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestTemplate;
 
-import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
 @Service
-@RequiredArgsConstructor
 public class NlpAnalysisService {
 
-    private final RestTemplate restTemplate = new RestTemplate();
-    private final ObjectMapper objectMapper = new ObjectMapper();
-    
+    // Pooled, deadline-bounded client from NlpClientConfig
+    private final RestTemplate nlpRestTemplate;
+    private final CircuitBreaker nlpCircuitBreaker;
+    private final AimdLimiter nlpConcurrencyLimiter;
+    private final MeterRegistry meterRegistry;
+
     @Value("${nlp.api.url}")
     private String nlpApiUrl;
 
-    public MatchResult analyzeResumeMatch(String resumeUrl, String jobDescriptionUrl) {
+    @Value("${nlp.extract.url}")
+    private String nlpExtractUrl;
+
+    public NlpAnalysisService(RestTemplate nlpRestTemplate,
+                              CircuitBreaker nlpCircuitBreaker,
+                              AimdLimiter nlpConcurrencyLimiter,
+                              MeterRegistry meterRegistry) {
+        this.nlpRestTemplate = nlpRestTemplate;
+        this.nlpCircuitBreaker = nlpCircuitBreaker;
+        this.nlpConcurrencyLimiter = nlpConcurrencyLimiter;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Calls the NLP service for a resume/job description pair. Text extracted at upload time is
+     * sent along with the URLs; the service only downloads a document whose text is null, and
+     * skips parsing the resume when the request carries its structured data.
+     *
+     * @throws NlpAnalysisException if the service fails or returns an unreadable response, so the
+     *         caller can retry instead of persisting (and caching) an error as a real result
+     * @throws NlpUnavailableException if the circuit breaker is open and the call was not made
+     */
+    public MatchResult analyzeResumeMatch(NlpAnalysisRequest request) {
+        return guarded("analyze", () -> post(nlpApiUrl, request, new ParameterizedTypeReference<NlpAnalysisResponse>() { }).toMatchResult());
+    }
+
+    /**
+     * Asks the NLP service for the structured data of a resume, as it would extract it during an
+     * analysis, so it can be reused for every job description the resume is matched against.
+     *
+     * @throws NlpAnalysisException if the service fails or returns an unreadable response
+     * @throws NlpUnavailableException if the circuit breaker is open and the call was not made
+     */
+    public Map<String, Object> extractResumeData(String resumeUrl, String resumeText) {
+        Map<String, String> payload = new HashMap<>();
+        payload.put("resumeUrl", resumeUrl);
+        if (resumeText != null) {
+            payload.put("resumeText", resumeText);
+        }
+        return guarded("extract", () -> {
+            Map<String, Object> data = post(nlpExtractUrl, payload, new ParameterizedTypeReference<Map<String, Object>>() { });
+            if (data.isEmpty()) {
+                throw new NlpAnalysisException("NLP service returned no resume data");
+            }
+            return data;
+        });
+    }
+
+    // Every NLP call goes through the circuit breaker and feeds the adaptive concurrency limit
+    private <T> T guarded(String operation, Supplier<T> call) {
+        long permit = nlpCircuitBreaker.tryAcquirePermission();
+        if (permit == CircuitBreaker.NOT_PERMITTED) {
+            record(operation, "rejected", 0);
+            throw new NlpUnavailableException("NLP circuit breaker is open", nlpCircuitBreaker.remainingOpenMillis());
+        }
+
+        long start = System.nanoTime();
         try {
-            // Prepare request payload
-            Map<String, String> payload = new HashMap<>();
-            payload.put("resumeUrl", resumeUrl);
-            payload.put("jobDescriptionUrl", jobDescriptionUrl);
+            T result = call.get();
+            long elapsed = System.nanoTime() - start;
+            nlpCircuitBreaker.onSuccess(permit);
+            nlpConcurrencyLimiter.onSample(elapsed, false);
+            record(operation, "success", elapsed);
+            return result;
+        } catch (NlpAnalysisException e) {
+            long elapsed = System.nanoTime() - start;
+            // A 4xx means the request was bad, not that the backend is unhealthy
+            if (e.getCause() instanceof HttpClientErrorException) {
+                nlpCircuitBreaker.onSuccess(permit);
+                record(operation, "client_error", elapsed);
+            } else {
+                nlpCircuitBreaker.onFailure(permit);
+                nlpConcurrencyLimiter.onSample(elapsed, true);
+                record(operation, "error", elapsed);
+            }
+            throw e;
+        }
+    }
+
+    // Calls shed by the open breaker are recorded too, with no latency, so the outcomes add up to every attempt
+    private void record(String operation, String outcome, long elapsedNanos) {
+        Timer.builder("nlp.calls")
+                .tag("operation", operation)
+                .tag("outcome", outcome)
+                .description("NLP service calls by outcome")
+                .register(meterRegistry)
+                .record(elapsedNanos, TimeUnit.NANOSECONDS);
+    }
 
+    // The body is bound by RestTemplate's Jackson converter as it streams in, with the application's ObjectMapper
+    private <T> T post(String url, Object payload, ParameterizedTypeReference<T> responseType) {
+        try {
             // Set headers
             HttpHeaders headers = new HttpHeaders();
             headers.setContentType(MediaType.APPLICATION_JSON);
 
             // Create request entity
-            HttpEntity<Map<String, String>> requestEntity = new HttpEntity<>(payload, headers);
+            HttpEntity<Object> requestEntity = new HttpEntity<>(payload, headers);
 
 
             // Make API call
-            ResponseEntity<String> response = restTemplate.exchange(
-                nlpApiUrl,
+            ResponseEntity<T> response = nlpRestTemplate.exchange(
+                url,
                 HttpMethod.POST,
                 requestEntity,
-                String.class
+                responseType
             );
 
             if (response.getStatusCode() == HttpStatus.OK) {
-                String responseBody = response.getBody();
-                
-                return parseNlpResponse(responseBody);
-            } else {
-                return createDefaultErrorResult();
-            }
-
-        } catch (Exception e) {
-            return createDefaultErrorResult();
-        }
-    }
-
-    private MatchResult parseNlpResponse(String responseBody) {
-        try {
-            JsonNode jsonNode = objectMapper.readTree(responseBody);
-            
-            MatchResult matchResult = new MatchResult();
-            matchResult.setAtsScorePercent(jsonNode.get("ats_score_percent").asInt());
-            matchResult.setSummary(jsonNode.get("summary").asText());
-
-            // Parse what_matched array
-            List<MatchResult.MatchDetail> whatMatched = new ArrayList<>();
-            JsonNode whatMatchedNode = jsonNode.get("what_matched");
-            if (whatMatchedNode != null && whatMatchedNode.isArray()) {
-                for (JsonNode matchNode : whatMatchedNode) {
-                    MatchResult.MatchDetail detail = new MatchResult.MatchDetail();
-                    detail.setItem(matchNode.get("item").asText());
-                    detail.setReason(matchNode.get("reason").asText());
-                    whatMatched.add(detail);
-                }
-            }
-            matchResult.setWhatMatched(whatMatched);
-
-            // Parse what_is_missing array
-            List<MatchResult.MissingDetail> whatIsMissing = new ArrayList<>();
-            JsonNode whatIsMissingNode = jsonNode.get("what_is_missing");
-            if (whatIsMissingNode != null && whatIsMissingNode.isArray()) {
-                for (JsonNode missingNode : whatIsMissingNode) {
-                    MatchResult.MissingDetail detail = new MatchResult.MissingDetail();
-                    detail.setItem(missingNode.get("item").asText());
-                    detail.setRecommendation(missingNode.get("recommendation").asText());
-                    whatIsMissing.add(detail);
+                if (response.getBody() == null) {
+                    throw new NlpAnalysisException("NLP service returned an empty response");
                 }
+                return response.getBody();
+            } else {
+                throw new NlpAnalysisException("NLP service returned status " + response.getStatusCode());
             }
-            matchResult.setWhatIsMissing(whatIsMissing);
-
-            return matchResult;
 
+        } catch (NlpAnalysisException e) {
+            throw e;
         } catch (Exception e) {
-            return createDefaultErrorResult();
+            throw new NlpAnalysisException("NLP service call failed: " + e.getMessage(), e);
         }
     }
-
-    private MatchResult createDefaultErrorResult() {
-        MatchResult errorResult = new MatchResult();
-        errorResult.setAtsScorePercent(0);
-        errorResult.setSummary("Analysis failed. Please try again later.");
-        errorResult.setWhatMatched(new ArrayList<>());
-        errorResult.setWhatIsMissing(new ArrayList<>());
-        return errorResult;
-    }
 }
@@ -0,0 +1,169 @@
+package com.divyanshu.Intellimatch.service;
+
+import com.divyanshu.Intellimatch.model.ResumeMatch;
+import com.divyanshu.Intellimatch.storage.BlobStore;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Removes stored files that no ResumeMatch references: leftovers of uploads whose cleanup failed
+ * or was dropped from the delete queue. Each run lists the configured prefixes one page at a time,
+ * checks the page's URLs against resume_matches with one query, and queues the unreferenced keys
+ * on FileDeleteService. Memory is bounded by the page size; a run stops after max-pages-per-run
+ * pages and the next one carries on from where it stopped. Files younger than min-age are skipped,
+ * since an upload stores its files before it saves the match that references them.
+ * <p>
+ * On by default: FileDeleteService keeps its queue in memory, so deletions pending at a restart,
+ * dropped from a full queue or out of attempts are only ever removed here.
+ */
+@Component
+@ConditionalOnProperty(name = "storage.sweeper.enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class OrphanBlobSweeper {
+
+    private final BlobStore blobStore;
+    private final FileDeleteService fileDeleteService;
+    private final MongoTemplate mongoTemplate;
+    private final Counter orphans;
+    // Where the next run resumes listing each prefix; absent once a prefix was listed to the end
+    private final Map<String, String> resumeAfter = new ConcurrentHashMap<>();
+    private volatile boolean running = true;
+
+    @Value("${storage.sweeper.prefixes:resumes/,job-descriptions/}")
+    private List<String> prefixes;
+
+    @Value("${storage.sweeper.page-size:1000}")
+    private int pageSize;
+
+    @Value("${storage.sweeper.max-pages-per-run:20}")
+    private int maxPagesPerRun;
+
+    @Value("${storage.sweeper.page-delay-ms:1000}")
+    private long pageDelayMs;
+
+    @Value("${storage.sweeper.min-age:24h}")
+    private Duration minAge;
+
+    public OrphanBlobSweeper(BlobStore blobStore,
+                             FileDeleteService fileDeleteService,
+                             MongoTemplate mongoTemplate,
+                             MeterRegistry meterRegistry) {
+        this.blobStore = blobStore;
+        this.fileDeleteService = fileDeleteService;
+        this.mongoTemplate = mongoTemplate;
+        this.orphans = Counter.builder("storage.sweeper.orphans")
+                .description("Unreferenced stored files queued for deletion by the sweeper").register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+    }
+
+    @Scheduled(initialDelayString = "${storage.sweeper.initial-delay-ms:300000}",
+               fixedDelayString = "${storage.sweeper.interval-ms:3600000}")
+    public void sweep() {
+        int pages = 0;
+        for (String prefix : prefixes) {
+            try {
+                pages += sweep(prefix, maxPagesPerRun - pages);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.warn("Orphan sweep of {} failed; it resumes on the next run", prefix, e);
+            }
+            if (pages >= maxPagesPerRun) {
+                return;
+            }
+        }
+    }
+
+    // Returns the number of pages listed
+    private int sweep(String prefix, int maxPages) throws InterruptedException {
+        Instant cutoff = Instant.now().minus(minAge);
+        String startAfter = resumeAfter.get(prefix);
+        int pages = 0;
+        while (running && pages < maxPages) {
+            // Leave room in the delete queue for deletions of the request path
+            if (fileDeleteService.getRemainingCapacity() < pageSize) {
+                log.info("Delete queue is nearly full; pausing the orphan sweep of {}", prefix);
+                break;
+            }
+
+            BlobStore.BlobPage page = blobStore.list(prefix, startAfter, pageSize);
+            pages++;
+            queueOrphans(page.blobs(), cutoff);
+
+            startAfter = page.nextStartAfter();
+            if (startAfter == null) {
+                resumeAfter.remove(prefix);
+                return pages;
+            }
+            Thread.sleep(pageDelayMs);
+        }
+        if (startAfter != null) {
+            resumeAfter.put(prefix, startAfter);
+        }
+        return pages;
+    }
+
+    private void queueOrphans(List<BlobStore.BlobInfo> blobs, Instant cutoff) {
+        Map<String, String> keysByUrl = new HashMap<>();
+        for (BlobStore.BlobInfo blob : blobs) {
+            if (blob.lastModified() != null && blob.lastModified().isBefore(cutoff)) {
+                keysByUrl.put(blobStore.urlFor(blob.key()), blob.key());
+            }
+        }
+        if (keysByUrl.isEmpty()) {
+            return;
+        }
+
+        keysByUrl.keySet().removeAll(findReferenced(keysByUrl.keySet()));
+        int queued = 0;
+        for (String key : keysByUrl.values()) {
+            if (!fileDeleteService.deleteKey(key)) {
+                break;
+            }
+            queued++;
+        }
+        if (queued > 0) {
+            orphans.increment(queued);
+            log.info("Queued {} unreferenced stored files for deletion", queued);
+        }
+    }
+
+    // The URLs among the given ones that some match still points at, in one query
+    private Set<String> findReferenced(Collection<String> urls) {
+        Query query = new Query(new Criteria().orOperator(
+                Criteria.where("resumeUrl").in(urls),
+                Criteria.where("jobDescriptionUrl").in(urls)));
+        query.fields().include("resumeUrl", "jobDescriptionUrl");
+
+        Set<String> referenced = new HashSet<>();
+        for (ResumeMatch match : mongoTemplate.find(query, ResumeMatch.class)) {
+            referenced.add(match.getResumeUrl());
+            referenced.add(match.getJobDescriptionUrl());
+        }
+        return referenced;
+    }
+}
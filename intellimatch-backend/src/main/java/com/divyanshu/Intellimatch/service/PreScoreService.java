@@ -0,0 +1,126 @@
+package com.divyanshu.Intellimatch.service;
+
+import com.divyanshu.Intellimatch.scoring.SkillAutomaton;
+import com.divyanshu.Intellimatch.scoring.SkillProfile;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Scores a resume against a job description in-process while the NLP analysis is still queued,
+ * so the history can show an estimate right after upload. Both texts are scanned for the skills
+ * of the taxonomy at prescore.taxonomy; the score is the share of the job description's skills
+ * the resume mentions, each weighted by how often the job description mentions it with BM25's
+ * term-frequency saturation, so a skill named five times counts more than one named once, but
+ * not five times as much.
+ */
+@Service
+@Slf4j
+public class PreScoreService {
+
+    // BM25's k1: how quickly repeated mentions stop adding weight
+    private static final double K1 = 1.2;
+
+    private final SkillAutomaton automaton;
+    private final boolean enabled;
+
+    public PreScoreService(@Value("${prescore.taxonomy:classpath:prescore/skills.txt}") Resource taxonomy,
+                           @Value("${prescore.enabled:true}") boolean enabled) {
+        this.enabled = enabled;
+        this.automaton = enabled ? load(taxonomy) : null;
+        if (enabled) {
+            log.info("Loaded {} skills for provisional scoring ({} automaton states)",
+                automaton.getSkillCount(), automaton.getStateCount());
+        }
+    }
+
+    /**
+     * @return the skills found in the text, or null if pre-scoring is off or there is no text
+     */
+    public SkillProfile profile(String text) {
+        if (!enabled || text == null || text.isBlank()) {
+            return null;
+        }
+        return automaton.profile(text);
+    }
+
+    /**
+     * @return skill name -> mentions in the text; empty if pre-scoring is off or there is no text
+     */
+    public Map<String, Integer> skillMentions(String text) {
+        SkillProfile profile = profile(text);
+        if (profile == null) {
+            return Map.of();
+        }
+        Map<String, Integer> mentions = new HashMap<>();
+        for (int i = 0; i < profile.size(); i++) {
+            mentions.put(automaton.getSkillName(profile.skillAt(i)), profile.countAt(i));
+        }
+        return mentions;
+    }
+
+    /**
+     * @return the provisional score, or null if either text is missing or the job description
+     *         names no known skill
+     */
+    public Integer score(String resumeText, String jobDescriptionText) {
+        return score(profile(resumeText), profile(jobDescriptionText));
+    }
+
+    // For a resume matched against many job descriptions, whose profile is computed once
+    public Integer score(SkillProfile resume, SkillProfile jobDescription) {
+        if (resume == null || jobDescription == null || jobDescription.isEmpty()) {
+            return null;
+        }
+        double total = 0;
+        double matched = 0;
+        int r = 0;
+        for (int j = 0; j < jobDescription.size(); j++) {
+            int skill = jobDescription.skillAt(j);
+            int mentions = jobDescription.countAt(j);
+            double weight = mentions * (K1 + 1) / (mentions + K1);
+            total += weight;
+            // Both profiles are sorted by skill id
+            while (r < resume.size() && resume.skillAt(r) < skill) {
+                r++;
+            }
+            if (r < resume.size() && resume.skillAt(r) == skill) {
+                matched += weight;
+            }
+        }
+        return (int) Math.round(100 * matched / total);
+    }
+
+    private static SkillAutomaton load(Resource taxonomy) {
+        SkillAutomaton.Builder builder = SkillAutomaton.builder();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(taxonomy.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.strip();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                int colon = line.indexOf(':');
+                String skill = (colon < 0 ? line : line.substring(0, colon)).strip();
+                List<String> aliases = colon < 0
+                    ? List.of()
+                    : Arrays.stream(line.substring(colon + 1).split(",")).map(String::strip).filter(alias -> !alias.isEmpty()).toList();
+                builder.add(skill, aliases);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read skill taxonomy " + taxonomy, e);
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,107 @@
+package com.divyanshu.Intellimatch.service;
+
+import com.divyanshu.Intellimatch.exception.NlpUnavailableException;
+import com.divyanshu.Intellimatch.model.ResumeData;
+import com.divyanshu.Intellimatch.repository.ResumeDataRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Date;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Parses a resume into structured data once and keeps it in the resume_data collection, so the
+ * analyses of a batch send the parsed resume instead of having the NLP service parse it again for
+ * every job description.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ResumeDataService {
+
+    private final ResumeDataRepository resumeDataRepository;
+    private final NlpAnalysisService nlpAnalysisService;
+
+    // Workers on this node analysing the same resume wait for one extraction instead of each starting one
+    private final Map<String, CompletableFuture<Map<String, Object>>> inFlight = new ConcurrentHashMap<>();
+
+    @Value("${nlp.model.version}")
+    private String modelVersion;
+
+    /**
+     * Returns the stored data for the resume, extracting it first if needed.
+     *
+     * @return the structured data, or null if it could not be extracted; the analysis then parses
+     *         the resume itself
+     * @throws NlpUnavailableException if the NLP service is refusing work, so the job is deferred
+     */
+    public Map<String, Object> getOrExtract(String resumeHash, String resumeUrl, String resumeText) {
+        if (resumeHash == null) {
+            return null;
+        }
+        String key = resumeHash + ":" + modelVersion;
+
+        Optional<Map<String, Object>> stored = find(key);
+        if (stored.isPresent()) {
+            return stored.get();
+        }
+
+        CompletableFuture<Map<String, Object>> extraction = new CompletableFuture<>();
+        CompletableFuture<Map<String, Object>> running = inFlight.putIfAbsent(key, extraction);
+        if (running != null) {
+            return await(running, resumeHash);
+        }
+        try {
+            Map<String, Object> data = nlpAnalysisService.extractResumeData(resumeUrl, resumeText);
+            store(key, resumeHash, data);
+            extraction.complete(data);
+        } catch (RuntimeException e) {
+            extraction.completeExceptionally(e);
+        } finally {
+            inFlight.remove(key, extraction);
+        }
+        return await(extraction, resumeHash);
+    }
+
+    private Map<String, Object> await(CompletableFuture<Map<String, Object>> extraction, String resumeHash) {
+        try {
+            return extraction.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof NlpUnavailableException unavailable) {
+                throw unavailable;
+            }
+            log.warn("Could not extract structured data for resume {}: {}", resumeHash, e.getCause().getMessage());
+            return null;
+        }
+    }
+
+    private Optional<Map<String, Object>> find(String key) {
+        try {
+            return resumeDataRepository.findById(key).map(ResumeData::getData);
+        } catch (Exception e) {
+            log.warn("Could not load structured data for resume key {}", key, e);
+            return Optional.empty();
+        }
+    }
+
+    private void store(String key, String resumeHash, Map<String, Object> data) {
+        try {
+            ResumeData resumeData = new ResumeData();
+            resumeData.setId(key);
+            resumeData.setResumeHash(resumeHash);
+            resumeData.setModelVersion(modelVersion);
+            resumeData.setData(data);
+            resumeData.setCreatedAt(new Date());
+            resumeDataRepository.save(resumeData);
+        } catch (Exception e) {
+            // The data is still used for this analysis; losing it only costs a later extraction
+            log.warn("Failed to store structured data for resume {}", resumeHash, e);
+        }
+    }
+}
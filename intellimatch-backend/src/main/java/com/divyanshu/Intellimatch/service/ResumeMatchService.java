@@ -1,16 +1,47 @@
 package com.divyanshu.Intellimatch.service;
 
+import com.divyanshu.Intellimatch.dto.HistoryCursor;
+import com.divyanshu.Intellimatch.dto.HistoryPageDTO;
+import com.divyanshu.Intellimatch.dto.MatchHistoryDTO;
+import com.divyanshu.Intellimatch.dto.MatchSummaryDTO;
+import com.divyanshu.Intellimatch.dto.NlpAnalysisRequest;
+import com.divyanshu.Intellimatch.exception.NlpUnavailableException;
+import com.divyanshu.Intellimatch.model.AnalysisJob;
+import com.divyanshu.Intellimatch.model.AnalysisJobStatus;
+import com.divyanshu.Intellimatch.model.MatchEvent;
 import com.divyanshu.Intellimatch.model.MatchResult;
 import com.divyanshu.Intellimatch.model.ResumeMatch;
-import com.divyanshu.Intellimatch.model.User;
 import com.divyanshu.Intellimatch.repository.MatchResultRepository;
 import com.divyanshu.Intellimatch.repository.ResumeMatchRepository;
+import com.divyanshu.Intellimatch.tracing.TraceContexts;
+import com.mongodb.client.result.UpdateResult;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
 @Service
 @RequiredArgsConstructor
 @Slf4j
@@ -20,65 +51,214 @@ public class ResumeMatchService {
     private final NlpAnalysisService nlpAnalysisService;
     private final MatchResultRepository matchResultRepository;
     private final ResumeMatchRepository resumeMatchRepository;
-    private final UserService userService;
+    private final AnalysisJobService analysisJobService;
+    private final MatchResultCacheService matchResultCacheService;
+    private final DocumentTextService documentTextService;
+    private final ResumeDataService resumeDataService;
+    private final MatchEventService matchEventService;
+    private final MongoTemplate mongoTemplate;
+    private final MeterRegistry meterRegistry;
+    private final Tracer tracer;
+    private final TraceContexts traceContexts;
+
+    @Value("${history.page.max-size:100}")
+    private int maxPageSize;
 
     public ResumeMatch save(ResumeMatch resumeMatch) {
-        // Save the ResumeMatch first
-        ResumeMatch savedMatch = resumeMatchRepository.save(resumeMatch);
-        
-        // Asynchronously process the match analysis
-        processMatchAnalysisAsync(savedMatch);
-        
-        return savedMatch;
+        return resumeMatchRepository.save(resumeMatch);
+    }
+
+    // Queue the analysis; a worker picks it up from the analysis_jobs collection
+    public AnalysisJob submitForAnalysis(ResumeMatch resumeMatch) {
+        return analysisJobService.enqueue(resumeMatch);
+    }
+
+    /**
+     * Runs a claimed analysis job to completion. Failed attempts are retried by the job queue;
+     * only once retries are exhausted is a failed analysis result recorded for the user.
+     * The job runs in the trace of the upload that queued it, so its NLP call and Mongo writes
+     * show up under that request.
+     */
+    public void processAnalysisJob(AnalysisJob job) {
+        recordQueueSpan(job);
+        Span span = traceContexts.continueTrace(job.getTraceContext())
+            .name("analysis.job")
+            .tag("job.id", job.getId())
+            .tag("job.attempt", String.valueOf(job.getAttempts()))
+            .start();
+        try (Tracer.SpanInScope ignored = tracer.withSpan(span)) {
+            runAnalysisJob(job);
+        } finally {
+            span.end();
+        }
+    }
+
+    // The time the job sat in the queue, from when it was due until a worker claimed it
+    private void recordQueueSpan(AnalysisJob job) {
+        if (job.getNextAttemptAt() == null || job.getStartedAt() == null) {
+            return;
+        }
+        traceContexts.continueTrace(job.getTraceContext())
+            .name("analysis.queue")
+            .tag("job.id", job.getId())
+            .startTimestamp(job.getNextAttemptAt().getTime(), TimeUnit.MILLISECONDS)
+            .start()
+            .end(Math.max(job.getNextAttemptAt().getTime(), job.getStartedAt().getTime()), TimeUnit.MILLISECONDS);
     }
 
-    @Async
-    public void processMatchAnalysisAsync(ResumeMatch resumeMatch) {
+    private void runAnalysisJob(AnalysisJob job) {
+        ResumeMatch resumeMatch = resumeMatchRepository.findById(job.getResumeMatchId()).orElse(null);
+        if (resumeMatch == null) {
+            log.warn("ResumeMatch ID: {} for analysis job ID: {} no longer exists", job.getResumeMatchId(), job.getId());
+            analysisJobService.markFailed(job, "ResumeMatch not found");
+            return;
+        }
+
+        matchEventService.publish(new MatchEvent(job, AnalysisJobStatus.RUNNING, null));
         try {
-            log.info("Starting async analysis for ResumeMatch ID: {}", resumeMatch.getId());
-            
-            // Call the NLP API to get analysis results
-            MatchResult matchResult = nlpAnalysisService.analyzeResumeMatch(
-                resumeMatch.getResumeUrl(), 
-                resumeMatch.getJobDescriptionUrl()
-            );
+            MatchResult matchResult = processMatchAnalysis(resumeMatch);
+            analysisJobService.markDone(job);
+            recordTimeToResult(job, "done");
+            matchEventService.publish(new MatchEvent(job, AnalysisJobStatus.DONE, matchResult.getAtsScorePercent()));
+        } catch (NlpUnavailableException e) {
+            // The NLP service is shedding load; wait in the queue until the breaker allows a probe
+            analysisJobService.defer(job, e.getRetryAfterMillis());
+            matchEventService.publish(new MatchEvent(job, AnalysisJobStatus.PENDING, null));
+        } catch (Exception e) {
+            log.error("Error processing match analysis for ResumeMatch ID: {} (attempt {})",
+                resumeMatch.getId(), job.getAttempts(), e);
+            Span span = tracer.currentSpan();
+            if (span != null) {
+                span.error(e);
+            }
 
-            if (matchResult == null) {
-                throw new RuntimeException("NLP analysis returned null result");
+            if (analysisJobService.retryOrFail(job, e.getMessage())) {
+                matchEventService.publish(new MatchEvent(job, AnalysisJobStatus.PENDING, null));
+            } else {
+                // Create a failed analysis result instead of deleting everything
+                // This gives users feedback that analysis failed rather than losing their upload
+                createFailedAnalysisResult(resumeMatch, e.getMessage());
+                recordTimeToResult(job, "failed");
+                matchEventService.publish(new MatchEvent(job, AnalysisJobStatus.FAILED, null));
             }
+        }
+    }
 
-            // Save the MatchResult
-            MatchResult savedMatchResult = matchResultRepository.save(matchResult);
-            
-            // Update the ResumeMatch with the MatchResult ID
-            resumeMatch.setMatchResultId(savedMatchResult.getId());
-            resumeMatchRepository.save(resumeMatch);
-            
-            log.info("Analysis completed for ResumeMatch ID: {}, MatchResult ID: {}", 
-                resumeMatch.getId(), savedMatchResult.getId());
-                
-        } catch (Exception e) {
-            log.error("Error processing match analysis for ResumeMatch ID: {}. Starting cleanup...", 
-                resumeMatch.getId(), e);
-            
-            // Create a failed analysis result instead of deleting everything
-            // This gives users feedback that analysis failed rather than losing their upload
-            createFailedAnalysisResult(resumeMatch, e.getMessage());
+    /**
+     * Fails the jobs whose worker crashed or hung on their last attempt, recording the failed
+     * result and event a thrown error would have.
+     *
+     * @return how many jobs were failed
+     */
+    public int failAbandonedJobs(String workerId) {
+        int failed = 0;
+        Optional<AnalysisJob> claimed;
+        while ((claimed = analysisJobService.claimAbandoned(workerId)).isPresent()) {
+            AnalysisJob job = claimed.get();
+            String error = "Lease expired on attempt " + job.getAttempts() + " of " + analysisJobService.getMaxAttempts();
+            log.error("Analysis job ID: {} was abandoned by its worker: {}", job.getId(), error);
+            analysisJobService.markFailed(job, error);
+            resumeMatchRepository.findById(job.getResumeMatchId())
+                .ifPresent(resumeMatch -> createFailedAnalysisResult(resumeMatch, "the analysis did not finish"));
+            recordTimeToResult(job, "failed");
+            matchEventService.publish(new MatchEvent(job, AnalysisJobStatus.FAILED, null));
+            failed++;
         }
+        return failed;
     }
-    
+
+    private MatchResult processMatchAnalysis(ResumeMatch resumeMatch) {
+        log.info("Starting analysis for ResumeMatch ID: {}", resumeMatch.getId());
+
+        // Identical documents were analysed before: reuse that result instead of calling NLP
+        Optional<MatchResult> cached = matchResultCacheService.get(
+            resumeMatch.getResumeHash(),
+            resumeMatch.getJobDescriptionHash()
+        );
+        if (cached.isPresent()) {
+            saveResult(resumeMatch, cached.get(), true);
+            log.info("Analysis served from cache for ResumeMatch ID: {}", resumeMatch.getId());
+            return cached.get();
+        }
+
+        // Call the NLP API to get analysis results
+        NlpAnalysisRequest request = new NlpAnalysisRequest(resumeMatch.getResumeUrl(), resumeMatch.getJobDescriptionUrl());
+        request.setResumeText(documentTextService.findText(resumeMatch.getResumeHash()).orElse(null));
+        request.setJobDescriptionText(documentTextService.findText(resumeMatch.getJobDescriptionHash()).orElse(null));
+        if (resumeMatch.getBatchId() != null) {
+            // A batch scores one resume against many job descriptions, so it is parsed only once
+            Map<String, Object> resumeData = resumeDataService.getOrExtract(
+                resumeMatch.getResumeHash(), request.getResumeUrl(), request.getResumeText());
+            if (resumeData != null) {
+                request.setResumeData(resumeData);
+                request.setResumeText(null);
+            }
+        }
+        MatchResult matchResult = nlpAnalysisService.analyzeResumeMatch(request);
+
+        if (matchResult == null) {
+            throw new RuntimeException("NLP analysis returned null result");
+        }
+
+        saveResult(resumeMatch, matchResult, true);
+        matchResultCacheService.put(resumeMatch.getResumeHash(), resumeMatch.getJobDescriptionHash(), matchResult);
+
+        log.info("Analysis completed for ResumeMatch ID: {}", resumeMatch.getId());
+        return matchResult;
+    }
+
+    // The result is embedded and the match marked finished in a single update, so a match is never
+    // seen half-linked and completing an analysis costs one write
+    private void saveResult(ResumeMatch resumeMatch, MatchResult result, boolean reusable) {
+        Update update = new Update()
+            .set("result", result)
+            .set("analyzedAt", new Date());
+        if (reusable) {
+            update.set("modelVersion", matchResultCacheService.getModelVersion());
+        }
+        Query query = new Query(Criteria.where("_id").is(resumeMatch.getId()));
+        UpdateResult written = timedSave("resume_matches",
+            () -> mongoTemplate.updateFirst(query, update, ResumeMatch.class));
+        if (written.getMatchedCount() == 0) {
+            log.warn("ResumeMatch ID: {} was deleted before its result could be saved", resumeMatch.getId());
+        }
+    }
+
+    // Mongo writes of the analysis stage, by collection
+    private <T> T timedSave(String collection, Supplier<T> save) {
+        Span span = tracer.nextSpan().name("analysis.save").tag("collection", collection).start();
+        try (Tracer.SpanInScope ignored = tracer.withSpan(span)) {
+            return Timer.builder("analysis.save")
+                .tag("collection", collection)
+                .description("Saving analysis results to Mongo")
+                .register(meterRegistry)
+                .record(save);
+        } finally {
+            span.end();
+        }
+    }
+
+    // From the job being queued, right after the upload, to its final outcome; retries and deferrals included
+    private void recordTimeToResult(AnalysisJob job, String outcome) {
+        if (job.getCreatedAt() == null) {
+            return;
+        }
+        Timer.builder("analysis.time-to-result")
+            .tag("outcome", outcome)
+            .description("Time from an analysis being queued to its result")
+            .register(meterRegistry)
+            .record(Math.max(0, System.currentTimeMillis() - job.getCreatedAt().getTime()), TimeUnit.MILLISECONDS);
+    }
+
     private void createFailedAnalysisResult(ResumeMatch resumeMatch, String errorMessage) {
         try {
             // Create a MatchResult indicating analysis failure
             MatchResult failedResult = new MatchResult();
             failedResult.setAtsScorePercent(0);
             failedResult.setSummary("Analysis failed: " + errorMessage + ". Please try uploading again or contact support.");
-            failedResult.setWhatMatched(new java.util.ArrayList<>());
-            failedResult.setWhatIsMissing(new java.util.ArrayList<>());
-            
-            MatchResult savedResult = matchResultRepository.save(failedResult);
-            resumeMatch.setMatchResultId(savedResult.getId());
-            resumeMatchRepository.save(resumeMatch);
+            failedResult.setWhatMatched(new ArrayList<>());
+            failedResult.setWhatIsMissing(new ArrayList<>());
+            saveResult(resumeMatch, failedResult, false);
             
             log.info("Created failed analysis result for ResumeMatch ID: {}", resumeMatch.getId());
             
@@ -91,41 +271,130 @@ public class ResumeMatchService {
     
     private void performFullCleanup(ResumeMatch resumeMatch) {
         try {
-            // Delete files from S3
-            fileDeleteService.deleteResume(resumeMatch.getResumeUrl());
-            fileDeleteService.deleteJobDescription(resumeMatch.getJobDescriptionUrl());
-            log.info("Successfully deleted S3 files for ResumeMatch ID: {}", resumeMatch.getId());
-            
-            // Remove from user's history
-            removeMatchFromUserHistory(resumeMatch);
-            
-            // Delete the ResumeMatch record
+            // Delete the ResumeMatch record first, so the reference checks below do not see it
             resumeMatchRepository.deleteById(resumeMatch.getId());
             log.info("Successfully deleted ResumeMatch record ID: {}", resumeMatch.getId());
+
+            // Matches of a batch share one stored file, so only files no other match references
+            // are queued; FileDeleteService removes them in its next batch
+            if (!isReferenced(resumeMatch.getResumeUrl())) {
+                fileDeleteService.deleteResume(resumeMatch.getResumeUrl());
+            }
+            if (!isReferenced(resumeMatch.getJobDescriptionUrl())) {
+                fileDeleteService.deleteJobDescription(resumeMatch.getJobDescriptionUrl());
+            }
+            log.info("Queued unshared stored files for deletion for ResumeMatch ID: {}", resumeMatch.getId());
             
         } catch (Exception cleanupException) {
             log.error("Error during cleanup for ResumeMatch ID: {}. Manual cleanup may be required.", 
                 resumeMatch.getId(), cleanupException);
         }
     }
-    
-    private void removeMatchFromUserHistory(ResumeMatch resumeMatch) {
-        try {
-            User user = userService.findById(resumeMatch.getUserId())
-                .orElseThrow(() -> new RuntimeException("User not found for ResumeMatch ID: " + resumeMatch.getId()));
-            
-            // Remove this match from the user's history
-            user.removeFromHistory(resumeMatch);
-        } catch (Exception e) {
-            log.error("Failed to remove ResumeMatch ID: {} from user histories", resumeMatch.getId(), e);
+
+    // A missing URL counts as referenced, since there is nothing to delete
+    private boolean isReferenced(String fileUrl) {
+        if (fileUrl == null || fileUrl.isEmpty()) {
+            return true;
         }
+        Query query = new Query(new Criteria().orOperator(
+            Criteria.where("resumeUrl").is(fileUrl),
+            Criteria.where("jobDescriptionUrl").is(fileUrl)));
+        return mongoTemplate.exists(query, ResumeMatch.class);
     }
-
+    
     public ResumeMatch findById(String id) {
         return resumeMatchRepository.findById(id).orElse(null);
     }
+
+    /**
+     * Returns one page of the user's history, newest first, using keyset pagination on
+     * (matchDate, id) so every page costs the same regardless of depth. The query projects only
+     * the fields the list view shows, scores included; matches analysed before results were
+     * embedded need one more $in lookup for theirs.
+     */
+    public HistoryPageDTO getHistoryPage(String userId, String cursorToken, int pageSize) {
+        int limit = Math.max(1, Math.min(pageSize, maxPageSize));
+
+        Criteria criteria = Criteria.where("userId").is(userId);
+        if (cursorToken != null && !cursorToken.isEmpty()) {
+            HistoryCursor cursor = HistoryCursor.decode(cursorToken);
+            criteria = criteria.orOperator(
+                Criteria.where("matchDate").lt(cursor.getMatchDate()),
+                Criteria.where("matchDate").is(cursor.getMatchDate()).and("_id").lt(cursor.getId())
+            );
+        }
+        Query query = new Query(criteria)
+            .with(Sort.by(Sort.Direction.DESC, "matchDate").and(Sort.by(Sort.Direction.DESC, "_id")))
+            .limit(limit + 1);
+        query.fields().include("resumeName", "jobDescriptionName", "matchDate", "provisionalScore", "matchResultId", "result.atsScorePercent");
+
+        List<ResumeMatch> matches = mongoTemplate.find(query, ResumeMatch.class);
+        boolean hasMore = matches.size() > limit;
+        if (hasMore) {
+            matches = matches.subList(0, limit);
+        }
+
+        Map<String, MatchResult> legacyScores = findLegacyScores(matches);
+        List<MatchSummaryDTO> items = matches.stream()
+            .map(match -> new MatchSummaryDTO(match, resultOf(match, legacyScores)))
+            .toList();
+
+        String nextCursor = null;
+        if (hasMore) {
+            ResumeMatch last = matches.get(matches.size() - 1);
+            nextCursor = new HistoryCursor(last.getMatchDate(), last.getId()).encode();
+        }
+        return new HistoryPageDTO(items, nextCursor);
+    }
+
+    // All matches of a batch with their scores, best first; unfinished ones go last
+    public List<MatchSummaryDTO> getBatchMatches(String batchId) {
+        Query query = new Query(Criteria.where("batchId").is(batchId));
+        query.fields().include("resumeName", "jobDescriptionName", "matchDate", "provisionalScore", "matchResultId", "result.atsScorePercent");
+
+        List<ResumeMatch> matches = mongoTemplate.find(query, ResumeMatch.class);
+        Map<String, MatchResult> legacyScores = findLegacyScores(matches);
+        return matches.stream()
+            .map(match -> new MatchSummaryDTO(match, resultOf(match, legacyScores)))
+            .sorted(Comparator.comparing(MatchSummaryDTO::isCompleted)
+                .thenComparingInt(MatchSummaryDTO::getScore)
+                .reversed())
+            .toList();
+    }
+
+    // Loads only atsScorePercent for results still kept in match_results, in one query
+    private Map<String, MatchResult> findLegacyScores(List<ResumeMatch> matches) {
+        List<String> resultIds = matches.stream()
+            .filter(match -> match.getResult() == null)
+            .map(ResumeMatch::getMatchResultId)
+            .filter(Objects::nonNull)
+            .distinct()
+            .toList();
+        if (resultIds.isEmpty()) {
+            return Map.of();
+        }
+        Query query = new Query(Criteria.where("_id").in(resultIds));
+        query.fields().include("atsScorePercent");
+        return mongoTemplate.find(query, MatchResult.class).stream()
+            .collect(Collectors.toMap(MatchResult::getId, Function.identity()));
+    }
+
+    private static MatchResult resultOf(ResumeMatch match, Map<String, MatchResult> legacyResults) {
+        if (match.getResult() != null) {
+            return match.getResult();
+        }
+        return match.getMatchResultId() != null ? legacyResults.get(match.getMatchResultId()) : null;
+    }
+
+    public Optional<MatchHistoryDTO> getMatchDetails(String matchId, String userId) {
+        return resumeMatchRepository.findByIdAndUserId(matchId, userId)
+            .map(match -> new MatchHistoryDTO(match,
+                match.getResult() == null && match.getMatchResultId() != null
+                    ? matchResultRepository.findById(match.getMatchResultId()).orElse(null)
+                    : match.getResult()));
+    }
     
-    // Manual cleanup method for cases where async processing fails
+    // Manual cleanup method for cases where background processing fails
     public void cleanupFailedMatch(String matchId) {
         try {
             ResumeMatch match = resumeMatchRepository.findById(matchId).orElse(null);
@@ -0,0 +1,434 @@
+package com.divyanshu.Intellimatch.service;
+
+import com.divyanshu.Intellimatch.dto.CandidateDTO;
+import com.divyanshu.Intellimatch.model.DocumentText;
+import com.divyanshu.Intellimatch.model.ResumeMatch;
+import com.divyanshu.Intellimatch.search.DocIdSet;
+import com.divyanshu.Intellimatch.search.IndexLog;
+import com.divyanshu.Intellimatch.search.InvertedIndex;
+import com.divyanshu.Intellimatch.search.TermCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Finds the stored resumes that best fit a job description. Every distinct resume (by hash) is a
+ * document of an in-memory BM25 index over the words of its extracted text plus one "skill:" term
+ * per taxonomy skill it mentions. Users only ever search the resumes they uploaded themselves.
+ * <p>
+ * The index follows resume_matches: a scheduled catch-up reads the matches created since the last
+ * one in _id order and indexes the resumes it has not seen, taking their text from
+ * document_texts. Matches are only read once they are settle-ms old, so ids handed out just before
+ * the cursor by other nodes are not skipped. Everything the catch-up indexes is appended to an
+ * IndexLog under search.index.dir before it becomes searchable, and replaying the log on startup
+ * restores the index and the cursor; a fresh node reads resume_matches from the start. To keep
+ * that rebuild complete, the catch-up unsets createdAt on the texts it indexes, which takes them out
+ * of the 30-day TTL of document_texts. Resumes whose text was never extracted, or expired before
+ * any node indexed it, are not indexed.
+ * <p>
+ * Deleting matches does not show up in the catch-up's reads, so every search checks its hits
+ * against the user's matches in resume_matches, and takes the candidate's name and URL from a
+ * match that still exists. Hits the user no longer has a match for are dropped, and the next
+ * catch-up logs their removal once it has checked again; a resume no match refers to any more
+ * gets its createdAt back and expires from document_texts as usual.
+ */
+@Service
+@Slf4j
+public class ResumeSearchService {
+
+    private static final String SKILL_PREFIX = "skill:";
+
+    private final MongoTemplate mongoTemplate;
+    private final PreScoreService preScoreService;
+    private final Timer searchTimer;
+    private final boolean enabled;
+    private final Path indexDir;
+
+    // Guards the index and everything below it: catch-ups write, searches read
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final InvertedIndex index;
+    private final List<Map<String, IndexLog.Upload>> uploads = new ArrayList<>(); // by doc id, then owner
+    private final Map<String, Integer> docsByKey = new HashMap<>();
+    private final Map<String, DocIdSet> docsByOwner = new HashMap<>();
+    private String lastMatchId;
+
+    private IndexLog indexLog;
+    private volatile boolean running = true;
+
+    // Hits searches found without a match, for the next catch-up to remove
+    private final Set<IndexLog.Removed> removals = ConcurrentHashMap.newKeySet();
+
+    @Value("${search.catch-up.batch-size:500}")
+    private int batchSize;
+
+    @Value("${search.catch-up.settle-ms:10000}")
+    private long settleMs;
+
+    @Value("${search.skill-weight:2.0}")
+    private double skillWeight;
+
+    public ResumeSearchService(MongoTemplate mongoTemplate,
+                               PreScoreService preScoreService,
+                               MeterRegistry meterRegistry,
+                               @Value("${search.enabled:true}") boolean enabled,
+                               @Value("${search.index.dir:./data/search-index}") Path indexDir,
+                               @Value("${search.max-query-terms:64}") int maxQueryTerms) {
+        this.mongoTemplate = mongoTemplate;
+        this.preScoreService = preScoreService;
+        this.enabled = enabled;
+        this.indexDir = indexDir;
+        this.index = new InvertedIndex(maxQueryTerms);
+        this.searchTimer = Timer.builder("search.query")
+            .description("Time to rank a user's stored resumes against a job description")
+            .publishPercentiles(0.5, 0.99)
+            .register(meterRegistry);
+        Gauge.builder("search.index.documents", this, ResumeSearchService::getDocumentCount)
+            .description("Distinct resumes in the candidate search index on this node")
+            .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void open() {
+        if (!enabled) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        try {
+            Files.createDirectories(indexDir);
+            indexLog = IndexLog.open(indexDir.resolve("resumes.log"), this::apply);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open the search index in " + indexDir, e);
+        }
+        log.info("Loaded search index from {}: {} resumes, {} terms in {} ms",
+            indexDir, index.getDocumentCount(), index.getTermCount(), System.currentTimeMillis() - start);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public int getDocumentCount() {
+        lock.readLock().lock();
+        try {
+            return index.getDocumentCount();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // How many distinct resumes a search by this user looks at
+    public int countResumes(String userId) {
+        lock.readLock().lock();
+        try {
+            DocIdSet owned = docsByOwner.get(userId);
+            return owned != null ? owned.size() : 0;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Ranks the user's stored resumes against the job description text.
+     *
+     * @return at most limit candidates, best first
+     */
+    public List<CandidateDTO> search(String userId, String jobDescriptionText, int limit) {
+        if (!enabled || jobDescriptionText == null || jobDescriptionText.isBlank()) {
+            return List.of();
+        }
+        Map<String, Double> query = new HashMap<>();
+        TermCounter.count(jobDescriptionText).keySet().forEach(term -> query.put(term, 1.0));
+        preScoreService.skillMentions(jobDescriptionText).keySet()
+            .forEach(skill -> query.put(SKILL_PREFIX + skill.toLowerCase(), skillWeight));
+
+        return searchTimer.record(() -> {
+            // Ranks more hits while dropped ones leave the page short and there are more to rank
+            int size = limit;
+            while (true) {
+                List<Ranked> ranked = rank(userId, query, size);
+                Map<String, List<ResumeMatch>> live = liveMatches(userId, ranked);
+                List<CandidateDTO> candidates = new ArrayList<>();
+                int dropped = 0;
+                for (Ranked hit : ranked) {
+                    List<ResumeMatch> matches = live.get(hit.upload().key());
+                    if (matches == null) {
+                        removals.add(new IndexLog.Removed(hit.upload().key(), userId));
+                        dropped++;
+                    } else if (candidates.size() < limit) {
+                        ResumeMatch match = matches.stream()
+                            .filter(m -> Objects.equals(m.getResumeUrl(), hit.upload().url()))
+                            .findFirst()
+                            .orElse(matches.get(0));
+                        candidates.add(new CandidateDTO(hit.upload().key(), match.getResumeName(), match.getResumeUrl(), hit.score()));
+                    }
+                }
+                if (dropped == 0 || candidates.size() == limit || ranked.size() < size) {
+                    return candidates;
+                }
+                size += dropped;
+            }
+        });
+    }
+
+    private List<Ranked> rank(String userId, Map<String, Double> query, int size) {
+        lock.readLock().lock();
+        try {
+            DocIdSet owned = docsByOwner.get(userId);
+            if (owned == null) {
+                return List.of();
+            }
+            List<Ranked> ranked = new ArrayList<>();
+            for (InvertedIndex.Hit hit : index.search(query, size, owned)) {
+                ranked.add(new Ranked(uploads.get(hit.doc()).get(userId), hit.score()));
+            }
+            return ranked;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // The user's matches for the ranked resumes, newest first, by resume hash
+    private Map<String, List<ResumeMatch>> liveMatches(String userId, List<Ranked> ranked) {
+        Map<String, List<ResumeMatch>> live = new HashMap<>();
+        if (ranked.isEmpty()) {
+            return live;
+        }
+        List<String> keys = ranked.stream().map(hit -> hit.upload().key()).toList();
+        Query query = new Query(Criteria.where("userId").is(userId).and("resumeHash").in(keys))
+            .with(Sort.by(Sort.Direction.DESC, "_id"));
+        query.fields().include("resumeHash", "resumeName", "resumeUrl");
+        for (ResumeMatch match : mongoTemplate.find(query, ResumeMatch.class)) {
+            live.computeIfAbsent(match.getResumeHash(), key -> new ArrayList<>()).add(match);
+        }
+        return live;
+    }
+
+    /**
+     * Indexes the resumes of matches created since the last run. Catch-ups are the only writer and
+     * never overlap, so they read the index's maps without taking the lock.
+     */
+    @Scheduled(fixedDelayString = "${search.catch-up.interval-ms:5000}")
+    public synchronized void catchUp() {
+        if (!enabled || indexLog == null) {
+            return;
+        }
+        try {
+            remove();
+            int indexed = 0;
+            List<ResumeMatch> matches;
+            do {
+                matches = nextMatches();
+                if (!matches.isEmpty()) {
+                    indexed += index(matches);
+                }
+            } while (running && matches.size() == batchSize);
+            if (indexed > 0) {
+                log.info("Indexed {} resumes for candidate search; {} in total", indexed, getDocumentCount());
+            }
+        } catch (Exception e) {
+            log.warn("Search index catch-up failed; retrying on the next run", e);
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        running = false;
+        // Waits for a running catch-up to finish its batch
+        synchronized (this) {
+            if (indexLog == null) {
+                return;
+            }
+            try {
+                indexLog.close();
+            } catch (IOException e) {
+                log.warn("Could not close the search index log", e);
+            }
+            indexLog = null;
+        }
+    }
+
+    private List<ResumeMatch> nextMatches() {
+        Criteria criteria = Criteria.where("_id").lt(new ObjectId(new Date(System.currentTimeMillis() - settleMs)));
+        if (lastMatchId != null) {
+            criteria = criteria.gt(new ObjectId(lastMatchId));
+        }
+        Query query = new Query(criteria).with(Sort.by(Sort.Direction.ASC, "_id")).limit(batchSize);
+        query.fields().include("userId", "resumeName", "resumeUrl", "resumeHash");
+        return mongoTemplate.find(query, ResumeMatch.class);
+    }
+
+    // Returns how many resumes were new to the index
+    private int index(List<ResumeMatch> matches) throws IOException {
+        Set<String> unseen = new HashSet<>();
+        for (ResumeMatch match : matches) {
+            if (match.getResumeHash() != null && match.getUserId() != null && !docsByKey.containsKey(match.getResumeHash())) {
+                unseen.add(match.getResumeHash());
+            }
+        }
+        Map<String, String> texts = new HashMap<>();
+        if (!unseen.isEmpty()) {
+            Query query = new Query(Criteria.where("_id").in(unseen));
+            query.fields().include("text");
+            for (DocumentText documentText : mongoTemplate.find(query, DocumentText.class)) {
+                texts.put(documentText.getId(), documentText.getText());
+            }
+        }
+
+        // Build the entries first; the log gets them before the index does
+        List<IndexLog.Entry> entries = new ArrayList<>();
+        Set<String> added = new HashSet<>();
+        Set<String> uploaded = new HashSet<>();
+        Set<String> referenced = new HashSet<>();
+        for (ResumeMatch match : matches) {
+            String key = match.getResumeHash();
+            if (key == null || match.getUserId() == null) {
+                continue;
+            }
+            if (!docsByKey.containsKey(key) && !added.contains(key)) {
+                String text = texts.get(key);
+                if (text == null || text.isBlank()) {
+                    continue;
+                }
+                entries.add(new IndexLog.Document(key, terms(text)));
+                added.add(key);
+            }
+            Integer doc = docsByKey.get(key);
+            boolean owned = doc != null && uploads.get(doc).containsKey(match.getUserId());
+            if ((doc != null || added.contains(key)) && !owned && uploaded.add(key + '/' + match.getUserId())) {
+                entries.add(new IndexLog.Upload(key, match.getUserId(), match.getResumeName(), match.getResumeUrl()));
+                referenced.add(key);
+            }
+        }
+        entries.add(new IndexLog.Cursor(matches.get(matches.size() - 1).getId()));
+
+        // Before the log, so a resume is never in an index whose rebuild could miss its text
+        pin(referenced);
+        for (IndexLog.Entry entry : entries) {
+            indexLog.append(entry);
+        }
+        indexLog.sync();
+
+        lock.writeLock().lock();
+        try {
+            entries.forEach(this::apply);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        return added.size();
+    }
+
+    // Logs the removals searches found, for users who still have no match for the resume
+    private void remove() throws IOException {
+        if (removals.isEmpty()) {
+            return;
+        }
+        List<IndexLog.Removed> found = new ArrayList<>(removals);
+        List<IndexLog.Entry> entries = new ArrayList<>();
+        for (IndexLog.Removed removed : found) {
+            Query query = new Query(Criteria.where("userId").is(removed.owner()).and("resumeHash").is(removed.key()));
+            if (!mongoTemplate.exists(query, ResumeMatch.class)) {
+                entries.add(removed);
+            }
+        }
+        if (entries.isEmpty()) {
+            found.forEach(removals::remove);
+            return;
+        }
+        for (IndexLog.Entry entry : entries) {
+            indexLog.append(entry);
+        }
+        indexLog.sync();
+
+        Set<String> orphaned = new HashSet<>();
+        lock.writeLock().lock();
+        try {
+            for (IndexLog.Entry entry : entries) {
+                apply(entry);
+                String key = ((IndexLog.Removed) entry).key();
+                if (uploads.get(docsByKey.get(key)).isEmpty()) {
+                    orphaned.add(key);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        found.forEach(removals::remove);
+
+        for (String key : orphaned) {
+            if (!mongoTemplate.exists(new Query(Criteria.where("resumeHash").is(key)), ResumeMatch.class)) {
+                mongoTemplate.updateFirst(new Query(Criteria.where("_id").is(key).and("createdAt").exists(false)),
+                    new Update().set("createdAt", new Date()), DocumentText.class);
+            }
+        }
+        log.info("Removed {} deleted uploads from candidate search", entries.size());
+    }
+
+    // A text without a createdAt never expires
+    private void pin(Set<String> keys) {
+        if (!keys.isEmpty()) {
+            mongoTemplate.updateMulti(new Query(Criteria.where("_id").in(keys).and("createdAt").exists(true)),
+                new Update().unset("createdAt"), DocumentText.class);
+        }
+    }
+
+    private Map<String, Integer> terms(String text) {
+        Map<String, Integer> terms = TermCounter.count(text);
+        preScoreService.skillMentions(text)
+            .forEach((skill, mentions) -> terms.put(SKILL_PREFIX + skill.toLowerCase(), mentions));
+        return terms;
+    }
+
+    // Called with the write lock held, or during startup before the service is in use
+    private void apply(IndexLog.Entry entry) {
+        if (entry instanceof IndexLog.Document document) {
+            if (!docsByKey.containsKey(document.key())) {
+                int doc = index.add(document.terms());
+                uploads.add(new HashMap<>(2));
+                docsByKey.put(document.key(), doc);
+            }
+        } else if (entry instanceof IndexLog.Upload upload) {
+            Integer doc = docsByKey.get(upload.key());
+            if (doc != null && uploads.get(doc).putIfAbsent(upload.owner(), upload) == null) {
+                docsByOwner.computeIfAbsent(upload.owner(), owner -> new DocIdSet()).add(doc);
+            }
+        } else if (entry instanceof IndexLog.Cursor cursor) {
+            lastMatchId = cursor.lastId();
+        } else if (entry instanceof IndexLog.Removed removed) {
+            Integer doc = docsByKey.get(removed.key());
+            if (doc != null && uploads.get(doc).remove(removed.owner()) != null) {
+                docsByOwner.get(removed.owner()).remove(doc);
+            }
+        }
+    }
+
+    private record Ranked(IndexLog.Upload upload, double score) {
+    }
+}
@@ -0,0 +1,172 @@
+package com.divyanshu.Intellimatch.service;
+
+import com.divyanshu.Intellimatch.cache.TtlLruCache;
+import com.divyanshu.Intellimatch.dto.UserPrincipal;
+import com.divyanshu.Intellimatch.repository.UserRepository;
+import com.mongodb.client.MongoChangeStreamCursor;
+import com.mongodb.client.model.Aggregates;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Caches the principal behind a userId cookie, so authorizing a request does not cost a Mongo
+ * round trip. Entries are dropped when this node saves the user, and a change stream on users
+ * drops them when any other node does. Without a change stream (a standalone server, or while it
+ * reconnects) entries are only as fresh as user.cache.ttl-seconds.
+ */
+@Service
+@Slf4j
+public class UserPrincipalCacheService {
+
+    private final UserRepository userRepository;
+    private final MongoTemplate mongoTemplate;
+    private final TtlLruCache<String, UserPrincipal> cache;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter localInvalidations;
+    private final Counter remoteInvalidations;
+
+    @Value("${user.cache.change-stream.enabled:true}")
+    private boolean changeStreamEnabled;
+
+    @Value("${user.cache.change-stream.retry-ms:60000}")
+    private long changeStreamRetryMs;
+
+    private volatile boolean running;
+    private volatile MongoChangeStreamCursor<ChangeStreamDocument<Document>> cursor;
+    private Thread watcher;
+
+    public UserPrincipalCacheService(UserRepository userRepository,
+                                     MongoTemplate mongoTemplate,
+                                     MeterRegistry meterRegistry,
+                                     @Value("${user.cache.max-entries:10000}") int maxEntries,
+                                     @Value("${user.cache.ttl-seconds:300}") long ttlSeconds) {
+        this.userRepository = userRepository;
+        this.mongoTemplate = mongoTemplate;
+        this.cache = new TtlLruCache<>(maxEntries, ttlSeconds * 1000L);
+
+        this.hits = Counter.builder("user.cache.requests").tag("result", "hit")
+                .description("User principal cache lookups").register(meterRegistry);
+        this.misses = Counter.builder("user.cache.requests").tag("result", "miss")
+                .description("User principal cache lookups").register(meterRegistry);
+        this.localInvalidations = Counter.builder("user.cache.invalidations").tag("source", "local")
+                .description("User principal cache entries dropped because the user changed").register(meterRegistry);
+        this.remoteInvalidations = Counter.builder("user.cache.invalidations").tag("source", "change-stream")
+                .description("User principal cache entries dropped because the user changed").register(meterRegistry);
+        Gauge.builder("user.cache.size", cache, TtlLruCache::size)
+                .description("Entries held in the user principal cache").register(meterRegistry);
+    }
+
+    // Unknown users are not cached, so a user registered on another node is found straight away
+    public Optional<UserPrincipal> get(String userId) {
+        UserPrincipal cached = cache.get(userId);
+        if (cached != null) {
+            hits.increment();
+            return Optional.of(cached);
+        }
+        misses.increment();
+        // Read before Mongo: if the user changes while we read, the result is returned but not cached
+        long generation = cache.generation();
+        Optional<UserPrincipal> principal = userRepository.findPrincipalById(userId);
+        principal.ifPresent(found -> cache.putIfGeneration(userId, found, generation));
+        return principal;
+    }
+
+    public void invalidate(String userId) {
+        if (userId != null) {
+            cache.invalidate(userId);
+            localInvalidations.increment();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startWatching() {
+        if (!changeStreamEnabled) {
+            return;
+        }
+        running = true;
+        watcher = new Thread(this::watchUsers, "user-cache-change-stream");
+        watcher.setDaemon(true);
+        watcher.start();
+    }
+
+    @PreDestroy
+    public void stopWatching() {
+        running = false;
+        MongoChangeStreamCursor<ChangeStreamDocument<Document>> current = cursor;
+        if (current != null) {
+            current.close();
+        }
+        if (watcher != null) {
+            watcher.interrupt();
+        }
+    }
+
+    private void watchUsers() {
+        boolean warned = false;
+        while (running) {
+            try (MongoChangeStreamCursor<ChangeStreamDocument<Document>> changes = mongoTemplate.getCollection("users")
+                    .watch(List.of(Aggregates.match(Filters.in("operationType", "update", "replace", "delete"))))
+                    .cursor()) {
+                cursor = changes;
+                // Changes made while the stream was down were missed
+                cache.clear();
+                log.info("Watching users for changes to cached principals");
+                warned = false;
+                while (running && changes.hasNext()) {
+                    String userId = userId(changes.next().getDocumentKey());
+                    if (userId != null) {
+                        cache.invalidate(userId);
+                        remoteInvalidations.increment();
+                    }
+                }
+            } catch (Exception e) {
+                if (!running) {
+                    return;
+                }
+                if (!warned) {
+                    log.warn("User change stream unavailable, cached principals expire after their TTL instead: {}", e.getMessage());
+                    warned = true;
+                } else {
+                    log.debug("User change stream still unavailable: {}", e.getMessage());
+                }
+            } finally {
+                cursor = null;
+            }
+            try {
+                Thread.sleep(changeStreamRetryMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private static String userId(BsonDocument documentKey) {
+        BsonValue id = documentKey != null ? documentKey.get("_id") : null;
+        if (id == null) {
+            return null;
+        }
+        if (id.isObjectId()) {
+            return id.asObjectId().getValue().toHexString();
+        }
+        return id.isString() ? id.asString().getValue() : null;
+    }
+}
@@ -1,26 +1,38 @@
 package com.divyanshu.Intellimatch.service;
 
+import com.divyanshu.Intellimatch.dto.UserPrincipal;
+import com.divyanshu.Intellimatch.dto.UserProfileDTO;
 import com.divyanshu.Intellimatch.model.User;
 import com.divyanshu.Intellimatch.repository.UserRepository;
+import com.divyanshu.Intellimatch.security.PasswordHasher;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
 import java.util.Optional;
 
 @Service
 @RequiredArgsConstructor
+@Slf4j
 public class UserService {
     
     private final UserRepository userRepository;
+    private final UserPrincipalCacheService userPrincipalCacheService;
+    private final PasswordHasher passwordHasher;
     
     public Optional<User> authenticateUser(String email, String password) {
         User user = userRepository.findByEmail(email);
-        if (user != null && user.getPassword().equals(hashPassword(password))) {
-            return Optional.of(user);
+        if (user == null) {
+            passwordHasher.matchesNothing(password);
+            return Optional.empty();
         }
-        return Optional.empty();
+        if (!passwordHasher.matches(password, user.getPassword())) {
+            return Optional.empty();
+        }
+        if (passwordHasher.needsRehash(user.getPassword())) {
+            rehash(user, password);
+        }
+        return Optional.of(user);
     }
     
     public User createUser(User user) {
@@ -30,28 +42,40 @@ public class UserService {
         if (user.getPhoneNumber() != null && userRepository.existsByPhoneNumber(user.getPhoneNumber())) {
             throw new IllegalArgumentException("Phone number already exists");
         }
+        user.setPassword(passwordHasher.hash(user.getPassword()));
         return userRepository.save(user);
     }
     
     public Optional<User> findById(String id) {
         return userRepository.findById(id);
     }
+
+    public Optional<UserProfileDTO> findProfileById(String id) {
+        return userRepository.findProfileById(id);
+    }
+
+    // Served from the principal cache; use this to authorize requests
+    public Optional<UserPrincipal> findPrincipalById(String id) {
+        return userPrincipalCacheService.get(id);
+    }
+
+    public boolean existsById(String id) {
+        return findPrincipalById(id).isPresent();
+    }
     
     public User save(User user) {
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        userPrincipalCacheService.invalidate(saved.getId());
+        return saved;
     }
 
-    private String hashPassword(String password) {
+    // Upgrades a legacy or weaker hash; the login has already succeeded either way
+    private void rehash(User user, String password) {
         try {
-            MessageDigest md = MessageDigest.getInstance("SHA-256");
-            byte[] hashedBytes = md.digest(password.getBytes());
-            StringBuilder sb = new StringBuilder();
-            for (byte b : hashedBytes) {
-                sb.append(String.format("%02x", b));
-            }
-            return sb.toString();
-        } catch (NoSuchAlgorithmException e) {
-            throw new RuntimeException("Error hashing password", e);
+            user.setPassword(passwordHasher.hash(password));
+            save(user);
+        } catch (Exception e) {
+            log.warn("Failed to upgrade the password hash of user ID: {}", user.getId(), e);
         }
     }
 }
@@ -0,0 +1,63 @@
+package com.divyanshu.Intellimatch.storage;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Where uploaded documents live. The S3 implementation is the default; the local filesystem one
+ * (storage.type=local) lets the whole upload and analysis pipeline run without AWS.
+ *
+ * Keys are relative paths such as "resumes/uuid-name.pdf". URLs are what gets stored on a
+ * ResumeMatch and handed to the NLP service, so each store must be able to map between the two.
+ */
+public interface BlobStore {
+
+    void put(String key, String contentType, byte[] content);
+
+    /**
+     * Starts a write of a blob too large to buffer whole. Parts may be uploaded concurrently and in
+     * any order; the blob only becomes visible once the upload is completed.
+     */
+    MultipartUpload startMultipartUpload(String key, String contentType);
+
+    void delete(String key);
+
+    /**
+     * Deletes blobs in as few requests as the store allows (S3 takes up to 1000 keys per request).
+     * Keys that do not exist count as deleted.
+     *
+     * @return the keys that could not be deleted
+     */
+    List<String> deleteAll(Collection<String> keys);
+
+    /**
+     * Lists one page of blobs under the prefix in key order, starting after startAfter, or from the
+     * first key when it is null.
+     */
+    BlobPage list(String prefix, String startAfter, int maxKeys);
+
+    String urlFor(String key);
+
+    /**
+     * @throws IllegalArgumentException if the URL does not point into this store
+     */
+    String keyFor(String url);
+
+    record BlobInfo(String key, Instant lastModified) {
+    }
+
+    // nextStartAfter is null on the last page
+    record BlobPage(List<BlobInfo> blobs, String nextStartAfter) {
+    }
+
+    interface MultipartUpload {
+
+        // offset is the position of the part within the blob; every part but the last is the same size
+        void uploadPart(int partNumber, long offset, byte[] data);
+
+        void complete();
+
+        void abort();
+    }
+}
@@ -0,0 +1,245 @@
+package com.divyanshu.Intellimatch.storage;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Stores blobs as files under storage.local.root and serves them through LocalBlobController.
+ * Writes go through FileChannel: multipart parts are written at their offset into a temporary
+ * file, so parts can land concurrently and in any order, and the file is moved into place when
+ * the upload completes.
+ */
+@Component
+@ConditionalOnProperty(name = "storage.type", havingValue = "local")
+@Slf4j
+public class LocalBlobStore implements BlobStore {
+
+    private final Path root;
+    private final String baseUrl;
+
+    public LocalBlobStore(@Value("${storage.local.root:./data/blobs}") String root,
+                          @Value("${storage.local.base-url:http://localhost:${server.port:8090}/api/blobs}") String baseUrl) throws IOException {
+        this.root = Path.of(root).toAbsolutePath().normalize();
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl : baseUrl + "/";
+        Files.createDirectories(this.root);
+        log.info("Storing blobs on the local filesystem under {}", this.root);
+    }
+
+    @Override
+    public void put(String key, String contentType, byte[] content) {
+        Path target = resolve(key);
+        Path temp = tempFileFor(target);
+        try {
+            Files.createDirectories(target.getParent());
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+                writeFully(channel, ByteBuffer.wrap(content), 0);
+            }
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            deleteQuietly(temp);
+            throw new UncheckedIOException("Failed to write blob " + key, e);
+        }
+    }
+
+    @Override
+    public MultipartUpload startMultipartUpload(String key, String contentType) {
+        Path target = resolve(key);
+        Path temp = tempFileFor(target);
+        try {
+            Files.createDirectories(target.getParent());
+            FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+            return new LocalMultipartUpload(key, target, temp, channel);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to start blob upload " + key, e);
+        }
+    }
+
+    @Override
+    public void delete(String key) {
+        try {
+            Files.deleteIfExists(resolve(key));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to delete blob " + key, e);
+        }
+    }
+
+    @Override
+    public List<String> deleteAll(Collection<String> keys) {
+        List<String> failed = new ArrayList<>();
+        for (String key : keys) {
+            try {
+                delete(key);
+            } catch (RuntimeException e) {
+                log.warn("Failed to delete blob {}", key, e);
+                failed.add(key);
+            }
+        }
+        return failed;
+    }
+
+    /**
+     * Walks the directory under the prefix and keeps only the first maxKeys keys after startAfter,
+     * so a page costs a full walk but never more than a page of memory.
+     */
+    @Override
+    public BlobPage list(String prefix, String startAfter, int maxKeys) {
+        Path dir = root.resolve(prefix).normalize();
+        if (!dir.startsWith(root) || !Files.isDirectory(dir)) {
+            return new BlobPage(List.of(), null);
+        }
+        TreeMap<String, Path> page = new TreeMap<>();
+        boolean truncated = false;
+        try (Stream<Path> files = Files.walk(dir)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                // Skips directories and the temporary files of uploads in progress
+                if (!Files.isRegularFile(file) || file.getFileName().toString().startsWith(".")) {
+                    continue;
+                }
+                String key = root.relativize(file).toString().replace(File.separatorChar, '/');
+                if (!key.startsWith(prefix) || (startAfter != null && key.compareTo(startAfter) <= 0)) {
+                    continue;
+                }
+                page.put(key, file);
+                if (page.size() > maxKeys) {
+                    page.pollLastEntry();
+                    truncated = true;
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to list blobs under " + prefix, e);
+        }
+
+        List<BlobInfo> blobs = new ArrayList<>(page.size());
+        for (var entry : page.entrySet()) {
+            try {
+                blobs.add(new BlobInfo(entry.getKey(), Files.getLastModifiedTime(entry.getValue()).toInstant()));
+            } catch (NoSuchFileException e) {
+                // Deleted since the walk
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to read blob " + entry.getKey(), e);
+            }
+        }
+        return new BlobPage(blobs, truncated ? page.lastKey() : null);
+    }
+
+    @Override
+    public String urlFor(String key) {
+        return baseUrl + key;
+    }
+
+    @Override
+    public String keyFor(String url) {
+        if (url == null || !url.startsWith(baseUrl)) {
+            throw new IllegalArgumentException("Not a local blob URL: " + url);
+        }
+        return url.substring(baseUrl.length());
+    }
+
+    public long size(String key) throws IOException {
+        return Files.size(resolve(key));
+    }
+
+    /**
+     * Copies a blob to the given stream.
+     *
+     * @throws NoSuchFileException if there is no blob under the key
+     */
+    public void copyTo(String key, OutputStream out) throws IOException {
+        Files.copy(resolve(key), out);
+    }
+
+    // Keys come from URLs in requests, so anything resolving outside the root is rejected
+    private Path resolve(String key) {
+        Path path = root.resolve(key).normalize();
+        if (!path.startsWith(root) || path.equals(root)) {
+            throw new IllegalArgumentException("Invalid blob key: " + key);
+        }
+        return path;
+    }
+
+    private Path tempFileFor(Path target) {
+        return target.resolveSibling("." + target.getFileName() + "." + UUID.randomUUID() + ".part");
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long offset) throws IOException {
+        long position = offset;
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Could not delete temporary blob file {}", path, e);
+        }
+    }
+
+    private static class LocalMultipartUpload implements MultipartUpload {
+
+        private final String key;
+        private final Path target;
+        private final Path temp;
+        private final FileChannel channel;
+
+        LocalMultipartUpload(String key, Path target, Path temp, FileChannel channel) {
+            this.key = key;
+            this.target = target;
+            this.temp = temp;
+            this.channel = channel;
+        }
+
+        // Positional writes do not move the channel's position, so concurrent parts are safe
+        @Override
+        public void uploadPart(int partNumber, long offset, byte[] data) {
+            try {
+                writeFully(channel, ByteBuffer.wrap(data), offset);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to write part " + partNumber + " of blob " + key, e);
+            }
+        }
+
+        @Override
+        public void complete() {
+            try {
+                channel.force(false);
+                channel.close();
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (IOException e) {
+                abort();
+                throw new UncheckedIOException("Failed to complete blob upload " + key, e);
+            }
+        }
+
+        @Override
+        public void abort() {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                log.warn("Could not close temporary blob file {}", temp, e);
+            }
+            deleteQuietly(temp);
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package com.divyanshu.Intellimatch.storage;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.divyanshu.Intellimatch.resilience.Bulkhead;
+
+import lombok.RequiredArgsConstructor;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.AbortMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompletedMultipartUpload;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.Delete;
+import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
+import software.amazon.awssdk.services.s3.model.DeleteObjectsRequest;
+import software.amazon.awssdk.services.s3.model.DeleteObjectsResponse;
+import software.amazon.awssdk.services.s3.model.ListObjectsV2Request;
+import software.amazon.awssdk.services.s3.model.ListObjectsV2Response;
+import software.amazon.awssdk.services.s3.model.ObjectIdentifier;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.S3Error;
+import software.amazon.awssdk.services.s3.model.UploadPartRequest;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Blob store on S3. Every request to S3 holds an s3Bulkhead permit, so the number of concurrent
+ * S3 calls stays bounded however many upload threads there are.
+ */
+@Component
+@ConditionalOnProperty(name = "storage.type", havingValue = "s3", matchIfMissing = true)
+@RequiredArgsConstructor
+public class S3BlobStore implements BlobStore {
+
+    private static final int MAX_KEYS_PER_DELETE = 1000;
+
+    private final S3Client s3Client;
+    private final Bulkhead s3Bulkhead;
+
+    @Value("${aws.s3.bucket}")
+    private String bucketName;
+
+    @Override
+    public void put(String key, String contentType, byte[] content) {
+        PutObjectRequest request = PutObjectRequest.builder()
+                .bucket(bucketName)
+                .key(key)
+                .contentType(contentType)
+                .build();
+        s3Bulkhead.run(() -> s3Client.putObject(request, RequestBody.fromBytes(content)));
+    }
+
+    @Override
+    public MultipartUpload startMultipartUpload(String key, String contentType) {
+        String uploadId = s3Bulkhead.call(() -> s3Client.createMultipartUpload(CreateMultipartUploadRequest.builder()
+                .bucket(bucketName)
+                .key(key)
+                .contentType(contentType)
+                .build()).uploadId());
+        return new S3MultipartUpload(key, uploadId);
+    }
+
+    @Override
+    public void delete(String key) {
+        s3Bulkhead.run(() -> s3Client.deleteObject(DeleteObjectRequest.builder()
+                .bucket(bucketName)
+                .key(key)
+                .build()));
+    }
+
+    @Override
+    public List<String> deleteAll(Collection<String> keys) {
+        List<String> failed = new ArrayList<>();
+        List<String> remaining = new ArrayList<>(keys);
+        for (int from = 0; from < remaining.size(); from += MAX_KEYS_PER_DELETE) {
+            List<ObjectIdentifier> objects = remaining.subList(from, Math.min(from + MAX_KEYS_PER_DELETE, remaining.size()))
+                    .stream()
+                    .map(key -> ObjectIdentifier.builder().key(key).build())
+                    .toList();
+            // Quiet mode only reports the keys that failed
+            DeleteObjectsResponse response = s3Bulkhead.call(() -> s3Client.deleteObjects(DeleteObjectsRequest.builder()
+                    .bucket(bucketName)
+                    .delete(Delete.builder().objects(objects).quiet(true).build())
+                    .build()));
+            response.errors().stream().map(S3Error::key).forEach(failed::add);
+        }
+        return failed;
+    }
+
+    @Override
+    public BlobPage list(String prefix, String startAfter, int maxKeys) {
+        ListObjectsV2Request.Builder request = ListObjectsV2Request.builder()
+                .bucket(bucketName)
+                .prefix(prefix)
+                .maxKeys(maxKeys);
+        if (startAfter != null) {
+            request.startAfter(startAfter);
+        }
+        ListObjectsV2Response response = s3Bulkhead.call(() -> s3Client.listObjectsV2(request.build()));
+        List<BlobInfo> blobs = response.contents().stream()
+                .map(object -> new BlobInfo(object.key(), object.lastModified()))
+                .toList();
+        String next = Boolean.TRUE.equals(response.isTruncated()) && !blobs.isEmpty()
+                ? blobs.get(blobs.size() - 1).key()
+                : null;
+        return new BlobPage(blobs, next);
+    }
+
+    @Override
+    public String urlFor(String key) {
+        return urlPrefix() + key;
+    }
+
+    @Override
+    public String keyFor(String url) {
+        if (url == null || !url.startsWith(urlPrefix())) {
+            throw new IllegalArgumentException("Not an object URL for bucket " + bucketName + ": " + url);
+        }
+        return url.substring(urlPrefix().length());
+    }
+
+    private String urlPrefix() {
+        return "https://" + bucketName + ".s3.amazonaws.com/";
+    }
+
+    private class S3MultipartUpload implements MultipartUpload {
+
+        private final String key;
+        private final String uploadId;
+        // S3 needs every part's ETag, in part order, to assemble the object
+        private final Map<Integer, CompletedPart> completedParts = new ConcurrentSkipListMap<>();
+
+        S3MultipartUpload(String key, String uploadId) {
+            this.key = key;
+            this.uploadId = uploadId;
+        }
+
+        @Override
+        public void uploadPart(int partNumber, long offset, byte[] data) {
+            String eTag = s3Bulkhead.call(() -> s3Client.uploadPart(UploadPartRequest.builder()
+                    .bucket(bucketName)
+                    .key(key)
+                    .uploadId(uploadId)
+                    .partNumber(partNumber)
+                    .contentLength((long) data.length)
+                    .build(), RequestBody.fromBytes(data)).eTag());
+            completedParts.put(partNumber, CompletedPart.builder().partNumber(partNumber).eTag(eTag).build());
+        }
+
+        @Override
+        public void complete() {
+            s3Bulkhead.run(() -> s3Client.completeMultipartUpload(CompleteMultipartUploadRequest.builder()
+                    .bucket(bucketName)
+                    .key(key)
+                    .uploadId(uploadId)
+                    .multipartUpload(CompletedMultipartUpload.builder().parts(new ArrayList<>(completedParts.values())).build())
+                    .build()));
+        }
+
+        @Override
+        public void abort() {
+            s3Bulkhead.run(() -> s3Client.abortMultipartUpload(AbortMultipartUploadRequest.builder()
+                    .bucket(bucketName)
+                    .key(key)
+                    .uploadId(uploadId)
+                    .build()));
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.divyanshu.Intellimatch.tracing;
+
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
+import io.micrometer.tracing.propagation.Propagator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Carries a trace across the analysis job queue. Work is handed from the upload request to a
+ * worker through Mongo, possibly on another node, so the request's trace context is stored with
+ * the job as W3C headers (traceparent, tracestate) and continued when the job runs.
+ */
+@Component
+@RequiredArgsConstructor
+public class TraceContexts {
+
+    private final Tracer tracer;
+    private final Propagator propagator;
+
+    // The current trace as headers, or null outside of a trace
+    public Map<String, String> capture() {
+        Span span = tracer.currentSpan();
+        if (span == null) {
+            return null;
+        }
+        Map<String, String> headers = new HashMap<>();
+        propagator.inject(span.context(), headers, Map::put);
+        return headers.isEmpty() ? null : headers;
+    }
+
+    // A span builder continuing a captured trace; a new trace is started if nothing was captured
+    public Span.Builder continueTrace(Map<String, String> captured) {
+        if (captured == null || captured.isEmpty()) {
+            return tracer.spanBuilder().setNoParent();
+        }
+        return propagator.extract(captured, Map::get);
+    }
+}
@@ -0,0 +1,41 @@
+package com.divyanshu.Intellimatch;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import de.flapdoodle.embed.mongo.commands.ServerAddress;
+import de.flapdoodle.embed.mongo.distribution.Version;
+import de.flapdoodle.embed.mongo.transitions.Mongod;
+import de.flapdoodle.embed.mongo.transitions.RunningMongodProcess;
+import de.flapdoodle.reverse.TransitionWalker;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.repository.support.MongoRepositoryFactory;
+
+/**
+ * One mongod for the whole test run, started on first use, for tests of queries and atomic updates
+ * that only a real server can check. Each test class works in its own database.
+ */
+public final class EmbeddedMongo {
+
+    private static TransitionWalker.ReachedState<RunningMongodProcess> process;
+    private static MongoClient client;
+
+    private EmbeddedMongo() {
+    }
+
+    public static synchronized MongoTemplate template(String database) {
+        if (client == null) {
+            process = Mongod.instance().start(Version.Main.V7_0);
+            ServerAddress address = process.current().getServerAddress();
+            client = MongoClients.create("mongodb://" + address.getHost() + ":" + address.getPort());
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                client.close();
+                process.close();
+            }, "embedded-mongo-shutdown"));
+        }
+        return new MongoTemplate(client, database);
+    }
+
+    public static <T> T repository(MongoTemplate template, Class<T> repositoryInterface) {
+        return new MongoRepositoryFactory(template).getRepository(repositoryInterface);
+    }
+}
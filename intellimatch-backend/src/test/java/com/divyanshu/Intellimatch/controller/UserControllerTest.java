@@ -0,0 +1,62 @@
+package com.divyanshu.Intellimatch.controller;
+
+import com.divyanshu.Intellimatch.EmbeddedMongo;
+import com.divyanshu.Intellimatch.dto.HistoryCursor;
+import com.divyanshu.Intellimatch.model.ResumeMatch;
+import com.divyanshu.Intellimatch.model.User;
+import com.divyanshu.Intellimatch.repository.UserRepository;
+import com.divyanshu.Intellimatch.security.PasswordHasher;
+import com.divyanshu.Intellimatch.service.ResumeMatchService;
+import com.divyanshu.Intellimatch.service.UserPrincipalCacheService;
+import com.divyanshu.Intellimatch.service.UserService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class UserControllerTest {
+
+    private UserController controller;
+    private String userId;
+
+    @BeforeEach
+    void setUp() {
+        MongoTemplate mongoTemplate = EmbeddedMongo.template("user-controller-test");
+        mongoTemplate.dropCollection(User.class);
+        mongoTemplate.dropCollection(ResumeMatch.class);
+        UserRepository userRepository = EmbeddedMongo.repository(mongoTemplate, UserRepository.class);
+        UserPrincipalCacheService principals = new UserPrincipalCacheService(userRepository, mongoTemplate,
+            new SimpleMeterRegistry(), 100, 300);
+        UserService userService = new UserService(userRepository, principals, new PasswordHasher(1000, false, 100));
+
+        // History reads only use Mongo
+        ResumeMatchService resumeMatchService = new ResumeMatchService(null, null, null, null, null, null, null,
+            null, null, mongoTemplate, new SimpleMeterRegistry(), null, null);
+        ReflectionTestUtils.setField(resumeMatchService, "maxPageSize", 100);
+
+        controller = new UserController(userService, resumeMatchService);
+        userId = userRepository.save(new User(null, "Ada", "not-a-real-hash", "ada@example.com")).getId();
+    }
+
+    @Test
+    void returnsHistoryPage() {
+        assertEquals(200, controller.getUserHistory(userId, null, 20).getStatusCode().value());
+        String cursor = new HistoryCursor(new Date(), "65f1c0de9a1b2c3d4e5f6a7b").encode();
+        assertEquals(200, controller.getUserHistory(userId, cursor, 20).getStatusCode().value());
+    }
+
+    @Test
+    void rejectsMalformedCursorAsBadRequest() {
+        String badId = Base64.getUrlEncoder().encodeToString("1710000000000:'; drop".getBytes(StandardCharsets.UTF_8));
+        for (String cursor : new String[] {"%%%", "bm90LWEtY3Vyc29y", badId}) {
+            assertEquals(400, controller.getUserHistory(userId, cursor, 20).getStatusCode().value(), cursor);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.divyanshu.Intellimatch.scoring;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SkillAutomatonTest {
+
+    private final SkillAutomaton automaton = SkillAutomaton.builder()
+        .add("Java", List.of("java ee", "jdk"))
+        .add("JavaScript", List.of("js", "ecmascript"))
+        .add("Node.js", List.of("nodejs", "node js"))
+        .add("Spring", List.of())
+        .add("Spring Boot", List.of())
+        .add("Boot Camp", List.of())
+        .build();
+
+    @Test
+    void javaIsNotFoundInJavaScript() {
+        assertEquals(Map.of("JavaScript", 1), mentions("JavaScript developer"));
+        assertEquals(Map.of("Java", 1, "JavaScript", 1), mentions("Java, JavaScript"));
+    }
+
+    @Test
+    void jsIsNotFoundInNodeJs() {
+        assertEquals(Map.of("Node.js", 1), mentions("Built APIs in node.js"));
+        assertEquals(Map.of("Node.js", 1, "JavaScript", 1), mentions("Node.js and plain JS"));
+    }
+
+    @Test
+    void countsEveryOverlappingAlias() {
+        assertEquals(Map.of("Spring", 1, "Spring Boot", 1, "Boot Camp", 1), mentions("spring boot camp"));
+        assertEquals(Map.of("Java", 2), mentions("Java EE"));
+    }
+
+    @Test
+    void matchesMultiWordAliasesAcrossLineBreaks() {
+        assertEquals(Map.of("Spring", 1, "Spring Boot", 1), mentions("Spring\r\n   Boot"));
+        assertEquals(Map.of("Java", 2), mentions("java\n\tee"));
+    }
+
+    @Test
+    void matchesBeforeSentenceFinalDot() {
+        assertEquals(Map.of("Java", 1), mentions("Five years of Java."));
+        assertEquals(Map.of("Java", 1, "Spring", 1), mentions("Java. Spring."));
+        assertEquals(Map.of("Node.js", 1), mentions("Mostly node.js."));
+    }
+
+    @Test
+    void doesNotMatchBeforeDotInsideWord() {
+        assertTrue(mentions("import java.util.List").isEmpty());
+    }
+
+    @Test
+    void ignoresCaseAndCountsRepeats() {
+        assertEquals(Map.of("Java", 3), mentions("Java, java and JAVA"));
+    }
+
+    @Test
+    void rejectsAliasUsedByTwoSkills() {
+        SkillAutomaton.Builder builder = SkillAutomaton.builder()
+            .add("Go", List.of("golang"))
+            .add("Golang", List.of());
+        assertThrows(IllegalArgumentException.class, builder::build);
+    }
+
+    @Test
+    void rejectsNonAsciiAlias() {
+        SkillAutomaton.Builder builder = SkillAutomaton.builder().add("Kafka", List.of("k\u00e4fka"));
+        assertThrows(IllegalArgumentException.class, builder::build);
+    }
+
+    private Map<String, Integer> mentions(String text) {
+        SkillProfile profile = automaton.profile(text);
+        Map<String, Integer> mentions = new HashMap<>();
+        for (int i = 0; i < profile.size(); i++) {
+            mentions.put(automaton.getSkillName(profile.skillAt(i)), profile.countAt(i));
+        }
+        return mentions;
+    }
+}
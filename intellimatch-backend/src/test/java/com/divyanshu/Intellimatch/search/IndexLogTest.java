@@ -0,0 +1,110 @@
+package com.divyanshu.Intellimatch.search;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IndexLogTest {
+
+    private static final IndexLog.Entry DOCUMENT = new IndexLog.Document("hash-1", Map.of("java", 3, "skill:java", 2));
+    private static final IndexLog.Entry UPLOAD = new IndexLog.Upload("hash-1", "user-1", "resume.pdf", "https://blobs/resumes/1.pdf");
+    private static final IndexLog.Entry UNNAMED_UPLOAD = new IndexLog.Upload("hash-1", "user-2", null, null);
+    private static final IndexLog.Entry CURSOR = new IndexLog.Cursor("65f000000000000000000001");
+    private static final IndexLog.Entry REMOVED = new IndexLog.Removed("hash-1", "user-2");
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void createsEmptyLog() throws IOException {
+        Path path = dir.resolve("resumes.log");
+
+        List<IndexLog.Entry> replayed = new ArrayList<>();
+        IndexLog.open(path, replayed::add).close();
+
+        assertTrue(replayed.isEmpty());
+        assertTrue(reopen(path).isEmpty());
+    }
+
+    @Test
+    void replaysEntriesInOrder() throws IOException {
+        Path path = dir.resolve("resumes.log");
+        try (IndexLog log = IndexLog.open(path, entry -> { })) {
+            log.append(DOCUMENT);
+            log.append(UPLOAD);
+            log.append(UNNAMED_UPLOAD);
+            log.append(CURSOR);
+            log.append(REMOVED);
+            log.sync();
+        }
+
+        assertEquals(List.of(DOCUMENT, UPLOAD, UNNAMED_UPLOAD, CURSOR, REMOVED), reopen(path));
+    }
+
+    @Test
+    void cutsOffTornLastEntry() throws IOException {
+        Path path = dir.resolve("resumes.log");
+        try (IndexLog log = IndexLog.open(path, entry -> { })) {
+            log.append(DOCUMENT);
+            log.append(UPLOAD);
+            log.sync();
+        }
+        // A crash halfway through writing the upload
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 5);
+        }
+
+        try (IndexLog log = IndexLog.open(path, entry -> { })) {
+            log.append(CURSOR);
+            log.sync();
+        }
+
+        // The torn upload is gone rather than garbling the cursor appended after it
+        assertEquals(List.of(DOCUMENT, CURSOR), reopen(path));
+    }
+
+    @Test
+    void discardsEntriesSinceLastSyncWhenAppendFails() throws IOException {
+        Path path = dir.resolve("resumes.log");
+        try (IndexLog log = IndexLog.open(path, entry -> { })) {
+            log.append(DOCUMENT);
+            log.sync();
+
+            log.append(UPLOAD);
+            // Too long for writeUTF, which fails after the entry's first bytes are written
+            IndexLog.Entry unwritable = new IndexLog.Document("hash-2", Map.of("x".repeat(70_000), 1));
+            assertThrows(IOException.class, () -> log.append(unwritable));
+
+            log.append(CURSOR);
+            log.sync();
+        }
+
+        assertEquals(List.of(DOCUMENT, CURSOR), reopen(path));
+    }
+
+    @Test
+    void rejectsFileThatIsNotALog() throws IOException {
+        Path path = dir.resolve("resumes.log");
+        Files.writeString(path, "not a search index log");
+
+        assertThrows(IOException.class, () -> IndexLog.open(path, entry -> { }));
+    }
+
+    private static List<IndexLog.Entry> reopen(Path path) throws IOException {
+        List<IndexLog.Entry> replayed = new ArrayList<>();
+        IndexLog.open(path, replayed::add).close();
+        return replayed;
+    }
+}
@@ -0,0 +1,187 @@
+package com.divyanshu.Intellimatch.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InvertedIndexTest {
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final double TOLERANCE = 1e-9;
+
+    @Test
+    void findsSameTopKAsBruteForce() {
+        for (long seed = 1; seed <= 5; seed++) {
+            Corpus corpus = new Corpus(seed, 2000);
+            for (int q = 0; q < 20; q++) {
+                Map<String, Double> query = corpus.query();
+                for (int k : new int[] {1, 10, 50}) {
+                    assertSameHits(corpus.bruteForce(query, k, null), corpus.index.search(query, k, null), corpus);
+                }
+            }
+        }
+    }
+
+    @Test
+    void findsSameTopKAsBruteForceAmongAllowed() {
+        for (long seed = 1; seed <= 5; seed++) {
+            Corpus corpus = new Corpus(seed, 2000);
+            for (int percent : new int[] {1, 10, 50}) {
+                DocIdSet allowed = corpus.sample(percent);
+                for (int q = 0; q < 20; q++) {
+                    Map<String, Double> query = corpus.query();
+                    for (int k : new int[] {1, 10, 50}) {
+                        List<InvertedIndex.Hit> hits = corpus.index.search(query, k, allowed);
+                        assertSameHits(corpus.bruteForce(query, k, allowed), hits, corpus);
+                        hits.forEach(hit -> assertTrue(allowed.contains(hit.doc())));
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void breaksTiesTowardsOlderDocuments() {
+        InvertedIndex index = new InvertedIndex(64);
+        for (int i = 0; i < 6; i++) {
+            index.add(Map.of("java", 2, "spring", 1));
+        }
+        index.add(Map.of("python", 3));
+        Map<String, Double> query = Map.of("java", 1.0, "spring", 1.0);
+
+        assertEquals(List.of(0, 1, 2), docs(index.search(query, 3, null)));
+
+        DocIdSet allowed = new DocIdSet();
+        allowed.add(5);
+        allowed.add(2);
+        allowed.add(4);
+        assertEquals(List.of(2, 4), docs(index.search(query, 2, allowed)));
+    }
+
+    @Test
+    void returnsOnlyDocumentsWithPositiveScore() {
+        InvertedIndex index = new InvertedIndex(64);
+        index.add(Map.of("java", 1));
+        index.add(Map.of("python", 1));
+        index.add(Map.of("java", 3));
+
+        assertEquals(List.of(2, 0), docs(index.search(Map.of("java", 1.0), 10, null)));
+        assertTrue(index.search(Map.of("rust", 1.0), 10, null).isEmpty());
+        assertTrue(index.search(Map.of("java", 0.0), 10, null).isEmpty());
+        assertTrue(index.search(Map.of("java", 1.0), 0, null).isEmpty());
+        assertTrue(index.search(Map.of("java", 1.0), 10, new DocIdSet()).isEmpty());
+    }
+
+    @Test
+    void keepsTermsWithHighestIdfWhenQueryIsTooLong() {
+        InvertedIndex index = new InvertedIndex(1);
+        index.add(Map.of("common", 1));
+        index.add(Map.of("common", 1, "rare", 1));
+        index.add(Map.of("common", 5));
+
+        // Only "rare" is searched for, so the document that repeats "common" is not found
+        assertEquals(List.of(1), docs(index.search(Map.of("common", 1.0, "rare", 1.0), 10, null)));
+    }
+
+    // Equal up to rounding: sums of the same terms in a different order may differ in the last bits
+    private static void assertSameHits(List<InvertedIndex.Hit> expected, List<InvertedIndex.Hit> actual, Corpus corpus) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).score(), actual.get(i).score(), TOLERANCE);
+        }
+        for (InvertedIndex.Hit hit : actual) {
+            assertEquals(corpus.lastScores[hit.doc()], hit.score(), TOLERANCE);
+        }
+    }
+
+    private static List<Integer> docs(List<InvertedIndex.Hit> hits) {
+        return hits.stream().map(InvertedIndex.Hit::doc).toList();
+    }
+
+    // Random documents over a small vocabulary where a few words are in nearly every document
+    private static final class Corpus {
+
+        private final Random random;
+        private final InvertedIndex index = new InvertedIndex(1000);
+        private final List<Map<String, Integer>> documents = new ArrayList<>();
+        private final Map<String, Integer> documentFrequency = new HashMap<>();
+        private double[] lastScores;
+
+        Corpus(long seed, int size) {
+            random = new Random(seed);
+            for (int i = 0; i < size; i++) {
+                Map<String, Integer> terms = new HashMap<>();
+                int words = 20 + random.nextInt(180);
+                for (int w = 0; w < words; w++) {
+                    terms.merge(word(), 1, Integer::sum);
+                }
+                documents.add(terms);
+                terms.keySet().forEach(term -> documentFrequency.merge(term, 1, Integer::sum));
+                assertEquals(i, index.add(terms));
+            }
+        }
+
+        Map<String, Double> query() {
+            Map<String, Double> query = new HashMap<>();
+            int terms = 5 + random.nextInt(35);
+            for (int t = 0; t < terms; t++) {
+                query.put(word(), random.nextInt(4) == 0 ? 2.0 : 1.0);
+            }
+            return query;
+        }
+
+        DocIdSet sample(int percent) {
+            DocIdSet sample = new DocIdSet();
+            for (int doc = 0; doc < documents.size(); doc++) {
+                if (random.nextInt(100) < percent) {
+                    sample.add(doc);
+                }
+            }
+            return sample;
+        }
+
+        // Scores every document and keeps the scores for the hits to be checked against
+        List<InvertedIndex.Hit> bruteForce(Map<String, Double> query, int k, DocIdSet allowed) {
+            double averageLength = documents.stream().mapToInt(Corpus::length).average().orElse(1);
+            lastScores = new double[documents.size()];
+            List<InvertedIndex.Hit> hits = new ArrayList<>();
+            for (int doc = 0; doc < documents.size(); doc++) {
+                Map<String, Integer> terms = documents.get(doc);
+                double norm = K1 * (1 - B + B * length(terms) / averageLength);
+                double score = 0;
+                for (Map.Entry<String, Double> entry : query.entrySet()) {
+                    Integer tf = terms.get(entry.getKey());
+                    if (tf != null) {
+                        int df = documentFrequency.get(entry.getKey());
+                        double idf = Math.log(1 + (documents.size() - df + 0.5) / (df + 0.5));
+                        score += entry.getValue() * idf * tf * (K1 + 1) / (tf + norm);
+                    }
+                }
+                lastScores[doc] = score;
+                if (score > 0 && (allowed == null || allowed.contains(doc))) {
+                    hits.add(new InvertedIndex.Hit(doc, score));
+                }
+            }
+            hits.sort(Comparator.comparingDouble(InvertedIndex.Hit::score).reversed()
+                .thenComparingInt(InvertedIndex.Hit::doc));
+            return hits.subList(0, Math.min(k, hits.size()));
+        }
+
+        private String word() {
+            return "w" + ((int) Math.pow(300, random.nextDouble()) - 1);
+        }
+
+        private static int length(Map<String, Integer> terms) {
+            return terms.values().stream().mapToInt(Integer::intValue).sum();
+        }
+    }
+}
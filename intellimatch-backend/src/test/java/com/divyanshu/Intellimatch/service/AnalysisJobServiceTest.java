@@ -0,0 +1,206 @@
+package com.divyanshu.Intellimatch.service;
+
+import com.divyanshu.Intellimatch.EmbeddedMongo;
+import com.divyanshu.Intellimatch.model.AnalysisBatch;
+import com.divyanshu.Intellimatch.model.AnalysisJob;
+import com.divyanshu.Intellimatch.model.AnalysisJobStatus;
+import com.divyanshu.Intellimatch.model.ResumeMatch;
+import com.divyanshu.Intellimatch.repository.AnalysisBatchRepository;
+import com.divyanshu.Intellimatch.repository.AnalysisJobRepository;
+import com.divyanshu.Intellimatch.tracing.TraceContexts;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.tracing.Tracer;
+import io.micrometer.tracing.propagation.Propagator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AnalysisJobServiceTest {
+
+    private MongoTemplate mongoTemplate;
+    private AnalysisJobRepository jobRepository;
+    private AnalysisBatchRepository batchRepository;
+    private AnalysisJobService service;
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate = EmbeddedMongo.template("analysis-job-service-test");
+        mongoTemplate.dropCollection(AnalysisJob.class);
+        mongoTemplate.dropCollection(AnalysisBatch.class);
+        jobRepository = EmbeddedMongo.repository(mongoTemplate, AnalysisJobRepository.class);
+        batchRepository = EmbeddedMongo.repository(mongoTemplate, AnalysisBatchRepository.class);
+        service = new AnalysisJobService(jobRepository, batchRepository, mongoTemplate,
+            new SimpleMeterRegistry(), new TraceContexts(Tracer.NOOP, Propagator.NOOP));
+        ReflectionTestUtils.setField(service, "leaseSeconds", 300L);
+        ReflectionTestUtils.setField(service, "maxAttempts", 2);
+        ReflectionTestUtils.setField(service, "retryBackoffSeconds", 0L);
+    }
+
+    @Test
+    void claimsEachPendingJobOnce() {
+        AnalysisJob queued = service.enqueue(match("m1"));
+
+        AnalysisJob claimed = service.claimNext("worker-1").orElseThrow();
+
+        assertEquals(queued.getId(), claimed.getId());
+        assertEquals(AnalysisJobStatus.RUNNING, claimed.getStatus());
+        assertEquals("worker-1", claimed.getLeaseOwner());
+        assertEquals(1, claimed.getAttempts());
+        assertTrue(service.claimNext("worker-2").isEmpty());
+    }
+
+    @Test
+    void reclaimsJobWithExpiredLease() {
+        service.enqueue(match("m1"));
+        AnalysisJob first = service.claimNext("worker-1").orElseThrow();
+
+        expireLease(first);
+        AnalysisJob second = service.claimNext("worker-2").orElseThrow();
+
+        assertEquals(first.getId(), second.getId());
+        assertEquals("worker-2", second.getLeaseOwner());
+        assertEquals(2, second.getAttempts());
+    }
+
+    @Test
+    void ignoresTransitionsFromStaleLeaseOwner() {
+        service.enqueue(match("m1"));
+        AnalysisJob stale = service.claimNext("worker-1").orElseThrow();
+        expireLease(stale);
+        AnalysisJob current = service.claimNext("worker-2").orElseThrow();
+
+        service.markDone(stale);
+        AnalysisJob afterStale = jobRepository.findById(current.getId()).orElseThrow();
+        assertEquals(AnalysisJobStatus.RUNNING, afterStale.getStatus());
+        assertEquals("worker-2", afterStale.getLeaseOwner());
+
+        service.markDone(current);
+        assertEquals(AnalysisJobStatus.DONE, jobRepository.findById(current.getId()).orElseThrow().getStatus());
+    }
+
+    @Test
+    void renewsOnlyLeasesTheWorkerHolds() {
+        service.enqueue(match("m1"));
+        AnalysisJob job = service.claimNext("worker-1").orElseThrow();
+        expireLease(job);
+
+        service.renewLeases("worker-2", List.of(job.getId()));
+        assertTrue(leaseOf(job).before(new Date()));
+
+        service.renewLeases("worker-1", List.of(job.getId()));
+        assertTrue(leaseOf(job).after(new Date()));
+    }
+
+    @Test
+    void retriesUntilMaxAttemptsThenFails() {
+        service.enqueue(match("m1"));
+
+        AnalysisJob first = service.claimNext("worker-1").orElseThrow();
+        assertTrue(service.retryOrFail(first, "timeout"));
+        AnalysisJob retried = jobRepository.findById(first.getId()).orElseThrow();
+        assertEquals(AnalysisJobStatus.PENDING, retried.getStatus());
+        assertEquals("timeout", retried.getLastError());
+
+        AnalysisJob second = service.claimNext("worker-1").orElseThrow();
+        assertEquals(2, second.getAttempts());
+        assertFalse(service.retryOrFail(second, "timeout again"));
+        assertEquals(AnalysisJobStatus.FAILED, jobRepository.findById(first.getId()).orElseThrow().getStatus());
+    }
+
+    @Test
+    void doesNotReclaimExpiredLeaseOnLastAttempt() {
+        service.enqueue(match("m1"));
+        AnalysisJob first = service.claimNext("worker-1").orElseThrow();
+        expireLease(first);
+        AnalysisJob second = service.claimNext("worker-2").orElseThrow();
+        assertEquals(2, second.getAttempts());
+        assertTrue(service.claimAbandoned("sweeper").isEmpty());
+
+        // The second worker died too: the job is failed rather than handed out a third time
+        expireLease(second);
+        assertTrue(service.claimNext("worker-3").isEmpty());
+
+        AnalysisJob abandoned = service.claimAbandoned("sweeper").orElseThrow();
+        assertEquals("sweeper", abandoned.getLeaseOwner());
+        assertEquals(2, abandoned.getAttempts());
+        assertTrue(service.claimAbandoned("other-sweeper").isEmpty());
+
+        service.markFailed(abandoned, "Lease expired");
+        AnalysisJob failed = jobRepository.findById(first.getId()).orElseThrow();
+        assertEquals(AnalysisJobStatus.FAILED, failed.getStatus());
+        assertEquals("Lease expired", failed.getLastError());
+        assertTrue(service.claimNext("worker-3").isEmpty());
+    }
+
+    @Test
+    void deferDoesNotCountTheAttempt() {
+        service.enqueue(match("m1"));
+        AnalysisJob job = service.claimNext("worker-1").orElseThrow();
+
+        service.defer(job, 60_000);
+
+        AnalysisJob deferred = jobRepository.findById(job.getId()).orElseThrow();
+        assertEquals(AnalysisJobStatus.PENDING, deferred.getStatus());
+        assertEquals(0, deferred.getAttempts());
+        assertTrue(deferred.getNextAttemptAt().after(new Date()));
+        assertTrue(service.claimNext("worker-1").isEmpty());
+    }
+
+    @Test
+    void batchNeverHasMoreThanMaxConcurrencyJobsActive() {
+        AnalysisBatch batch = new AnalysisBatch();
+        batch.setMaxConcurrency(2);
+        batch.setTotal(5);
+        batch = batchRepository.save(batch);
+        List<ResumeMatch> matches = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            matches.add(match("m" + i));
+        }
+
+        service.enqueueBatch(batch, matches);
+        assertEquals(2, countActive(batch));
+
+        int done = 0;
+        while (done < 5) {
+            Optional<AnalysisJob> claimed = service.claimNext("worker-1");
+            assertTrue(claimed.isPresent(), "a batch job should be claimable while the batch is unfinished");
+            assertTrue(countActive(batch) <= 2);
+
+            service.markDone(claimed.get());
+            done++;
+            assertTrue(countActive(batch) <= 2);
+        }
+        assertEquals(5L, service.countBatchJobsByStatus(batch.getId()).get(AnalysisJobStatus.DONE));
+    }
+
+    private static ResumeMatch match(String id) {
+        return new ResumeMatch(id, "user-1", "resume.pdf", "jd.pdf", "resume-url", "jd-url", null);
+    }
+
+    private void expireLease(AnalysisJob job) {
+        mongoTemplate.updateFirst(new Query(Criteria.where("_id").is(job.getId())),
+            new Update().set("leaseExpiresAt", new Date(System.currentTimeMillis() - 1000)), AnalysisJob.class);
+    }
+
+    private Date leaseOf(AnalysisJob job) {
+        return jobRepository.findById(job.getId()).orElseThrow().getLeaseExpiresAt();
+    }
+
+    private long countActive(AnalysisBatch batch) {
+        return mongoTemplate.count(new Query(Criteria.where("batchId").is(batch.getId())
+            .and("status").in(AnalysisJobStatus.PENDING, AnalysisJobStatus.RUNNING)), AnalysisJob.class);
+    }
+}
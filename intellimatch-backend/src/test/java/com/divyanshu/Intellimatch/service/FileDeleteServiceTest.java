@@ -0,0 +1,165 @@
+package com.divyanshu.Intellimatch.service;
+
+import com.divyanshu.Intellimatch.storage.InMemoryBlobStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FileDeleteServiceTest {
+
+    private final InMemoryBlobStore blobStore = new InMemoryBlobStore();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void deletesQueuedFilesInBatchesOfBatchSize() {
+        FileDeleteService service = new FileDeleteService(blobStore, meterRegistry, 100, 2, 3);
+        for (String key : List.of("a", "b", "c", "d", "e")) {
+            blobStore.add(key, Instant.now());
+            service.deleteFile(blobStore.urlFor(key));
+        }
+
+        service.flush();
+
+        assertEquals(List.of(List.of("a", "b"), List.of("c", "d"), List.of("e")), sorted(blobStore.getDeleteCalls()));
+        assertFalse(blobStore.contains("a"));
+        assertFalse(blobStore.contains("e"));
+        assertEquals(5, count("deleted"));
+    }
+
+    @Test
+    void neverSendsMoreKeysThanS3AcceptsInOneRequest() {
+        FileDeleteService service = new FileDeleteService(blobStore, meterRegistry, 5000, 5000, 3);
+        for (int i = 0; i < 1500; i++) {
+            service.deleteKey("key-" + i);
+        }
+
+        service.flush();
+
+        List<List<String>> calls = blobStore.getDeleteCalls();
+        assertEquals(2, calls.size());
+        assertEquals(1000, calls.get(0).size());
+        assertEquals(500, calls.get(1).size());
+    }
+
+    @Test
+    void deletesAKeyQueuedTwiceInOneBatchOnce() {
+        FileDeleteService service = new FileDeleteService(blobStore, meterRegistry, 100, 10, 3);
+        service.deleteKey("shared");
+        service.deleteKey("shared");
+
+        service.flush();
+
+        assertEquals(List.of(List.of("shared")), blobStore.getDeleteCalls());
+        assertEquals(1, count("deleted"));
+    }
+
+    @Test
+    void retriesFailedKeysOnTheNextFlush() {
+        FileDeleteService service = new FileDeleteService(blobStore, meterRegistry, 100, 10, 3);
+        blobStore.add("flaky", Instant.now());
+        blobStore.failDeletes("flaky", 1);
+        service.deleteKey("flaky");
+        service.deleteKey("fine");
+
+        service.flush();
+        assertTrue(blobStore.contains("flaky"));
+        assertEquals(1, count("deleted"));
+        assertEquals(99, service.getRemainingCapacity());
+
+        service.flush();
+        assertFalse(blobStore.contains("flaky"));
+        assertEquals(2, count("deleted"));
+        assertEquals(0, count("failed"));
+        assertEquals(100, service.getRemainingCapacity());
+    }
+
+    @Test
+    void givesUpAfterMaxAttempts() {
+        FileDeleteService service = new FileDeleteService(blobStore, meterRegistry, 100, 10, 3);
+        blobStore.add("stuck", Instant.now());
+        blobStore.failDeletes("stuck", Integer.MAX_VALUE);
+        service.deleteKey("stuck");
+
+        service.flush();
+        service.flush();
+        assertEquals(0, count("failed"));
+        service.flush();
+
+        assertEquals(1, count("failed"));
+        assertEquals(0, count("deleted"));
+        assertEquals(100, service.getRemainingCapacity());
+        service.flush();
+        assertEquals(3, blobStore.getDeleteCalls().size());
+        assertTrue(blobStore.contains("stuck"));
+    }
+
+    @Test
+    void retriesTheWholeBatchWhenTheRequestFails() {
+        FileDeleteService service = new FileDeleteService(blobStore, meterRegistry, 100, 10, 3);
+        blobStore.failDeleteCalls(1);
+        service.deleteKey("a");
+        service.deleteKey("b");
+
+        service.flush();
+        assertEquals(0, count("deleted"));
+        assertEquals(98, service.getRemainingCapacity());
+
+        service.flush();
+        assertEquals(2, count("deleted"));
+    }
+
+    @Test
+    void dropsKeysThatDoNotFitInTheQueue() {
+        FileDeleteService service = new FileDeleteService(blobStore, meterRegistry, 2, 10, 3);
+
+        assertTrue(service.deleteKey("a"));
+        assertTrue(service.deleteKey("b"));
+        assertFalse(service.deleteKey("c"));
+
+        assertEquals(1, count("dropped"));
+        service.flush();
+        assertEquals(List.of(List.of("a", "b")), sorted(blobStore.getDeleteCalls()));
+    }
+
+    @Test
+    void dropsRetriesWhenNewDeletionsFilledTheQueue() {
+        FileDeleteService service = new FileDeleteService(blobStore, meterRegistry, 2, 10, 3);
+        blobStore.failDeletes("a", 1);
+        service.deleteKey("a");
+        // Deletions queued while the flush runs take the room the retry would need
+        blobStore.onDeleteAll(() -> {
+            service.deleteKey("late-1");
+            service.deleteKey("late-2");
+        });
+
+        service.flush();
+
+        assertEquals(1, count("dropped"));
+        assertEquals(0, service.getRemainingCapacity());
+    }
+
+    @Test
+    void rejectsUrlsOutsideTheStore() {
+        FileDeleteService service = new FileDeleteService(blobStore, meterRegistry, 10, 10, 3);
+
+        assertThrows(IllegalArgumentException.class, () -> service.deleteFile(""));
+        assertThrows(IllegalArgumentException.class, () -> service.deleteFile(null));
+        assertThrows(IllegalArgumentException.class, () -> service.deleteFile("https://elsewhere/resumes/a.pdf"));
+    }
+
+    private double count(String result) {
+        return meterRegistry.get("storage.deletes").tag("result", result).counter().count();
+    }
+
+    // A batch is a set, so its order is not part of the contract
+    private static List<List<String>> sorted(List<List<String>> calls) {
+        return calls.stream().map(call -> call.stream().sorted().toList()).toList();
+    }
+}
@@ -0,0 +1,116 @@
+package com.divyanshu.Intellimatch.service;
+
+import com.divyanshu.Intellimatch.EmbeddedMongo;
+import com.divyanshu.Intellimatch.controller.MatchEventController;
+import com.divyanshu.Intellimatch.dto.MatchEventDTO;
+import com.divyanshu.Intellimatch.model.AnalysisJob;
+import com.divyanshu.Intellimatch.model.AnalysisJobStatus;
+import com.divyanshu.Intellimatch.model.MatchEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Collection;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MatchEventServiceTest {
+
+    private MongoTemplate mongoTemplate;
+    private SimpleMeterRegistry meterRegistry;
+    private MatchEventService service;
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate = EmbeddedMongo.template("match-event-service-test");
+        mongoTemplate.dropCollection(MatchEvent.class);
+        meterRegistry = new SimpleMeterRegistry();
+        service = new MatchEventService(mongoTemplate, meterRegistry, 5000);
+        ReflectionTestUtils.setField(service, "timeoutMs", 60_000L);
+        ReflectionTestUtils.setField(service, "maxStreamsPerUser", 2);
+        ReflectionTestUtils.setField(service, "maxRelayedEvents", 100);
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.closeStreams();
+    }
+
+    @Test
+    void rejectsStreamsOverThePerUserLimitWithTooManyRequests() {
+        MatchEventController controller = new MatchEventController(service);
+
+        assertEquals(200, controller.streamEvents("user-1").getStatusCode().value());
+        assertEquals(200, controller.streamEvents("user-1").getStatusCode().value());
+        assertEquals(429, controller.streamEvents("user-1").getStatusCode().value());
+        assertEquals(200, controller.streamEvents("user-2").getStatusCode().value());
+        assertEquals(401, controller.streamEvents(null).getStatusCode().value());
+        assertEquals(3.0, openStreams());
+    }
+
+    @Test
+    void relaysEventFromAnotherNodeExactlyOnce() {
+        SseEmitter emitter = service.subscribe("user-1").orElseThrow();
+        SseEmitter otherUser = service.subscribe("user-2").orElseThrow();
+
+        MatchEvent remote = event("user-1", "match-remote");
+        remote.setOrigin("other-node");
+        mongoTemplate.insert(remote);
+
+        // Polls overlap by the lookback window, so the second one finds the event again
+        service.relayRemoteEvents();
+        service.relayRemoteEvents();
+
+        assertEquals(1, deliveredEvents(emitter));
+        assertEquals(0, deliveredEvents(otherUser));
+    }
+
+    @Test
+    void doesNotRelayItsOwnEvents() {
+        SseEmitter emitter = service.subscribe("user-1").orElseThrow();
+
+        service.publish(event("user-1", "match-local"));
+        assertEquals(1, mongoTemplate.count(new Query(), MatchEvent.class));
+        service.relayRemoteEvents();
+
+        assertEquals(1, deliveredEvents(emitter));
+    }
+
+    @Test
+    void heartbeatRemovesStreamsThatFailToSend() {
+        SseEmitter gone = service.subscribe("user-1").orElseThrow();
+        service.subscribe("user-1").orElseThrow();
+        assertEquals(2.0, openStreams());
+
+        // Sending on a completed emitter throws, as it does once the client has gone away
+        gone.complete();
+        service.sendHeartbeats();
+
+        assertEquals(1.0, openStreams());
+        assertTrue(service.subscribe("user-1").isPresent());
+    }
+
+    private static MatchEvent event(String userId, String matchId) {
+        return new MatchEvent(new AnalysisJob(matchId, userId), AnalysisJobStatus.DONE, 80);
+    }
+
+    private double openStreams() {
+        return meterRegistry.get("events.sse.streams").gauge().value();
+    }
+
+    // Nothing handles the emitters outside a request, so what was sent is held until one does
+    private static long deliveredEvents(SseEmitter emitter) {
+        Collection<?> sent = (Collection<?>) ReflectionTestUtils.getField(emitter, "earlySendAttempts");
+        return sent.stream()
+            .map(item -> ((ResponseBodyEmitter.DataWithMediaType) item).getData())
+            .filter(MatchEventDTO.class::isInstance)
+            .count();
+    }
+}
@@ -0,0 +1,113 @@
+package com.divyanshu.Intellimatch.service;
+
+import com.divyanshu.Intellimatch.EmbeddedMongo;
+import com.divyanshu.Intellimatch.model.MatchResult;
+import com.divyanshu.Intellimatch.model.ResumeMatch;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MatchResultCacheServiceTest {
+
+    private static final long HOUR = 3_600_000L;
+
+    private MongoTemplate mongoTemplate;
+    private SimpleMeterRegistry meterRegistry;
+    private MatchResultCacheService cache;
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate = EmbeddedMongo.template("match-result-cache-service-test");
+        mongoTemplate.dropCollection(ResumeMatch.class);
+        meterRegistry = new SimpleMeterRegistry();
+        cache = createCache("model-2");
+    }
+
+    @Test
+    void servesPutResultFromLocalTier() {
+        cache.put("resume", "jd", result(80));
+
+        assertEquals(80, cache.get("resume", "jd").orElseThrow().getAtsScorePercent());
+        assertEquals(1.0, requests("local", "hit"));
+        assertEquals(0.0, requests("mongo", "miss"));
+    }
+
+    @Test
+    void findsResultOfEarlierMatchInMongoAndKeepsItLocally() {
+        saveAnalyzedMatch("model-2", new Date(System.currentTimeMillis() - HOUR), 70);
+        saveAnalyzedMatch("model-2", new Date(), 75);
+
+        assertEquals(75, cache.get("resume", "jd").orElseThrow().getAtsScorePercent());
+        assertEquals(1.0, requests("mongo", "hit"));
+
+        mongoTemplate.dropCollection(ResumeMatch.class);
+        assertEquals(75, cache.get("resume", "jd").orElseThrow().getAtsScorePercent());
+        assertEquals(1.0, requests("local", "hit"));
+    }
+
+    @Test
+    void ignoresResultsOfOtherModelVersions() {
+        saveAnalyzedMatch("model-1", new Date(), 90);
+
+        assertTrue(cache.get("resume", "jd").isEmpty());
+        assertEquals(1.0, requests("mongo", "miss"));
+        assertEquals(90, createCache("model-1").get("resume", "jd").orElseThrow().getAtsScorePercent());
+    }
+
+    @Test
+    void ignoresResultsOlderThanTtl() {
+        saveAnalyzedMatch("model-2", new Date(System.currentTimeMillis() - 3 * HOUR), 60);
+
+        assertTrue(cache.get("resume", "jd").isEmpty());
+        assertEquals(1.0, requests("mongo", "miss"));
+    }
+
+    @Test
+    void neverReusesFailedAnalyses() {
+        ResumeMatch failed = new ResumeMatch(null, "user-1", "resume.pdf", "jd.pdf", "resume-url", "jd-url", null);
+        failed.setResumeHash("resume");
+        failed.setJobDescriptionHash("jd");
+        failed.setResult(result(0));
+        failed.setAnalyzedAt(new Date());
+        mongoTemplate.save(failed);
+
+        assertTrue(cache.get("resume", "jd").isEmpty());
+    }
+
+    private MatchResultCacheService createCache(String modelVersion) {
+        MatchResultCacheService created = new MatchResultCacheService(mongoTemplate, meterRegistry, 10, 2);
+        ReflectionTestUtils.setField(created, "modelVersion", modelVersion);
+        return created;
+    }
+
+    private void saveAnalyzedMatch(String modelVersion, Date analyzedAt, int score) {
+        ResumeMatch match = new ResumeMatch(null, "user-1", "resume.pdf", "jd.pdf", "resume-url", "jd-url", null);
+        match.setResumeHash("resume");
+        match.setJobDescriptionHash("jd");
+        match.setResult(result(score));
+        match.setAnalyzedAt(analyzedAt);
+        match.setModelVersion(modelVersion);
+        mongoTemplate.save(match);
+    }
+
+    private static MatchResult result(int score) {
+        MatchResult result = new MatchResult();
+        result.setAtsScorePercent(score);
+        result.setSummary("Score " + score);
+        result.setWhatMatched(List.of());
+        result.setWhatIsMissing(List.of());
+        return result;
+    }
+
+    private double requests(String tier, String result) {
+        return meterRegistry.get("match.cache.requests").tag("tier", tier).tag("result", result).counter().count();
+    }
+}
@@ -0,0 +1,122 @@
+package com.divyanshu.Intellimatch.service;
+
+import com.divyanshu.Intellimatch.EmbeddedMongo;
+import com.divyanshu.Intellimatch.model.ResumeMatch;
+import com.divyanshu.Intellimatch.storage.InMemoryBlobStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OrphanBlobSweeperTest {
+
+    private static final Instant OLD = Instant.now().minus(Duration.ofDays(2));
+    private static final Instant RECENT = Instant.now().minus(Duration.ofHours(1));
+
+    private MongoTemplate mongoTemplate;
+    private InMemoryBlobStore blobStore;
+    private FileDeleteService fileDeleteService;
+    private OrphanBlobSweeper sweeper;
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate = EmbeddedMongo.template("orphan-blob-sweeper-test");
+        mongoTemplate.dropCollection(ResumeMatch.class);
+        blobStore = new InMemoryBlobStore();
+        createSweeper(100);
+    }
+
+    @Test
+    void deletesOnlyOldFilesNoMatchReferences() {
+        blobStore.add("resumes/orphan.pdf", OLD);
+        blobStore.add("resumes/referenced.pdf", OLD);
+        blobStore.add("resumes/recent.pdf", RECENT);
+        blobStore.add("job-descriptions/orphan.pdf", OLD);
+        blobStore.add("job-descriptions/referenced.pdf", OLD);
+        blobStore.add("job-descriptions/undated.pdf", null);
+        blobStore.add("elsewhere/orphan.pdf", OLD);
+        mongoTemplate.save(match("m1", "resumes/referenced.pdf", "job-descriptions/referenced.pdf"));
+
+        sweeper.sweep();
+        fileDeleteService.flush();
+
+        assertFalse(blobStore.contains("resumes/orphan.pdf"));
+        assertFalse(blobStore.contains("job-descriptions/orphan.pdf"));
+        assertTrue(blobStore.contains("resumes/referenced.pdf"));
+        assertTrue(blobStore.contains("job-descriptions/referenced.pdf"));
+        assertTrue(blobStore.contains("resumes/recent.pdf"));
+        assertTrue(blobStore.contains("job-descriptions/undated.pdf"));
+        assertTrue(blobStore.contains("elsewhere/orphan.pdf"));
+    }
+
+    @Test
+    void keepsAFileReferencedFromTheOtherField() {
+        // Either URL field counts, whatever folder the file is in
+        blobStore.add("resumes/shared.pdf", OLD);
+        mongoTemplate.save(match("m1", "resumes/other.pdf", "resumes/shared.pdf"));
+
+        sweeper.sweep();
+        fileDeleteService.flush();
+
+        assertTrue(blobStore.contains("resumes/shared.pdf"));
+    }
+
+    @Test
+    void carriesOnFromWhereTheLastRunStopped() {
+        ReflectionTestUtils.setField(sweeper, "pageSize", 2);
+        ReflectionTestUtils.setField(sweeper, "maxPagesPerRun", 1);
+        for (int i = 0; i < 5; i++) {
+            blobStore.add("resumes/orphan-" + i + ".pdf", OLD);
+        }
+
+        sweeper.sweep();
+        fileDeleteService.flush();
+        assertEquals(List.of(List.of("resumes/orphan-0.pdf", "resumes/orphan-1.pdf")), sorted(blobStore.getDeleteCalls()));
+
+        sweeper.sweep();
+        sweeper.sweep();
+        fileDeleteService.flush();
+        for (int i = 0; i < 5; i++) {
+            assertFalse(blobStore.contains("resumes/orphan-" + i + ".pdf"));
+        }
+    }
+
+    @Test
+    void pausesWhileTheDeleteQueueIsNearlyFull() {
+        createSweeper(5);
+        blobStore.add("resumes/orphan.pdf", OLD);
+
+        sweeper.sweep();
+        fileDeleteService.flush();
+
+        assertTrue(blobStore.contains("resumes/orphan.pdf"));
+    }
+
+    private void createSweeper(int deleteQueueCapacity) {
+        fileDeleteService = new FileDeleteService(blobStore, new SimpleMeterRegistry(), deleteQueueCapacity, 1000, 3);
+        sweeper = new OrphanBlobSweeper(blobStore, fileDeleteService, mongoTemplate, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(sweeper, "prefixes", List.of("resumes/", "job-descriptions/"));
+        ReflectionTestUtils.setField(sweeper, "pageSize", 10);
+        ReflectionTestUtils.setField(sweeper, "maxPagesPerRun", 20);
+        ReflectionTestUtils.setField(sweeper, "pageDelayMs", 0L);
+        ReflectionTestUtils.setField(sweeper, "minAge", Duration.ofHours(24));
+    }
+
+    private static ResumeMatch match(String id, String resumeKey, String jobDescriptionKey) {
+        return new ResumeMatch(id, "user-1", "resume.pdf", "jd.pdf",
+            "mem://blobs/" + resumeKey, "mem://blobs/" + jobDescriptionKey, null);
+    }
+
+    private static List<List<String>> sorted(List<List<String>> calls) {
+        return calls.stream().map(call -> call.stream().sorted().toList()).toList();
+    }
+}
@@ -0,0 +1,49 @@
+package com.divyanshu.Intellimatch.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ByteArrayResource;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class PreScoreServiceTest {
+
+    private final PreScoreService service = new PreScoreService(new ByteArrayResource("""
+        # Test taxonomy
+        Java: jdk
+        Python: python3
+        Docker
+        """.getBytes(StandardCharsets.UTF_8)), true);
+
+    @Test
+    void weighsSkillsByMentionsWithSaturation() {
+        String jobDescription = "Java, Java, Java, Java and Java. Some Python.";
+
+        // 5 mentions weigh 5 * 2.2 / 6.2 = 1.77 against 1 for a single mention
+        assertEquals(64, service.score("Java only", jobDescription));
+        assertEquals(36, service.score("Python only", jobDescription));
+        assertEquals(100, service.score("Python and the JDK", jobDescription));
+        assertEquals(0, service.score("Docker", jobDescription));
+    }
+
+    @Test
+    void weighsEquallyMentionedSkillsEqually() {
+        assertEquals(50, service.score("Java", "Java and Python"));
+        assertEquals(50, service.score("Java", "Java, Java, Python, Python"));
+    }
+
+    @Test
+    void hasNoScoreWithoutJobDescriptionSkills() {
+        assertNull(service.score("Java", "Ten years of experience"));
+        assertNull(service.score("Java", null));
+        assertNull(service.score(null, "Java"));
+    }
+
+    @Test
+    void hasNoScoreWhenDisabled() {
+        PreScoreService disabled = new PreScoreService(new ByteArrayResource(new byte[0]), false);
+        assertNull(disabled.score("Java", "Java"));
+    }
+}
@@ -0,0 +1,113 @@
+package com.divyanshu.Intellimatch.service;
+
+import com.divyanshu.Intellimatch.EmbeddedMongo;
+import com.divyanshu.Intellimatch.dto.HistoryPageDTO;
+import com.divyanshu.Intellimatch.dto.MatchSummaryDTO;
+import com.divyanshu.Intellimatch.model.ResumeMatch;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ResumeMatchServiceTest {
+
+    private MongoTemplate mongoTemplate;
+    private ResumeMatchService service;
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate = EmbeddedMongo.template("resume-match-service-test");
+        mongoTemplate.dropCollection(ResumeMatch.class);
+        service = createService(mongoTemplate);
+        ReflectionTestUtils.setField(service, "maxPageSize", 5);
+    }
+
+    @Test
+    void pagesThroughEqualMatchDatesWithoutDuplicatesOrGaps() {
+        Date older = new Date(1_700_000_000_000L);
+        Date newer = new Date(1_700_000_060_000L);
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            expected.add(save("user-1", newer).getId());
+        }
+        for (int i = 0; i < 7; i++) {
+            expected.add(save("user-1", older).getId());
+        }
+        save("user-2", older);
+
+        List<String> seen = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            HistoryPageDTO page = service.getHistoryPage("user-1", cursor, 3);
+            page.getItems().stream().map(MatchSummaryDTO::getId).forEach(seen::add);
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(4, pages);
+        assertEquals(expected.size(), seen.size());
+        assertEquals(Set.copyOf(expected), new HashSet<>(seen));
+        // Newest first, and among equal dates the later id first
+        assertEquals(reversed(expected.subList(0, 4)), seen.subList(0, 4));
+        assertEquals(reversed(expected.subList(4, 11)), seen.subList(4, 11));
+    }
+
+    @Test
+    void clampsPageSizeToMaxPageSize() {
+        for (int i = 0; i < 8; i++) {
+            save("user-1", new Date(1_700_000_000_000L + i));
+        }
+
+        HistoryPageDTO page = service.getHistoryPage("user-1", null, 50);
+        assertEquals(5, page.getItems().size());
+        assertNotNull(page.getNextCursor());
+
+        assertEquals(1, service.getHistoryPage("user-1", null, 0).getItems().size());
+        assertEquals(3, service.getHistoryPage("user-1", page.getNextCursor(), 50).getItems().size());
+    }
+
+    @Test
+    void lastPageHasNoCursor() {
+        save("user-1", new Date());
+
+        assertNull(service.getHistoryPage("user-1", null, 5).getNextCursor());
+        assertEquals(0, service.getHistoryPage("user-3", null, 5).getItems().size());
+    }
+
+    @Test
+    void rejectsMalformedCursor() {
+        assertThrows(IllegalArgumentException.class, () -> service.getHistoryPage("user-1", "garbage", 5));
+    }
+
+    // History reads only use Mongo
+    static ResumeMatchService createService(MongoTemplate mongoTemplate) {
+        return new ResumeMatchService(null, null, null, null, null, null, null, null, null,
+            mongoTemplate, new SimpleMeterRegistry(), null, null);
+    }
+
+    private static List<String> reversed(List<String> ids) {
+        List<String> copy = new ArrayList<>(ids);
+        Collections.reverse(copy);
+        return copy;
+    }
+
+    private ResumeMatch save(String userId, Date matchDate) {
+        ResumeMatch match = new ResumeMatch(null, userId, "resume.pdf", "jd.pdf", "resume-url", "jd-url", null);
+        match.setMatchDate(matchDate);
+        return mongoTemplate.save(match);
+    }
+}
@@ -0,0 +1,231 @@
+package com.divyanshu.Intellimatch.service;
+
+import com.divyanshu.Intellimatch.EmbeddedMongo;
+import com.divyanshu.Intellimatch.dto.CandidateDTO;
+import com.divyanshu.Intellimatch.model.DocumentText;
+import com.divyanshu.Intellimatch.model.ResumeMatch;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ResumeSearchServiceTest {
+
+    private static final String JAVA_RESUME = "Java developer. Ten years of Java and Spring, some Kubernetes.";
+    private static final String PYTHON_RESUME = "Python developer working on data pipelines in Python.";
+    private static final String JOB_DESCRIPTION = "We are hiring a Java developer who knows Spring.";
+
+    @TempDir
+    Path indexDir;
+
+    private MongoTemplate mongoTemplate;
+    private PreScoreService preScoreService;
+    private ResumeSearchService service;
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate = EmbeddedMongo.template("resume-search-service-test");
+        mongoTemplate.dropCollection(ResumeMatch.class);
+        mongoTemplate.dropCollection(DocumentText.class);
+        preScoreService = new PreScoreService(new ByteArrayResource("""
+            Java
+            Python
+            Kubernetes: k8s
+            """.getBytes(StandardCharsets.UTF_8)), true);
+        service = createService();
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.close();
+    }
+
+    @Test
+    void ranksOnlyTheUsersOwnResumes() {
+        upload("user-1", "java.pdf", "hash-java", JAVA_RESUME);
+        upload("user-1", "python.pdf", "hash-python", PYTHON_RESUME);
+        upload("user-2", "other.pdf", "hash-other", "Java and Spring, nothing else.");
+
+        service.catchUp();
+
+        List<CandidateDTO> candidates = service.search("user-1", JOB_DESCRIPTION, 10);
+        assertEquals("hash-java", candidates.get(0).getResumeHash());
+        assertTrue(candidates.stream().noneMatch(candidate -> candidate.getResumeHash().equals("hash-other")));
+        assertEquals(2, service.countResumes("user-1"));
+        assertEquals(List.of("hash-other"), hashes(service.search("user-2", JOB_DESCRIPTION, 10)));
+        assertTrue(service.search("user-3", JOB_DESCRIPTION, 10).isEmpty());
+    }
+
+    @Test
+    void indexesSharedResumeOnceForEachOwner() {
+        upload("user-1", "mine.pdf", "hash-java", JAVA_RESUME);
+        upload("user-2", "theirs.pdf", "hash-java", JAVA_RESUME);
+        upload("user-1", "again.pdf", "hash-java", JAVA_RESUME);
+
+        service.catchUp();
+
+        assertEquals(1, service.getDocumentCount());
+        assertEquals("mine.pdf", service.search("user-1", JOB_DESCRIPTION, 10).get(0).getResumeName());
+        assertEquals("theirs.pdf", service.search("user-2", JOB_DESCRIPTION, 10).get(0).getResumeName());
+    }
+
+    @Test
+    void readsAllNewMatchesInBatches() {
+        for (int i = 0; i < 5; i++) {
+            upload("user-1", "resume-" + i + ".pdf", "hash-" + i, JAVA_RESUME + " Resume " + i + ".");
+        }
+
+        service.catchUp();
+
+        assertEquals(5, service.getDocumentCount());
+        assertEquals(5, service.countResumes("user-1"));
+    }
+
+    @Test
+    void skipsResumesWithoutText() {
+        upload("user-1", "java.pdf", "hash-java", JAVA_RESUME);
+        upload("user-1", "scan.pdf", "hash-scan", null);
+
+        service.catchUp();
+
+        assertEquals(List.of("hash-java"), hashes(service.search("user-1", JOB_DESCRIPTION, 10)));
+    }
+
+    @Test
+    void restoresIndexAndCursorFromLog() {
+        upload("user-1", "java.pdf", "hash-java", JAVA_RESUME);
+        upload("user-1", "python.pdf", "hash-python", PYTHON_RESUME);
+        service.catchUp();
+        List<CandidateDTO> before = service.search("user-1", JOB_DESCRIPTION, 10);
+        service.close();
+
+        // Nothing left in Mongo to rebuild from: the restarted service only has its log
+        mongoTemplate.dropCollection(ResumeMatch.class);
+        mongoTemplate.dropCollection(DocumentText.class);
+        service = createService();
+
+        assertEquals(2, service.getDocumentCount());
+        assertEquals(before, service.search("user-1", JOB_DESCRIPTION, 10));
+
+        // The cursor came back too, so a catch-up only reads what is new
+        upload("user-1", "k8s.pdf", "hash-k8s", "Kubernetes operator written in Java.");
+        service.catchUp();
+        assertEquals(3, service.getDocumentCount());
+        assertEquals(3, service.countResumes("user-1"));
+    }
+
+    @Test
+    void keepsIndexedTextsForAFreshNodeToRebuildFrom() {
+        upload("user-1", "java.pdf", "hash-java", JAVA_RESUME);
+        upload("user-1", "python.pdf", "hash-python", PYTHON_RESUME);
+        service.catchUp();
+
+        // Out of the TTL index, with the text left as it was
+        DocumentText kept = mongoTemplate.findById("hash-java", DocumentText.class);
+        assertNull(kept.getCreatedAt());
+        assertEquals(JAVA_RESUME, kept.getText());
+
+        // A node without the log rebuilds the same index from Mongo
+        List<CandidateDTO> before = service.search("user-1", JOB_DESCRIPTION, 10);
+        service.close();
+        service = createService(indexDir.resolve("fresh"));
+        service.catchUp();
+
+        assertEquals(before, service.search("user-1", JOB_DESCRIPTION, 10));
+    }
+
+    @Test
+    void dropsResumesWhoseMatchesWereDeleted() {
+        upload("user-1", "java.pdf", "hash-java", JAVA_RESUME);
+        upload("user-1", "python.pdf", "hash-python", PYTHON_RESUME);
+        service.catchUp();
+
+        deleteMatches("java.pdf");
+
+        // The best hit is gone, so the next one fills the page
+        assertEquals(List.of("hash-python"), hashes(service.search("user-1", JOB_DESCRIPTION, 1)));
+
+        // The catch-up logs the removal and lets the text expire again
+        service.catchUp();
+        assertEquals(1, service.countResumes("user-1"));
+        assertNotNull(mongoTemplate.findById("hash-java", DocumentText.class).getCreatedAt());
+        service.close();
+        service = createService();
+        assertEquals(1, service.countResumes("user-1"));
+
+        // Uploaded again, it is searchable and kept again
+        upload("user-1", "java-again.pdf", "hash-java", JAVA_RESUME);
+        service.catchUp();
+        assertEquals(List.of("hash-java", "hash-python"), hashes(service.search("user-1", JOB_DESCRIPTION, 10)));
+        assertNull(mongoTemplate.findById("hash-java", DocumentText.class).getCreatedAt());
+    }
+
+    @Test
+    void takesCandidateFromAMatchThatStillExists() {
+        upload("user-1", "first.pdf", "hash-java", JAVA_RESUME);
+        upload("user-1", "second.pdf", "hash-java", JAVA_RESUME);
+        service.catchUp();
+
+        deleteMatches("first.pdf");
+
+        CandidateDTO candidate = service.search("user-1", JOB_DESCRIPTION, 10).get(0);
+        assertEquals("second.pdf", candidate.getResumeName());
+        assertEquals("https://blobs/resumes/second.pdf", candidate.getResumeUrl());
+        service.catchUp();
+        assertEquals(1, service.countResumes("user-1"));
+    }
+
+    private ResumeSearchService createService() {
+        return createService(indexDir);
+    }
+
+    private ResumeSearchService createService(Path dir) {
+        ResumeSearchService created = new ResumeSearchService(mongoTemplate, preScoreService,
+            new SimpleMeterRegistry(), true, dir, 64);
+        ReflectionTestUtils.setField(created, "batchSize", 2);
+        ReflectionTestUtils.setField(created, "settleMs", 0L);
+        ReflectionTestUtils.setField(created, "skillWeight", 2.0);
+        created.open();
+        return created;
+    }
+
+    // Saves a match with an id a minute old, so the catch-up does not wait for it to settle
+    private void upload(String userId, String name, String hash, String text) {
+        ResumeMatch match = new ResumeMatch(new ObjectId(new Date(System.currentTimeMillis() - 60_000)).toHexString(),
+            userId, name, "jd.pdf", "https://blobs/resumes/" + name, "https://blobs/job-descriptions/jd.pdf", null);
+        match.setResumeHash(hash);
+        mongoTemplate.save(match);
+        if (text != null) {
+            DocumentText documentText = new DocumentText();
+            documentText.setId(hash);
+            documentText.setText(text);
+            documentText.setCreatedAt(new Date());
+            mongoTemplate.save(documentText);
+        }
+    }
+
+    private void deleteMatches(String name) {
+        mongoTemplate.remove(new Query(Criteria.where("resumeName").is(name)), ResumeMatch.class);
+    }
+
+    private static List<String> hashes(List<CandidateDTO> candidates) {
+        return candidates.stream().map(CandidateDTO::getResumeHash).toList();
+    }
+}
@@ -0,0 +1,107 @@
+package com.divyanshu.Intellimatch.service;
+
+import com.divyanshu.Intellimatch.EmbeddedMongo;
+import com.divyanshu.Intellimatch.dto.UserPrincipal;
+import com.divyanshu.Intellimatch.model.User;
+import com.divyanshu.Intellimatch.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UserPrincipalCacheServiceTest {
+
+    private MongoTemplate mongoTemplate;
+    private UserRepository userRepository;
+    private SimpleMeterRegistry meterRegistry;
+    private UserPrincipalCacheService cache;
+    private String userId;
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate = EmbeddedMongo.template("user-principal-cache-service-test");
+        mongoTemplate.dropCollection(User.class);
+        userRepository = EmbeddedMongo.repository(mongoTemplate, UserRepository.class);
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new UserPrincipalCacheService(userRepository, mongoTemplate, meterRegistry, 100, 300);
+        userId = userRepository.save(new User(null, "Ada", "not-a-real-hash", "ada@example.com")).getId();
+    }
+
+    @Test
+    void countsHitsAndMisses() {
+        assertEquals("Ada", cache.get(userId).orElseThrow().getName());
+        assertEquals("Ada", cache.get(userId).orElseThrow().getName());
+        assertEquals("Ada", cache.get(userId).orElseThrow().getName());
+
+        assertEquals(1.0, requests("miss"));
+        assertEquals(2.0, requests("hit"));
+        assertEquals(1.0, meterRegistry.get("user.cache.size").gauge().value());
+    }
+
+    @Test
+    void rereadsUserAfterLocalInvalidation() {
+        cache.get(userId);
+        rename("Ada Lovelace");
+        assertEquals("Ada", cache.get(userId).orElseThrow().getName());
+
+        cache.invalidate(userId);
+
+        assertEquals("Ada Lovelace", cache.get(userId).orElseThrow().getName());
+        assertEquals(1.0, meterRegistry.get("user.cache.invalidations").tag("source", "local").counter().count());
+        assertEquals(2.0, requests("miss"));
+    }
+
+    @Test
+    void doesNotCacheUnknownUsers() {
+        assertTrue(cache.get("65f1c0de9a1b2c3d4e5f6a7b").isEmpty());
+
+        // Registered after the first lookup, as if on another node
+        userRepository.save(new User("65f1c0de9a1b2c3d4e5f6a7b", "Grace", "not-a-real-hash", "grace@example.com"));
+
+        assertEquals("Grace", cache.get("65f1c0de9a1b2c3d4e5f6a7b").orElseThrow().getName());
+        assertEquals(2.0, requests("miss"));
+    }
+
+    @Test
+    void doesNotCacheUserReadBeforeAnInvalidation() {
+        // The first read returns the old name, and the user is renamed and invalidated before it is cached
+        AtomicBoolean raced = new AtomicBoolean();
+        UserRepository racing = (UserRepository) Proxy.newProxyInstance(UserRepository.class.getClassLoader(),
+            new Class<?>[] {UserRepository.class}, (proxy, method, args) -> {
+                Object result;
+                try {
+                    result = method.invoke(userRepository, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+                if (method.getName().equals("findPrincipalById") && raced.compareAndSet(false, true)) {
+                    rename("Ada Lovelace");
+                    cache.invalidate(userId);
+                }
+                return result;
+            });
+        cache = new UserPrincipalCacheService(racing, mongoTemplate, meterRegistry, 100, 300);
+
+        assertEquals("Ada", cache.get(userId).map(UserPrincipal::getName).orElseThrow());
+        assertEquals("Ada Lovelace", cache.get(userId).map(UserPrincipal::getName).orElseThrow());
+        assertEquals("Ada Lovelace", cache.get(userId).map(UserPrincipal::getName).orElseThrow());
+        assertEquals(1.0, requests("hit"));
+    }
+
+    private void rename(String name) {
+        User user = userRepository.findById(userId).orElseThrow();
+        user.setName(name);
+        userRepository.save(user);
+    }
+
+    private double requests(String result) {
+        return meterRegistry.get("user.cache.requests").tag("result", result).counter().count();
+    }
+}
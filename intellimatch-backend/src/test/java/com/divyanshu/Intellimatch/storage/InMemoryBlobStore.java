@@ -0,0 +1,117 @@
+package com.divyanshu.Intellimatch.storage;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * BlobStore over a sorted map, for tests. Deletes can be made to fail for chosen keys, and every
+ * deleteAll call is recorded so tests can check how deletions were batched.
+ */
+public class InMemoryBlobStore implements BlobStore {
+
+    private static final String BASE_URL = "mem://blobs/";
+
+    private final TreeMap<String, Instant> blobs = new TreeMap<>();
+    // Key -> how many more deletes of it fail
+    private final Map<String, Integer> failures = new HashMap<>();
+    private final List<List<String>> deleteCalls = new ArrayList<>();
+    private int failingDeleteCalls;
+    private Runnable onDeleteAll = () -> { };
+
+    public synchronized void add(String key, Instant lastModified) {
+        blobs.put(key, lastModified);
+    }
+
+    public synchronized boolean contains(String key) {
+        return blobs.containsKey(key);
+    }
+
+    // The next times deletes of the key fail, reported as failed keys
+    public synchronized void failDeletes(String key, int times) {
+        failures.put(key, times);
+    }
+
+    // The next calls of deleteAll throw
+    public synchronized void failDeleteCalls(int calls) {
+        failingDeleteCalls = calls;
+    }
+
+    // Runs at the start of every deleteAll call
+    public synchronized void onDeleteAll(Runnable hook) {
+        onDeleteAll = hook;
+    }
+
+    public synchronized List<List<String>> getDeleteCalls() {
+        return List.copyOf(deleteCalls);
+    }
+
+    @Override
+    public synchronized void put(String key, String contentType, byte[] content) {
+        blobs.put(key, Instant.now());
+    }
+
+    @Override
+    public MultipartUpload startMultipartUpload(String key, String contentType) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public synchronized void delete(String key) {
+        blobs.remove(key);
+    }
+
+    @Override
+    public synchronized List<String> deleteAll(Collection<String> keys) {
+        deleteCalls.add(List.copyOf(keys));
+        onDeleteAll.run();
+        if (failingDeleteCalls > 0) {
+            failingDeleteCalls--;
+            throw new IllegalStateException("Simulated delete failure");
+        }
+        List<String> failed = new ArrayList<>();
+        for (String key : keys) {
+            Integer remaining = failures.get(key);
+            if (remaining != null && remaining > 0) {
+                failures.put(key, remaining - 1);
+                failed.add(key);
+            } else {
+                blobs.remove(key);
+            }
+        }
+        return failed;
+    }
+
+    @Override
+    public synchronized BlobPage list(String prefix, String startAfter, int maxKeys) {
+        List<BlobInfo> page = new ArrayList<>();
+        String from = startAfter != null && startAfter.compareTo(prefix) > 0 ? startAfter : prefix;
+        for (Map.Entry<String, Instant> blob : blobs.tailMap(from, !from.equals(startAfter)).entrySet()) {
+            if (!blob.getKey().startsWith(prefix)) {
+                break;
+            }
+            if (page.size() == maxKeys) {
+                return new BlobPage(page, page.get(page.size() - 1).key());
+            }
+            page.add(new BlobInfo(blob.getKey(), blob.getValue()));
+        }
+        return new BlobPage(page, null);
+    }
+
+    @Override
+    public String urlFor(String key) {
+        return BASE_URL + key;
+    }
+
+    @Override
+    public String keyFor(String url) {
+        if (url == null || !url.startsWith(BASE_URL)) {
+            throw new IllegalArgumentException("Not an in-memory blob URL: " + url);
+        }
+        return url.substring(BASE_URL.length());
+    }
+}
@@ -17,7 +17,9 @@ export const MatchCard = ({ match }: MatchCardProps) => {
     return "destructive";
   };
 
-  const scoreVariant = getScoreVariant(match.score);
+  const estimated = !match.completed && match.provisionalScore != null;
+  const displayScore = estimated ? match.provisionalScore! : match.score;
+  const scoreVariant = getScoreVariant(displayScore);
 
   const formatDate = (dateString: string) => {
     const date = new Date(dateString);
@@ -40,10 +42,10 @@ export const MatchCard = ({ match }: MatchCardProps) => {
                 {match.resumeName || `Match #${match.id.slice(0, 8)}`}
               </h3>
               <Badge
-                variant={match.matchResult ? "outline" : "secondary"}
+                variant={match.completed ? "outline" : "secondary"}
                 className="capitalize"
               >
-                {match.matchResult ? "completed" : "processing"}
+                {match.completed ? "completed" : "processing"}
               </Badge>
             </div>
 
@@ -53,20 +55,26 @@ export const MatchCard = ({ match }: MatchCardProps) => {
             </div>
 
             <div className="flex items-center gap-3">
-              <span className="text-sm font-medium text-muted-foreground">ATS Score:</span>
+              <span className="text-sm font-medium text-muted-foreground">
+                {estimated ? "Estimated:" : "ATS Score:"}
+              </span>
               <div className="flex items-center gap-2">
                 <div className="h-2 w-32 bg-muted rounded-full overflow-hidden">
                   <div
                     className={cn(
                       "h-full transition-all duration-500",
+                      estimated && "opacity-50",
                       scoreVariant === "success" && "bg-success",
                       scoreVariant === "warning" && "bg-warning",
                       scoreVariant === "destructive" && "bg-destructive"
                     )}
-                    style={{ width: `${match.score}%` }}
+                    style={{ width: `${displayScore}%` }}
                   />
                 </div>
-                <span className="font-bold text-sm">{match.score}%</span>
+                <span className="font-bold text-sm">
+                  {estimated ? "~" : ""}
+                  {displayScore}%
+                </span>
               </div>
             </div>
           </div>
@@ -1,4 +1,4 @@
-import { RegisterData, LoginData, User, MatchHistoryItem, MatchDetail, UploadResponse } from "@/types";
+import { RegisterData, LoginData, User, HistoryPage, MatchDetail, MatchEvent, UploadResponse } from "@/types";
 
 const BASE_URL = "/api";
 
@@ -73,11 +73,26 @@ export const matchApi = {
     });
   },
 
-  getHistory: async (): Promise<MatchHistoryItem[]> => {
-    return apiCall<MatchHistoryItem[]>("/user/history");
+  getHistory: async (cursor?: string | null, limit = 20): Promise<HistoryPage> => {
+    const params = new URLSearchParams({ limit: String(limit) });
+    if (cursor) params.set("cursor", cursor);
+    return apiCall<HistoryPage>(`/user/history?${params}`);
   },
 
   getMatchDetails: async (matchId: string): Promise<MatchDetail> => {
     return apiCall<MatchDetail>(`/user/match/${matchId}`);
   },
+
+  // Pushes status changes of the user's analyses; onOpen also fires on every reconnect,
+  // since events sent while disconnected are not replayed. Returns a function that closes the stream.
+  subscribeToEvents: (onEvent: (event: MatchEvent) => void, onOpen?: () => void): (() => void) => {
+    const source = new EventSource(`${BASE_URL}/events`, { withCredentials: true });
+    source.addEventListener("match", (message) => {
+      onEvent(JSON.parse((message as MessageEvent).data));
+    });
+    if (onOpen) {
+      source.onopen = onOpen;
+    }
+    return () => source.close();
+  },
 };
@@ -23,10 +23,11 @@ export default function Dashboard() {
 
   const loadDashboardData = async () => {
     try {
-      const [userData, matchHistory] = await Promise.all([
+      const [userData, historyPage] = await Promise.all([
         authApi.getUser(),
-        matchApi.getHistory(),
+        matchApi.getHistory(null, 100),
       ]);
+      const matchHistory = historyPage.items;
       setUser(userData);
       // Sort matches by most recent first
       const sortedMatches = matchHistory.sort((a, b) => 
@@ -53,7 +54,7 @@ export default function Dashboard() {
     }
   };
 
-  const completedMatches = matches.filter((m) => m.matchResult !== null);
+  const completedMatches = matches.filter((m) => m.completed);
   const avgScore =
     completedMatches.length > 0
       ? Math.round(
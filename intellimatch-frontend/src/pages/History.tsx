@@ -16,6 +16,8 @@ export default function History() {
   const [matches, setMatches] = useState<MatchHistoryItem[]>([]);
   const [filteredMatches, setFilteredMatches] = useState<MatchHistoryItem[]>([]);
   const [loading, setLoading] = useState(true);
+  const [nextCursor, setNextCursor] = useState<string | null>(null);
+  const [loadingMore, setLoadingMore] = useState(false);
   const [sortBy, setSortBy] = useState<"date" | "score">("date");
   const navigate = useNavigate();
   const { toast } = useToast();
@@ -36,10 +38,11 @@ export default function History() {
     setFilteredMatches(sorted);
   }, [matches, sortBy]);
 
-  const loadHistory = async () => {
+  const loadHistory = async (cursor: string | null = null) => {
     try {
-      const history = await matchApi.getHistory();
-      setMatches(history);
+      const page = await matchApi.getHistory(cursor);
+      setMatches((previous) => (cursor ? [...previous, ...page.items] : page.items));
+      setNextCursor(page.nextCursor);
     } catch (error: any) {
       if (error.message.includes("401") || error.message.includes("Unauthorized")) {
         toast({
@@ -57,9 +60,16 @@ export default function History() {
       }
     } finally {
       setLoading(false);
+      setLoadingMore(false);
     }
   };
 
+  const loadMore = () => {
+    if (!nextCursor) return;
+    setLoadingMore(true);
+    loadHistory(nextCursor);
+  };
+
   if (loading) {
     return (
       <Layout>
@@ -124,8 +134,15 @@ export default function History() {
               Showing {filteredMatches.length} {filteredMatches.length === 1 ? "match" : "matches"}
             </p>
             {filteredMatches.map((match) => (
-              <MatchCard key={match.matchId} match={match} />
+              <MatchCard key={match.id} match={match} />
             ))}
+            {nextCursor && (
+              <div className="flex justify-center pt-2">
+                <Button variant="outline" onClick={loadMore} disabled={loadingMore}>
+                  {loadingMore ? "Loading..." : "Load more"}
+                </Button>
+              </div>
+            )}
           </div>
         )}
       </div>
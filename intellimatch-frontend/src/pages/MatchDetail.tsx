@@ -24,6 +24,23 @@ export default function MatchDetail() {
     }
   }, [matchId]);
 
+  const analysisPending = !!match && !match.matchResult;
+
+  // While the analysis runs, reload once the server reports it finished instead of polling
+  useEffect(() => {
+    if (!matchId || !analysisPending) {
+      return;
+    }
+    return matchApi.subscribeToEvents(
+      (event) => {
+        if (event.matchId === matchId && (event.status === "DONE" || event.status === "FAILED")) {
+          loadMatchDetail(matchId);
+        }
+      },
+      () => loadMatchDetail(matchId)
+    );
+  }, [matchId, analysisPending]);
+
   const loadMatchDetail = async (id: string) => {
     try {
       const detail = await matchApi.getMatchDetails(id);
@@ -83,8 +100,13 @@ export default function MatchDetail() {
               <AlertTriangle className="h-12 w-12 mx-auto text-warning mb-4" />
               <h3 className="text-lg font-semibold mb-2">Analysis in progress</h3>
               <p className="text-muted-foreground mb-4">
-                The match result is still being processed. Please check back later.
+                The match result is still being processed. This page updates when it is ready.
               </p>
+              {match?.provisionalScore != null && (
+                <p className="text-sm text-muted-foreground mb-4">
+                  Estimated skill overlap: <span className="font-bold">~{match.provisionalScore}%</span>
+                </p>
+              )}
               <Link to="/history">
                 <Button>Back to History</Button>
               </Link>
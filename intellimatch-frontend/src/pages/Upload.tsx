@@ -67,8 +67,8 @@ export default function Upload() {
         description: "Analysis is in progress. This may take a moment.",
       });
       // Navigate to the match detail page with the returned match ID
-      if (response && response.id) {
-        navigate(`/match/${response.id}`);
+      if (response && response.matchId) {
+        navigate(`/match/${response.matchId}`);
       } else {
         navigate("/dashboard");
       }
@@ -9,12 +9,16 @@ export interface MatchHistoryItem {
   id: string;
   resumeName: string;
   jobDescriptionName: string;
-  resumeUrl: string;
-  jobDescriptionUrl: string;
   matchDate: string;
   score: number;
-  resultMessage: string;
-  matchResult: MatchResultData | null;
+  completed: boolean;
+  // Skill-overlap estimate shown until the analysis completes
+  provisionalScore: number | null;
+}
+
+export interface HistoryPage {
+  items: MatchHistoryItem[];
+  nextCursor: string | null;
 }
 
 export interface MatchResultData {
@@ -35,6 +39,7 @@ export interface MatchDetail {
   score: number;
   resultMessage: string;
   matchResult: MatchResultData | null;
+  provisionalScore: number | null;
 }
 
 export interface MatchedItem {
@@ -59,13 +64,21 @@ export interface LoginData {
   password: string;
 }
 
+export type AnalysisJobStatus = "WAITING" | "PENDING" | "RUNNING" | "DONE" | "FAILED";
+
 export interface UploadResponse {
-  id: string;
-  userId: string;
-  resumeName: string;
-  jobDescriptionName: string;
-  resumeUrl: string;
-  jobDescriptionUrl: string;
-  matchDate: string;
-  matchResultId: string | null;
+  jobId: string;
+  matchId: string;
+  status: AnalysisJobStatus;
+  attempts: number;
+  createdAt: string;
+  completedAt: string | null;
+}
+
+export interface MatchEvent {
+  matchId: string;
+  jobId: string;
+  batchId?: string;
+  status: AnalysisJobStatus;
+  score?: number;
 }
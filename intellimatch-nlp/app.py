@@ -6,6 +6,8 @@ from dotenv import load_dotenv
 
 # Import your custom modules
 from text_extractor import get_text_from_file
+from opentelemetry import trace
+from tracing import init_tracing, tracer
 import requests
 from gemini import (
     extract_resume_data_with_llm,
@@ -22,6 +24,9 @@ app = Flask(__name__)
 # Enable CORS to allow requests from your Spring Boot backend
 CORS(app) 
 
+# Join the backend's traces when span export is configured
+init_tracing(app)
+
 # Define a temporary directory to store uploaded files
 TEMP_DIR = "temp_files"
 if not os.path.exists(TEMP_DIR):
@@ -41,76 +46,130 @@ def health_check():
         "temp_dir_exists": os.path.exists(TEMP_DIR)
     })
 
+class DocumentDownloadError(Exception):
+    pass
+
+
+@tracer.start_as_current_span("document.download")
+def download_document_text(url, label, unique_id):
+    """
+    Downloads a PDF/DOCX document to the temp directory, extracts its text and removes the file.
+    Only used when the backend could not send the extracted text itself.
+    """
+    trace.get_current_span().set_attribute("document", label)
+    ext = ".pdf" if url.lower().endswith('.pdf') else ".docx" if url.lower().endswith('.docx') else ""
+    path = os.path.join(TEMP_DIR, f"{unique_id}_{label}{ext}")
+
+    # Add headers to mimic a browser request and handle potential authentication
+    headers = {
+        'User-Agent': 'Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/91.0.4472.124 Safari/537.36'
+    }
+
+    try:
+        print(f"Downloading {label} from: {url}")
+        resp = requests.get(url, timeout=30, headers=headers)
+        print(f"{label} download status: {resp.status_code}")
+        if resp.status_code != 200:
+            raise DocumentDownloadError(f"Failed to download {label}: {resp.status_code}")
+
+        with open(path, "wb") as f:
+            f.write(resp.content)
+
+        print(f"Processing {label} file: {path}")
+        return get_text_from_file(path)
+    finally:
+        if os.path.exists(path):
+            os.remove(path)
+
+
+@app.route("/api/extract/resume", methods=["POST"])
+def extract_resume():
+    """
+    Returns the structured data the LLM extracts from a resume, so the backend can parse a resume
+    once and send it as 'resumeData' with every analysis of that resume (e.g. for a batch of job
+    descriptions). Expects 'resumeText' or 'resumeUrl' in the JSON body.
+    """
+
+    data = request.get_json()
+    if not data:
+        return jsonify({"error": "Request body must be JSON."}), 400
+
+    resume_text = data.get("resumeText")
+    resume_url = data.get("resumeUrl")
+    if not resume_text and not resume_url:
+        return jsonify({"error": "'resumeUrl' or 'resumeText' is required in the request body."}), 400
+
+    try:
+        if not resume_text:
+            resume_text = download_document_text(resume_url, "resume", str(uuid.uuid4()))
+        if not resume_text:
+            return jsonify({"error": "Could not extract text from resume. Ensure it is a text-based PDF or DOCX file."}), 500
+
+        resume_data = extract_resume_data_with_llm(resume_text)
+        if not resume_data:
+            return jsonify({"error": "Failed to get structured data from LLM for resume."}), 500
+        return jsonify(resume_data), 200
+
+    except DocumentDownloadError as e:
+        print(f"Download failed: {e}")
+        return jsonify({"error": str(e)}), 400
+    except requests.exceptions.RequestException as e:
+        print(f"Network error occurred: {e}")
+        return jsonify({"error": f"Failed to download resume: {str(e)}"}), 400
+    except Exception as e:
+        print(f"An unexpected error occurred: {e}")
+        import traceback
+        traceback.print_exc()
+        return jsonify({"error": f"An internal server error occurred: {str(e)}"}), 500
+
+
 @app.route("/api/analyze", methods=["POST"])
 def analyze_documents():
     """
     API endpoint to analyze a resume and job description.
-    Expects two JSON fields in the request: 'resumeUrl' and 'jobDescriptionUrl'.
-    These should be direct links to the PDF/DOCX files (e.g., on AWS S3).
+    Expects 'resumeUrl' and 'jobDescriptionUrl' in the JSON body: direct links to the PDF/DOCX
+    files (e.g., on AWS S3). The backend also sends 'resumeText' and 'jobDescriptionText' when it
+    has already extracted them; a document is only downloaded when its text is missing.
+    'resumeData' (the output of /api/extract/resume) skips resume parsing altogether.
     """
 
     data = request.get_json()
-    if not data or "resumeUrl" not in data or "jobDescriptionUrl" not in data:
-        return jsonify({"error": "Both 'resumeUrl' and 'jobDescriptionUrl' are required in the request body."}), 400
+    if not data:
+        return jsonify({"error": "Request body must be JSON."}), 400
 
-    resume_url = data["resumeUrl"]
-    jd_url = data["jobDescriptionUrl"]
+    resume_text = data.get("resumeText")
+    jd_text = data.get("jobDescriptionText")
+    resume_url = data.get("resumeUrl")
+    jd_url = data.get("jobDescriptionUrl")
+    resume_data = data.get("resumeData")
 
-    # 1. Download files from URLs
-    unique_id = str(uuid.uuid4())
-    
-    # Detect file extensions from URLs
-    resume_ext = ".pdf" if resume_url.lower().endswith('.pdf') else ".docx" if resume_url.lower().endswith('.docx') else ""
-    jd_ext = ".pdf" if jd_url.lower().endswith('.pdf') else ".docx" if jd_url.lower().endswith('.docx') else ""
-    
-    resume_filename = f"{unique_id}_resume{resume_ext}"
-    jd_filename = f"{unique_id}_jd{jd_ext}"
+    if (not resume_data and not resume_text and not resume_url) or (not jd_text and not jd_url):
+        return jsonify({"error": "Both 'resumeUrl' and 'jobDescriptionUrl' (or their extracted text) are required in the request body."}), 400
 
-    resume_path = os.path.join(TEMP_DIR, resume_filename)
-    jd_path = os.path.join(TEMP_DIR, jd_filename)
+    unique_id = str(uuid.uuid4())
 
     try:
-        # Add headers to mimic a browser request and handle potential authentication
-        headers = {
-            'User-Agent': 'Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/91.0.4472.124 Safari/537.36'
-        }
-        
-        print(f"Downloading resume from: {resume_url}")
-        resume_resp = requests.get(resume_url, timeout=30, headers=headers)
-        print(f"Resume download status: {resume_resp.status_code}")
-        
-        print(f"Downloading job description from: {jd_url}")
-        jd_resp = requests.get(jd_url, timeout=30, headers=headers)
-        print(f"JD download status: {jd_resp.status_code}")
-        
-        if resume_resp.status_code != 200 or jd_resp.status_code != 200:
-            return jsonify({"error": f"Failed to download files. Resume: {resume_resp.status_code}, JD: {jd_resp.status_code}"}), 400
-
-        with open(resume_path, "wb") as f:
-            f.write(resume_resp.content)
-        with open(jd_path, "wb") as f:
-            f.write(jd_resp.content)
+        # 1. Use the text sent by the backend, downloading only what is missing
+        if not resume_data and not resume_text:
+            resume_text = download_document_text(resume_url, "resume", unique_id)
+        if not jd_text:
+            jd_text = download_document_text(jd_url, "jd", unique_id)
 
-        # 2. Process files and run analysis
-        print(f"Processing resume file: {resume_path}")
-        print(f"Processing job description file: {jd_path}")
-        
-        resume_text = get_text_from_file(resume_path)
-        jd_text = get_text_from_file(jd_path)
-        
-        print(f"Resume text extracted: {len(resume_text) if resume_text else 0} characters")
-        print(f"JD text extracted: {len(jd_text) if jd_text else 0} characters")
+        print(f"Resume text: {len(resume_text) if resume_text else 0} characters")
+        print(f"JD text: {len(jd_text) if jd_text else 0} characters")
 
-        if not resume_text or not jd_text:
+        if (not resume_data and not resume_text) or not jd_text:
             error_msg = []
-            if not resume_text:
+            if not resume_data and not resume_text:
                 error_msg.append("resume")
             if not jd_text:
                 error_msg.append("job description")
             return jsonify({"error": f"Could not extract text from {' and '.join(error_msg)}. Ensure they are text-based PDF or DOCX files."}), 500
 
-        resume_data = extract_resume_data_with_llm(resume_text)
-        print(f"Resume data extracted: {bool(resume_data)}")
+        # 2. Run analysis; resume data parsed earlier by /api/extract/resume is reused as is
+        if not resume_data:
+            resume_data = extract_resume_data_with_llm(resume_text)
+            print(f"Resume data extracted: {bool(resume_data)}")
         
         jd_data = extract_jd_data_with_llm(jd_text)
         print(f"JD data extracted: {bool(jd_data)}")
@@ -133,6 +192,9 @@ def analyze_documents():
         # 3. Return the final report
         return jsonify(analysis_report), 200
 
+    except DocumentDownloadError as e:
+        print(f"Download failed: {e}")
+        return jsonify({"error": str(e)}), 400
     except requests.exceptions.RequestException as e:
         print(f"Network error occurred: {e}")
         return jsonify({"error": f"Failed to download files: {str(e)}"}), 400
@@ -149,12 +211,6 @@ def analyze_documents():
         traceback.print_exc()
         return jsonify({"error": f"An internal server error occurred: {str(e)}"}), 500
 
-    finally:
-        if os.path.exists(resume_path):
-            os.remove(resume_path)
-        if os.path.exists(jd_path):
-            os.remove(jd_path)
-
 if __name__ == "__main__":
     # Use Gunicorn for production, but this is fine for local development
     app.run(debug=True, port=5001)
@@ -2,9 +2,12 @@ import os
 import json
 import google.generativeai as genai
 
+from tracing import tracer
+
 # Configure Gemini API
 genai.configure(api_key=os.getenv("GEMINI_API_KEY"))
 
+@tracer.start_as_current_span("llm.extract_resume")
 def extract_resume_data_with_llm(text):
     """Analyzes resume text using Gemini and returns structured JSON."""
     print("Extracting resume data with Gemini...")
@@ -44,6 +47,7 @@ def extract_resume_data_with_llm(text):
         print(f"Error in Gemini resume extraction: {e}")
         return None
 
+@tracer.start_as_current_span("llm.extract_jd")
 def extract_jd_data_with_llm(text):
     """Analyzes job description text using Gemini and returns structured JSON."""
     model = genai.GenerativeModel('gemini-2.5-flash')
@@ -74,6 +78,7 @@ def extract_jd_data_with_llm(text):
         print(f"Error in Gemini JD extraction: {e}")
         return None
 
+@tracer.start_as_current_span("llm.analyze_match")
 def analyze_match_with_llm(resume_data, jd_data):
     """Compares resume and JD data using Gemini and returns a final analysis report."""
     model = genai.GenerativeModel('gemini-2.5-flash')
@@ -1,6 +1,8 @@
 import pdfplumber
 import docx
 
+from tracing import tracer
+
 def extract_text_from_pdf(pdf_path):
     """Extracts all text from a PDF file."""
     try:
@@ -25,6 +27,7 @@ def extract_text_from_docx(docx_path):
         print(f"Error extracting text from DOCX: {e}")
         return None
 
+@tracer.start_as_current_span("document.extract_text")
 def get_text_from_file(file_path):
     """
     Detects file type and uses the appropriate text extractor.
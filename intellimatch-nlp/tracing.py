@@ -0,0 +1,61 @@
+"""
+OpenTelemetry tracing for the NLP service. The backend sends a W3C 'traceparent' header with
+every call, so the spans of an analysis (document downloads, text extraction, LLM calls) join
+the trace of the upload that started it.
+
+Spans are exported over OTLP when OTEL_EXPORTER_OTLP_ENDPOINT (or
+OTEL_EXPORTER_OTLP_TRACES_ENDPOINT) is set, and appended to a JSON lines file when
+TRACING_FILE_PATH is set, with the same fields the backend writes to its trace file. With
+neither set, tracing stays off.
+"""
+import json
+import os
+
+from opentelemetry import trace
+from opentelemetry.instrumentation.flask import FlaskInstrumentor
+from opentelemetry.instrumentation.requests import RequestsInstrumentor
+from opentelemetry.sdk.resources import Resource
+from opentelemetry.sdk.trace import TracerProvider
+from opentelemetry.sdk.trace.export import BatchSpanProcessor, ConsoleSpanExporter
+
+SERVICE_NAME = "intellimatch-nlp"
+
+# Usable before init_tracing runs; spans are no-ops until a provider is set
+tracer = trace.get_tracer(SERVICE_NAME)
+
+
+def _span_line(span):
+    """One span as a JSON line, in the format of the backend's FileSpanExporter."""
+    return json.dumps({
+        "service": span.resource.attributes.get("service.name"),
+        "traceId": format(span.context.trace_id, "032x"),
+        "spanId": format(span.context.span_id, "016x"),
+        "parentSpanId": format(span.parent.span_id, "016x") if span.parent else None,
+        "name": span.name,
+        "kind": span.kind.name,
+        "startEpochNanos": span.start_time,
+        "durationMs": (span.end_time - span.start_time) / 1_000_000,
+        "status": span.status.status_code.name,
+        "attributes": dict(span.attributes or {}),
+    }) + "\n"
+
+
+def init_tracing(app):
+    otlp_endpoint = os.getenv("OTEL_EXPORTER_OTLP_ENDPOINT") or os.getenv("OTEL_EXPORTER_OTLP_TRACES_ENDPOINT")
+    file_path = os.getenv("TRACING_FILE_PATH")
+    if not otlp_endpoint and not file_path:
+        return
+
+    # The default sampler follows the sampling decision in the backend's traceparent
+    provider = TracerProvider(resource=Resource.create({"service.name": os.getenv("OTEL_SERVICE_NAME", SERVICE_NAME)}))
+    if otlp_endpoint:
+        from opentelemetry.exporter.otlp.proto.http.trace_exporter import OTLPSpanExporter
+        provider.add_span_processor(BatchSpanProcessor(OTLPSpanExporter()))
+    if file_path:
+        provider.add_span_processor(BatchSpanProcessor(ConsoleSpanExporter(out=open(file_path, "a"), formatter=_span_line)))
+    trace.set_tracer_provider(provider)
+
+    # Server spans continue the incoming trace; downloads with requests become client spans
+    FlaskInstrumentor().instrument_app(app)
+    RequestsInstrumentor().instrument()
+    print(f"Tracing enabled (OTLP: {bool(otlp_endpoint)}, file: {file_path or 'off'})")
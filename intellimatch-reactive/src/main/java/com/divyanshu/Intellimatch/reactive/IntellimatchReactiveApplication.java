@@ -0,0 +1,39 @@
+package com.divyanshu.Intellimatch.reactive;
+
+import com.divyanshu.Intellimatch.config.NlpResilienceConfig;
+import com.divyanshu.Intellimatch.security.PasswordHasher;
+import io.github.cdimascio.dotenv.Dotenv;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.Import;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+@SpringBootApplication
+@EnableScheduling
+// Shared with the backend and outside this module's packages, so component scanning does not find them
+@Import({PasswordHasher.class, NlpResilienceConfig.class})
+public class IntellimatchReactiveApplication {
+
+	static {
+		try {
+			Dotenv dotenv = Dotenv.configure()
+					.directory(".")
+					.ignoreIfMalformed()
+					.ignoreIfMissing()
+					.load();
+
+			dotenv.entries().forEach(entry -> {
+				System.setProperty(entry.getKey(), entry.getValue());
+			});
+
+			System.out.println("✅ Environment variables loaded from .env file");
+		} catch (Exception e) {
+			System.out.println("⚠️ Could not load .env file: " + e.getMessage());
+			System.out.println("📝 Using system environment variables as fallback");
+		}
+	}
+
+	public static void main(String[] args) {
+		SpringApplication.run(IntellimatchReactiveApplication.class, args);
+	}
+}
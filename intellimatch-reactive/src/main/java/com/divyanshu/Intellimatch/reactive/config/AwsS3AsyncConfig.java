@@ -0,0 +1,56 @@
+package com.divyanshu.Intellimatch.reactive.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.http.nio.netty.NettyNioAsyncHttpClient;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+
+import java.net.URI;
+import java.time.Duration;
+
+/**
+ * S3AsyncClient on the SDK's Netty client. Requests beyond max-concurrency wait for a connection
+ * without holding a thread, and a part upload only completes once S3 has it, which is what paces
+ * reading the next part of the request body.
+ */
+@Configuration
+public class AwsS3AsyncConfig {
+
+    @Value("${aws.accessKeyId}")
+    private String accessKey;
+
+    @Value("${aws.secretKey}")
+    private String secretKey;
+
+    @Value("${cloud.aws.region.static}")
+    private String region;
+
+    // Lets the module run against an S3-compatible store locally; empty means AWS
+    @Value("${aws.s3.endpoint:}")
+    private String endpoint;
+
+    @Value("${aws.s3.max-concurrency:64}")
+    private int maxConcurrency;
+
+    @Value("${aws.s3.connection-acquire-timeout-ms:30000}")
+    private long connectionAcquireTimeoutMs;
+
+    @Bean(destroyMethod = "close")
+    public S3AsyncClient s3AsyncClient() {
+        AwsBasicCredentials awsCreds = AwsBasicCredentials.create(accessKey, secretKey);
+        var builder = S3AsyncClient.builder()
+                .region(Region.of(region))
+                .credentialsProvider(StaticCredentialsProvider.create(awsCreds))
+                .httpClientBuilder(NettyNioAsyncHttpClient.builder()
+                        .maxConcurrency(maxConcurrency)
+                        .connectionAcquisitionTimeout(Duration.ofMillis(connectionAcquireTimeoutMs)));
+        if (!endpoint.isEmpty()) {
+            builder.endpointOverride(URI.create(endpoint)).forcePathStyle(true);
+        }
+        return builder.build();
+    }
+}
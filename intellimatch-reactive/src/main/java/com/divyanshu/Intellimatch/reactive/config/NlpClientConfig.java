@@ -0,0 +1,58 @@
+package com.divyanshu.Intellimatch.reactive.config;
+
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+
+/**
+ * WebClient for the NLP service. It runs on the same event loops as the server; the connection
+ * pool is sized to the analysis concurrency, so the pipeline never has more calls outstanding
+ * than there are connections for them.
+ */
+@Configuration
+public class NlpClientConfig {
+
+    @Value("${analysis.pipeline.max-concurrency:8}")
+    private int maxConcurrency;
+
+    @Value("${nlp.client.connect-timeout-ms:2000}")
+    private int connectTimeoutMs;
+
+    @Value("${nlp.client.read-timeout-ms:90000}")
+    private long readTimeoutMs;
+
+    @Value("${nlp.client.pool-acquire-timeout-ms:5000}")
+    private long poolAcquireTimeoutMs;
+
+    @Value("${nlp.client.idle-eviction-ms:30000}")
+    private long idleEvictionMs;
+
+    @Value("${nlp.client.connection-ttl-ms:300000}")
+    private long connectionTtlMs;
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider nlpConnectionProvider() {
+        return ConnectionProvider.builder("nlp")
+                .maxConnections(maxConcurrency)
+                .pendingAcquireTimeout(Duration.ofMillis(poolAcquireTimeoutMs))
+                .maxIdleTime(Duration.ofMillis(idleEvictionMs))
+                .maxLifeTime(Duration.ofMillis(connectionTtlMs))
+                .metrics(true)
+                .build();
+    }
+
+    @Bean
+    public WebClient nlpWebClient(WebClient.Builder builder, ConnectionProvider nlpConnectionProvider) {
+        HttpClient httpClient = HttpClient.create(nlpConnectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, connectTimeoutMs)
+                .responseTimeout(Duration.ofMillis(readTimeoutMs));
+        return builder.clientConnector(new ReactorClientHttpConnector(httpClient)).build();
+    }
+}
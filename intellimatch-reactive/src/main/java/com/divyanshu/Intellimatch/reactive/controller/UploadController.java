@@ -0,0 +1,151 @@
+package com.divyanshu.Intellimatch.reactive.controller;
+
+import com.divyanshu.Intellimatch.dto.AnalysisJobDTO;
+import com.divyanshu.Intellimatch.dto.UploadedFile;
+import com.divyanshu.Intellimatch.reactive.exception.FileTooLargeException;
+import com.divyanshu.Intellimatch.reactive.model.ResumeMatch;
+import com.divyanshu.Intellimatch.reactive.service.AnalysisPipelineService;
+import com.divyanshu.Intellimatch.reactive.service.FileUploadService.FileField;
+import com.divyanshu.Intellimatch.reactive.service.FileUploadService;
+import com.divyanshu.Intellimatch.reactive.service.ResumeMatchService;
+import com.divyanshu.Intellimatch.reactive.service.UserService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.bind.annotation.CookieValue;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+@RestController
+@RequestMapping("/api/upload")
+@RequiredArgsConstructor
+@Slf4j
+public class UploadController {
+
+    private final FileUploadService fileUploadService;
+    private final ResumeMatchService resumeMatchService;
+    private final UserService userService;
+    private final AnalysisPipelineService analysisPipelineService;
+
+    private static final String RESUME_FIELD = "resume";
+    private static final String JOB_DESCRIPTION_FIELD = "jobDescription";
+    private static final String RESUME_FOLDER = "resumes";
+    private static final String JOB_DESCRIPTION_FOLDER = "job-descriptions";
+
+    @Value("${analysis.pipeline.retry-after-seconds:30}")
+    private long retryAfterSeconds;
+
+    /**
+     * Streams both files to S3 and queues the analysis. Room in the analysis pipeline is reserved
+     * before the body is read: when the NLP service is the bottleneck the upload is refused with
+     * 503 instead of being stored and left waiting.
+     */
+    @PostMapping
+    public Mono<ResponseEntity<?>> uploadFiles(
+        ServerHttpRequest request,
+        @CookieValue(value = "userId", required = false) String userId
+    ) {
+        // Check if auth cookie is present
+        if (userId == null || userId.isEmpty()) {
+            return Mono.just(ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Authentication required."));
+        }
+
+        return userService.existsById(userId).flatMap(exists -> {
+            if (!exists) {
+                return Mono.error(new RuntimeException("User not found"));
+            }
+            if (!FileUploadService.isMultipartContent(request)) {
+                return Mono.just(ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Both files are required."));
+            }
+            if (!analysisPipelineService.tryReserve()) {
+                return Mono.just(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+                    .body("Too many analyses in progress, please try again later."));
+            }
+
+            AtomicBoolean submitted = new AtomicBoolean();
+            return fileUploadService.storeFiles(request, Map.of(
+                    RESUME_FIELD, FileField.single(RESUME_FOLDER),
+                    JOB_DESCRIPTION_FIELD, FileField.single(JOB_DESCRIPTION_FOLDER)
+                ))
+                .flatMap(files -> saveAndSubmit(userId, files, submitted))
+                .onErrorResume(FileTooLargeException.class, e ->
+                    Mono.just(ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).body(e.getMessage())))
+                .doFinally(signal -> {
+                    if (!submitted.get()) {
+                        analysisPipelineService.cancelReservation();
+                    }
+                });
+        });
+    }
+
+    private Mono<ResponseEntity<?>> saveAndSubmit(String userId, Map<String, List<UploadedFile>> files, AtomicBoolean submitted) {
+        UploadedFile resume = first(files, RESUME_FIELD);
+        UploadedFile jobDescription = first(files, JOB_DESCRIPTION_FIELD);
+        List<UploadedFile> stored = files.values().stream().flatMap(List::stream).toList();
+        if (resume == null || jobDescription == null) {
+            return fileUploadService.cleanupFiles(stored)
+                .then(Mono.just(ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Both files are required.")));
+        }
+
+        // Create and save ResumeMatch; the match document is the user's history entry
+        ResumeMatch document = new ResumeMatch(
+            null,
+            userId,
+            resume.getOriginalFilename(),
+            jobDescription.getOriginalFilename(),
+            resume.getStored().getUrl(),
+            jobDescription.getStored().getUrl(),
+            null // matchResultId will be set later after processing the match
+        );
+        document.setResumeHash(resume.getStored().getSha256());
+        document.setJobDescriptionHash(jobDescription.getStored().getSha256());
+
+        return resumeMatchService.save(document)
+            .flatMap(saved -> analysisPipelineService.submit(saved)
+                // The match goes first, so the reference check below does not count it
+                .onErrorResume(e -> deleteMatch(saved).then(Mono.error(e))))
+            .doOnNext(job -> submitted.set(true))
+            .<ResponseEntity<?>>map(job -> ResponseEntity.accepted()
+                .location(URI.create("/api/jobs/" + job.getId()))
+                .body(new AnalysisJobDTO(job)))
+            // Cleanup uploaded files if any step fails
+            .onErrorResume(e -> cleanupUnreferenced(stored).then(Mono.error(e)));
+    }
+
+    // Never fails, so the submit error is what the client sees; a match left behind keeps its files
+    private Mono<Void> deleteMatch(ResumeMatch match) {
+        return resumeMatchService.delete(match)
+            .onErrorResume(e -> {
+                log.error("Failed to delete ResumeMatch ID: {} after its analysis could not be queued", match.getId(), e);
+                return Mono.empty();
+            });
+    }
+
+    // Deletes only files no match references; one whose check fails is kept
+    private Mono<Void> cleanupUnreferenced(List<UploadedFile> files) {
+        return Flux.fromIterable(files)
+            .filterWhen(file -> resumeMatchService.isReferenced(file.getStored().getUrl())
+                .map(referenced -> !referenced)
+                .onErrorReturn(false))
+            .collectList()
+            .flatMap(fileUploadService::cleanupFiles);
+    }
+
+    private static UploadedFile first(Map<String, List<UploadedFile>> files, String field) {
+        List<UploadedFile> fieldFiles = files.get(field);
+        return fieldFiles == null || fieldFiles.isEmpty() ? null : fieldFiles.get(0);
+    }
+}
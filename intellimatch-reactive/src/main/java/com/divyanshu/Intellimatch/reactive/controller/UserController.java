@@ -0,0 +1,125 @@
+package com.divyanshu.Intellimatch.reactive.controller;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import com.divyanshu.Intellimatch.dto.UserProfileDTO;
+import com.divyanshu.Intellimatch.model.User;
+import com.divyanshu.Intellimatch.reactive.dto.LoginRequest;
+import com.divyanshu.Intellimatch.reactive.service.ResumeMatchService;
+import com.divyanshu.Intellimatch.reactive.service.UserService;
+import lombok.RequiredArgsConstructor;
+import jakarta.validation.Valid;
+import reactor.core.publisher.Mono;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/user")
+public class UserController {
+
+    private final UserService userService;
+    private final ResumeMatchService resumeMatchService;
+
+    // Login route
+    @PostMapping("/login")
+    public Mono<ResponseEntity<?>> loginUser(@Valid @RequestBody LoginRequest loginRequest) {
+        return userService.authenticateUser(loginRequest.getEmail(), loginRequest.getPassword())
+            .<ResponseEntity<?>>map(user -> {
+                // Ensure user ID is not null before creating cookie
+                if (user.getId() == null) {
+                    return ResponseEntity.status(500).body("User ID is missing.");
+                }
+                return ResponseEntity.ok()
+                    .header(HttpHeaders.SET_COOKIE, userCookie(user.getId()).toString())
+                    .body(UserProfileDTO.from(user));
+            })
+            .defaultIfEmpty(ResponseEntity.status(401).body("Invalid credentials"))
+            .onErrorResume(e -> Mono.just(ResponseEntity.status(500).body("Error: " + e.getMessage())));
+    }
+
+    // Register route
+    @PostMapping("/register")
+    public Mono<ResponseEntity<?>> registerUser(@Valid @RequestBody User user) {
+        if (user.getEmail() == null || user.getPassword() == null) {
+            return Mono.just(ResponseEntity.badRequest().body("Missing required fields"));
+        }
+        return userService.createUser(user)
+            .<ResponseEntity<?>>map(savedUser -> ResponseEntity.ok()
+                .header(HttpHeaders.SET_COOKIE, userCookie(savedUser.getId()).toString())
+                .body(UserProfileDTO.from(savedUser)))
+            .onErrorResume(IllegalArgumentException.class, e -> Mono.just(ResponseEntity.badRequest().body(e.getMessage())))
+            .onErrorResume(e -> Mono.just(ResponseEntity.status(500).body("Error: " + e.getMessage())));
+    }
+
+    // Get user by ID route
+    @GetMapping("/get")
+    public Mono<ResponseEntity<?>> getUserById(@CookieValue(value = "userId", required = false) String userId) {
+        if (userId == null || userId.isEmpty()) {
+            return Mono.just(ResponseEntity.status(401).body("Authentication required."));
+        }
+
+        return userService.findProfileById(userId)
+            .<ResponseEntity<?>>map(ResponseEntity::ok)
+            .switchIfEmpty(Mono.error(new RuntimeException("User not found")))
+            .onErrorResume(e -> Mono.just(ResponseEntity.status(500).body("Error: " + e.getMessage())));
+    }
+
+    // Logout route
+    @PostMapping("/logout")
+    public Mono<ResponseEntity<?>> logoutUser() {
+        // Clear the userId cookie
+        ResponseCookie cookie = ResponseCookie.from("userId", "")
+                .httpOnly(true)
+                .path("/")
+                .maxAge(0)
+                .build();
+        return Mono.just(ResponseEntity.ok()
+                .header(HttpHeaders.SET_COOKIE, cookie.toString())
+                .body("Logged out successfully"));
+    }
+
+    @GetMapping("/history")
+    public Mono<ResponseEntity<?>> getUserHistory(
+        @CookieValue(value = "userId", required = false) String userId,
+        @RequestParam(value = "cursor", required = false) String cursor,
+        @RequestParam(value = "limit", defaultValue = "20") int limit
+        ) {
+        if (userId == null || userId.isEmpty()) {
+            return Mono.just(ResponseEntity.status(401).body("Authentication required."));
+        }
+
+        return userService.existsById(userId)
+            .flatMap(exists -> exists
+                // One page of summaries; pass nextCursor back to fetch the following page
+                ? resumeMatchService.getHistoryPage(userId, cursor, limit)
+                : Mono.error(new RuntimeException("User not found")))
+            .<ResponseEntity<?>>map(ResponseEntity::ok)
+            .onErrorResume(IllegalArgumentException.class, e -> Mono.just(ResponseEntity.badRequest().body(e.getMessage())))
+            .onErrorResume(e -> Mono.just(ResponseEntity.status(500).body("Error: " + e.getMessage())));
+    }
+
+    @GetMapping("/match/{matchId}")
+    public Mono<ResponseEntity<?>> getMatchDetails(
+        @PathVariable String matchId,
+        @CookieValue(value = "userId", required = false) String userId
+    ) {
+        if (userId == null || userId.isEmpty()) {
+            return Mono.just(ResponseEntity.status(401).body("Authentication required."));
+        }
+
+        // Find the specific match in user's history
+        return resumeMatchService.getMatchDetails(matchId, userId)
+            .<ResponseEntity<?>>map(ResponseEntity::ok)
+            .switchIfEmpty(Mono.error(new RuntimeException("Match not found")))
+            .onErrorResume(e -> Mono.just(ResponseEntity.status(500).body("Error: " + e.getMessage())));
+    }
+
+    private static ResponseCookie userCookie(String userId) {
+        return ResponseCookie.from("userId", userId)
+                .httpOnly(true)
+                .path("/")
+                .maxAge(24 * 60 * 60)
+                .build();
+    }
+}
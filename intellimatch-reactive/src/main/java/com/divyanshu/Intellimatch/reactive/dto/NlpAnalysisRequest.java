@@ -0,0 +1,15 @@
+package com.divyanshu.Intellimatch.reactive.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Body of POST /api/analyze on the NLP service. Only the document URLs are sent: text extraction
+ * is CPU-bound, so it is left to the NLP service instead of running on an event loop.
+ */
+@Data
+@AllArgsConstructor
+public class NlpAnalysisRequest {
+    private String resumeUrl;
+    private String jobDescriptionUrl;
+}
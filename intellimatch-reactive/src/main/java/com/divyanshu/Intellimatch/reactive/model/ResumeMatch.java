@@ -0,0 +1,61 @@
+package com.divyanshu.Intellimatch.reactive.model;
+
+import com.divyanshu.Intellimatch.model.MatchResult;
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.Date;
+
+@Data
+@Document(collection = "resume_matches")
+@CompoundIndex(name = "userId_matchDate_id", def = "{'userId': 1, 'matchDate': -1, '_id': -1}")
+public class ResumeMatch {
+    @Id
+    String id;
+    String userId;
+    String resumeName;
+    String jobDescriptionName;
+    String resumeUrl;
+    String jobDescriptionUrl;
+    String resumeHash;          // SHA-256 of the uploaded resume
+    String jobDescriptionHash;  // SHA-256 of the uploaded job description
+    @Indexed(sparse = true)
+    String batchId;             // set when the match is one of a batch upload
+    Date matchDate;
+    String matchResultId;       // result in match_results; only set on matches analysed before results were embedded
+    MatchResult result;         // set together with analyzedAt once the analysis has finished
+    Date analyzedAt;
+    String modelVersion;        // set for successful analyses only, which makes them reusable for identical documents
+
+    public ResumeMatch(String id, String userId, String resumeName, String jobDescriptionName, String resumeUrl, String jobDescriptionUrl, String matchResultId) {
+        this.id = id;
+        this.userId = userId;
+        this.resumeName = resumeName;
+        this.jobDescriptionName = jobDescriptionName;
+        this.resumeUrl = resumeUrl;
+        this.jobDescriptionUrl = jobDescriptionUrl;
+        this.matchDate = new Date();
+        this.matchResultId = matchResultId;
+    }
+    
+    public ResumeMatch() {
+        // Default constructor
+    }
+
+    @Override
+    public String toString() {
+        return "ResumeMatch{" +
+                "id='" + id + '\'' +
+                ", resumeName='" + resumeName + '\'' +
+                ", jobDescriptionName='" + jobDescriptionName + '\'' +
+                ", resumeUrl='" + resumeUrl + '\'' +
+                ", jobDescriptionUrl='" + jobDescriptionUrl + '\'' +
+                ", matchDate=" + matchDate +
+                ", matchResultId='" + matchResultId + '\'' +
+                ", analyzedAt=" + analyzedAt +
+                '}';
+    }
+}
@@ -0,0 +1,9 @@
+package com.divyanshu.Intellimatch.reactive.repository;
+
+import com.divyanshu.Intellimatch.model.AnalysisJob;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface AnalysisJobRepository extends ReactiveMongoRepository<AnalysisJob, String> {
+}
@@ -0,0 +1,12 @@
+package com.divyanshu.Intellimatch.reactive.repository;
+
+import com.divyanshu.Intellimatch.reactive.model.ResumeMatch;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+@Repository
+public interface ResumeMatchRepository extends ReactiveMongoRepository<ResumeMatch, String> {
+
+    Mono<ResumeMatch> findByIdAndUserId(String id, String userId);
+}
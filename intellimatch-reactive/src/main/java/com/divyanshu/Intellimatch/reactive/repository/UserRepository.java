@@ -0,0 +1,19 @@
+package com.divyanshu.Intellimatch.reactive.repository;
+
+import com.divyanshu.Intellimatch.dto.UserProfileDTO;
+import com.divyanshu.Intellimatch.model.User;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+@Repository
+public interface UserRepository extends ReactiveMongoRepository<User, String> {
+    Mono<User> findByEmail(String email);
+
+    // Reads only the profile fields, never the password hash
+    Mono<UserProfileDTO> findProfileById(String id);
+
+    Mono<Boolean> existsByEmail(String email);
+
+    Mono<Boolean> existsByPhoneNumber(String phoneNumber);
+}
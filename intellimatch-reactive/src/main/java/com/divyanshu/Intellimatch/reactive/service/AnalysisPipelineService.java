@@ -0,0 +1,267 @@
+package com.divyanshu.Intellimatch.reactive.service;
+
+import com.divyanshu.Intellimatch.model.AnalysisJob;
+import com.divyanshu.Intellimatch.model.AnalysisJobStatus;
+import com.divyanshu.Intellimatch.model.MatchResult;
+import com.divyanshu.Intellimatch.reactive.dto.NlpAnalysisRequest;
+import com.divyanshu.Intellimatch.reactive.model.ResumeMatch;
+import com.divyanshu.Intellimatch.reactive.repository.AnalysisJobRepository;
+import com.divyanshu.Intellimatch.reactive.repository.ResumeMatchRepository;
+import com.divyanshu.Intellimatch.resilience.AimdLimiter;
+import com.divyanshu.Intellimatch.resilience.CircuitBreaker;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.util.concurrent.Queues;
+import reactor.util.retry.Retry;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs analyses as one reactive stream: uploads emit jobs into a queue and at most
+ * analysis.pipeline.max-concurrency of them are calling the NLP service at any time. The stream
+ * only requests the next job when an analysis finishes, so a slow NLP service fills the queue,
+ * and once the queue is full uploads are turned away before their bodies are read. That is how
+ * NLP backpressure reaches the upload endpoint. Within that bound each NLP call also waits for the
+ * backend's circuit breaker and adaptive concurrency limit, so a struggling NLP service gets fewer
+ * calls rather than a steady max-concurrency of them.
+ * <p>
+ * Jobs are written to analysis_jobs as RUNNING with a lease held by this node and renewed while
+ * they are queued here, so the servlet backend's workers leave them alone. If this node stops, the
+ * leases expire and any worker sharing the database picks the jobs up.
+ */
+@Service
+@Slf4j
+public class AnalysisPipelineService {
+
+    private final NlpAnalysisService nlpAnalysisService;
+    private final CircuitBreaker nlpCircuitBreaker;
+    private final AimdLimiter nlpConcurrencyLimiter;
+    private final AnalysisJobRepository analysisJobRepository;
+    private final ResumeMatchRepository resumeMatchRepository;
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    private final String workerId = ManagementFactory.getRuntimeMXBean().getName() + ":reactive:" + UUID.randomUUID().toString().substring(0, 8);
+    private final Sinks.Many<AnalysisTask> queue = Sinks.many().unicast().onBackpressureBuffer(Queues.<AnalysisTask>unboundedMultiproducer().get());
+    // Admitted jobs, queued or running; keys are renewed as leases
+    private final Map<String, AnalysisJob> admitted = new ConcurrentHashMap<>();
+    private final AtomicInteger running = new AtomicInteger();
+    // Uploads hold a permit from before their body is read until their analysis ends
+    private final Semaphore admissions;
+    private final int maxConcurrency;
+    private Disposable subscription;
+
+    @Value("${analysis.job.lease-seconds:300}")
+    private long leaseSeconds;
+
+    @Value("${analysis.job.max-attempts:3}")
+    private int maxAttempts;
+
+    @Value("${analysis.pipeline.retry-backoff-ms:2000}")
+    private long retryBackoffMs;
+
+    @Value("${analysis.pipeline.permit-poll-ms:200}")
+    private long permitPollMs;
+
+    @Value("${nlp.model.version}")
+    private String modelVersion;
+
+    public AnalysisPipelineService(NlpAnalysisService nlpAnalysisService,
+                                   CircuitBreaker nlpCircuitBreaker,
+                                   AimdLimiter nlpConcurrencyLimiter,
+                                   AnalysisJobRepository analysisJobRepository,
+                                   ResumeMatchRepository resumeMatchRepository,
+                                   ReactiveMongoTemplate mongoTemplate,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${analysis.pipeline.max-concurrency:8}") int maxConcurrency,
+                                   @Value("${analysis.pipeline.queue-capacity:2000}") int queueCapacity) {
+        this.nlpAnalysisService = nlpAnalysisService;
+        this.nlpCircuitBreaker = nlpCircuitBreaker;
+        this.nlpConcurrencyLimiter = nlpConcurrencyLimiter;
+        this.analysisJobRepository = analysisJobRepository;
+        this.resumeMatchRepository = resumeMatchRepository;
+        this.mongoTemplate = mongoTemplate;
+        this.maxConcurrency = Math.max(1, maxConcurrency);
+        this.admissions = new Semaphore(this.maxConcurrency + Math.max(0, queueCapacity));
+        Gauge.builder("analysis.pipeline.admitted", admitted, Map::size)
+                .description("Analyses queued or running on this node").register(meterRegistry);
+        Gauge.builder("analysis.pipeline.running", running, AtomicInteger::get)
+                .description("Analyses waiting on the NLP service").register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        subscription = queue.asFlux()
+            .flatMap(this::analyze, maxConcurrency)
+            .subscribe();
+    }
+
+    // Queued jobs keep their leases and are picked up elsewhere once those expire
+    @PreDestroy
+    public void stop() {
+        if (subscription != null) {
+            subscription.dispose();
+        }
+    }
+
+    /**
+     * Reserves room for one more analysis. Never waits, so it is safe on an event loop.
+     *
+     * @return false if the pipeline is full; the caller must not submit
+     */
+    public boolean tryReserve() {
+        return admissions.tryAcquire();
+    }
+
+    // For a reservation that will not be submitted, e.g. because the upload failed
+    public void cancelReservation() {
+        admissions.release();
+    }
+
+    /**
+     * Records the job for a saved match and queues its analysis. The caller must hold a
+     * reservation; it is released when the analysis ends.
+     */
+    public Mono<AnalysisJob> submit(ResumeMatch resumeMatch) {
+        Date now = new Date();
+        AnalysisJob job = new AnalysisJob(resumeMatch.getId(), resumeMatch.getUserId());
+        job.setStatus(AnalysisJobStatus.RUNNING);
+        job.setAttempts(1);
+        job.setStartedAt(now);
+        job.setLeaseOwner(workerId);
+        job.setLeaseExpiresAt(leaseDeadline(now));
+
+        return analysisJobRepository.save(job).doOnNext(saved -> {
+            admitted.put(saved.getId(), saved);
+            queue.emitNext(new AnalysisTask(saved, resumeMatch), Sinks.EmitFailureHandler.busyLooping(Duration.ofSeconds(1)));
+            log.info("Queued analysis job ID: {} for ResumeMatch ID: {}", saved.getId(), resumeMatch.getId());
+        });
+    }
+
+    public Mono<AnalysisJob> findById(String jobId) {
+        return analysisJobRepository.findById(jobId);
+    }
+
+    @Scheduled(fixedDelayString = "${analysis.job.lease-renew-interval-ms:60000}")
+    public Mono<Void> renewLeases() {
+        if (admitted.isEmpty()) {
+            return Mono.empty();
+        }
+        Query query = new Query(Criteria.where("_id").in(new ArrayList<>(admitted.keySet()))
+                .and("status").is(AnalysisJobStatus.RUNNING)
+                .and("leaseOwner").is(workerId));
+        return mongoTemplate.updateMulti(query, new Update().set("leaseExpiresAt", leaseDeadline(new Date())), AnalysisJob.class)
+            .doOnError(e -> log.warn("Failed to renew leases for {} admitted analysis jobs", admitted.size(), e))
+            .onErrorResume(e -> Mono.empty())
+            .then();
+    }
+
+    private Mono<Void> analyze(AnalysisTask task) {
+        AnalysisJob job = task.job();
+        ResumeMatch resumeMatch = task.resumeMatch();
+        AtomicInteger attempts = new AtomicInteger(1);
+        running.incrementAndGet();
+        log.info("Starting analysis for ResumeMatch ID: {}", resumeMatch.getId());
+
+        NlpAnalysisRequest request = new NlpAnalysisRequest(resumeMatch.getResumeUrl(), resumeMatch.getJobDescriptionUrl());
+        return withNlpPermit(nlpAnalysisService.analyzeResumeMatch(request))
+            .retryWhen(Retry.backoff(Math.max(0, maxAttempts - 1), Duration.ofMillis(retryBackoffMs))
+                .filter(NlpAnalysisService::isRetryable)
+                .doBeforeRetry(signal -> log.warn("Analysis job ID: {} failed attempt {}/{}, retrying: {}",
+                    job.getId(), attempts.getAndIncrement(), maxAttempts, signal.failure().getMessage()))
+                .onRetryExhaustedThrow((spec, signal) -> signal.failure()))
+            .flatMap(result -> saveResult(resumeMatch, result, true)
+                .then(finish(job, attempts.get(), AnalysisJobStatus.DONE, null))
+                .doOnSuccess(done -> log.info("Analysis completed for ResumeMatch ID: {}", resumeMatch.getId())))
+            .onErrorResume(e -> {
+                log.error("Analysis job ID: {} failed after {} attempts", job.getId(), attempts.get(), e);
+                return createFailedAnalysisResult(resumeMatch, e.getMessage())
+                    .then(finish(job, attempts.get(), AnalysisJobStatus.FAILED, e.getMessage()));
+            })
+            .onErrorResume(e -> {
+                // Could not even record the outcome; the lease expires and another worker retries
+                log.error("Failed to record the outcome of analysis job ID: {}", job.getId(), e);
+                return Mono.empty();
+            })
+            .doFinally(signal -> {
+                running.decrementAndGet();
+                admitted.remove(job.getId());
+                admissions.release();
+            });
+    }
+
+    /**
+     * Waits without a thread until the circuit breaker lets calls through and the adaptive limit
+     * has room, as the backend's workers do before claiming a job. The limit permit is held for
+     * one call, so every retry waits for its own.
+     */
+    private <T> Mono<T> withNlpPermit(Mono<T> call) {
+        return Mono.fromCallable(() -> nlpCircuitBreaker.isCallPermitted() && nlpConcurrencyLimiter.tryAcquire())
+            .filter(Boolean::booleanValue)
+            .repeatWhenEmpty(waits -> waits.delayElements(Duration.ofMillis(permitPollMs)))
+            .flatMap(acquired -> call.doFinally(signal -> nlpConcurrencyLimiter.release()));
+    }
+
+    // Embeds the result and marks the match finished in one update, as the servlet backend does;
+    // successful results carry the model version, which makes them reusable for identical documents
+    private Mono<Void> saveResult(ResumeMatch resumeMatch, MatchResult matchResult, boolean reusable) {
+        Update update = new Update().set("result", matchResult).set("analyzedAt", new Date());
+        if (reusable) {
+            update.set("modelVersion", modelVersion);
+        }
+        return mongoTemplate.updateFirst(new Query(Criteria.where("_id").is(resumeMatch.getId())), update, ResumeMatch.class)
+            .then();
+    }
+
+    // Gives the user feedback that the analysis failed rather than leaving it pending forever
+    private Mono<Void> createFailedAnalysisResult(ResumeMatch resumeMatch, String errorMessage) {
+        MatchResult failedResult = new MatchResult();
+        failedResult.setAtsScorePercent(0);
+        failedResult.setSummary("Analysis failed: " + errorMessage + ". Please try uploading again or contact support.");
+        failedResult.setWhatMatched(new ArrayList<>());
+        failedResult.setWhatIsMissing(new ArrayList<>());
+        return saveResult(resumeMatch, failedResult, false);
+    }
+
+    // Only while this node still holds the lease; otherwise another worker has taken the job over
+    private Mono<Void> finish(AnalysisJob job, int attempts, AnalysisJobStatus status, String errorMessage) {
+        Update update = new Update()
+                .set("status", status)
+                .set("attempts", attempts)
+                .set("completedAt", new Date())
+                .unset("leaseOwner")
+                .unset("leaseExpiresAt");
+        if (errorMessage != null) {
+            update.set("lastError", errorMessage);
+        }
+        Query query = new Query(Criteria.where("_id").is(job.getId()).and("leaseOwner").is(workerId));
+        return mongoTemplate.updateFirst(query, update, AnalysisJob.class).then();
+    }
+
+    private Date leaseDeadline(Date from) {
+        return new Date(from.getTime() + leaseSeconds * 1000L);
+    }
+
+    private record AnalysisTask(AnalysisJob job, ResumeMatch resumeMatch) {
+    }
+}
@@ -0,0 +1,241 @@
+package com.divyanshu.Intellimatch.reactive.service;
+
+import com.divyanshu.Intellimatch.dto.StoredFile;
+import com.divyanshu.Intellimatch.dto.UploadedFile;
+import com.divyanshu.Intellimatch.reactive.exception.FileTooLargeException;
+import com.divyanshu.Intellimatch.reactive.storage.S3AsyncBlobStore;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.multipart.FilePartEvent;
+import org.springframework.http.codec.multipart.PartEvent;
+import org.springframework.http.codec.multipart.PartEventHttpMessageReader;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Streams the file parts of a multipart request to S3. Parts are read as PartEvents, so nothing is
+ * buffered to disk, and body data is only requested as fast as S3 accepts it: at most
+ * upload.s3.max-in-flight-parts parts per file are being sent while the next one is read.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class FileUploadService {
+
+    public static final Set<String> ALLOWED_CONTENT_TYPES = Set.of(
+        "application/pdf",
+        "application/vnd.openxmlformats-officedocument.wordprocessingml.document"
+    );
+
+    // S3 rejects multipart parts smaller than this, except the last one
+    private static final long MIN_PART_SIZE = 5L * 1024 * 1024;
+
+    private final S3AsyncBlobStore blobStore;
+    private final PartEventHttpMessageReader partReader = new PartEventHttpMessageReader();
+
+    @Value("${upload.max-file-size:5MB}")
+    private DataSize maxFileSize;
+
+    @Value("${upload.s3.part-size:5MB}")
+    private DataSize partSize;
+
+    @Value("${upload.s3.max-in-flight-parts:2}")
+    private int maxInFlightParts;
+
+    public static boolean isMultipartContent(ServerHttpRequest request) {
+        MediaType contentType = request.getHeaders().getContentType();
+        return contentType != null && MediaType.MULTIPART_FORM_DATA.isCompatibleWith(contentType);
+    }
+
+    /**
+     * Stores the files of the given fields, in request order; parts of other fields are skipped.
+     * If any file fails, the ones already stored are deleted before the error is passed on.
+     *
+     * @throws IllegalArgumentException (as an error signal) for a file that is not allowed
+     * @throws FileTooLargeException (as an error signal) for a file over upload.max-file-size
+     */
+    public Mono<Map<String, List<UploadedFile>>> storeFiles(ServerHttpRequest request, Map<String, FileField> fields) {
+        return Mono.defer(() -> {
+            Flux<PartEvent> parts = partReader.read(ResolvableType.forClass(PartEvent.class), request, Map.of());
+            Map<String, List<UploadedFile>> uploaded = new LinkedHashMap<>();
+            // One part at a time: a part's content has to be read before the next part starts
+            return parts.windowUntil(PartEvent::isLast)
+                .concatMap(partEvents -> partEvents.switchOnFirst((signal, events) -> {
+                    if (signal.hasValue() && signal.get() instanceof FilePartEvent file && fields.containsKey(file.name())) {
+                        List<UploadedFile> files = uploaded.computeIfAbsent(file.name(), name -> new ArrayList<>());
+                        return storePart(file, events, fields.get(file.name()), files.size()).doOnNext(files::add);
+                    }
+                    // Form fields and unknown parts are drained
+                    return events.doOnNext(event -> DataBufferUtils.release(event.content())).then(Mono.<UploadedFile>empty());
+                }))
+                .then(Mono.fromSupplier(() -> uploaded))
+                .onErrorResume(e -> cleanupFiles(uploaded.values().stream().flatMap(List::stream).toList())
+                    .then(Mono.error(e)));
+        });
+    }
+
+    // Never fails: a file that could not be deleted is only logged
+    public Mono<Void> cleanupFiles(List<UploadedFile> files) {
+        return Flux.fromIterable(files)
+            .flatMap(file -> blobStore.delete(blobStore.keyFor(file.getStored().getUrl()))
+                .onErrorResume(e -> {
+                    log.warn("Failed to delete {} from storage: {}", file.getOriginalFilename(), e.getMessage());
+                    return Mono.empty();
+                }))
+            .then();
+    }
+
+    private Mono<UploadedFile> storePart(FilePartEvent file, Flux<PartEvent> events, FileField field, int alreadyStored) {
+        if (alreadyStored >= field.maxFiles()) {
+            return Mono.error(new IllegalArgumentException(field.maxFiles() == 1
+                ? "Only one file is allowed for " + file.name()
+                : "At most " + field.maxFiles() + " files are allowed for " + file.name()));
+        }
+        MediaType mediaType = file.headers().getContentType();
+        String contentType = mediaType != null ? mediaType.getType() + "/" + mediaType.getSubtype() : null;
+        if (contentType == null || !ALLOWED_CONTENT_TYPES.contains(contentType)) {
+            return Mono.error(new IllegalArgumentException("Only PDF and DOCX files are allowed."));
+        }
+        String originalFileName = file.filename();
+        if (originalFileName == null || originalFileName.trim().isEmpty()) {
+            return Mono.error(new IllegalArgumentException("File must have a valid name"));
+        }
+
+        String key = objectKey(field.folder(), originalFileName);
+        return store(key, contentType, events.map(PartEvent::content))
+            .map(stored -> new UploadedFile(originalFileName, contentType, stored));
+    }
+
+    private String objectKey(String folder, String originalFileName) {
+        String sanitizedFileName = originalFileName
+                .replaceAll("[\\s+]+", "-") // Replace spaces and plus signs with -
+                .replaceAll("[^a-zA-Z0-9._-]", ""); // Remove any unsafe characters except . _ -
+        return folder + "/" + UUID.randomUUID() + "-" + sanitizedFileName;
+    }
+
+    /**
+     * Cuts the content into part-sized chunks and uploads them. A file smaller than one part is a
+     * single PUT; anything larger is a multipart upload. The SHA-256 is computed from the same
+     * chunks, so the content hash costs no extra pass over the file.
+     */
+    private Mono<StoredFile> store(String key, String contentType, Flux<DataBuffer> content) {
+        int chunkSize = (int) Math.max(MIN_PART_SIZE, partSize.toBytes());
+        return Mono.defer(() -> {
+            MessageDigest digest = sha256();
+            AtomicLong size = new AtomicLong();
+            Flux<byte[]> chunks = chunk(limitSize(content, size), chunkSize).doOnNext(digest::update);
+
+            return chunks.switchOnFirst((signal, rest) -> {
+                    if (signal.isOnError()) {
+                        return Flux.error(signal.getThrowable());
+                    }
+                    if (!signal.hasValue()) {
+                        return Flux.error(new IllegalArgumentException("File must not be empty"));
+                    }
+                    // A chunk shorter than a part can only be the last one, so this is the whole file
+                    if (signal.get().length < chunkSize) {
+                        return rest.concatMap(whole -> blobStore.put(key, contentType, whole));
+                    }
+                    return multipartUpload(key, contentType, rest).flux();
+                })
+                // No text: extraction is left to the NLP service, off the event loop
+                .then(Mono.fromSupplier(() -> new StoredFile(
+                    blobStore.urlFor(key), HexFormat.of().formatHex(digest.digest()), size.get(), null)));
+        });
+    }
+
+    private Mono<Void> multipartUpload(String key, String contentType, Flux<byte[]> chunks) {
+        return blobStore.startMultipartUpload(key, contentType).flatMap(uploadId -> chunks.index()
+            .flatMapSequential(part -> blobStore.uploadPart(key, uploadId, (int) (part.getT1() + 1), part.getT2()),
+                Math.max(1, maxInFlightParts), 1)
+            .collectList()
+            .flatMap(parts -> blobStore.completeMultipartUpload(key, uploadId, parts))
+            .onErrorResume(e -> abortQuietly(key, uploadId).then(Mono.error(e)))
+            .doOnCancel(() -> abortQuietly(key, uploadId).subscribe()));
+    }
+
+    private Mono<Void> abortQuietly(String key, String uploadId) {
+        return blobStore.abortMultipartUpload(key, uploadId)
+            .onErrorResume(e -> {
+                log.warn("Failed to abort multipart upload of {}: {}", key, e.getMessage());
+                return Mono.empty();
+            });
+    }
+
+    private Flux<DataBuffer> limitSize(Flux<DataBuffer> content, AtomicLong size) {
+        long maxBytes = maxFileSize.toBytes();
+        return content.handle((buffer, sink) -> {
+            if (size.addAndGet(buffer.readableByteCount()) > maxBytes) {
+                DataBufferUtils.release(buffer);
+                sink.error(new FileTooLargeException("Files must be smaller than " + maxFileSize.toMegabytes() + "MB."));
+            } else {
+                sink.next(buffer);
+            }
+        });
+    }
+
+    private static Flux<byte[]> chunk(Flux<DataBuffer> content, int chunkSize) {
+        return Flux.defer(() -> {
+            long[] buffered = {0};
+            return content.bufferUntil(buffer -> {
+                    buffered[0] += buffer.readableByteCount();
+                    if (buffered[0] >= chunkSize) {
+                        buffered[0] = 0;
+                        return true;
+                    }
+                    return false;
+                })
+                .map(FileUploadService::join)
+                .doOnDiscard(DataBuffer.class, DataBufferUtils::release);
+        });
+    }
+
+    private static byte[] join(List<DataBuffer> buffers) {
+        int total = buffers.stream().mapToInt(DataBuffer::readableByteCount).sum();
+        byte[] bytes = new byte[total];
+        int offset = 0;
+        for (DataBuffer buffer : buffers) {
+            int length = buffer.readableByteCount();
+            buffer.read(bytes, offset, length);
+            offset += length;
+            DataBufferUtils.release(buffer);
+        }
+        return bytes;
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * A form field that carries files: the storage folder they go to and how many one request may send.
+     */
+    public record FileField(String folder, int maxFiles) {
+        public static FileField single(String folder) {
+            return new FileField(folder, 1);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.divyanshu.Intellimatch.reactive.service;
+
+import com.divyanshu.Intellimatch.dto.NlpAnalysisResponse;
+import com.divyanshu.Intellimatch.exception.NlpAnalysisException;
+import com.divyanshu.Intellimatch.model.MatchResult;
+import com.divyanshu.Intellimatch.reactive.dto.NlpAnalysisRequest;
+import com.divyanshu.Intellimatch.resilience.AimdLimiter;
+import com.divyanshu.Intellimatch.resilience.CircuitBreaker;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+
+@Service
+@RequiredArgsConstructor
+public class NlpAnalysisService {
+
+    private final WebClient nlpWebClient;
+    private final CircuitBreaker nlpCircuitBreaker;
+    private final AimdLimiter nlpConcurrencyLimiter;
+
+    @Value("${nlp.api.url}")
+    private String nlpApiUrl;
+
+    /**
+     * Calls the NLP service for a resume/job description pair. The response is bound straight to
+     * NlpAnalysisResponse on the event loop as it arrives; no thread waits for the analysis. Like
+     * the backend's calls, every call goes through the circuit breaker and feeds the adaptive
+     * concurrency limit.
+     *
+     * @return the result, or an NlpAnalysisException error if the circuit is open, the service
+     *         fails or it returns an unreadable response
+     */
+    public Mono<MatchResult> analyzeResumeMatch(NlpAnalysisRequest request) {
+        return Mono.defer(() -> {
+            long permit = nlpCircuitBreaker.tryAcquirePermission();
+            if (permit == CircuitBreaker.NOT_PERMITTED) {
+                return Mono.error(new NlpAnalysisException("NLP circuit breaker is open"));
+            }
+            long start = System.nanoTime();
+            return nlpWebClient.post()
+                .uri(nlpApiUrl)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(request)
+                .retrieve()
+                .bodyToMono(NlpAnalysisResponse.class)
+                .map(NlpAnalysisResponse::toMatchResult)
+                .onErrorMap(e -> !(e instanceof NlpAnalysisException),
+                    e -> new NlpAnalysisException("NLP service call failed: " + e.getMessage(), e))
+                .doOnSuccess(result -> {
+                    nlpCircuitBreaker.onSuccess(permit);
+                    nlpConcurrencyLimiter.onSample(System.nanoTime() - start, false);
+                })
+                .doOnError(e -> {
+                    // A 4xx means the request was bad, not that the backend is unhealthy
+                    if (isRetryable(e)) {
+                        nlpCircuitBreaker.onFailure(permit);
+                        nlpConcurrencyLimiter.onSample(System.nanoTime() - start, true);
+                    } else {
+                        nlpCircuitBreaker.onSuccess(permit);
+                    }
+                })
+                // Only on shutdown; counted as a failure so a half-open probe slot is not held forever
+                .doOnCancel(() -> nlpCircuitBreaker.onFailure(permit));
+        });
+    }
+
+    // A 4xx means the request was bad; sending it again will not help
+    public static boolean isRetryable(Throwable error) {
+        return !(error.getCause() instanceof WebClientResponseException response && response.getStatusCode().is4xxClientError());
+    }
+}
@@ -0,0 +1,127 @@
+package com.divyanshu.Intellimatch.reactive.service;
+
+import com.divyanshu.Intellimatch.dto.HistoryCursor;
+import com.divyanshu.Intellimatch.model.MatchResult;
+import com.divyanshu.Intellimatch.reactive.dto.HistoryPageDTO;
+import com.divyanshu.Intellimatch.reactive.dto.MatchHistoryDTO;
+import com.divyanshu.Intellimatch.reactive.dto.MatchSummaryDTO;
+import com.divyanshu.Intellimatch.reactive.model.ResumeMatch;
+import com.divyanshu.Intellimatch.reactive.repository.MatchResultRepository;
+import com.divyanshu.Intellimatch.reactive.repository.ResumeMatchRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+@Service
+@RequiredArgsConstructor
+public class ResumeMatchService {
+
+    private final MatchResultRepository matchResultRepository;
+    private final ResumeMatchRepository resumeMatchRepository;
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    @Value("${history.page.max-size:100}")
+    private int maxPageSize;
+
+    public Mono<ResumeMatch> save(ResumeMatch resumeMatch) {
+        return resumeMatchRepository.save(resumeMatch);
+    }
+
+    public Mono<Void> delete(ResumeMatch resumeMatch) {
+        return resumeMatchRepository.deleteById(resumeMatch.getId());
+    }
+
+    // Whether any match still points at the stored file; a missing URL counts, since there is nothing to delete
+    public Mono<Boolean> isReferenced(String fileUrl) {
+        if (fileUrl == null || fileUrl.isEmpty()) {
+            return Mono.just(true);
+        }
+        Query query = new Query(new Criteria().orOperator(
+            Criteria.where("resumeUrl").is(fileUrl),
+            Criteria.where("jobDescriptionUrl").is(fileUrl)));
+        return mongoTemplate.exists(query, ResumeMatch.class);
+    }
+
+    /**
+     * Returns one page of the user's history, newest first, using keyset pagination on
+     * (matchDate, id). Same queries as the servlet backend: one for the page of matches with their
+     * scores, and an $in lookup for matches whose results predate embedding.
+     */
+    public Mono<HistoryPageDTO> getHistoryPage(String userId, String cursorToken, int pageSize) {
+        return Mono.defer(() -> {
+            int limit = Math.max(1, Math.min(pageSize, maxPageSize));
+
+            Criteria criteria = Criteria.where("userId").is(userId);
+            if (cursorToken != null && !cursorToken.isEmpty()) {
+                HistoryCursor cursor = HistoryCursor.decode(cursorToken);
+                criteria = criteria.orOperator(
+                    Criteria.where("matchDate").lt(cursor.getMatchDate()),
+                    Criteria.where("matchDate").is(cursor.getMatchDate()).and("_id").lt(cursor.getId())
+                );
+            }
+            Query query = new Query(criteria)
+                .with(Sort.by(Sort.Direction.DESC, "matchDate").and(Sort.by(Sort.Direction.DESC, "_id")))
+                .limit(limit + 1);
+            query.fields().include("resumeName", "jobDescriptionName", "matchDate", "matchResultId", "result.atsScorePercent");
+
+            return mongoTemplate.find(query, ResumeMatch.class).collectList().flatMap(found -> {
+                boolean hasMore = found.size() > limit;
+                List<ResumeMatch> matches = hasMore ? found.subList(0, limit) : found;
+                return findLegacyScores(matches).map(legacyScores -> {
+                    List<MatchSummaryDTO> items = matches.stream()
+                        .map(match -> new MatchSummaryDTO(match, resultOf(match, legacyScores)))
+                        .toList();
+
+                    String nextCursor = null;
+                    if (hasMore) {
+                        ResumeMatch last = matches.get(matches.size() - 1);
+                        nextCursor = new HistoryCursor(last.getMatchDate(), last.getId()).encode();
+                    }
+                    return new HistoryPageDTO(items, nextCursor);
+                });
+            });
+        });
+    }
+
+    // Loads only atsScorePercent for results still kept in match_results, in one query
+    private Mono<Map<String, MatchResult>> findLegacyScores(List<ResumeMatch> matches) {
+        List<String> resultIds = matches.stream()
+            .filter(match -> match.getResult() == null)
+            .map(ResumeMatch::getMatchResultId)
+            .filter(Objects::nonNull)
+            .distinct()
+            .toList();
+        if (resultIds.isEmpty()) {
+            return Mono.just(Map.of());
+        }
+        Query query = new Query(Criteria.where("_id").in(resultIds));
+        query.fields().include("atsScorePercent");
+        return mongoTemplate.find(query, MatchResult.class).collectMap(MatchResult::getId);
+    }
+
+    private static MatchResult resultOf(ResumeMatch match, Map<String, MatchResult> legacyResults) {
+        if (match.getResult() != null) {
+            return match.getResult();
+        }
+        return match.getMatchResultId() != null ? legacyResults.get(match.getMatchResultId()) : null;
+    }
+
+    public Mono<MatchHistoryDTO> getMatchDetails(String matchId, String userId) {
+        return resumeMatchRepository.findByIdAndUserId(matchId, userId)
+            .flatMap(match -> Mono.justOrEmpty(Optional.ofNullable(match.getResult()))
+                .switchIfEmpty(Mono.justOrEmpty(Optional.ofNullable(match.getMatchResultId()))
+                    .flatMap(matchResultRepository::findById))
+                .map(result -> new MatchHistoryDTO(match, result))
+                .defaultIfEmpty(new MatchHistoryDTO(match, null)));
+    }
+}
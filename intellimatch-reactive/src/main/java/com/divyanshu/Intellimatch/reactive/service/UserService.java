@@ -0,0 +1,78 @@
+package com.divyanshu.Intellimatch.reactive.service;
+
+import com.divyanshu.Intellimatch.dto.UserProfileDTO;
+import com.divyanshu.Intellimatch.model.User;
+import com.divyanshu.Intellimatch.reactive.repository.UserRepository;
+import com.divyanshu.Intellimatch.security.PasswordHasher;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.Optional;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class UserService {
+
+    private final UserRepository userRepository;
+    private final PasswordHasher passwordHasher;
+
+    // Hashing is deliberately slow, so it runs off the event loop
+    public Mono<User> authenticateUser(String email, String password) {
+        return userRepository.findByEmail(email)
+            .map(Optional::of)
+            .defaultIfEmpty(Optional.empty())
+            .publishOn(Schedulers.boundedElastic())
+            .flatMap(found -> {
+                if (found.isEmpty()) {
+                    passwordHasher.matchesNothing(password);
+                    return Mono.empty();
+                }
+                User user = found.get();
+                if (!passwordHasher.matches(password, user.getPassword())) {
+                    return Mono.empty();
+                }
+                return passwordHasher.needsRehash(user.getPassword()) ? rehash(user, password) : Mono.just(user);
+            });
+    }
+
+    // Fails with IllegalArgumentException if the email or phone number is taken
+    public Mono<User> createUser(User user) {
+        Mono<Boolean> phoneTaken = user.getPhoneNumber() != null
+            ? userRepository.existsByPhoneNumber(user.getPhoneNumber())
+            : Mono.just(false);
+        return userRepository.existsByEmail(user.getEmail())
+            .flatMap(emailTaken -> emailTaken
+                ? Mono.error(new IllegalArgumentException("Email already exists"))
+                : phoneTaken)
+            .flatMap(taken -> taken
+                ? Mono.error(new IllegalArgumentException("Phone number already exists"))
+                : Mono.fromCallable(() -> passwordHasher.hash(user.getPassword()))
+                    .subscribeOn(Schedulers.boundedElastic())
+                    .flatMap(hash -> {
+                        user.setPassword(hash);
+                        return userRepository.save(user);
+                    }));
+    }
+
+    public Mono<UserProfileDTO> findProfileById(String id) {
+        return userRepository.findProfileById(id);
+    }
+
+    public Mono<Boolean> existsById(String id) {
+        return userRepository.existsById(id);
+    }
+
+    // Upgrades a legacy or weaker hash; the login has already succeeded either way
+    private Mono<User> rehash(User user, String password) {
+        user.setPassword(passwordHasher.hash(password));
+        return userRepository.save(user)
+            .onErrorResume(e -> {
+                log.warn("Failed to upgrade the password hash of user ID: {}", user.getId(), e);
+                return Mono.just(user);
+            });
+    }
+}
@@ -0,0 +1,104 @@
+package com.divyanshu.Intellimatch.reactive.storage;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import software.amazon.awssdk.core.async.AsyncRequestBody;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.model.AbortMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompletedMultipartUpload;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadResponse;
+import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.UploadPartRequest;
+
+import java.util.List;
+
+/**
+ * Blob store on S3 through S3AsyncClient. Every call returns a lazy Mono: nothing is sent until it
+ * is subscribed, so callers decide how many requests are in flight.
+ */
+@Component
+@RequiredArgsConstructor
+public class S3AsyncBlobStore {
+
+    private final S3AsyncClient s3AsyncClient;
+
+    @Value("${aws.s3.bucket}")
+    private String bucketName;
+
+    public Mono<Void> put(String key, String contentType, byte[] content) {
+        PutObjectRequest request = PutObjectRequest.builder()
+                .bucket(bucketName)
+                .key(key)
+                .contentType(contentType)
+                .build();
+        return Mono.fromFuture(() -> s3AsyncClient.putObject(request, AsyncRequestBody.fromBytes(content))).then();
+    }
+
+    // Returns the upload ID
+    public Mono<String> startMultipartUpload(String key, String contentType) {
+        return Mono.fromFuture(() -> s3AsyncClient.createMultipartUpload(CreateMultipartUploadRequest.builder()
+                .bucket(bucketName)
+                .key(key)
+                .contentType(contentType)
+                .build()))
+            .map(CreateMultipartUploadResponse::uploadId);
+    }
+
+    public Mono<CompletedPart> uploadPart(String key, String uploadId, int partNumber, byte[] data) {
+        UploadPartRequest request = UploadPartRequest.builder()
+                .bucket(bucketName)
+                .key(key)
+                .uploadId(uploadId)
+                .partNumber(partNumber)
+                .contentLength((long) data.length)
+                .build();
+        return Mono.fromFuture(() -> s3AsyncClient.uploadPart(request, AsyncRequestBody.fromBytes(data)))
+            .map(response -> CompletedPart.builder().partNumber(partNumber).eTag(response.eTag()).build());
+    }
+
+    // The parts must be in part order
+    public Mono<Void> completeMultipartUpload(String key, String uploadId, List<CompletedPart> parts) {
+        return Mono.fromFuture(() -> s3AsyncClient.completeMultipartUpload(CompleteMultipartUploadRequest.builder()
+                .bucket(bucketName)
+                .key(key)
+                .uploadId(uploadId)
+                .multipartUpload(CompletedMultipartUpload.builder().parts(parts).build())
+                .build())).then();
+    }
+
+    public Mono<Void> abortMultipartUpload(String key, String uploadId) {
+        return Mono.fromFuture(() -> s3AsyncClient.abortMultipartUpload(AbortMultipartUploadRequest.builder()
+                .bucket(bucketName)
+                .key(key)
+                .uploadId(uploadId)
+                .build())).then();
+    }
+
+    public Mono<Void> delete(String key) {
+        return Mono.fromFuture(() -> s3AsyncClient.deleteObject(DeleteObjectRequest.builder()
+                .bucket(bucketName)
+                .key(key)
+                .build())).then();
+    }
+
+    public String urlFor(String key) {
+        return urlPrefix() + key;
+    }
+
+    public String keyFor(String url) {
+        if (url == null || !url.startsWith(urlPrefix())) {
+            throw new IllegalArgumentException("Not an object URL for bucket " + bucketName + ": " + url);
+        }
+        return url.substring(urlPrefix().length());
+    }
+
+    private String urlPrefix() {
+        return "https://" + bucketName + ".s3.amazonaws.com/";
+    }
+}
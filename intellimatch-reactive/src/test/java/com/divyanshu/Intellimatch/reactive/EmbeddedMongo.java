@@ -0,0 +1,28 @@
+package com.divyanshu.Intellimatch.reactive;
+
+import de.flapdoodle.embed.mongo.commands.ServerAddress;
+import de.flapdoodle.embed.mongo.distribution.Version;
+import de.flapdoodle.embed.mongo.transitions.Mongod;
+import de.flapdoodle.embed.mongo.transitions.RunningMongodProcess;
+import de.flapdoodle.reverse.TransitionWalker;
+
+/**
+ * One mongod for the whole test run, started on first use, for tests that run the application
+ * against a real server. Each test class works in its own database.
+ */
+public final class EmbeddedMongo {
+
+    private static TransitionWalker.ReachedState<RunningMongodProcess> process;
+
+    private EmbeddedMongo() {
+    }
+
+    public static synchronized String uri() {
+        if (process == null) {
+            process = Mongod.instance().start(Version.Main.V7_0);
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> process.close(), "embedded-mongo-shutdown"));
+        }
+        ServerAddress address = process.current().getServerAddress();
+        return "mongodb://" + address.getHost() + ":" + address.getPort();
+    }
+}
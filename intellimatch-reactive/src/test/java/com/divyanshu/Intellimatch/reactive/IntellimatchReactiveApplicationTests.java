@@ -0,0 +1,13 @@
+package com.divyanshu.Intellimatch.reactive;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+
+@SpringBootTest
+class IntellimatchReactiveApplicationTests {
+
+	@Test
+	void contextLoads() {
+	}
+
+}
@@ -0,0 +1,160 @@
+package com.divyanshu.Intellimatch.reactive.controller;
+
+import com.divyanshu.Intellimatch.model.AnalysisJob;
+import com.divyanshu.Intellimatch.model.User;
+import com.divyanshu.Intellimatch.reactive.EmbeddedMongo;
+import com.divyanshu.Intellimatch.reactive.model.ResumeMatch;
+import com.divyanshu.Intellimatch.reactive.storage.InMemoryBlobStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.data.mongodb.core.CollectionOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.validation.Validator;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.MultipartBodyBuilder;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.reactive.function.BodyInserters;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@AutoConfigureWebTestClient
+class UploadControllerTest {
+
+    private static final MediaType PDF = MediaType.APPLICATION_PDF;
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private ReactiveMongoTemplate mongoTemplate;
+
+    @Autowired
+    private InMemoryBlobStore blobStore;
+
+    private String userId;
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        registry.add("spring.data.mongodb.uri", EmbeddedMongo::uri);
+        registry.add("spring.data.mongodb.database", () -> "upload-controller-test");
+        registry.add("security.password.iterations", () -> 1000);
+        // Nothing listens there: queued analyses fail in the background, after the responses checked here
+        registry.add("nlp.api.url", () -> "http://127.0.0.1:9/api/analyze");
+    }
+
+    @TestConfiguration
+    static class BlobStoreConfig {
+        @Bean
+        @Primary
+        InMemoryBlobStore inMemoryBlobStore() {
+            return new InMemoryBlobStore();
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate.dropCollection(ResumeMatch.class).block();
+        mongoTemplate.dropCollection(AnalysisJob.class).block();
+        mongoTemplate.dropCollection(User.class).block();
+        blobStore.clear();
+        userId = mongoTemplate.insert(new User(null, "Ada", "not-a-real-hash", "ada@example.com")).block().getId();
+    }
+
+    @Test
+    void acceptsUploadAndReturnsTheQueuedJob() {
+        Map<String, Object> job = webTestClient.post().uri("/api/upload")
+            .cookie("userId", userId)
+            .contentType(MediaType.MULTIPART_FORM_DATA)
+            .body(BodyInserters.fromMultipartData(uploadBody()))
+            .exchange()
+            .expectStatus().isAccepted()
+            .expectHeader().value("Location", location -> assertTrue(location.startsWith("/api/jobs/")))
+            .expectBody(new ParameterizedTypeReference<Map<String, Object>>() { })
+            .returnResult().getResponseBody();
+        String jobId = (String) job.get("jobId");
+        String matchId = (String) job.get("matchId");
+
+        ResumeMatch match = mongoTemplate.findById(matchId, ResumeMatch.class).block();
+        assertEquals(userId, match.getUserId());
+        assertEquals("resume.pdf", match.getResumeName());
+        assertEquals(2, blobStore.keys().size());
+
+        webTestClient.get().uri("/api/jobs/{jobId}", jobId)
+            .cookie("userId", userId)
+            .exchange()
+            .expectStatus().isOk()
+            .expectBody()
+            .jsonPath("$.jobId").isEqualTo(jobId)
+            .jsonPath("$.matchId").isEqualTo(matchId);
+
+        // Other users cannot see the job
+        webTestClient.get().uri("/api/jobs/{jobId}", jobId)
+            .cookie("userId", "someone-else")
+            .exchange()
+            .expectStatus().isNotFound();
+    }
+
+    @Test
+    void removesMatchAndFilesWhenTheJobCannotBeQueued() {
+        // Every job insert fails validation, as a write to an unavailable primary would
+        mongoTemplate.createCollection(AnalysisJob.class, CollectionOptions.empty()
+            .validator(Validator.criteria(Criteria.where("neverSet").exists(true)))).block();
+
+        webTestClient.post().uri("/api/upload")
+            .cookie("userId", userId)
+            .contentType(MediaType.MULTIPART_FORM_DATA)
+            .body(BodyInserters.fromMultipartData(uploadBody()))
+            .exchange()
+            .expectStatus().is5xxServerError();
+
+        assertEquals(0L, mongoTemplate.count(new Query(), ResumeMatch.class).block());
+        assertEquals(0L, mongoTemplate.count(new Query(), AnalysisJob.class).block());
+        assertTrue(blobStore.keys().isEmpty());
+    }
+
+    @Test
+    void requiresTheUserCookie() {
+        webTestClient.post().uri("/api/upload")
+            .contentType(MediaType.MULTIPART_FORM_DATA)
+            .body(BodyInserters.fromMultipartData(uploadBody()))
+            .exchange()
+            .expectStatus().isUnauthorized();
+
+        assertTrue(blobStore.keys().isEmpty());
+    }
+
+    private static MultiValueMap<String, HttpEntity<?>> uploadBody() {
+        MultipartBodyBuilder builder = new MultipartBodyBuilder();
+        builder.part("resume", file("resume.pdf", "Java developer, ten years of Spring.")).contentType(PDF);
+        builder.part("jobDescription", file("jd.pdf", "Hiring a Java developer.")).contentType(PDF);
+        return builder.build();
+    }
+
+    private static ByteArrayResource file(String name, String content) {
+        return new ByteArrayResource(content.getBytes(StandardCharsets.UTF_8)) {
+            @Override
+            public String getFilename() {
+                return name;
+            }
+        };
+    }
+}
@@ -0,0 +1,76 @@
+package com.divyanshu.Intellimatch.reactive.storage;
+
+import reactor.core.publisher.Mono;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * S3AsyncBlobStore over a map, for tests. Multipart uploads are assembled in memory and only
+ * become visible when completed, as on S3.
+ */
+public class InMemoryBlobStore extends S3AsyncBlobStore {
+
+    private final Map<String, byte[]> blobs = new ConcurrentHashMap<>();
+    private final Map<String, Map<Integer, byte[]>> uploads = new ConcurrentHashMap<>();
+
+    public InMemoryBlobStore() {
+        super(null);
+    }
+
+    public Set<String> keys() {
+        return Set.copyOf(blobs.keySet());
+    }
+
+    public void clear() {
+        blobs.clear();
+        uploads.clear();
+    }
+
+    @Override
+    public Mono<Void> put(String key, String contentType, byte[] content) {
+        return Mono.fromRunnable(() -> blobs.put(key, content));
+    }
+
+    @Override
+    public Mono<String> startMultipartUpload(String key, String contentType) {
+        return Mono.fromSupplier(() -> {
+            String uploadId = UUID.randomUUID().toString();
+            uploads.put(uploadId, new ConcurrentHashMap<>());
+            return uploadId;
+        });
+    }
+
+    @Override
+    public Mono<CompletedPart> uploadPart(String key, String uploadId, int partNumber, byte[] data) {
+        return Mono.fromSupplier(() -> {
+            uploads.get(uploadId).put(partNumber, data);
+            return CompletedPart.builder().partNumber(partNumber).eTag(uploadId + "-" + partNumber).build();
+        });
+    }
+
+    @Override
+    public Mono<Void> completeMultipartUpload(String key, String uploadId, List<CompletedPart> parts) {
+        return Mono.fromRunnable(() -> {
+            Map<Integer, byte[]> uploaded = uploads.remove(uploadId);
+            ByteArrayOutputStream content = new ByteArrayOutputStream();
+            parts.forEach(part -> content.writeBytes(uploaded.get(part.partNumber())));
+            blobs.put(key, content.toByteArray());
+        });
+    }
+
+    @Override
+    public Mono<Void> abortMultipartUpload(String key, String uploadId) {
+        return Mono.fromRunnable(() -> uploads.remove(uploadId));
+    }
+
+    @Override
+    public Mono<Void> delete(String key) {
+        return Mono.fromRunnable(() -> blobs.remove(key));
+    }
+}
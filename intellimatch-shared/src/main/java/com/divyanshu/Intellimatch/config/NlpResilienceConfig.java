@@ -0,0 +1,49 @@
+package com.divyanshu.Intellimatch.config;
+
+import com.divyanshu.Intellimatch.resilience.AimdLimiter;
+import com.divyanshu.Intellimatch.resilience.CircuitBreaker;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Circuit breaker and adaptive concurrency limit guarding the NLP service. Analyses only call it
+ * when both allow it, so excess work waits (PENDING in the backend's job queue, admitted in the
+ * reactive pipeline) instead of piling onto a struggling backend. The defaults follow the
+ * backend's worker threads; the reactive module sets the limits to its pipeline concurrency.
+ */
+@Configuration
+public class NlpResilienceConfig {
+
+    @Bean
+    public CircuitBreaker nlpCircuitBreaker(MeterRegistry meterRegistry,
+                                            @Value("${nlp.circuit.failure-threshold:5}") int failureThreshold,
+                                            @Value("${nlp.circuit.open-ms:30000}") long openMs,
+                                            @Value("${nlp.circuit.half-open-probes:2}") int halfOpenProbes) {
+        CircuitBreaker circuitBreaker = new CircuitBreaker(failureThreshold, openMs, halfOpenProbes);
+        // 0 = closed, 1 = half-open, 2 = open
+        Gauge.builder("nlp.circuit.state", circuitBreaker, breaker -> breaker.getState().ordinal())
+                .description("NLP circuit breaker state (0 closed, 1 half-open, 2 open)").register(meterRegistry);
+        return circuitBreaker;
+    }
+
+    @Bean
+    public AimdLimiter nlpConcurrencyLimiter(MeterRegistry meterRegistry,
+                                             @Value("${nlp.limiter.initial-limit:${analysis.worker.threads:4}}") int initialLimit,
+                                             @Value("${nlp.limiter.min-limit:1}") int minLimit,
+                                             @Value("${nlp.limiter.max-limit:${analysis.worker.threads:4}}") int maxLimit,
+                                             @Value("${nlp.limiter.latency-threshold-ms:45000}") long latencyThresholdMs,
+                                             @Value("${nlp.limiter.backoff-ratio:0.75}") double backoffRatio) {
+        AimdLimiter limiter = new AimdLimiter(initialLimit, minLimit, maxLimit,
+                TimeUnit.MILLISECONDS.toNanos(latencyThresholdMs), backoffRatio);
+        Gauge.builder("nlp.concurrency.limit", limiter, AimdLimiter::getLimit)
+                .description("Current adaptive concurrency limit for NLP analyses").register(meterRegistry);
+        Gauge.builder("nlp.concurrency.in-flight", limiter, AimdLimiter::getInFlight)
+                .description("Analyses currently holding an NLP concurrency permit").register(meterRegistry);
+        return limiter;
+    }
+}
@@ -0,0 +1,26 @@
+package com.divyanshu.Intellimatch.dto;
+
+import com.divyanshu.Intellimatch.model.AnalysisJob;
+import com.divyanshu.Intellimatch.model.AnalysisJobStatus;
+import lombok.Data;
+
+import java.util.Date;
+
+@Data
+public class AnalysisJobDTO {
+    private String jobId;
+    private String matchId;
+    private AnalysisJobStatus status;
+    private int attempts;
+    private Date createdAt;
+    private Date completedAt;
+
+    public AnalysisJobDTO(AnalysisJob job) {
+        this.jobId = job.getId();
+        this.matchId = job.getResumeMatchId();
+        this.status = job.getStatus();
+        this.attempts = job.getAttempts();
+        this.createdAt = job.getCreatedAt();
+        this.completedAt = job.getCompletedAt();
+    }
+}
@@ -0,0 +1,44 @@
+package com.divyanshu.Intellimatch.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Date;
+import java.util.regex.Pattern;
+
+/**
+ * Keyset position in a user's history: the (matchDate, id) of the last match on the previous
+ * page. Clients receive it as an opaque URL-safe token.
+ */
+@Data
+@AllArgsConstructor
+public class HistoryCursor {
+
+    private static final Pattern OBJECT_ID = Pattern.compile("[0-9a-f]{24}");
+
+    private Date matchDate;
+    private String id;
+
+    public String encode() {
+        String raw = matchDate.getTime() + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static HistoryCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(':');
+            String id = separator > 0 ? raw.substring(separator + 1) : "";
+            // Any other id would be compared with the ObjectIds as a string and match nothing
+            if (!OBJECT_ID.matcher(id).matches()) {
+                throw new IllegalArgumentException("Invalid history cursor");
+            }
+            return new HistoryCursor(new Date(Long.parseLong(raw.substring(0, separator))), id);
+        } catch (IllegalArgumentException e) {
+            // NumberFormatException and Base64 decoding errors are both IllegalArgumentExceptions
+            throw new IllegalArgumentException("Invalid history cursor", e);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.divyanshu.Intellimatch.dto;
+
+import com.divyanshu.Intellimatch.exception.NlpAnalysisException;
+import com.divyanshu.Intellimatch.model.MatchResult;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Body of a successful POST /api/analyze on the NLP service, bound straight from the response
+ * stream. The detail items are MatchResult's own classes, so nothing is copied per item.
+ * Everything but the score may be missing; unknown fields are ignored.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record NlpAnalysisResponse(
+    @JsonProperty("ats_score_percent") Integer atsScorePercent,
+    @JsonProperty("summary") String summary,
+    @JsonProperty("what_matched") List<MatchResult.MatchDetail> whatMatched,
+    @JsonProperty("what_is_missing") List<MatchResult.MissingDetail> whatIsMissing
+) {
+
+    /**
+     * @throws NlpAnalysisException if there is no score; a result without one is not an analysis
+     */
+    public MatchResult toMatchResult() {
+        if (atsScorePercent == null) {
+            throw new NlpAnalysisException("NLP response has no ats_score_percent");
+        }
+        MatchResult matchResult = new MatchResult();
+        matchResult.setAtsScorePercent(atsScorePercent);
+        matchResult.setSummary(summary != null ? summary : "");
+        matchResult.setWhatMatched(withoutNulls(whatMatched));
+        matchResult.setWhatIsMissing(withoutNulls(whatIsMissing));
+        return matchResult;
+    }
+
+    private static <T> List<T> withoutNulls(List<T> items) {
+        if (items == null) {
+            return new ArrayList<>();
+        }
+        if (items.contains(null)) {
+            items.removeIf(Objects::isNull);
+        }
+        return items;
+    }
+}
@@ -0,0 +1,13 @@
+package com.divyanshu.Intellimatch.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class StoredFile {
+    private String url;
+    private String sha256;
+    private long size;
+    private String text; // extracted at upload for files small enough to hold whole, otherwise null
+}
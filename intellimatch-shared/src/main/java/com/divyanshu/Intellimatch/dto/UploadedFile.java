@@ -0,0 +1,13 @@
+package com.divyanshu.Intellimatch.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+// A file part from an upload request, after it has been stored
+@Data
+@AllArgsConstructor
+public class UploadedFile {
+    private String originalFilename;
+    private String contentType;
+    private StoredFile stored;
+}
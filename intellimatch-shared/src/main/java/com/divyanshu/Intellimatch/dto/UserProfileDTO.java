@@ -0,0 +1,20 @@
+package com.divyanshu.Intellimatch.dto;
+
+import com.divyanshu.Intellimatch.model.User;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserProfileDTO {
+    private String id;
+    private String name;
+    private String email;
+    private String phoneNumber;
+
+    public static UserProfileDTO from(User user) {
+        return new UserProfileDTO(user.getId(), user.getName(), user.getEmail(), user.getPhoneNumber());
+    }
+}
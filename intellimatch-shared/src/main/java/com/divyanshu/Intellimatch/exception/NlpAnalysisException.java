@@ -0,0 +1,12 @@
+package com.divyanshu.Intellimatch.exception;
+
+public class NlpAnalysisException extends RuntimeException {
+
+    public NlpAnalysisException(String message) {
+        super(message);
+    }
+
+    public NlpAnalysisException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,56 @@
+package com.divyanshu.Intellimatch.model;
+
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.Date;
+import java.util.Map;
+
+/**
+ * A unit of analysis work for a single ResumeMatch. Jobs live in Mongo so that
+ * work queued or in flight on a node survives a restart: a RUNNING job whose
+ * lease has expired is claimable again by any worker.
+ */
+@Data
+@Document(collection = "analysis_jobs")
+@CompoundIndexes({
+    @CompoundIndex(name = "status_nextAttemptAt", def = "{'status': 1, 'nextAttemptAt': 1}"),
+    @CompoundIndex(name = "status_leaseExpiresAt", def = "{'status': 1, 'leaseExpiresAt': 1}"),
+    @CompoundIndex(name = "batchId_status", def = "{'batchId': 1, 'status': 1}", sparse = true)
+})
+public class AnalysisJob {
+    @Id
+    private String id;
+    @Indexed
+    private String resumeMatchId;
+    private String userId;
+    private String batchId;     // set for jobs created by a batch upload
+    private AnalysisJobStatus status;
+    private int attempts;
+    private String leaseOwner;
+    private Date leaseExpiresAt;
+    private Date nextAttemptAt;
+    private Date createdAt;
+    private Date startedAt;
+    private Date completedAt;
+    private String lastError;
+    private Map<String, String> traceContext;   // W3C trace headers of the request that queued the job
+
+    public AnalysisJob(String resumeMatchId, String userId) {
+        Date now = new Date();
+        this.resumeMatchId = resumeMatchId;
+        this.userId = userId;
+        this.status = AnalysisJobStatus.PENDING;
+        this.attempts = 0;
+        this.createdAt = now;
+        this.nextAttemptAt = now;
+    }
+
+    public AnalysisJob() {
+        // Default constructor
+    }
+}
@@ -0,0 +1,9 @@
+package com.divyanshu.Intellimatch.model;
+
+public enum AnalysisJobStatus {
+    WAITING,    // part of a batch that is already running as many jobs as it may; not claimable yet
+    PENDING,
+    RUNNING,
+    DONE,
+    FAILED
+}
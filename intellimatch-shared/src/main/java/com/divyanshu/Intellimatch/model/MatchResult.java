@@ -1,5 +1,6 @@
 package com.divyanshu.Intellimatch.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import lombok.Data;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.mongodb.core.mapping.Document;
@@ -15,13 +16,16 @@ public class MatchResult {
     private List<MatchDetail> whatMatched;
     private List<MissingDetail> whatIsMissing;
 
+    // Bound straight from NLP responses, which may carry more per item than is kept
     @Data
+    @JsonIgnoreProperties(ignoreUnknown = true)
     public static class MatchDetail {
         private String item;
         private String reason;
     }
 
     @Data
+    @JsonIgnoreProperties(ignoreUnknown = true)
     public static class MissingDetail {
         private String item;
         private String recommendation;
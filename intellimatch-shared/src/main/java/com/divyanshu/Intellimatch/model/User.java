@@ -8,10 +8,6 @@ import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
-import java.util.ArrayList;
-
 @Data
 @Document(collection = "users")
 public class User {
@@ -23,6 +19,7 @@ public class User {
     
     String phoneNumber;  // optional, can be null
     
+    // The raw password from a registration request until UserService.createUser hashes it
     @NotBlank(message = "Password is required")
     @Size(min = 6, message = "Password must be at least 6 characters")
     String password;
@@ -31,16 +28,13 @@ public class User {
     @Email(message = "Email should be valid")
     @Indexed(unique = true)
     String email;
-    
-    ArrayList<ResumeMatch> history;
 
     public User(String id, String name, String phoneNumber, String password, String email) {
         this.id = id;
         this.name = name;
         this.phoneNumber = phoneNumber; // can be null
-        this.password = hashPassword(password);
+        this.password = password;
         this.email = email;
-        this.history = new ArrayList<>();
     }
 
     public User(String id, String name, String password, String email) {
@@ -48,33 +42,6 @@ public class User {
     }
 
     public User() {
-        this.history = new ArrayList<>();
-    }
-
-    public void setPassword(String password) {
-        this.password = hashPassword(password);
-    }
-
-    public void removeFromHistory(ResumeMatch resumeMatch) {
-        history.removeIf(match -> match.getId().equals(resumeMatch.getId()));
+        // Default constructor
     }
-
-    private String hashPassword(String password) {
-        try {
-            MessageDigest md = MessageDigest.getInstance("SHA-256");
-            byte[] hashedBytes = md.digest(password.getBytes());
-            StringBuilder sb = new StringBuilder();
-            for (byte b : hashedBytes) {
-                sb.append(String.format("%02x", b));
-            }
-            return sb.toString();
-        } catch (NoSuchAlgorithmException e) {
-            throw new RuntimeException("Error hashing password", e);
-        }
-    }
-
-    public void addToHistory(ResumeMatch resumeMatch) {
-        history.add(resumeMatch);
-    }
-
-}
+}
\ No newline at end of file
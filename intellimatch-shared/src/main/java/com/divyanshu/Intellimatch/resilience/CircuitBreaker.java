@@ -0,0 +1,114 @@
+package com.divyanshu.Intellimatch.resilience;
+
+/**
+ * Consecutive-failure circuit breaker. After failureThreshold failures in a row the circuit opens
+ * and calls are rejected for openMillis; it then goes half-open and lets a few probe calls
+ * through. Enough successful probes close it again, and any failed probe re-opens it.
+ *
+ * Every state change starts a new generation, and a permission carries the generation it was
+ * taken in. Results are only counted for the current generation: a slow call admitted while the
+ * circuit was closed must not take a probe slot or count as a probe when it finishes half-open.
+ */
+public class CircuitBreaker {
+
+    public enum State { CLOSED, HALF_OPEN, OPEN }
+
+    // Returned by tryAcquirePermission when the call must not be made
+    public static final long NOT_PERMITTED = -1;
+
+    private final int failureThreshold;
+    private final long openMillis;
+    private final int halfOpenProbes;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+    private int probesInFlight;
+    private int probeSuccesses;
+    private long generation;
+
+    public CircuitBreaker(int failureThreshold, long openMillis, int halfOpenProbes) {
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.openMillis = openMillis;
+        this.halfOpenProbes = Math.max(1, halfOpenProbes);
+    }
+
+    /**
+     * Whether a call would currently be let through, without taking a probe slot. Callers use it
+     * to decide whether to pick up work at all.
+     */
+    public synchronized boolean isCallPermitted() {
+        return switch (state) {
+            case CLOSED -> true;
+            case OPEN -> openElapsed();
+            case HALF_OPEN -> probesInFlight < halfOpenProbes;
+        };
+    }
+
+    /**
+     * Takes permission for one call. Unless it returns NOT_PERMITTED, it must be followed by
+     * exactly one of onSuccess or onFailure with the returned generation.
+     */
+    public synchronized long tryAcquirePermission() {
+        if (state == State.OPEN) {
+            if (!openElapsed()) {
+                return NOT_PERMITTED;
+            }
+            transitionTo(State.HALF_OPEN);
+        }
+        if (state == State.HALF_OPEN) {
+            if (probesInFlight >= halfOpenProbes) {
+                return NOT_PERMITTED;
+            }
+            probesInFlight++;
+        }
+        return generation;
+    }
+
+    public synchronized void onSuccess(long permitGeneration) {
+        if (permitGeneration != generation) {
+            return;
+        }
+        consecutiveFailures = 0;
+        if (state == State.HALF_OPEN) {
+            probesInFlight--;
+            if (++probeSuccesses >= halfOpenProbes) {
+                transitionTo(State.CLOSED);
+            }
+        }
+    }
+
+    public synchronized void onFailure(long permitGeneration) {
+        if (permitGeneration != generation) {
+            return;
+        }
+        if (state == State.HALF_OPEN || ++consecutiveFailures >= failureThreshold) {
+            transitionTo(State.OPEN);
+            openedAt = System.currentTimeMillis();
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    // How long callers should hold off before trying again; zero unless the circuit is open
+    public synchronized long remainingOpenMillis() {
+        if (state != State.OPEN) {
+            return 0;
+        }
+        return Math.max(0, openedAt + openMillis - System.currentTimeMillis());
+    }
+
+    private void transitionTo(State next) {
+        state = next;
+        generation++;
+        consecutiveFailures = 0;
+        probesInFlight = 0;
+        probeSuccesses = 0;
+    }
+
+    private boolean openElapsed() {
+        return System.currentTimeMillis() - openedAt >= openMillis;
+    }
+}
@@ -0,0 +1,162 @@
+package com.divyanshu.Intellimatch.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+/**
+ * Hashes passwords with salted PBKDF2-HMAC-SHA256. Hashes are stored as
+ * {@code pbkdf2-sha256$<iterations>$<salt>$<hash>}, so the work factor can be raised without
+ * invalidating existing passwords: older hashes still verify and are flagged for rehashing.
+ * <p>
+ * Unsalted hex SHA-256 hashes from before this format still verify, so existing users can log in
+ * and get upgraded on their next successful login.
+ * <p>
+ * The work factor is security.password.iterations, and every node must use the same value: a
+ * node with a higher count flags hashes made on the others for rehashing, so logins would keep
+ * upgrading them. Pick the value offline on production hardware (PasswordHasherBenchmark shows
+ * the cost of a login at a few counts). With security.password.calibrate=true the count is
+ * instead measured at startup so that one hash takes about security.password.target-ms on this
+ * machine, which only suits a single node.
+ */
+@Component
+@Slf4j
+public class PasswordHasher {
+
+    static final String PREFIX = "pbkdf2-sha256$";
+
+    private static final String ALGORITHM = "PBKDF2WithHmacSHA256";
+    private static final int SALT_BYTES = 16;
+    private static final int HASH_BITS = 256;
+    // Floor for calibration, so a slow or busy host never ends up with a trivially cheap hash
+    private static final int MIN_ITERATIONS = 100_000;
+    private static final int CALIBRATION_ITERATIONS = 10_000;
+    private static final int CALIBRATION_RUNS = 50;
+    private static final long CALIBRATION_BUDGET_NANOS = 1_500_000_000L;
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final SecureRandom random = new SecureRandom();
+    private final int iterations;
+    // Verified against when the email is unknown, so a login takes as long either way
+    private final String dummyHash;
+
+    public PasswordHasher(@Value("${security.password.iterations:600000}") int iterations,
+                          @Value("${security.password.calibrate:false}") boolean calibrate,
+                          @Value("${security.password.target-ms:100}") long targetMs) {
+        if (!calibrate && iterations <= 0) {
+            throw new IllegalArgumentException("security.password.iterations must be positive, was " + iterations);
+        }
+        this.iterations = calibrate ? calibrate(targetMs) : iterations;
+        this.dummyHash = hash("not-a-password");
+    }
+
+    public int getIterations() {
+        return iterations;
+    }
+
+    public String hash(String password) {
+        byte[] salt = new byte[SALT_BYTES];
+        random.nextBytes(salt);
+        byte[] hash = pbkdf2(password, salt, iterations);
+        Base64.Encoder base64 = Base64.getEncoder().withoutPadding();
+        return PREFIX + iterations + '$' + base64.encodeToString(salt) + '$' + base64.encodeToString(hash);
+    }
+
+    public boolean matches(String password, String storedHash) {
+        if (password == null || storedHash == null) {
+            return false;
+        }
+        if (!storedHash.startsWith(PREFIX)) {
+            return matchesLegacy(password, storedHash);
+        }
+        String[] parts = storedHash.substring(PREFIX.length()).split("\\$");
+        if (parts.length != 3) {
+            return false;
+        }
+        try {
+            int storedIterations = Integer.parseInt(parts[0]);
+            byte[] salt = Base64.getDecoder().decode(parts[1]);
+            byte[] expected = Base64.getDecoder().decode(parts[2]);
+            return MessageDigest.isEqual(pbkdf2(password, salt, storedIterations), expected);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    // Burns the same time as a real check; for logins with an unknown email
+    public void matchesNothing(String password) {
+        matches(password, dummyHash);
+    }
+
+    // True for legacy hashes and for hashes made with fewer iterations than the current setting
+    public boolean needsRehash(String storedHash) {
+        if (storedHash == null || !storedHash.startsWith(PREFIX)) {
+            return true;
+        }
+        int end = storedHash.indexOf('$', PREFIX.length());
+        try {
+            return end < 0 || Integer.parseInt(storedHash, PREFIX.length(), end, 10) < iterations;
+        } catch (NumberFormatException e) {
+            return true;
+        }
+    }
+
+    private static boolean matchesLegacy(String password, String storedHash) {
+        byte[] digest = sha256(password.getBytes(StandardCharsets.UTF_8));
+        if (storedHash.length() != digest.length * 2) {
+            return false;
+        }
+        // Compares the hex digits in place instead of building a hex string
+        int diff = 0;
+        for (int i = 0; i < digest.length; i++) {
+            diff |= storedHash.charAt(2 * i) ^ HEX[(digest[i] >> 4) & 0xf];
+            diff |= storedHash.charAt(2 * i + 1) ^ HEX[digest[i] & 0xf];
+        }
+        return diff == 0;
+    }
+
+    private static byte[] pbkdf2(String password, byte[] salt, int iterations) {
+        PBEKeySpec spec = new PBEKeySpec(password.toCharArray(), salt, iterations, HASH_BITS);
+        try {
+            return SecretKeyFactory.getInstance(ALGORITHM).generateSecret(spec).getEncoded();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(ALGORITHM + " is not available", e);
+        } finally {
+            spec.clearPassword();
+        }
+    }
+
+    private static byte[] sha256(byte[] input) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(input);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    // Takes the fastest of many short runs: the first ones are slow until the JIT compiles the HMAC loop
+    private static int calibrate(long targetMs) {
+        byte[] salt = new byte[SALT_BYTES];
+        long deadline = System.nanoTime() + CALIBRATION_BUDGET_NANOS;
+        long best = Long.MAX_VALUE;
+        for (int run = 0; run < CALIBRATION_RUNS && System.nanoTime() < deadline; run++) {
+            long start = System.nanoTime();
+            pbkdf2("calibration", salt, CALIBRATION_ITERATIONS);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        long scaled = CALIBRATION_ITERATIONS * (targetMs * 1_000_000L) / Math.max(1, best);
+        int calibrated = (int) Math.max(MIN_ITERATIONS, Math.min(Integer.MAX_VALUE, scaled));
+        log.info("Password hashing calibrated to {} PBKDF2 iterations for a {}ms target; "
+                + "set security.password.iterations to pin it across nodes", calibrated, targetMs);
+        return calibrated;
+    }
+}
@@ -0,0 +1,46 @@
+package com.divyanshu.Intellimatch.dto;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class HistoryCursorTest {
+
+    private static final String ID = "65f1c0de9a1b2c3d4e5f6a7b";
+
+    @Test
+    void decodesWhatItEncodes() {
+        HistoryCursor cursor = new HistoryCursor(new Date(1_710_000_000_123L), ID);
+
+        String token = cursor.encode();
+
+        assertFalse(token.contains("="));
+        assertFalse(token.contains("/"));
+        assertEquals(cursor, HistoryCursor.decode(token));
+    }
+
+    @Test
+    void rejectsMalformedTokens() {
+        for (String token : new String[] {
+            "not base64!",
+            raw("no separator"),
+            raw(":" + ID),
+            raw("1710000000123:"),
+            raw("yesterday:" + ID),
+            raw("1710000000123:not-an-object-id"),
+            raw("1710000000123:" + ID.toUpperCase())
+        }) {
+            assertThrows(IllegalArgumentException.class, () -> HistoryCursor.decode(token), token);
+        }
+    }
+
+    private static String raw(String value) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,105 @@
+package com.divyanshu.Intellimatch.dto;
+
+import com.divyanshu.Intellimatch.exception.NlpAnalysisException;
+import com.divyanshu.Intellimatch.model.MatchResult;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class NlpAnalysisResponseTest {
+
+    // A plain mapper: the response must not depend on the application's FAIL_ON_UNKNOWN_PROPERTIES setting
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void bindsFullResponse() throws IOException {
+        MatchResult result = parse("""
+            {
+              "ats_score_percent": 82,
+              "summary": "Strong Java background.",
+              "what_matched": [{"item": "Java", "reason": "Ten years"}],
+              "what_is_missing": [{"item": "Kubernetes", "recommendation": "Run a cluster"}]
+            }
+            """).toMatchResult();
+
+        assertEquals(82, result.getAtsScorePercent());
+        assertEquals("Strong Java background.", result.getSummary());
+        assertEquals("Java", result.getWhatMatched().get(0).getItem());
+        assertEquals("Ten years", result.getWhatMatched().get(0).getReason());
+        assertEquals("Kubernetes", result.getWhatIsMissing().get(0).getItem());
+        assertEquals("Run a cluster", result.getWhatIsMissing().get(0).getRecommendation());
+    }
+
+    @Test
+    void defaultsMissingSummaryToEmpty() throws IOException {
+        MatchResult result = parse("""
+            {"ats_score_percent": 40, "what_matched": [], "what_is_missing": []}
+            """).toMatchResult();
+
+        assertEquals("", result.getSummary());
+    }
+
+    @Test
+    void defaultsMissingListsToEmpty() throws IOException {
+        MatchResult result = parse("""
+            {"ats_score_percent": 40, "summary": "Short.", "what_matched": null}
+            """).toMatchResult();
+
+        assertTrue(result.getWhatMatched().isEmpty());
+        assertTrue(result.getWhatIsMissing().isEmpty());
+        // Mutable, like the lists of a parsed response
+        result.getWhatMatched().add(new MatchResult.MatchDetail());
+    }
+
+    @Test
+    void dropsNullListItems() throws IOException {
+        MatchResult result = parse("""
+            {
+              "ats_score_percent": 40,
+              "what_matched": [null, {"item": "Java"}, null],
+              "what_is_missing": [null]
+            }
+            """).toMatchResult();
+
+        assertEquals(1, result.getWhatMatched().size());
+        assertEquals("Java", result.getWhatMatched().get(0).getItem());
+        assertTrue(result.getWhatIsMissing().isEmpty());
+    }
+
+    @Test
+    void ignoresUnknownFields() throws IOException {
+        MatchResult result = parse("""
+            {
+              "ats_score_percent": 55,
+              "model": "gemini-2.5-flash",
+              "timings": {"llm_ms": 1200},
+              "what_matched": [{"item": "Java", "confidence": 0.9}],
+              "what_is_missing": [{"item": "Go", "recommendation": "Learn it", "priority": 1}]
+            }
+            """).toMatchResult();
+
+        assertEquals(55, result.getAtsScorePercent());
+        assertEquals("Java", result.getWhatMatched().get(0).getItem());
+        assertEquals("Go", result.getWhatIsMissing().get(0).getItem());
+    }
+
+    @Test
+    void rejectsResponseWithoutScore() throws IOException {
+        NlpAnalysisResponse response = parse("""
+            {"summary": "No score here.", "what_matched": [], "what_is_missing": []}
+            """);
+
+        NlpAnalysisException e = assertThrows(NlpAnalysisException.class, response::toMatchResult);
+        assertTrue(e.getMessage().contains("ats_score_percent"));
+        assertThrows(NlpAnalysisException.class, () -> parse("{\"ats_score_percent\": null}").toMatchResult());
+    }
+
+    private NlpAnalysisResponse parse(String json) throws IOException {
+        return objectMapper.readValue(json, NlpAnalysisResponse.class);
+    }
+}
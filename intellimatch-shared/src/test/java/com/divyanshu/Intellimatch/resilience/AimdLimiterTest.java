@@ -0,0 +1,84 @@
+package com.divyanshu.Intellimatch.resilience;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AimdLimiterTest {
+
+    private static final long THRESHOLD = 1_000;
+
+    @Test
+    void admitsUpToTheLimit() {
+        AimdLimiter limiter = new AimdLimiter(2, 1, 10, THRESHOLD, 0.5);
+
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+        assertEquals(2, limiter.getInFlight());
+
+        limiter.release();
+        assertTrue(limiter.tryAcquire());
+    }
+
+    @Test
+    void growsByAboutOnePerLimitOfFastCalls() {
+        AimdLimiter limiter = new AimdLimiter(4, 1, 10, THRESHOLD, 0.5);
+        acquire(limiter, 4);
+
+        for (int i = 0; i < 4; i++) {
+            limiter.onSample(THRESHOLD, false);
+        }
+        assertEquals(4, limiter.getLimit());
+        limiter.onSample(THRESHOLD, false);
+        assertEquals(5, limiter.getLimit());
+    }
+
+    @Test
+    void doesNotGrowWhileMostlyIdle() {
+        AimdLimiter limiter = new AimdLimiter(4, 1, 10, THRESHOLD, 0.5);
+        acquire(limiter, 1);
+
+        for (int i = 0; i < 100; i++) {
+            limiter.onSample(1, false);
+        }
+        assertEquals(4, limiter.getLimit());
+    }
+
+    @Test
+    void neverGrowsPastTheMaximum() {
+        AimdLimiter limiter = new AimdLimiter(3, 1, 3, THRESHOLD, 0.5);
+        acquire(limiter, 3);
+
+        for (int i = 0; i < 100; i++) {
+            limiter.onSample(1, false);
+        }
+        assertEquals(3, limiter.getLimit());
+    }
+
+    @Test
+    void backsOffOnFailuresAndSlowCalls() {
+        AimdLimiter limiter = new AimdLimiter(8, 2, 10, THRESHOLD, 0.5);
+
+        limiter.onSample(1, true);
+        assertEquals(4, limiter.getLimit());
+        limiter.onSample(THRESHOLD + 1, false);
+        assertEquals(2, limiter.getLimit());
+        limiter.onSample(1, true);
+        assertEquals(2, limiter.getLimit());
+    }
+
+    @Test
+    void clampsTheInitialLimit() {
+        assertEquals(10, new AimdLimiter(50, 1, 10, THRESHOLD, 0.5).getLimit());
+        assertEquals(2, new AimdLimiter(0, 2, 10, THRESHOLD, 0.5).getLimit());
+    }
+
+    private static void acquire(AimdLimiter limiter, int permits) {
+        for (int i = 0; i < permits; i++) {
+            assertTrue(limiter.tryAcquire());
+        }
+    }
+}
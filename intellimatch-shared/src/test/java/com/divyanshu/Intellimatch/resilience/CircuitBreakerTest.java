@@ -0,0 +1,116 @@
+package com.divyanshu.Intellimatch.resilience;
+
+import org.junit.jupiter.api.Test;
+
+import static com.divyanshu.Intellimatch.resilience.CircuitBreaker.NOT_PERMITTED;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CircuitBreakerTest {
+
+    @Test
+    void opensAfterConsecutiveFailures() {
+        CircuitBreaker breaker = new CircuitBreaker(3, 60_000, 1);
+
+        fail(breaker);
+        fail(breaker);
+        succeed(breaker);
+        fail(breaker);
+        fail(breaker);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+
+        fail(breaker);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.isCallPermitted());
+        assertEquals(NOT_PERMITTED, breaker.tryAcquirePermission());
+        assertTrue(breaker.remainingOpenMillis() > 0);
+    }
+
+    @Test
+    void closesAfterEnoughSuccessfulProbes() {
+        CircuitBreaker breaker = openBreaker(2);
+
+        long first = breaker.tryAcquirePermission();
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        long second = breaker.tryAcquirePermission();
+        assertNotEquals(NOT_PERMITTED, first);
+        assertNotEquals(NOT_PERMITTED, second);
+        assertEquals(NOT_PERMITTED, breaker.tryAcquirePermission());
+        assertFalse(breaker.isCallPermitted());
+
+        breaker.onSuccess(first);
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        breaker.onSuccess(second);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    void reopensWhenAProbeFails() {
+        CircuitBreaker breaker = openBreaker(2);
+
+        long probe = breaker.tryAcquirePermission();
+        breaker.onFailure(probe);
+
+        // openMillis is zero, so the next acquisition goes half-open again
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertNotEquals(NOT_PERMITTED, breaker.tryAcquirePermission());
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+    }
+
+    @Test
+    void ignoresResultsOfCallsAdmittedBeforeTheCircuitOpened() {
+        CircuitBreaker breaker = new CircuitBreaker(1, 0, 1);
+        long slow = breaker.tryAcquirePermission();
+        fail(breaker);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+
+        long probe = breaker.tryAcquirePermission();
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+
+        // The slow call neither frees the probe slot nor counts as a probe
+        breaker.onSuccess(slow);
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        assertEquals(NOT_PERMITTED, breaker.tryAcquirePermission());
+
+        // Nor does a late failure re-open the circuit
+        breaker.onFailure(slow);
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+
+        breaker.onSuccess(probe);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    void lateFailureOfAProbeDoesNotReopenTheClosedCircuit() {
+        CircuitBreaker breaker = openBreaker(2);
+        long first = breaker.tryAcquirePermission();
+        long second = breaker.tryAcquirePermission();
+        breaker.onSuccess(first);
+        breaker.onSuccess(second);
+        long third = breaker.tryAcquirePermission();
+
+        breaker.onFailure(second);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+
+        breaker.onFailure(third);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+    }
+
+    // Failure threshold of one and no open time, so it goes half-open on the next acquisition
+    private static CircuitBreaker openBreaker(int halfOpenProbes) {
+        CircuitBreaker breaker = new CircuitBreaker(1, 0, halfOpenProbes);
+        fail(breaker);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        return breaker;
+    }
+
+    private static void succeed(CircuitBreaker breaker) {
+        breaker.onSuccess(breaker.tryAcquirePermission());
+    }
+
+    private static void fail(CircuitBreaker breaker) {
+        breaker.onFailure(breaker.tryAcquirePermission());
+    }
+}
@@ -0,0 +1,104 @@
+package com.divyanshu.Intellimatch.security;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PasswordHasherTest {
+
+    private static final String PASSWORD = "correct horse battery staple";
+    // hex SHA-256 of PASSWORD, as stored before PBKDF2
+    private static final String LEGACY_HASH = "c4bbcb1fbec99d65bf59d85c8cb62ee2db963f0fe106f483d9afa73bd4e39a8a";
+
+    // Few iterations keep the tests fast; the format does not depend on the count
+    private final PasswordHasher hasher = new PasswordHasher(1_000, false, 0);
+
+    @Test
+    void verifiesWhatItHashed() {
+        String hash = hasher.hash(PASSWORD);
+
+        assertTrue(hash.startsWith(PasswordHasher.PREFIX + "1000$"));
+        assertTrue(hasher.matches(PASSWORD, hash));
+        assertFalse(hasher.matches(PASSWORD + " ", hash));
+        assertFalse(hasher.needsRehash(hash));
+    }
+
+    @Test
+    void saltsEveryHash() {
+        String first = hasher.hash(PASSWORD);
+        String second = hasher.hash(PASSWORD);
+
+        assertNotEquals(first, second);
+        assertTrue(hasher.matches(PASSWORD, first));
+        assertTrue(hasher.matches(PASSWORD, second));
+    }
+
+    @Test
+    void verifiesLegacyHexHashesAndFlagsThemForRehashing() {
+        assertTrue(hasher.matches(PASSWORD, LEGACY_HASH));
+        assertFalse(hasher.matches("wrong password", LEGACY_HASH));
+        assertFalse(hasher.matches(PASSWORD, LEGACY_HASH.substring(2)));
+        assertTrue(hasher.needsRehash(LEGACY_HASH));
+    }
+
+    @Test
+    void flagsHashesWithFewerIterationsThanTheCurrentSetting() {
+        String hash = hasher.hash(PASSWORD);
+        PasswordHasher stronger = new PasswordHasher(2_000, false, 0);
+        PasswordHasher weaker = new PasswordHasher(500, false, 0);
+
+        assertTrue(stronger.needsRehash(hash));
+        assertFalse(weaker.needsRehash(hash));
+        // Raising the work factor does not lock anyone out
+        assertTrue(stronger.matches(PASSWORD, hash));
+        assertEquals(2_000, stronger.getIterations());
+    }
+
+    @Test
+    void requiresAPositiveWorkFactorUnlessCalibrating() {
+        assertThrows(IllegalArgumentException.class, () -> new PasswordHasher(0, false, 100));
+        assertThrows(IllegalArgumentException.class, () -> new PasswordHasher(-1, false, 100));
+
+        // Calibration ignores the configured count and never goes below its floor
+        assertTrue(new PasswordHasher(0, true, 1).getIterations() >= 100_000);
+    }
+
+    @Test
+    void rejectsMalformedStoredHashes() {
+        String hash = hasher.hash(PASSWORD);
+        String[] parts = hash.substring(PasswordHasher.PREFIX.length()).split("\\$");
+
+        String[] malformed = {
+            "",
+            PasswordHasher.PREFIX,
+            PasswordHasher.PREFIX + "1000",
+            PasswordHasher.PREFIX + "1000$" + parts[1],
+            PasswordHasher.PREFIX + "abc$" + parts[1] + "$" + parts[2],
+            PasswordHasher.PREFIX + "0$" + parts[1] + "$" + parts[2],
+            PasswordHasher.PREFIX + "1000$not base64!$" + parts[2],
+            PasswordHasher.PREFIX + "1000$" + parts[1] + "$" + parts[2] + "$extra",
+        };
+        for (String stored : malformed) {
+            assertFalse(hasher.matches(PASSWORD, stored), stored);
+        }
+        assertFalse(hasher.matches(PASSWORD, null));
+        assertFalse(hasher.matches(null, hash));
+        assertTrue(hasher.needsRehash(PasswordHasher.PREFIX + "abc$" + parts[1] + "$" + parts[2]));
+        assertTrue(hasher.needsRehash(PasswordHasher.PREFIX + "1000"));
+        assertTrue(hasher.needsRehash(null));
+    }
+
+    @Test
+    void rejectsAHashOfAnotherPasswordWithTheSameSalt() {
+        String hash = hasher.hash(PASSWORD);
+        String other = hasher.hash("another password");
+        String[] ours = hash.split("\\$");
+        String[] theirs = other.split("\\$");
+
+        assertFalse(hasher.matches(PASSWORD, String.join("$", ours[0], ours[1], ours[2], theirs[3])));
+    }
+}